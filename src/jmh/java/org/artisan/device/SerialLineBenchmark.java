@@ -0,0 +1,123 @@
+package org.artisan.device;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-line cost of serial sample decoding over a fake port InputStream: the previous
+ * byte-at-a-time StringBuilder + regex split + parseDouble path versus {@link LineFramer}
+ * (bulk reads, byte-level parsing). Run with {@code ./gradlew jmh}; add {@code -prof gc}
+ * to compare allocation per line.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerialLineBenchmark {
+
+    private static final int LINES = 1024;
+
+    /** Channels per line: 2 = "BT,ET", 4 = "BT,ET,extra,extra". */
+    @Param({ "2", "4" })
+    public int channels;
+
+    private byte[] data;
+    private FakePort port;
+    private final LineFramer framer = new LineFramer();
+    private final double[] values = new double[SerialDeviceChannel.MAX_CHANNELS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            sb.append(String.format(Locale.ROOT, "%.1f", 150 + i * 0.1));
+            sb.append(',').append(String.format(Locale.ROOT, "%.2f", 220 + i * 0.05));
+            for (int c = 2; c < channels; c++) sb.append(',').append(40 + c);
+            sb.append("\r\n");
+        }
+        data = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        port = new FakePort(data);
+    }
+
+    @Setup(Level.Invocation)
+    public void rewind() {
+        port.pos = 0;
+        framer.clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public double legacyReadLineSplit() throws IOException {
+        double sum = 0;
+        for (int i = 0; i < LINES; i++) {
+            String line = legacyReadLine(port);
+            if (line == null || line.isBlank()) line = legacyReadLine(port); // LF of CRLF
+            String[] parts = line.trim().split("\\s*,\\s*");
+            sum += Double.parseDouble(parts[0].trim()) + Double.parseDouble(parts[1].trim());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public double framerReadFields() {
+        LineFramer.ByteSource src = LineFramer.of(port);
+        double sum = 0;
+        for (int i = 0; i < LINES; i++) {
+            framer.readFields(src, values);
+            sum += values[0] + values[1];
+        }
+        return sum;
+    }
+
+    /** Copy of the previous SerialDeviceChannel.readLine (one read call per byte). */
+    private static String legacyReadLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        byte[] one = new byte[1];
+        while (true) {
+            int n = in.read(one);
+            if (n <= 0) return sb.length() > 0 ? sb.toString() : null;
+            char c = (char) (one[0] & 0xFF);
+            if (c == '\r' || c == '\n') break;
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /** Port stand-in; every read call pays a virtual dispatch like the jSerialComm stream does. */
+    private static final class FakePort extends InputStream {
+        private final byte[] data;
+        int pos;
+
+        FakePort(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read() {
+            return pos < data.length ? data[pos++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (pos >= data.length) return 0;
+            int n = Math.min(len, data.length - pos);
+            System.arraycopy(data, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+    }
+}
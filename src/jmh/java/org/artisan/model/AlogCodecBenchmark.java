@@ -0,0 +1,109 @@
+package org.artisan.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reading and writing one .alog: Jackson databind into {@link ProfileData} (previous
+ * {@link Roastlog} path) versus the streaming {@link AlogCodec} into primitive arrays, and the
+ * {@link AlogBinary} companion format (full decode, and a library-scan style header plus BT read).
+ * {@code samples} is the curve length (1 Hz: 900 = a 15 minute roast). Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AlogCodecBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Param({ "900", "3600" })
+    public int samples;
+
+    private byte[] file;
+    private ProfileData profile;
+    private AlogDocument document;
+    private ByteBuffer binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        profile = new ProfileData();
+        profile.setTitle("Benchmark roast");
+        List<Double> timex = new ArrayList<>();
+        List<Double> et = new ArrayList<>();
+        List<Double> bt = new ArrayList<>();
+        List<Double> x1 = new ArrayList<>();
+        for (int i = 0; i < samples; i++) {
+            timex.add(i * 1.0);
+            et.add(Math.round((180.0 + 60.0 * Math.sin(i / 300.0)) * 100) / 100.0);
+            bt.add(Math.round((90.0 + i * 0.13 + Math.cos(i / 17.0)) * 100) / 100.0);
+            x1.add(40.0 + (i % 100) * 0.5);
+        }
+        profile.setTimex(timex);
+        profile.setTemp1(et);
+        profile.setTemp2(bt);
+        profile.setExtratimex(List.of(timex, timex));
+        profile.setExtratemp1(List.of(x1, x1));
+        profile.setExtratemp2(List.of(x1, x1));
+        profile.setSpecialevents(List.of(10, 200, 400));
+        profile.setSpecialeventstype(List.of(0, 1, 3));
+        profile.setSpecialeventsvalue(List.of(5.0, 6.0, 7.0));
+        document = AlogDocument.of(profile);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AlogCodec.write(document, out);
+        file = out.toByteArray();
+        binary = AlogBinary.encode(document);
+    }
+
+    @Benchmark
+    public ProfileData databindRead() throws IOException {
+        return MAPPER.readValue(new ByteArrayInputStream(file), ProfileData.class);
+    }
+
+    @Benchmark
+    public AlogDocument streamingRead() throws IOException {
+        return AlogCodec.read(new ByteArrayInputStream(file));
+    }
+
+    @Benchmark
+    public int databindWrite() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(file.length);
+        MAPPER.writeValue(out, profile);
+        return out.size();
+    }
+
+    @Benchmark
+    public int streamingWrite() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(file.length);
+        AlogCodec.write(document, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public AlogDocument binaryRead() throws IOException {
+        return AlogBinary.wrap(binary).toDocument();
+    }
+
+    @Benchmark
+    public double binaryScan() throws IOException {
+        AlogBinary bin = AlogBinary.wrap(binary);
+        double[] bt = bin.column("temp2");
+        return bin.dropTime() + bt[bt.length - 1];
+    }
+}
@@ -0,0 +1,68 @@
+package org.artisan.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Append plus full-read cost of the CanvasData curves: boxed {@code ArrayList<Double>} (previous
+ * storage) versus primitive {@link DoubleColumn} with a snapshot view and bulk export.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CanvasDataBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int samples;
+
+    @Benchmark
+    public double boxedAppendAndRead() {
+        List<Double> timex = new ArrayList<>();
+        List<Double> temp2 = new ArrayList<>();
+        for (int i = 0; i < samples; i++) {
+            timex.add(i * 1.0);
+            temp2.add(20.0 + i * 0.01);
+        }
+        double[] tx = new double[samples];
+        double[] bt = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            tx[i] = timex.get(i);
+            bt[i] = temp2.get(i);
+        }
+        return tx[samples - 1] + bt[samples - 1];
+    }
+
+    @Benchmark
+    public double columnAppendAndRead() {
+        DoubleColumn timex = new DoubleColumn();
+        DoubleColumn temp2 = new DoubleColumn();
+        for (int i = 0; i < samples; i++) {
+            timex.add(i * 1.0);
+            temp2.add(20.0 + i * 0.01);
+        }
+        double[] tx = timex.view().toArray();
+        double[] bt = temp2.view().toArray();
+        return tx[samples - 1] + bt[samples - 1];
+    }
+
+    @Benchmark
+    public double canvasDataAppendAndRead() {
+        CanvasData cd = new CanvasData();
+        for (int i = 0; i < samples; i++) {
+            cd.addDataPoint(i * 1.0, 20.0 + i * 0.01, 200.0);
+        }
+        double[] tx = cd.getTimexView().toArray();
+        double[] bt = cd.getTemp2View().toArray();
+        return tx[samples - 1] + bt[samples - 1];
+    }
+}
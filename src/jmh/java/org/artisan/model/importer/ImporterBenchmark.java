@@ -0,0 +1,132 @@
+package org.artisan.model.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.artisan.model.ProfileData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Throughput of each vendor CSV importer on a synthetic export of {@code rows} lines, plus the raw
+ * {@link CsvTokenizer} pass over the same bytes and the previous per-row
+ * {@code split} + {@code HashMap} + {@code parseDouble} loop as a baseline.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImporterBenchmark {
+
+    /** Control columns: step every 120 rows, as burner/fan/drum settings do. */
+    private static final Set<String> CONTROLS =
+        Set.of("power", "speed", "fan", "heater", "Gas", "Fan", "Drum", "Heater", "BurnerPercent");
+
+    @Param({ "GIESEN", "LORING", "PETRONCINI", "ROEST", "RUBASSE", "STRONGHOLD" })
+    public BulkImporter.Format format;
+
+    @Param({ "900", "36000" })
+    public int rows;
+
+    private Path file;
+    private byte[] bytes;
+    private String separators;
+
+    @Setup
+    public void setUp() throws IOException {
+        String header;
+        separators = ",";
+        switch (format) {
+            case GIESEN -> header = "air,beans,ror,power,speed,pressure";
+            case LORING -> header = "Time,RoastTimeSeconds,RoastingOnOff,InletTemp,BeanTemp,BurnerPercent,InletAir,Stack,RoR";
+            case PETRONCINI -> {
+                header = "Date;Time;BT;ET;Gas;Fan;Drum";
+                separators = ";";
+            }
+            case ROEST -> header = "time,BT,ET,fan,heater";
+            case RUBASSE -> header = "time,BT,Fan,Heater,RoR,Drum,Humidity,ET,Pressure,DT,"
+                + "timeB,BTB,FanB,HeaterB,RoRB,DrumB,HumidityB,ETB,PressureB,DTB,120,0,0";
+            default -> header = "Time,BT,ET,Fan,Heater";
+        }
+        String sep = separators;
+        String[] names = header.split(sep, -1);
+        int columns = names.length;
+        StringBuilder sb = new StringBuilder(header).append('\n');
+        for (int i = 0; i < rows; i++) {
+            for (int k = 0; k < columns; k++) {
+                if (k > 0) sb.append(sep);
+                if (k == 0 && format == BulkImporter.Format.LORING) {
+                    sb.append(String.format(Locale.ROOT, "1/2/2024 %d:%02d:%02d AM", 1 + i / 3600 % 12, i / 60 % 60, i % 60));
+                } else if (k == 2 && format == BulkImporter.Format.LORING) {
+                    sb.append("1");
+                } else if (CONTROLS.contains(names[k])) {
+                    sb.append((i / 120 % 5) * 10);
+                } else {
+                    sb.append(String.format(Locale.ROOT, "%.1f", 100 + i * 0.05 + k));
+                }
+            }
+            sb.append('\n');
+        }
+        bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        file = Files.createTempFile("importer-bench", ".csv");
+        Files.write(file, bytes);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ProfileData importFile() throws IOException {
+        return format.importer().importFile(file);
+    }
+
+    @Benchmark
+    public double tokenize() {
+        CsvTokenizer csv = new CsvTokenizer(ByteBuffer.wrap(bytes), separators);
+        int columns = csv.readHeader().length;
+        double sum = 0;
+        while (csv.nextRow()) {
+            for (int k = 0; k < columns; k++) sum += csv.getDouble(k, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double splitBaseline() {
+        String[] lines = new String(bytes, StandardCharsets.UTF_8).split("\n");
+        String regex = separators.length() == 1 ? separators : "[" + separators + "]";
+        String[] header = lines[0].split(regex, -1);
+        double sum = 0;
+        for (int i = 1; i < lines.length; i++) {
+            String[] cols = lines[i].split(regex, -1);
+            Map<String, String> item = new HashMap<>();
+            for (int k = 0; k < Math.min(header.length, cols.length); k++) item.put(header[k].trim(), cols[k].trim());
+            for (String v : item.values()) {
+                try {
+                    sum += Double.parseDouble(v);
+                } catch (NumberFormatException e) {
+                    // skipped, as the importers did
+                }
+            }
+        }
+        return sum;
+    }
+}
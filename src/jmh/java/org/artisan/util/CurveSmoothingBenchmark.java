@@ -0,0 +1,85 @@
+package org.artisan.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Centered moving average over a full curve: the previous per-point window re-sum over a boxed
+ * list (baseline), the sliding-window list and {@code double[]} passes, and the incremental
+ * update after appending one sample. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CurveSmoothingBenchmark {
+
+    @Param({ "3600", "36000" })
+    public int samples;
+
+    @Param({ "5", "31", "99" })
+    public int window;
+
+    private double[] y;
+    private List<Double> boxed;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        y = new double[samples];
+        boxed = new ArrayList<>(samples);
+        for (int i = 0; i < samples; i++) {
+            y[i] = 20 + 200 * (1 - Math.exp(-i / 300.0)) + rnd.nextGaussian();
+            boxed.add(y[i]);
+        }
+        out = new double[samples];
+    }
+
+    @Benchmark
+    public List<Double> boxedWindowBaseline() {
+        int n = boxed.size();
+        int half = CurveSmoothing.halfWindow(window);
+        List<Double> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            double sum = 0;
+            int count = 0;
+            for (int j = Math.max(0, i - half); j < Math.min(n, i + half + 1); j++) {
+                Double v = boxed.get(j);
+                if (v != null && Double.isFinite(v)) {
+                    sum += v;
+                    count++;
+                }
+            }
+            result.add(count > 0 ? sum / count : boxed.get(i));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Double> smoothList() {
+        return CurveSmoothing.smooth(boxed, window);
+    }
+
+    @Benchmark
+    public double[] smoothArray() {
+        CurveSmoothing.smooth(y, samples, window, 0, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] smoothAppendedOne() {
+        CurveSmoothing.smoothAppended(y, samples - 1, samples, window, out);
+        return out;
+    }
+}
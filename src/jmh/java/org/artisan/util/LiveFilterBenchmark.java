@@ -0,0 +1,95 @@
+package org.artisan.util;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of one roast ({@code samples} readings) through each live filter, reset and reused between
+ * invocations as the sampling loop does. Add {@code -prof gc} to confirm {@code process} does not
+ * allocate. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LiveFilterBenchmark {
+
+    @Param({ "3", "7", "31", "101" }) // odd, for the median
+    public int window;
+
+    @Param({ "3600" })
+    public int samples;
+
+    private double[] xs;
+    private LiveMean mean;
+    private LiveMedian median;
+    private LiveLFilter lfilter;
+    private LiveSosFilter sos;
+    private LiveSavitzkyGolay savitzkyGolay;
+    private LiveSavitzkyGolay savitzkyGolayRor;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        xs = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            xs[i] = 150 + i * 0.05 + rnd.nextGaussian() + (rnd.nextInt(50) == 0 ? 40 : 0);
+        }
+        mean = new LiveMean(window);
+        median = new LiveMedian(window);
+        double[] b = new double[window];
+        Arrays.fill(b, 1.0 / window);
+        lfilter = new LiveLFilter(b, new double[] { 1.0, -0.1 });
+        sos = new LiveSosFilter(IirFilterDesign.butter1LowpassSos(1.0, 0.1));
+        savitzkyGolay = new LiveSavitzkyGolay(window, 2);
+        savitzkyGolayRor = LiveSavitzkyGolay.rateOfRise(window, 2, 0.1);
+    }
+
+    @Benchmark
+    public double mean() {
+        return run(mean);
+    }
+
+    @Benchmark
+    public double median() {
+        return run(median);
+    }
+
+    @Benchmark
+    public double lfilter() {
+        return run(lfilter);
+    }
+
+    @Benchmark
+    public double sos() {
+        return run(sos);
+    }
+
+    @Benchmark
+    public double savitzkyGolay() {
+        return run(savitzkyGolay);
+    }
+
+    @Benchmark
+    public double savitzkyGolayRor() {
+        return run(savitzkyGolayRor);
+    }
+
+    private double run(LiveFilter filter) {
+        filter.reset();
+        double sum = 0;
+        for (double x : xs) {
+            sum += filter.process(x);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,172 @@
+package org.artisan;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.artisan.controller.AutoSave;
+import org.artisan.controller.DeviceManager;
+import org.artisan.controller.PhasesSettings;
+import org.artisan.controller.RoastEngine;
+import org.artisan.controller.RoastSession;
+import org.artisan.controller.Sample;
+import org.artisan.device.DeviceChannel;
+import org.artisan.device.DeviceType;
+import org.artisan.device.ModbusPortConfig;
+import org.artisan.device.SerialPortConfig;
+import org.artisan.model.EventType;
+import org.artisan.model.SamplingConfig;
+
+/**
+ * Headless entry point: records one roast with {@link RoastEngine} (no display, no JavaFX
+ * toolkit) and writes it as .alog. Device, serial/Modbus port, sampling and phases settings
+ * come from the same preferences as the desktop app unless overridden on the command line.
+ * <pre>
+ * HeadlessLauncher [--device SIMULATOR] [--interval 1.0] [--duration 900] [--out roast.alog]
+ *                  [--title name] [--auto-charge] [--autosave] [--quiet]
+ * </pre>
+ * CHARGE is marked on the first sample unless {@code --auto-charge} is given; DROP is marked
+ * when the duration elapses. Ctrl-C stops the recording and still writes the file.
+ */
+public final class HeadlessLauncher {
+
+    private static final DateTimeFormatter FILE_TS = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    private HeadlessLauncher() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        DeviceType type = null;
+        double interval = Double.NaN;
+        double durationSec = 900;
+        Path out = null;
+        String title = "roast";
+        boolean autoCharge = false;
+        boolean useAutoSave = false;
+        boolean quiet = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                switch (a) {
+                    case "--device": type = DeviceType.valueOf(args[++i].toUpperCase(Locale.ROOT)); break;
+                    case "--interval": interval = Double.parseDouble(args[++i]); break;
+                    case "--duration": durationSec = Double.parseDouble(args[++i]); break;
+                    case "--out": out = Paths.get(args[++i]); break;
+                    case "--title": title = args[++i]; break;
+                    case "--auto-charge": autoCharge = true; break;
+                    case "--autosave": useAutoSave = true; break;
+                    case "--quiet": quiet = true; break;
+                    case "-h":
+                    case "--help":
+                        usage();
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + a);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage() != null ? e.getMessage() : e.toString());
+            usage();
+            System.exit(2);
+            return;
+        }
+
+        SamplingConfig sampling = new SamplingConfig();
+        SamplingConfig.loadFromPreferences(sampling);
+        if (Double.isFinite(interval)) sampling.setIntervalSeconds(interval);
+        SerialPortConfig serial = new SerialPortConfig();
+        SerialPortConfig.loadFromPreferences(serial);
+        ModbusPortConfig modbus = new ModbusPortConfig();
+        ModbusPortConfig.loadFromPreferences(modbus);
+        if (type == null) type = DeviceType.SIMULATOR;
+        DeviceChannel channel = DeviceManager.createChannel(type, serial, modbus);
+        if (out == null) {
+            out = Paths.get(title.replaceAll("[\\\\/:*?\"<>|]", "_") + "_" + LocalDateTime.now().format(FILE_TS) + ".alog");
+        }
+
+        RoastEngine engine = new RoastEngine(new RoastSession(), channel, sampling);
+        engine.setTitle(title);
+        engine.setPhasesConfig(PhasesSettings.load().toConfig());
+        if (useAutoSave) engine.setAutoSave(new AutoSave());
+
+        CountDownLatch done = new CountDownLatch(1);
+        boolean markChargeOnFirst = !autoCharge;
+        boolean verbose = !quiet;
+        double limit = durationSec;
+        engine.addListener(new RoastEngine.Listener() {
+            private boolean charged;
+
+            @Override
+            public void onSample(Sample s, double rorBt, double rorEt) {
+                if (markChargeOnFirst && !charged) {
+                    charged = true;
+                    engine.markEvent(EventType.CHARGE);
+                }
+                if (verbose) {
+                    System.out.printf(Locale.ROOT, "%7.1f  BT %6.1f  ET %6.1f  RoR %5.1f%n",
+                            s.timeSec(), s.bt(), s.et(), rorBt);
+                }
+                if (s.timeSec() >= limit) done.countDown();
+            }
+
+            @Override
+            public void onEvent(EventType type, int timeIndex) {
+                if (verbose) System.out.println("Event " + type + " at index " + timeIndex);
+            }
+
+            @Override
+            public void onError(String message) {
+                System.err.println(message);
+                done.countDown();
+            }
+        });
+
+        Path target = out;
+        AtomicBoolean finished = new AtomicBoolean();
+        Thread hook = new Thread(() -> finish(engine, target, finished), "headless-shutdown");
+        Runtime.getRuntime().addShutdownHook(hook);
+        System.out.println("Recording from " + channel.getDescription() + " every "
+                + sampling.getIntervalSeconds() + " s for " + durationSec + " s → " + target);
+        if (!engine.start()) {
+            Runtime.getRuntime().removeShutdownHook(hook);
+            engine.close();
+            System.exit(1);
+            return;
+        }
+        done.await((long) Math.ceil((durationSec + 10) * 1000), TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().removeShutdownHook(hook);
+        finish(engine, target, finished);
+    }
+
+    /** Marks DROP if still recording, stops the engine and writes whatever was recorded (once). */
+    private static void finish(RoastEngine engine, Path out, AtomicBoolean finished) {
+        if (!finished.compareAndSet(false, true)) return;
+        if (engine.isRunning()) engine.markEvent(EventType.DROP);
+        engine.close();
+        System.out.print(engine.getTimingStats().format());
+        System.out.print(engine.getConditioner().format());
+        int n = engine.getSession().getCanvasData().size();
+        if (n == 0) {
+            System.err.println("No samples recorded");
+            return;
+        }
+        try {
+            engine.save(out);
+            System.out.println("Saved " + n + " samples to " + out.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Save failed: " + e.getMessage());
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: HeadlessLauncher [--device TYPE] [--interval SEC] [--duration SEC] [--out FILE.alog]");
+        System.err.println("                        [--title NAME] [--auto-charge] [--autosave] [--quiet]");
+        System.err.println("TYPE: one of " + java.util.Arrays.toString(DeviceType.values()));
+    }
+}
@@ -1,15 +1,10 @@
 package org.artisan.controller;
 
-import java.io.File;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javafx.application.Platform;
-import javafx.scene.control.Alert;
-import javafx.scene.media.AudioClip;
-
 import org.artisan.model.Alarm;
 import org.artisan.model.AlarmAction;
 import org.artisan.model.AlarmCondition;
@@ -19,16 +14,22 @@ import org.artisan.model.ProfileData;
 
 /**
  * Evaluates alarms on each sample and executes actions (IF-THEN style, matching Python Artisan).
- * Call evaluate() from the JavaFX Application Thread (e.g. from AppController.afterSample).
+ * No UI dependency: evaluate() runs on whichever thread records samples (the RoastEngine), and
+ * popups/sounds go to the handlers set with {@link #setOnPopup}/{@link #setOnPlaySound}, which a
+ * desktop front end forwards to its UI thread. Without a handler they are only logged.
  */
 public final class AlarmEngine {
 
     private static final Logger LOG = Logger.getLogger(AlarmEngine.class.getName());
+    private static final LatencyHistogram EVAL_TIMES = MetricsRegistry.getDefault()
+        .timer("artisan_alarm_eval_seconds", "Duration of one alarm evaluation pass (actions included, redraw excluded)");
 
     private final AlarmList alarms;
     private final Runnable onRedraw;
     private Consumer<String> markEventCallback;
     private Consumer<Double> burnerCallback;
+    private Consumer<String> onPopup;
+    private Consumer<String> onPlaySound;
 
     public AlarmEngine(AlarmList alarms, Runnable onRedraw) {
         this.alarms = alarms != null ? alarms : new AlarmList();
@@ -57,13 +58,37 @@ public final class AlarmEngine {
     }
 
     /**
-     * Evaluates all enabled alarms and runs actions for those that fire.
-     * Called from JavaFX thread (e.g. afterSample).
+     * Sets the handler for POPUP_MESSAGE (null = log only). Runs on the evaluating thread.
+     */
+    public void setOnPopup(Consumer<String> onPopup) {
+        this.onPopup = onPopup;
+    }
+
+    /**
+     * Sets the handler for PLAY_SOUND (sound file path; null = log only). Runs on the evaluating thread.
+     */
+    public void setOnPlaySound(Consumer<String> onPlaySound) {
+        this.onPlaySound = onPlaySound;
+    }
+
+    /**
+     * Evaluates all enabled alarms and runs actions for those that fire, taking the CHARGE time
+     * from {@code profile}. The live path uses the overload below.
      */
     public void evaluate(double timeSec, double bt, double et, double rorBt,
                          ProfileData profile, PhasesConfig phases) {
         if (profile == null) return;
-        double chargeTimeSec = chargeTimeSeconds(profile);
+        evaluate(timeSec, bt, et, rorBt, chargeTimeSeconds(profile));
+    }
+
+    /**
+     * Evaluates all enabled alarms given the CHARGE time directly (no ProfileData needed).
+     * Called by RoastEngine's sampling path with LiveRoastAnalytics.getChargeTimeSec(), on the
+     * sampling thread: the engine's scheduler thread, or the caller's thread in driven mode
+     * ({@link RoastEngine#recordSample}). Actions and callbacks run on that thread too.
+     */
+    public void evaluate(double timeSec, double bt, double et, double rorBt, double chargeTimeSec) {
+        long start = System.nanoTime();
         int n = alarms.size();
         for (int i = 0; i < n; i++) {
             Alarm a = alarms.get(i);
@@ -75,6 +100,7 @@ public final class AlarmEngine {
             a.markTriggered();
             executeAction(a);
         }
+        EVAL_TIMES.record(System.nanoTime() - start);
         onRedraw.run();
     }
 
@@ -108,9 +134,9 @@ public final class AlarmEngine {
     private static double chargeTimeSeconds(ProfileData profile) {
         List<Integer> ti = profile.getTimeindex();
         List<Double> tx = profile.getTimex();
-        if (ti == null || tx == null || ti.isEmpty()) return 0.0;
-        int idx = ti.get(0);
-        if (idx < 0 || idx >= tx.size()) return 0.0;
+        if (tx == null || tx.isEmpty()) return 0.0;
+        int idx = ti != null && !ti.isEmpty() && ti.get(0) != null ? ti.get(0) : -1;
+        if (idx < 0 || idx >= tx.size()) return tx.get(0);
         return tx.get(idx);
     }
 
@@ -119,10 +145,18 @@ public final class AlarmEngine {
         String param = a.getActionParam() != null ? a.getActionParam() : "";
         switch (action) {
             case POPUP_MESSAGE:
-                Platform.runLater(() -> showPopup(param));
+                if (onPopup != null) {
+                    onPopup.accept(param);
+                } else {
+                    LOG.log(Level.INFO, "Alarm: {0}", param);
+                }
                 break;
             case PLAY_SOUND:
-                Platform.runLater(() -> playSound(param));
+                if (onPlaySound != null) {
+                    onPlaySound.accept(param);
+                } else {
+                    LOG.log(Level.FINE, "Alarm sound (no player): {0}", param);
+                }
                 break;
             case MARK_EVENT:
                 if (markEventCallback != null) {
@@ -143,27 +177,6 @@ public final class AlarmEngine {
         }
     }
 
-    private void showPopup(String message) {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Alarm");
-        alert.setHeaderText(null);
-        alert.setContentText(message != null && !message.isEmpty() ? message : "Alarm triggered");
-        alert.initOwner(null);
-        alert.show();
-    }
-
-    private void playSound(String path) {
-        if (path == null || path.isEmpty()) return;
-        File f = new File(path);
-        if (!f.exists()) return;
-        try {
-            AudioClip clip = new AudioClip(f.toURI().toString());
-            clip.play();
-        } catch (Exception e) {
-            LOG.log(Level.FINE, "Could not play sound: " + path, e);
-        }
-    }
-
     private static double parsePercent(String s) {
         if (s == null || s.isEmpty()) return 0.0;
         try {
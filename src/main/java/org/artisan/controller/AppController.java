@@ -1,8 +1,12 @@
 package org.artisan.controller;
 
+import java.io.File;
 import java.io.InputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
@@ -10,7 +14,6 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 import org.artisan.model.AlarmList;
-import org.artisan.model.Calculator;
 import org.artisan.model.AxisConfig;
 import org.artisan.model.CanvasData;
 import org.artisan.model.ColorConfig;
@@ -19,16 +22,13 @@ import org.artisan.model.EventEntry;
 import org.artisan.model.EventType;
 import org.artisan.model.BatchManager;
 import org.artisan.model.PhaseResult;
-import org.artisan.model.Phases;
 import org.artisan.model.PhasesConfig;
 import org.artisan.model.CupProfile;
 import org.artisan.model.ProfileData;
 import org.artisan.model.RoastProperties;
-import org.artisan.model.RoastStats;
 import org.artisan.model.Roastlog;
 import org.artisan.model.Sampling;
 import org.artisan.model.SamplingConfig;
-import org.artisan.model.Statistics;
 import org.artisan.view.ComparatorView;
 import org.artisan.view.DesignerView;
 import org.artisan.view.RoastChartController;
@@ -36,7 +36,10 @@ import org.artisan.view.RoastChartController;
 import java.lang.ref.WeakReference;
 import java.util.logging.Level;
 
+import javafx.application.Platform;
 import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.media.AudioClip;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 import java.util.logging.Logger;
@@ -54,6 +57,12 @@ import org.artisan.model.ArtisanTime;
 /**
  * Main application controller (not JavaFX Application — testable, no UI dependencies).
  * Wires sampling, device, chart, and session; handles event buttons and save/load.
+ * <p>
+ * Recording runs through a {@link RoastEngine} in driven mode: samples conditioned on the comm
+ * thread are fed to {@link #drainSamples}/{@link #recordSample} on the JavaFX thread, the engine
+ * runs the per-sample pipeline (live RoR, AutoDRY/AutoFCs, analytics, alarms, journal), and this
+ * controller, subscribed as an engine listener, does the UI side (PID, event replay, autosave,
+ * chart refresh and listeners) once per batch.
  */
 public final class AppController {
 
@@ -65,14 +74,19 @@ public final class AppController {
   private final ColorConfig colorConfig;
   private final CurveSet curveSet;
   private Consumer<Sample> onSampleConsumer;
+  private final RoastEngine engine;
+  private final SampleRingBuffer.Sink drainSink;
+  private int batchDepth;
+  private int batchAccepted;
+  private Sample batchLast;
+  private boolean redrawPending;
+  private StatisticsUpdate pendingStatistics;
   private DisplaySettings displaySettings;
   private PhasesSettings phasesSettings;
   private Consumer<StatisticsUpdate> statisticsUpdateConsumer;
-  private boolean autoDryTriggered;
-  private boolean autoFcsTriggered;
-  private AlarmEngine alarmEngine;
   private FileSession fileSession;
   private AutoSave autoSave;
+  private SampleJournal journal;
   private EventReplay eventReplay;
   private SamplingConfig samplingConfig;
   private CommController commController;
@@ -80,13 +94,12 @@ public final class AppController {
   private final RoastProperties roastProperties;
   private final CupProfile cupProfile;
   private final BatchManager batchManager;
-  private double lastSampleBt = Double.NaN;
-  private double lastSampleTimeSec = Double.NaN;
   private WeakReference<ComparatorView> comparatorViewRef;
   private WeakReference<Stage> designerStageRef;
   private WeakReference<Node> mainWindowRootRef;
   private final List<SampleListener> sampleListeners = new CopyOnWriteArrayList<>();
   private static final Logger LOG = Logger.getLogger(AppController.class.getName());
+  private static final DateTimeFormatter JOURNAL_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
   /** Functional interface for sample updates (BT, ET, RoR BT, RoR ET, time sec). */
   @FunctionalInterface
@@ -102,6 +115,14 @@ public final class AppController {
 
   private final List<PhaseListener> phaseListeners = new CopyOnWriteArrayList<>();
 
+  /** Functional interface for marked events (type, label, time sec, BT at the event). */
+  @FunctionalInterface
+  public interface EventListener {
+    void onEvent(EventType type, String label, double timeSec, double bt);
+  }
+
+  private final List<EventListener> eventListeners = new CopyOnWriteArrayList<>();
+
   public AppController(
       RoastSession session,
       Sampling sampling,
@@ -120,9 +141,11 @@ public final class AppController {
     AlarmList alarms = session.getAlarms();
     AlarmList loaded = AlarmListPersistence.load();
     alarms.setAlarms(loaded.getAlarms());
-    this.alarmEngine = new AlarmEngine(alarms, () -> {
-      if (chartController != null) chartController.updateChart();
-    });
+    this.engine = new RoastEngine(session, MetricsRegistry.getDefault());
+    this.engine.addListener(new EngineListener());
+    this.engine.getAlarmEngine().setOnPopup(msg -> Platform.runLater(() -> showAlarmPopup(msg)));
+    this.engine.getAlarmEngine().setOnPlaySound(path -> Platform.runLater(() -> playAlarmSound(path)));
+    this.drainSink = engine::recordSample;
     this.eventReplay = new EventReplay();
     this.pidControl = new PIDControl();
     this.pidControl.loadConfig();
@@ -131,6 +154,10 @@ public final class AppController {
     this.cupProfile = new CupProfile();
     this.cupProfile.load();
     this.batchManager = new BatchManager();
+    for (RoastState state : RoastState.values()) {
+      MetricsRegistry.getDefault().gauge("artisan_roast_state", "1 for the active roast state",
+          () -> this.session.getState() == state ? 1 : 0, "state", state.name());
+    }
   }
 
   public BatchManager getBatchManager() {
@@ -177,7 +204,12 @@ public final class AppController {
   }
 
   public AlarmEngine getAlarmEngine() {
-    return alarmEngine;
+    return engine.getAlarmEngine();
+  }
+
+  /** Recording pipeline of this controller (its state machine drives auto CHARGE). */
+  public RoastEngine getEngine() {
+    return engine;
   }
 
   /**
@@ -189,18 +221,11 @@ public final class AppController {
     session.getAlarms().setAlarms(loaded.getAlarms());
   }
 
-  /**
-   * Sets the callback for alarm action MARK_EVENT (event name). MainWindow wires to chart.
-   */
-  public void setMarkEventCallback(java.util.function.Consumer<String> callback) {
-    if (alarmEngine != null) alarmEngine.setMarkEventCallback(callback);
-  }
-
   /**
    * Sets the callback for alarm action SET_BURNER (percentage 0–100). MainWindow wires to slider/status.
    */
   public void setBurnerCallback(java.util.function.Consumer<Double> callback) {
-    if (alarmEngine != null) alarmEngine.setBurnerCallback(callback);
+    engine.getAlarmEngine().setBurnerCallback(callback);
   }
 
   public RoastSession getSession() {
@@ -242,8 +267,8 @@ public final class AppController {
   }
 
   /**
-   * Sets the consumer invoked each sample (e.g. to run chart update on JavaFX thread).
-   * If null, no callback is invoked.
+   * Sets the consumer invoked with each conditioned sample of the legacy DevicePort timer (e.g. to
+   * hand it to {@link #recordSample} on the JavaFX thread). If null, no callback is invoked.
    */
   public void setOnSampleConsumer(Consumer<Sample> onSampleConsumer) {
     this.onSampleConsumer = onSampleConsumer;
@@ -337,11 +362,18 @@ public final class AppController {
 
   public void setSamplingConfig(SamplingConfig samplingConfig) {
     this.samplingConfig = samplingConfig;
+    engine.setSamplingConfig(samplingConfig);
   }
 
   /** Sets the CommController used for the sampling loop (Config » Ports). MainWindow injects it. */
   public void setCommController(CommController commController) {
     this.commController = commController;
+    if (commController != null) commController.setConditioner(engine.getConditioner());
+  }
+
+  /** Per-channel conditioning (spike gate, median, low-pass, unit) applied to incoming samples. */
+  public SignalConditioner getConditioner() {
+    return engine.getConditioner();
   }
 
   public CommController getCommController() {
@@ -349,29 +381,137 @@ public final class AppController {
   }
 
   /**
-   * Accepts a sample from CommController (Serial/Modbus/BLE). Applies spike filter,
-   * then invokes onSampleConsumer (chart update + afterSample) if the sample is accepted.
+   * Accepts a raw sample on the JavaFX thread (e.g. the demo runner): conditions and records it
+   * through the engine, then refreshes like a one-sample batch.
    */
   public void acceptSampleFromComm(double timeSec, double bt, double et) {
-    if (samplingConfig != null && samplingConfig.isFilterSpikes()) {
-      if (Double.isFinite(lastSampleBt) && Double.isFinite(lastSampleTimeSec)) {
-        double dt = timeSec - lastSampleTimeSec;
-        if (dt > 0) {
-          double ratePerSec = Math.abs(bt - lastSampleBt) / dt;
-          if (ratePerSec > samplingConfig.getSpikeThreshold()) {
-            LOG.log(Level.WARNING, "Spike filter: rejecting sample BT={0} (rate {1} °C/s > threshold {2})",
-                new Object[] { bt, ratePerSec, samplingConfig.getSpikeThreshold() });
-            return;
-          }
+    beginBatch();
+    try {
+      engine.acceptSample(timeSec, bt, et);
+    } finally {
+      endBatch();
+    }
+  }
+
+  /**
+   * Records one sample that was already conditioned (call on the JavaFX thread, e.g. with the
+   * samples of the legacy DevicePort timer) and refreshes chart, statistics and listeners.
+   */
+  public void recordSample(Sample s) {
+    if (s == null) return;
+    beginBatch();
+    try {
+      engine.recordSample(s.timeSec(), s.bt(), s.et());
+    } finally {
+      endBatch();
+    }
+  }
+
+  /**
+   * Drains every sample pending in {@code buffer} (call on the JavaFX thread, e.g. from an
+   * AnimationTimer). The samples were conditioned on the comm thread; the engine records each
+   * one at its own time index (AutoDRY/FCs, alarms, journal). Chart, statistics and sample
+   * listeners are refreshed once per batch. Returns the number of samples taken.
+   */
+  public int drainSamples(SampleRingBuffer buffer) {
+    if (buffer == null) return 0;
+    beginBatch();
+    try {
+      return buffer.drain(drainSink);
+    } finally {
+      endBatch();
+    }
+  }
+
+  /** Pushes the current phase and AUC settings to the engine; refresh work is deferred to {@link #endBatch}. */
+  private void beginBatch() {
+    if (batchDepth++ > 0) return;
+    batchAccepted = 0;
+    batchLast = null;
+    engine.setPhasesConfig(phasesSettings != null ? phasesSettings.toConfig() : null);
+    engine.setAucBaseTempC(displaySettings != null ? displaySettings.getAucBaseTemp() : Double.NaN);
+  }
+
+  private void endBatch() {
+    if (--batchDepth > 0) return;
+    if (batchAccepted > 0 && fileSession != null) fileSession.markDirty();
+    if (pendingStatistics != null) {
+      StatisticsUpdate update = pendingStatistics;
+      pendingStatistics = null;
+      publishStatistics(update);
+    }
+    if (redrawPending || batchAccepted > 0) {
+      redrawPending = false;
+      if (chartController != null) chartController.updateChart();
+    }
+    if (batchLast != null) notifySampleListeners(batchLast);
+  }
+
+  private void requestRedraw() {
+    if (batchDepth > 0) {
+      redrawPending = true;
+    } else if (chartController != null) {
+      chartController.updateChart();
+    }
+  }
+
+  /** Engine callbacks; delivered on the thread that fed the engine (the JavaFX thread). */
+  private final class EngineListener implements RoastEngine.Listener {
+    @Override
+    public void onSample(Sample s, double rorBt, double rorEt) {
+      batchAccepted++;
+      batchLast = s;
+      if (pidControl.isRunning()) {
+        double output = pidControl.tick(s.bt(), s.timeSec());
+        LOG.log(Level.FINER, "PID output: {0}", output);
+      }
+      if (eventReplay != null && eventReplay.isEnabled()) {
+        ProfileData bg = null;
+        if (chartController != null && chartController.getBackgroundProfile() != null) {
+          bg = chartController.getBackgroundProfile().getProfileData();
+        }
+        if (bg != null) {
+          int idx = currentTimexIndex();
+          eventReplay.checkReplay(s.timeSec(), bg, ev ->
+              addCustomEvent(ev.getType(), ev.getValue(), idx, s.bt(), ev.getLabel()));
         }
       }
     }
-    lastSampleBt = bt;
-    lastSampleTimeSec = timeSec;
-    Sample s = new Sample(timeSec, bt, et);
-    if (fileSession != null) fileSession.markDirty();
-    if (onSampleConsumer != null) {
-      onSampleConsumer.accept(s);
+
+    @Override
+    public void onStatistics(StatisticsUpdate update) {
+      if (batchDepth > 0) {
+        pendingStatistics = update;
+      } else {
+        publishStatistics(update);
+      }
+    }
+
+    @Override
+    public void onEvent(EventType type, int idx, String label) {
+      if (type == EventType.CHARGE) {
+        if (eventReplay != null) eventReplay.reset();
+        if (autoSave != null) startAutoSave();
+      } else if (type == EventType.DROP && autoSave != null) {
+        autoSave.onDrop();
+        autoSave.stop();
+      }
+      if (fileSession != null) fileSession.markDirty();
+      requestRedraw();
+      if (!eventListeners.isEmpty()) {
+        CanvasData cd = session.getCanvasData();
+        double timeSec = idx < cd.getTimex().size() ? cd.getTimex().get(idx) : 0.0;
+        double temp = idx < cd.getTemp2().size() ? cd.getTemp2().get(idx) : 0.0;
+        String l = label != null && !label.isBlank() ? label : type.name().replace('_', ' ');
+        for (EventListener listener : eventListeners) {
+          listener.onEvent(type, l, timeSec, temp);
+        }
+      }
+    }
+
+    @Override
+    public void onError(String message) {
+      LOG.log(Level.WARNING, "Roast engine: {0}", message);
     }
   }
 
@@ -395,6 +535,16 @@ public final class AppController {
     phaseListeners.remove(listener);
   }
 
+  /** Registers a listener for events marked via {@link #markEventAt}. */
+  public void addEventListener(EventListener listener) {
+    if (listener != null) eventListeners.add(listener);
+  }
+
+  /** Unregisters an event listener. */
+  public void removeEventListener(EventListener listener) {
+    eventListeners.remove(listener);
+  }
+
   private void notifyPhaseListeners(PhaseResult r) {
     for (PhaseListener l : phaseListeners) {
       l.onPhase(r);
@@ -437,9 +587,11 @@ public final class AppController {
    */
   public void startSampling() {
     session.start();
-    lastSampleBt = Double.NaN;
-    lastSampleTimeSec = Double.NaN;
+    engine.getConditioner().reset();
+    if (displaySettings != null) engine.setRorSmoothing(displaySettings.getSmoothingDelta());
+    openJournal();
     if (commController != null && commController.getActiveChannel() != null) {
+      if (commController.getSampleBuffer() != null) commController.getSampleBuffer().clear();
       commController.start(getSamplingInterval());
       return;
     }
@@ -452,27 +604,10 @@ public final class AppController {
       double[] temps = device.readTemperatures();
       if (temps.length >= 2) {
         double timeSec = sampling.getElapsedMs() / 1000.0;
-        double et = temps[0];
-        double bt = temps[1];
-        if (samplingConfig != null && samplingConfig.isFilterSpikes()) {
-          if (Double.isFinite(lastSampleBt) && Double.isFinite(lastSampleTimeSec)) {
-            double dt = timeSec - lastSampleTimeSec;
-            if (dt > 0) {
-              double ratePerSec = Math.abs(bt - lastSampleBt) / dt;
-              if (ratePerSec > samplingConfig.getSpikeThreshold()) {
-                LOG.log(Level.WARNING, "Spike filter: rejecting sample BT={0} (rate {1} °C/s > threshold {2})",
-                    new Object[] { bt, ratePerSec, samplingConfig.getSpikeThreshold() });
-                return;
-              }
-            }
-          }
-        }
-        Sample s = new Sample(timeSec, bt, et);
-        lastSampleBt = bt;
-        lastSampleTimeSec = timeSec;
-        if (fileSession != null) fileSession.markDirty();
+        SignalConditioner conditioner = engine.getConditioner();
+        if (!conditioner.process(timeSec, temps[1], temps[0])) return;
         if (onSampleConsumer != null) {
-          onSampleConsumer.accept(s);
+          onSampleConsumer.accept(new Sample(timeSec, conditioner.getBt(), conditioner.getEt()));
         }
       }
     });
@@ -484,6 +619,7 @@ public final class AppController {
     }
     sampling.stop();
     if (autoSave != null) autoSave.stop();
+    if (journal != null) journal.force();
     if (device != null && device.isConnected()) {
       device.disconnect();
     }
@@ -494,9 +630,11 @@ public final class AppController {
    * Call from MainWindow after user confirms discarding unsaved changes (if dirty).
    */
   public void newRoast() {
-    session.reset();
+    finishJournal();
+    engine.reset();
     if (chartController != null) {
       chartController.setRoastTitle(null);
+      chartController.requestFullRebuild();
       chartController.updateChart();
     }
     refreshStatistics();
@@ -529,41 +667,15 @@ public final class AppController {
   /**
    * Marks an event of the given type at a specific timex index (e.g. from chart click).
    * Uses the same logic as markEvent but with the given index. Optional label for CUSTOM.
+   * The engine records it (CHARGE also resets alarms, AutoDRY/FCs and live RoR); autosave,
+   * event replay, chart and event listeners follow from its event callback.
    */
   public void markEventAt(EventType type, int idx, String labelOrNote) {
     if (type == null) return;
     if (idx < 0) return;
     if (!session.isActive() && type != EventType.CHARGE) return;
     LOG.log(Level.FINE, "Mark event at index {0}: {1}", new Object[] { idx, type });
-    double temp = idx < session.getCanvasData().getTemp2().size()
-        ? session.getCanvasData().getTemp2().get(idx) : 0.0;
-    String label = labelOrNote != null && !labelOrNote.isBlank() ? labelOrNote : type.name().replace('_', ' ');
-    if (type == EventType.CHARGE) {
-      autoDryTriggered = false;
-      autoFcsTriggered = false;
-      if (alarmEngine != null) alarmEngine.reset();
-      if (eventReplay != null) eventReplay.reset();
-      session.markCharge(idx);
-      if (chartController != null) chartController.resetLiveRor();
-      if (autoSave != null) {
-        autoSave.start(this::buildProfileData, () -> {
-          ProfileData p = buildProfileData();
-          return p != null && p.getTitle() != null && !p.getTitle().isBlank() ? p.getTitle() : "roast";
-        });
-      }
-    } else if (type == EventType.DRY_END) session.markDryEnd(idx);
-    else if (type == EventType.FC_START) session.markFcStart(idx);
-    else if (type == EventType.FC_END) session.markFcEnd(idx);
-    else if (type == EventType.SC_START) session.markScStart(idx);
-    else if (type == EventType.SC_END) session.markScEnd(idx);
-    else if (type == EventType.TP) session.markTurningPoint(idx);
-    else if (type == EventType.DROP) {
-      session.markDrop(idx);
-      if (autoSave != null) { autoSave.onDrop(); autoSave.stop(); }
-    } else if (type == EventType.COOL_END) session.markCoolEnd(idx);
-    else session.getEvents().add(new EventEntry(idx, temp, label, EventType.CUSTOM));
-    if (fileSession != null) fileSession.markDirty();
-    if (chartController != null) chartController.updateChart();
+    engine.markEventAt(type, idx, labelOrNote);
   }
 
   /**
@@ -592,135 +704,88 @@ public final class AppController {
   /** Called when user presses CHARGE; records only if session is active. */
   public void onChargeButton() {
     if (!session.isActive()) return;
-    autoDryTriggered = false;
-    autoFcsTriggered = false;
-    if (alarmEngine != null) alarmEngine.reset();
-    if (eventReplay != null) eventReplay.reset();
-    int idx = currentTimexIndex();
-    session.markCharge(idx);
-    if (fileSession != null) fileSession.markDirty();
-    if (chartController != null) {
-      chartController.resetLiveRor();
-    }
-    if (autoSave != null) {
-      autoSave.start(this::buildProfileData, () -> {
-        ProfileData p = buildProfileData();
-        return p != null && p.getTitle() != null && !p.getTitle().isBlank() ? p.getTitle() : "roast";
-      });
-    }
+    markEventAt(EventType.CHARGE, currentTimexIndex(), null);
+  }
+
+  /**
+   * Starts periodic autosave. Snapshots are taken on the JavaFX thread (array copies only);
+   * serialization and the write happen on AutoSave's I/O thread.
+   */
+  private void startAutoSave() {
+    autoSave.start(() -> session.snapshot(getSamplingInterval()), this::autoSaveTitle, Platform::runLater);
+  }
+
+  private String autoSaveTitle() {
+    String title = roastProperties != null ? roastProperties.getTitle() : null;
+    return title != null && !title.isBlank() ? title : "roast";
   }
 
   public void onDryEndButton() {
     if (!session.isActive()) return;
-    session.markDryEnd(currentTimexIndex());
-    if (fileSession != null) fileSession.markDirty();
+    markEventAt(EventType.DRY_END, currentTimexIndex(), null);
   }
 
   public void onFcStartButton() {
     if (!session.isActive()) return;
-    session.markFcStart(currentTimexIndex());
-    if (fileSession != null) fileSession.markDirty();
+    markEventAt(EventType.FC_START, currentTimexIndex(), null);
   }
 
   public void onFcEndButton() {
     if (!session.isActive()) return;
-    session.markFcEnd(currentTimexIndex());
-    if (fileSession != null) fileSession.markDirty();
+    markEventAt(EventType.FC_END, currentTimexIndex(), null);
   }
 
   public void onDropButton() {
     if (!session.isActive()) return;
-    session.markDrop(currentTimexIndex());
-    if (fileSession != null) fileSession.markDirty();
-    if (autoSave != null) {
-      autoSave.onDrop();
-      autoSave.stop();
-    }
+    markEventAt(EventType.DROP, currentTimexIndex(), null);
   }
 
   public void onCoolEndButton() {
     if (!session.isActive()) return;
-    session.markCoolEnd(currentTimexIndex());
-    if (fileSession != null) fileSession.markDirty();
+    markEventAt(EventType.COOL_END, currentTimexIndex(), null);
   }
 
   /**
    * Adds a custom event (e.g. from a programmable event button).
-   * Creates EventEntry, adds to session event list, marks dirty, triggers alarm check, updates chart.
+   * Creates EventEntry and adds it through the engine (journal, dirty flag, chart, event listeners);
+   * alarms see it on the next sample.
    */
   public void addCustomEvent(EventType type, double value, int timexIndex, double bt, String label) {
     if (type == null) type = EventType.CUSTOM;
     String l = label != null && !label.isBlank() ? label : type.name();
-    session.getEvents().add(new EventEntry(timexIndex, bt, l, type, value));
-    if (fileSession != null) fileSession.markDirty();
-    ProfileData profile = buildProfileData();
-    PhasesConfig phasesConfig = phasesSettings != null ? phasesSettings.toConfig() : null;
-    if (alarmEngine != null) {
-      int idx = Math.max(0, session.getCanvasData().getTimex().size() - 1);
-      double timeSec = idx < profile.getTimex().size() ? profile.getTimex().get(idx) : 0.0;
-      double et = idx < profile.getTemp1().size() ? profile.getTemp1().get(idx) : 0.0;
-      double rorBt = idx < profile.getDelta2().size() && profile.getDelta2() != null
-          ? profile.getDelta2().get(idx) : 0.0;
-      alarmEngine.evaluate(timeSec, bt, et, rorBt, profile, phasesConfig);
-    }
-    if (chartController != null) chartController.updateChart();
+    engine.addEvent(new EventEntry(timexIndex, bt, l, type, value));
   }
 
   private int currentTimexIndex() {
     return Math.max(0, session.getCanvasData().getTimex().size() - 1);
   }
 
-  /**
-   * Called after each sample (e.g. from the same callback that invokes chartController.onSample).
-   * Runs AutoDRY/AutoFCs when thresholds are crossed (once per CHARGE), then computes stats and
-   * invokes statisticsUpdateConsumer if set. If PID is running, runs pidControl.tick and logs output.
-   */
-  public void afterSample(Sample s) {
-    if (pidControl.isRunning()) {
-      double output = pidControl.tick(s.bt(), s.timeSec());
-      LOG.log(Level.FINER, "PID output: {0}", output);
-    }
-    int idx = currentTimexIndex();
-    if (phasesSettings != null) {
-      if (phasesSettings.isAutoDRY() && !autoDryTriggered && s.bt() >= phasesSettings.getDryEndTempC()) {
-        session.markDryEnd(idx);
-        autoDryTriggered = true;
-      }
-      if (phasesSettings.isAutoFCs() && !autoFcsTriggered && s.bt() >= phasesSettings.getFcsTempC()) {
-        session.markFcStart(idx);
-        autoFcsTriggered = true;
-      }
-    }
-    ProfileData profile = buildProfileData();
-    RoastStats stats = Statistics.compute(profile);
-    PhasesConfig config = phasesSettings != null ? phasesSettings.toConfig() : null;
-    PhaseResult phase = Phases.compute(profile, config);
-    notifyPhaseListeners(phase);
-    double dtr = Calculator.developmentTimeRatio(phase);
-    double auc = displaySettings != null ? Calculator.areaUnderCurve(profile, displaySettings.getAucBaseTemp()) : 0.0;
-    double baseTempC = displaySettings != null ? displaySettings.getAucBaseTemp() : Double.NaN;
+  /** Statistics to phase listeners and statisticsUpdateConsumer (once per batch). */
+  private void publishStatistics(StatisticsUpdate update) {
+    notifyPhaseListeners(update.getPhase());
     if (statisticsUpdateConsumer != null) {
-      statisticsUpdateConsumer.accept(new StatisticsUpdate(stats, phase, dtr, auc, baseTempC));
-    }
-    double rorBt = 0.0;
-    List<Double> delta2 = session.getCanvasData().getDelta2();
-    if (delta2 != null && !delta2.isEmpty()) {
-      rorBt = delta2.get(delta2.size() - 1);
+      statisticsUpdateConsumer.accept(update);
     }
-    PhasesConfig phasesConfig = phasesSettings != null ? phasesSettings.toConfig() : null;
-    if (alarmEngine != null) {
-      alarmEngine.evaluate(s.timeSec(), s.bt(), s.et(), rorBt, profile, phasesConfig);
-    }
-    if (eventReplay != null && eventReplay.isEnabled()) {
-      ProfileData bg = null;
-      if (chartController != null && chartController.getBackgroundProfile() != null) {
-        bg = chartController.getBackgroundProfile().getProfileData();
-      }
-      if (bg != null) {
-        double bt = s.bt();
-        eventReplay.checkReplay(s.timeSec(), bg, ev ->
-            addCustomEvent(ev.getType(), ev.getValue(), idx, bt, ev.getLabel()));
-      }
+  }
+
+  private void showAlarmPopup(String message) {
+    Alert alert = new Alert(Alert.AlertType.INFORMATION);
+    alert.setTitle("Alarm");
+    alert.setHeaderText(null);
+    alert.setContentText(message != null && !message.isEmpty() ? message : "Alarm triggered");
+    alert.initOwner(null);
+    alert.show();
+  }
+
+  private void playAlarmSound(String path) {
+    if (path == null || path.isEmpty()) return;
+    File f = new File(path);
+    if (!f.exists()) return;
+    try {
+      AudioClip clip = new AudioClip(f.toURI().toString());
+      clip.play();
+    } catch (Exception e) {
+      LOG.log(Level.FINE, "Could not play sound: " + path, e);
     }
   }
 
@@ -730,6 +795,72 @@ public final class AppController {
   public void saveProfile(Path path) throws IOException {
     ProfileData profile = buildProfileData();
     Roastlog.save(profile, path);
+    finishJournal();
+  }
+
+  /**
+   * Starts journaling the recording to {@link AutoSave#journalDirectory()} unless a journal is
+   * already open (sampling restarted within the same roast) or journaling is disabled.
+   */
+  private void openJournal() {
+    if (journal != null || autoSave == null || !autoSave.isJournalEnabled()) return;
+    Path dir = AutoSave.journalDirectory();
+    try {
+      Files.createDirectories(dir);
+      String name = "roast_" + LocalDateTime.now().format(JOURNAL_NAME_FORMAT) + SampleJournal.EXTENSION;
+      ProfileData p = buildProfileData();
+      journal = SampleJournal.create(dir.resolve(name), p != null ? p.getTitle() : null,
+          getSamplingInterval(), autoSave.getJournalSyncMillis());
+      engine.setJournal(journal);
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Cannot create sample journal in " + dir, e);
+    }
+  }
+
+  /**
+   * Deletes the journal of the current roast. Called when the roast has been saved or discarded
+   * (new roast, window closed without saving).
+   */
+  public void finishJournal() {
+    if (journal == null) return;
+    engine.setJournal(null);
+    try {
+      journal.finish();
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Cannot delete sample journal " + journal.getFile(), e);
+    }
+    journal = null;
+  }
+
+  /**
+   * Rebuilds an unfinished roast from {@code journalFile} (see {@link SampleJournal#findUnfinished})
+   * into the session, saves it as .alog next to the journal and deletes the journal
+   * ({@link SampleJournal#discard}: if the file cannot be deleted yet, a later start does it).
+   *
+   * @return the saved .alog file
+   * @throws IOException if the journal cannot be read or the profile cannot be written
+   */
+  public Path recoverJournal(Path journalFile) throws IOException {
+    finishJournal();
+    engine.reset();
+    SampleJournal.Recovery r = SampleJournal.recover(journalFile, session);
+    ProfileData profile = buildProfileData();
+    if (r.title() != null && !r.title().isBlank()) profile.setTitle(r.title());
+    String name = journalFile.getFileName().toString();
+    Path alog = journalFile.resolveSibling(name.substring(0, name.length() - SampleJournal.EXTENSION.length())
+        + ".alog");
+    Roastlog.save(profile, alog);
+    SampleJournal.discard(journalFile);
+    LOG.log(Level.INFO, "Recovered {0} samples, {1} events from {2} into {3}",
+        new Object[] { r.samples(), r.events(), journalFile, alog });
+    if (chartController != null) {
+      chartController.setRoastTitle(profile.getTitle());
+      chartController.requestFullRebuild();
+      chartController.updateChart();
+    }
+    refreshStatistics();
+    if (fileSession != null) fileSession.markSaved(alog);
+    return alog;
   }
 
   /**
@@ -738,7 +869,8 @@ public final class AppController {
   public void loadProfile(Path path) {
     ProfileData profile = Roastlog.load(path);
     if (profile == null) return;
-    session.reset();
+    finishJournal();
+    engine.reset();
     CanvasData cd = session.getCanvasData();
     List<Double> timex = profile.getTimex();
     List<Double> temp1 = profile.getTemp1();
@@ -776,6 +908,7 @@ public final class AppController {
       }
     }
     if (chartController != null) {
+      chartController.requestFullRebuild();
       chartController.updateChart();
     }
     refreshStatistics();
@@ -833,7 +966,7 @@ public final class AppController {
 
   private void loadProfileFromProfileData(ProfileData profile) {
     if (profile == null) return;
-    session.reset();
+    engine.reset();
     CanvasData cd = session.getCanvasData();
     List<Double> timex = profile.getTimex();
     List<Double> temp1 = profile.getTemp1();
@@ -856,50 +989,16 @@ public final class AppController {
 
   /**
    * Recomputes statistics from current session and invokes statisticsUpdateConsumer.
-   * Call after profile load or when chart is refreshed.
+   * Call after profile load or when chart is refreshed. Rebuilds the engine's live analytics
+   * from CanvasData (one full pass), since the canvas may have been replaced wholesale.
    */
   public void refreshStatistics() {
-    ProfileData profile = buildProfileData();
-    RoastStats stats = Statistics.compute(profile);
-    PhasesConfig config = phasesSettings != null ? phasesSettings.toConfig() : null;
-    PhaseResult phase = Phases.compute(profile, config);
-    notifyPhaseListeners(phase);
-    double dtr = Calculator.developmentTimeRatio(phase);
-    double auc = displaySettings != null ? Calculator.areaUnderCurve(profile, displaySettings.getAucBaseTemp()) : 0.0;
-    double baseTempC = displaySettings != null ? displaySettings.getAucBaseTemp() : Double.NaN;
-    if (statisticsUpdateConsumer != null) {
-      statisticsUpdateConsumer.accept(new StatisticsUpdate(stats, phase, dtr, auc, baseTempC));
-    }
+    engine.setPhasesConfig(phasesSettings != null ? phasesSettings.toConfig() : null);
+    engine.setAucBaseTempC(displaySettings != null ? displaySettings.getAucBaseTemp() : Double.NaN);
+    publishStatistics(engine.recomputeStatistics());
   }
 
   private ProfileData buildProfileData() {
-    ProfileData p = new ProfileData();
-    CanvasData cd = session.getCanvasData();
-    p.setTimex(new ArrayList<>(cd.getTimex()));
-    p.setTemp1(new ArrayList<>(cd.getTemp1()));
-    p.setTemp2(new ArrayList<>(cd.getTemp2()));
-    List<Integer> ti = new ArrayList<>();
-    ti.add(cd.getChargeIndex());
-    ti.add(cd.getDryEndIndex());
-    ti.add(cd.getFcStartIndex());
-    ti.add(cd.getFcEndIndex());
-    ti.add(0);
-    ti.add(0);
-    ti.add(cd.getDropIndex());
-    ti.add(0);
-    p.setTimeindex(ti);
-    List<Integer> se = new ArrayList<>();
-    List<Integer> set = new ArrayList<>();
-    List<Double> sev = new ArrayList<>();
-    for (EventEntry e : session.getEvents().getAll()) {
-      se.add(e.getTimeIndex());
-      set.add(e.getType().ordinal());
-      sev.add(e.getValue());
-    }
-    p.setSpecialevents(se);
-    p.setSpecialeventstype(set);
-    p.setSpecialeventsvalue(sev);
-    p.setSamplingInterval(getSamplingInterval());
-    return p;
+    return session.toProfileData(getSamplingInterval());
   }
 }
@@ -5,9 +5,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -20,6 +27,10 @@ import org.artisan.model.Roastlog;
  * Auto-save behavior mirroring Python Artisan autosave.py.
  * All settings persisted in Preferences under "autosave.*".
  * Scheduler uses daemon threads so it does not block JVM exit.
+ * <p>
+ * A save captures a snapshot on the thread that owns the session and hands it to a background
+ * I/O thread, which writes it via {@link Roastlog#saveAtomically} (temp file + atomic rename) and
+ * retries failed attempts; DROP never waits for the disk and no reader sees a partial .alog.
  */
 public final class AutoSave {
 
@@ -34,6 +45,8 @@ public final class AutoSave {
     private static final String KEY_SAVE_IMAGE        = PREFIX + "saveImage";
     private static final String KEY_IMAGE_FORMAT      = PREFIX + "imageFormat";
     private static final String KEY_ADD_TO_RECENT     = PREFIX + "addToRecentFiles";
+    private static final String KEY_JOURNAL           = PREFIX + "journal";
+    private static final String KEY_JOURNAL_SYNC      = PREFIX + "journalSyncMillis";
 
     /** Supported image export formats alongside .alog (parity with Python autoasaveimageformat_types). */
     public static final String[] IMAGE_FORMATS = {"PNG", "JPG", "BMP", "PDF Report"};
@@ -42,9 +55,21 @@ public final class AutoSave {
     private static final int MIN_INTERVAL = 1;
     private static final int MAX_INTERVAL = 60;
     private static final String DEFAULT_PREFIX = "autosave";
+    private static final long DEFAULT_JOURNAL_SYNC_MILLIS = 1000;
+    private static final long MAX_JOURNAL_SYNC_MILLIS = 60_000;
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
     private static final Logger LOG = Logger.getLogger(AutoSave.class.getName());
+    private static final LatencyHistogram SAVE_TIMES = MetricsRegistry.getDefault()
+        .timer("artisan_autosave_seconds", "Duration of autosave writes");
+    private static final MetricsRegistry.Counter SAVE_FAILURES = MetricsRegistry.getDefault()
+        .counter("artisan_autosave_failures_total", "Autosave writes that failed");
+    private static final MetricsRegistry.Counter SAVE_RETRIES = MetricsRegistry.getDefault()
+        .counter("artisan_autosave_retries_total", "Autosave write attempts retried after an error");
+    private static final LatencyHistogram SNAPSHOT_TIMES = MetricsRegistry.getDefault()
+        .timer("artisan_autosave_snapshot_seconds", "Time the recording thread spends capturing an autosave snapshot");
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 250;
 
     private boolean enabled;
     private int intervalMinutes;
@@ -55,10 +80,17 @@ public final class AutoSave {
     private boolean saveImage;
     private String imageFormat;
     private boolean addToRecentFiles;
+    private boolean journalEnabled;
+    private long journalSyncMillis;
 
     private volatile ScheduledExecutorService scheduler;
-    private volatile Supplier<ProfileData> profileDataSupplier;
+    /** Captures the session (cheap, on its thread); the returned supplier builds ProfileData on the I/O thread. */
+    private volatile Supplier<Supplier<ProfileData>> capture;
     private volatile Supplier<String> titleSupplier;
+    private volatile Executor captureExecutor;
+    /** Serializes and writes; lives for the AutoSave (daemon), not per recording, so DROP saves outlive stop(). */
+    private volatile ScheduledExecutorService ioExecutor;
+    private final Set<CompletableFuture<Path>> pending = ConcurrentHashMap.newKeySet();
 
     public AutoSave() {
         load();
@@ -76,6 +108,8 @@ public final class AutoSave {
         saveImage = prefs.getBoolean(KEY_SAVE_IMAGE, false);
         imageFormat = prefs.get(KEY_IMAGE_FORMAT, IMAGE_FORMATS[0]);
         addToRecentFiles = prefs.getBoolean(KEY_ADD_TO_RECENT, false);
+        journalEnabled = prefs.getBoolean(KEY_JOURNAL, true);
+        journalSyncMillis = clampJournalSync(prefs.getLong(KEY_JOURNAL_SYNC, DEFAULT_JOURNAL_SYNC_MILLIS));
     }
 
     public void save() {
@@ -89,6 +123,8 @@ public final class AutoSave {
         prefs.putBoolean(KEY_SAVE_IMAGE, saveImage);
         prefs.put(KEY_IMAGE_FORMAT, imageFormat != null ? imageFormat : IMAGE_FORMATS[0]);
         prefs.putBoolean(KEY_ADD_TO_RECENT, addToRecentFiles);
+        prefs.putBoolean(KEY_JOURNAL, journalEnabled);
+        prefs.putLong(KEY_JOURNAL_SYNC, journalSyncMillis);
     }
 
     private static int clampInterval(int v) {
@@ -97,16 +133,47 @@ public final class AutoSave {
         return v;
     }
 
+    private static long clampJournalSync(long v) {
+        return Math.max(0, Math.min(MAX_JOURNAL_SYNC_MILLIS, v));
+    }
+
     /**
      * Starts the auto-save scheduler. Call when recording begins (after CHARGE).
      * Fires every intervalMinutes; if enabled and profile has at least CHARGE event,
      * saves to savePath with filename &lt;prefix&gt;_&lt;title&gt;_&lt;yyyyMMdd_HHmmss&gt;.alog
      * (timestamp omitted if addTimestamp is false).
+     * <p>
+     * {@code profileDataSupplier} is called on the scheduler thread (ticks) and the caller's thread
+     * (DROP), so it must be thread-safe, like {@code RoastEngine.snapshot()}. Sessions owned by
+     * the JavaFX thread use {@link #start(Supplier, Supplier, Executor)}.
      */
     public void start(Supplier<ProfileData> profileDataSupplier, Supplier<String> titleSupplier) {
+        schedule(() -> {
+            ProfileData p = profileDataSupplier.get();
+            return p != null ? () -> p : null;
+        }, titleSupplier, Runnable::run);
+    }
+
+    /**
+     * Starts the scheduler for a session confined to one thread: each tick captures a
+     * {@link RoastSession.Snapshot} (array copies only) and the title via {@code captureExecutor}
+     * (e.g. {@code Platform::runLater}); boxing, serialization and the write run on the autosave
+     * I/O thread.
+     */
+    public void start(Supplier<RoastSession.Snapshot> snapshotSupplier, Supplier<String> titleSupplier,
+                      Executor captureExecutor) {
+        schedule(() -> {
+            RoastSession.Snapshot s = snapshotSupplier.get();
+            return s != null && s.hasCharge() ? s::toProfileData : null;
+        }, titleSupplier, captureExecutor);
+    }
+
+    private void schedule(Supplier<Supplier<ProfileData>> capture, Supplier<String> titleSupplier,
+                          Executor captureExecutor) {
         stop();
-        this.profileDataSupplier = profileDataSupplier;
+        this.capture = capture;
         this.titleSupplier = titleSupplier;
+        this.captureExecutor = captureExecutor;
         scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "AutoSave");
             t.setDaemon(true);
@@ -122,7 +189,8 @@ public final class AutoSave {
     }
 
     /**
-     * Stops the scheduler. Call when recording ends (DROP or manual stop).
+     * Stops the scheduler. Call when recording ends (DROP or manual stop). Writes already
+     * captured (e.g. the DROP save) still complete; see {@link #awaitWrites}.
      */
     public void stop() {
         if (scheduler != null) {
@@ -139,52 +207,149 @@ public final class AutoSave {
         }
     }
 
+    /** Scheduler thread: hands the capture to the session's thread, which queues the write. */
     private void tick() {
         if (!enabled) return;
-        Supplier<ProfileData> sup = profileDataSupplier;
+        Supplier<Supplier<ProfileData>> cap = capture;
         Supplier<String> titleSup = titleSupplier;
-        if (sup == null || titleSup == null) return;
-        ProfileData profile = sup.get();
-        if (profile == null || !hasChargeEvent(profile)) return;
-        String dir = savePath != null ? savePath.trim() : "";
-        if (dir.isEmpty()) return;
-        Path dirPath = Path.of(dir);
-        if (!Files.isDirectory(dirPath)) return;
-        String filename = buildFilename(titleSup.get());
-        Path path = dirPath.resolve(filename);
+        Executor exec = captureExecutor;
+        if (cap == null || titleSup == null || exec == null) return;
         try {
-            Roastlog.save(profile, path);
-            LOG.log(Level.INFO, "Autosave: {0}", path);
-        } catch (IOException e) {
-            LOG.log(Level.WARNING, "Autosave failed: " + path, e);
+            exec.execute(() -> captureAndWrite(cap, titleSup, "Autosave"));
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Autosave capture could not be scheduled", e);
         }
     }
 
     /**
-     * Called when DROP event fires. If saveOnDrop is true, performs immediate save
-     * with same naming convention.
+     * Called when DROP event fires. If saveOnDrop is true, captures the session on the calling
+     * thread and writes it in the background with the same naming convention; never blocks on I/O.
      */
     public void onDrop() {
         if (!saveOnDrop || !enabled) return;
-        Supplier<ProfileData> sup = profileDataSupplier;
+        Supplier<Supplier<ProfileData>> cap = capture;
         Supplier<String> titleSup = titleSupplier;
-        if (sup == null || titleSup == null) return;
-        ProfileData profile = sup.get();
-        if (profile == null || !hasChargeEvent(profile)) return;
+        if (cap == null || titleSup == null) return;
+        captureAndWrite(cap, titleSup, "Autosave on DROP");
+    }
+
+    private CompletableFuture<Path> captureAndWrite(Supplier<Supplier<ProfileData>> cap, Supplier<String> titleSup,
+                                                    String what) {
+        long start = System.nanoTime();
+        Supplier<ProfileData> snapshot = cap.get();
+        String title = titleSup.get();
+        SNAPSHOT_TIMES.record(System.nanoTime() - start);
+        if (snapshot == null) return CompletableFuture.completedFuture(null);
+        CompletableFuture<Path> written = write(snapshot, title);
+        written.thenAccept(path -> {
+            if (path != null) LOG.log(Level.INFO, what + ": {0}", path);
+        });
+        return written;
+    }
+
+    /**
+     * Writes {@code profile} to savePath using the autosave naming convention, ignoring the
+     * enabled flag and scheduler (callers that drive their own schedule, e.g. RoastSessionRegistry).
+     * Skips profiles without CHARGE and missing directories. Blocks until written; see
+     * {@link #saveSnapshotAsync} for the non-blocking form.
+     *
+     * @return the written file, or null if nothing was saved
+     */
+    public Path saveSnapshot(ProfileData profile, String title) {
+        return saveSnapshotAsync(profile, title).join();
+    }
+
+    /**
+     * Queues {@code profile} for writing on the autosave I/O thread. The future completes with the
+     * written file, or null if nothing was saved (no CHARGE, no directory, all attempts failed).
+     */
+    public CompletableFuture<Path> saveSnapshotAsync(ProfileData profile, String title) {
+        if (profile == null) return CompletableFuture.completedFuture(null);
+        return write(() -> profile, title);
+    }
+
+    /** Resolves the target now (timestamp = capture time) and queues the first attempt. */
+    private CompletableFuture<Path> write(Supplier<ProfileData> snapshot, String title) {
+        CompletableFuture<Path> result = new CompletableFuture<>();
         String dir = savePath != null ? savePath.trim() : "";
-        if (dir.isEmpty()) return;
-        Path dirPath = Path.of(dir);
-        if (!Files.isDirectory(dirPath)) return;
-        String filename = buildFilename(titleSup.get());
-        Path path = dirPath.resolve(filename);
+        if (dir.isEmpty() || !Files.isDirectory(Path.of(dir))) {
+            result.complete(null);
+            return result;
+        }
+        Path path = Path.of(dir).resolve(buildFilename(title));
+        pending.add(result);
+        result.whenComplete((p, e) -> pending.remove(result));
+        try {
+            io().execute(() -> attempt(snapshot, path, result, 1));
+        } catch (RejectedExecutionException e) {
+            result.complete(null);
+        }
+        return result;
+    }
+
+    /** I/O thread: materialize the snapshot, write it atomically, reschedule on failure. */
+    private void attempt(Supplier<ProfileData> snapshot, Path path, CompletableFuture<Path> result, int attempt) {
+        long start = System.nanoTime();
+        try {
+            ProfileData profile = snapshot.get();
+            if (profile == null || !hasChargeEvent(profile)) {
+                result.complete(null);
+                return;
+            }
+            Roastlog.saveAtomically(profile, path);
+            result.complete(path);
+        } catch (IOException | RuntimeException e) {
+            if (attempt < MAX_ATTEMPTS) {
+                SAVE_RETRIES.increment();
+                LOG.log(Level.FINE, "Autosave attempt " + attempt + " failed, retrying: " + path, e);
+                io().schedule(() -> attempt(snapshot, path, result, attempt + 1),
+                    RETRY_DELAY_MILLIS << (attempt - 1), TimeUnit.MILLISECONDS);
+            } else {
+                SAVE_FAILURES.increment();
+                LOG.log(Level.WARNING, "Autosave failed: " + path, e);
+                result.complete(null);
+            }
+        } finally {
+            SAVE_TIMES.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Waits until all queued writes (including retries) have finished, e.g. before exiting.
+     *
+     * @return true if none is pending any more
+     */
+    public boolean awaitWrites(long timeout, TimeUnit unit) {
+        CompletableFuture<?>[] all = pending.toArray(new CompletableFuture<?>[0]);
         try {
-            Roastlog.save(profile, path);
-            LOG.log(Level.INFO, "Autosave on DROP: {0}", path);
-        } catch (IOException e) {
-            LOG.log(Level.WARNING, "Autosave on DROP failed: " + path, e);
+            CompletableFuture.allOf(all).get(timeout, unit);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return pending.isEmpty();
         }
     }
 
+    private ScheduledExecutorService io() {
+        ScheduledExecutorService e = ioExecutor;
+        if (e == null) {
+            synchronized (this) {
+                e = ioExecutor;
+                if (e == null) {
+                    e = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread t = new Thread(r, "AutoSave-io");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    ioExecutor = e;
+                }
+            }
+        }
+        return e;
+    }
+
     private static boolean hasChargeEvent(ProfileData profile) {
         var ti = profile.getTimeindex();
         return ti != null && ti.size() > 0 && ti.get(0) != null && ti.get(0) >= 0;
@@ -239,6 +404,8 @@ public final class AutoSave {
         saveImage = false;
         imageFormat = IMAGE_FORMATS[0];
         addToRecentFiles = false;
+        journalEnabled = true;
+        journalSyncMillis = DEFAULT_JOURNAL_SYNC_MILLIS;
     }
 
     public boolean isSaveImage() { return saveImage; }
@@ -249,4 +416,17 @@ public final class AutoSave {
 
     public boolean isAddToRecentFiles() { return addToRecentFiles; }
     public void setAddToRecentFiles(boolean v) { this.addToRecentFiles = v; }
+
+    /** Whether recordings are journaled (see {@link SampleJournal}); independent of the enabled flag. */
+    public boolean isJournalEnabled() { return journalEnabled; }
+    public void setJournalEnabled(boolean v) { this.journalEnabled = v; }
+
+    /** Journal fsync interval in ms (0 = after every sample batch). */
+    public long getJournalSyncMillis() { return journalSyncMillis; }
+    public void setJournalSyncMillis(long v) { this.journalSyncMillis = clampJournalSync(v); }
+
+    /** Directory of the recording journals: ~/.artisan/journal. */
+    public static Path journalDirectory() {
+        return Path.of(System.getProperty("user.home"), ".artisan", "journal");
+    }
 }
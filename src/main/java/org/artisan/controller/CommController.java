@@ -16,8 +16,11 @@ import javafx.application.Platform;
 import java.util.function.Consumer;
 
 /**
- * Manages the active DeviceChannel and the sampling loop. Dispatches onSample and
- * onError on the JavaFX thread via Platform.runLater.
+ * Manages the active DeviceChannel and the sampling loop. Readings pass through the
+ * {@link SignalConditioner}, if set, on the sampling thread. When a {@link SampleRingBuffer} is
+ * set, samples (elapsed seconds, BT, ET) are published into it for a batched FX-side drain;
+ * otherwise onSample is dispatched on the JavaFX thread via Platform.runLater. onError always
+ * runs on the JavaFX thread. Every tick is timed into {@link #getTimingStats()}.
  */
 public final class CommController {
 
@@ -29,9 +32,16 @@ public final class CommController {
     private ScheduledExecutorService scheduler;
     private ScheduledFuture<?> future;
     private Consumer<SampleResult> onSample;
+    private volatile SampleRingBuffer sampleBuffer;
+    private volatile SignalConditioner conditioner;
     private Runnable onError;
     private volatile int consecutiveErrors;
     private volatile long startTimeMs;
+    private final SamplingTimingStats timingStats = new SamplingTimingStats();
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    /** Read-error counter of the channel that last failed (cached to avoid a lookup per error). */
+    private volatile DeviceChannel errorChannel;
+    private volatile MetricsRegistry.Counter errorCounter;
 
     public CommController() {
         this.activeChannel = null;
@@ -41,6 +51,37 @@ public final class CommController {
         this.onError = null;
         this.consecutiveErrors = 0;
         this.startTimeMs = 0;
+        registerMetrics();
+    }
+
+    /** Exports the sampling timing histograms and tick counters (replacing an earlier controller's). */
+    private void registerMetrics() {
+        SamplingTimingStats t = timingStats;
+        metrics.histogram("artisan_sampling_tick_lateness_seconds",
+            "Sampling tick start minus its scheduled time", t.getLatenessHistogram());
+        metrics.histogram("artisan_sampling_interval_error_seconds",
+            "Absolute deviation of tick-to-tick time from the sampling period", t.getIntervalErrorHistogram());
+        metrics.histogram("artisan_sampling_read_seconds", "Duration of DeviceChannel.read()", t.getReadHistogram());
+        metrics.histogram("artisan_sampling_dispatch_seconds",
+            "Sample publish to consumption on the FX thread", t.getDispatchHistogram());
+        metrics.gauge("artisan_sampling_ticks", "Ticks of the current sampling run", t::getTickCount);
+        metrics.gauge("artisan_sampling_skipped_ticks", "Ticks without a read (channel closed)", t::getSkippedTicks);
+        metrics.gauge("artisan_sampling_overrun_ticks", "Reads that ended after the next tick was due",
+            t::getOverrunTicks);
+        metrics.gauge("artisan_sampling_running", "1 while the sampling loop runs", () -> isRunning() ? 1 : 0);
+    }
+
+    /** Counter of read errors for {@code ch}, labelled with its description. */
+    private MetricsRegistry.Counter readErrors(DeviceChannel ch) {
+        MetricsRegistry.Counter c = errorCounter;
+        if (errorChannel != ch || c == null) {
+            String name = ch.getDescription();
+            c = metrics.counter("artisan_device_read_errors_total", "Failed DeviceChannel reads",
+                "channel", name != null ? name : ch.getClass().getSimpleName());
+            errorCounter = c;
+            errorChannel = ch;
+        }
+        return c;
     }
 
     public void setChannel(DeviceChannel ch) {
@@ -55,6 +96,49 @@ public final class CommController {
         this.onSample = onSample;
     }
 
+    /**
+     * Routes samples into {@code buffer} instead of onSample (null restores onSample).
+     * The sampling thread is the buffer's only producer.
+     */
+    public void setSampleBuffer(SampleRingBuffer buffer) {
+        SampleRingBuffer old = this.sampleBuffer;
+        if (old != null && old != buffer) old.setLatencyHistogram(null);
+        if (buffer != null) buffer.setLatencyHistogram(timingStats.getDispatchHistogram());
+        this.sampleBuffer = buffer;
+        if (buffer != null) {
+            metrics.gauge("artisan_sample_buffer_depth", "Samples waiting in the ring buffer", buffer::size);
+            metrics.gauge("artisan_sample_buffer_high_water", "Highest ring buffer depth seen",
+                buffer::getHighWaterMark);
+            metrics.gauge("artisan_sample_buffer_capacity", "Ring buffer capacity", buffer::capacity);
+            metrics.counter("artisan_sample_buffer_dropped_total", "Samples dropped because the ring buffer was full",
+                buffer::getDroppedCount);
+        }
+    }
+
+    public SampleRingBuffer getSampleBuffer() {
+        return sampleBuffer;
+    }
+
+    /**
+     * Conditions every reading on the sampling thread before it is published (null = raw).
+     * Reset by {@link #start}.
+     */
+    public void setConditioner(SignalConditioner conditioner) {
+        this.conditioner = conditioner;
+    }
+
+    public SignalConditioner getConditioner() {
+        return conditioner;
+    }
+
+    /**
+     * Timing of the current (or last) sampling run: start lateness, interval error, read and
+     * dispatch-to-FX histograms, skipped/overrun/late ticks. Reset by {@link #start}.
+     */
+    public SamplingTimingStats getTimingStats() {
+        return timingStats;
+    }
+
     public void setOnError(Runnable onError) {
         this.onError = onError;
     }
@@ -62,7 +146,7 @@ public final class CommController {
     /**
      * Starts the sampling loop at the given interval (seconds). Uses a daemon
      * ScheduledExecutorService. Each tick: reads activeChannel; on success
-     * dispatches onSample on FX thread and resets error count; on DeviceException
+     * publishes to the sample buffer (or dispatches onSample on FX thread) and resets error count; on DeviceException
      * logs WARN and after MAX_CONSECUTIVE_ERRORS calls onError on FX thread and stops.
      */
     public synchronized void start(double intervalSeconds) {
@@ -96,17 +180,51 @@ public final class CommController {
         long periodMs = Math.max(1, (long) (intervalSeconds * 1000));
         Consumer<SampleResult> consumer = this.onSample;
         Runnable errCallback = this.onError;
+        SamplingTimingStats timing = timingStats;
+        LatencyHistogram dispatch = timing.getDispatchHistogram();
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMs);
+        timing.reset(periodNanos, System.nanoTime() + periodNanos);
+        SignalConditioner cond = conditioner;
+        if (cond != null) cond.reset();
         future = scheduler.scheduleAtFixedRate(() -> {
+            long tickStart = timing.tickStarted();
             DeviceChannel ch = activeChannel;
-            if (ch == null || !ch.isOpen()) return;
+            if (ch == null || !ch.isOpen()) {
+                timing.tickSkipped();
+                return;
+            }
             try {
-                SampleResult result = ch.read();
+                SampleResult result;
+                try {
+                    result = ch.read();
+                } finally {
+                    timing.readFinished(tickStart);
+                }
                 consecutiveErrors = 0;
-                if (consumer != null) {
-                    SampleResult r = result;
-                    Platform.runLater(() -> consumer.accept(r));
+                double timeSec = getElapsedMs() / 1000.0;
+                double bt = result.bt();
+                double et = result.et();
+                if (cond != null) {
+                    if (!cond.process(timeSec, bt, et)) return;
+                    bt = cond.getBt();
+                    et = cond.getEt();
+                }
+                SampleRingBuffer buffer = sampleBuffer;
+                if (buffer != null) {
+                    if (!buffer.offer(timeSec, bt, et)) {
+                        LOG.log(Level.FINE, "Sample buffer full, dropped sample ({0} total)",
+                                buffer.getDroppedCount());
+                    }
+                } else if (consumer != null) {
+                    SampleResult r = cond != null ? new SampleResult(bt, et, result.timestampMs()) : result;
+                    long published = System.nanoTime();
+                    Platform.runLater(() -> {
+                        dispatch.record(System.nanoTime() - published);
+                        consumer.accept(r);
+                    });
                 }
             } catch (DeviceException e) {
+                readErrors(ch).increment();
                 LOG.log(Level.WARNING, "Device read error: {0}", e.getMessage());
                 int n = ++consecutiveErrors;
                 if (n >= MAX_CONSECUTIVE_ERRORS && errCallback != null) {
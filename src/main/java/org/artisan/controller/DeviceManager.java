@@ -48,27 +48,13 @@ public final class DeviceManager {
                 return new RoastSimulatorChannel(sim);
             }
             case MODBUS_TCP: {
-                ModbusPortConfig m = modbusCfg != null ? modbusCfg : new ModbusPortConfig();
-                ModbusPortConfig copy = new ModbusPortConfig();
-                copy.setHost(m.getHost());
-                copy.setPort(m.getPort());
+                ModbusPortConfig copy = new ModbusPortConfig(modbusCfg);
                 copy.setUseTcp(true);
-                copy.setSlaveId(m.getSlaveId());
-                copy.setBtRegister(m.getBtRegister());
-                copy.setEtRegister(m.getEtRegister());
-                copy.setScale(m.getScale());
                 return new ModbusDeviceChannel(copy);
             }
             case MODBUS_RTU: {
-                ModbusPortConfig m = modbusCfg != null ? modbusCfg : new ModbusPortConfig();
-                ModbusPortConfig copy = new ModbusPortConfig();
-                copy.setHost(m.getHost());
-                copy.setPort(m.getPort());
+                ModbusPortConfig copy = new ModbusPortConfig(modbusCfg);
                 copy.setUseTcp(false);
-                copy.setSlaveId(m.getSlaveId());
-                copy.setBtRegister(m.getBtRegister());
-                copy.setEtRegister(m.getEtRegister());
-                copy.setScale(m.getScale());
                 return new ModbusDeviceChannel(copy);
             }
             case AILLIO_R1: {
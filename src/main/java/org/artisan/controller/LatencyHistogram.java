@@ -0,0 +1,102 @@
+package org.artisan.controller;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram of durations (HDR style): values are counted in microseconds,
+ * exact below 128 µs and with 64 sub-buckets per power of two above, i.e. under 1.6 % relative
+ * error up to about 19 hours. {@link #record} does not allocate; values beyond the range land
+ * in the last bucket (the exact maximum is kept separately).
+ * <p>
+ * Thread-safe; the monitor is held only for a few array writes, so a single writer with an
+ * occasional UI reader never contends in practice.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = SUB_COUNT << 1;
+    private static final int MAX_MAGNITUDE = 35;
+    private static final int BUCKETS = LINEAR_LIMIT + (MAX_MAGNITUDE - SUB_BITS) * SUB_COUNT;
+    private static final long MAX_MICROS = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sumNanos;
+    private long minNanos = Long.MAX_VALUE;
+    private long maxNanos;
+
+    /** Records one duration; negative values count as 0. */
+    public synchronized void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts[index(v / 1000)]++;
+        count++;
+        sumNanos += v;
+        if (v < minNanos) minNanos = v;
+        if (v > maxNanos) maxNanos = v;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sumNanos = 0;
+        minNanos = Long.MAX_VALUE;
+        maxNanos = 0;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMinNanos() {
+        return count > 0 ? minNanos : 0;
+    }
+
+    public synchronized long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public synchronized double getMeanNanos() {
+        return count > 0 ? (double) sumNanos / count : 0.0;
+    }
+
+    /**
+     * Value at quantile {@code q} (0..1): the upper edge of the bucket holding the q-th value,
+     * capped at the recorded maximum. 0 when empty.
+     */
+    public synchronized long percentileNanos(double q) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(1.0, Math.max(0.0, q)) * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(maxNanos, upperMicros(i) * 1000 + 999);
+        }
+        return maxNanos;
+    }
+
+    /** Number of recorded values not above {@code nanos} (at bucket resolution). */
+    public synchronized long countAtOrBelow(long nanos) {
+        if (nanos >= maxNanos) return count;
+        int last = index(Math.max(0, nanos) / 1000);
+        long n = 0;
+        for (int i = 0; i <= last; i++) n += counts[i];
+        return n;
+    }
+
+    static int index(long micros) {
+        long v = Math.min(micros, MAX_MICROS);
+        if (v < LINEAR_LIMIT) return (int) v;
+        int magnitude = 63 - Long.numberOfLeadingZeros(v);
+        int shift = magnitude - SUB_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_COUNT + (int) ((v >>> shift) - SUB_COUNT);
+    }
+
+    /** Largest microsecond value that maps to bucket {@code i}. */
+    static long upperMicros(int i) {
+        if (i < LINEAR_LIMIT) return i;
+        int shift = (i - LINEAR_LIMIT) / SUB_COUNT + 1;
+        long top = SUB_COUNT + (i - LINEAR_LIMIT) % SUB_COUNT;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,350 @@
+package org.artisan.controller;
+
+import java.util.Arrays;
+
+import org.artisan.model.CanvasData;
+import org.artisan.model.DoubleColumn;
+import org.artisan.model.PhaseResult;
+import org.artisan.model.PhasesConfig;
+import org.artisan.model.RoastStats;
+
+/**
+ * Incremental live analytics: keeps roast statistics, phases, DTR and AUC up to date while
+ * recording without rebuilding a ProfileData on every sample.
+ * <p>
+ * Each sample is consumed once via {@link #sync(CanvasData)}; running sums for mean BT/ET,
+ * RoR min/max/mean and AUC advance by one segment per sample, and DRY/FCs threshold crossings
+ * (manual phases mode) are scanned once per sample. A full pass over the stored samples only
+ * happens when CHARGE/DROP move, the phases thresholds or AUC base temperature change, or the
+ * canvas is cleared. Results match {@code Statistics.compute}, {@code Phases.compute(profile, config)},
+ * {@code Calculator.developmentTimeRatio} and {@code Calculator.areaUnderCurve(profile, base)}
+ * on the same data.
+ * <p>
+ * Not thread-safe; call from the thread that appends to CanvasData (JavaFX thread).
+ */
+public final class LiveRoastAnalytics {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private double[] timex = new double[INITIAL_CAPACITY];
+    private double[] bt = new double[INITIAL_CAPACITY];
+    private double[] et = new double[INITIAL_CAPACITY];
+    private int size;
+
+    private int chargeIndex = -1;
+    private int dryEndIndex = -1;
+    private int fcStartIndex = -1;
+    private int dropIndex = -1;
+
+    /** First segment start index covered by the running sums (-1 = sums invalid). */
+    private int segStart = -1;
+    /** Next segment index j (pair j, j+1) to fold into the running sums. */
+    private int segNext;
+    private double sumBt;
+    private double sumEt;
+    private int countBt;
+    private int countEt;
+    private double rorSum;
+    private double rorMin;
+    private double rorMax;
+    private int rorCount;
+    private double aucSumCsec;
+    private double aucBaseTempC = Double.NaN;
+
+    /** Start index of the threshold scans (-1 = scans invalid). */
+    private int scanStart = -1;
+    private int scanNext;
+    private double dryTempC = Double.NaN;
+    private double fcsTempC = Double.NaN;
+    private int dryCrossIndex = -1;
+    private int fcsCrossIndex = -1;
+
+    /** Clears all samples and cached sums. Call on new roast or profile load. */
+    public void reset() {
+        size = 0;
+        chargeIndex = -1;
+        dryEndIndex = -1;
+        fcStartIndex = -1;
+        dropIndex = -1;
+        segStart = -1;
+        scanStart = -1;
+    }
+
+    /** Number of samples consumed so far. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Consumes samples appended to the canvas since the last call and picks up event index changes.
+     * If the canvas shrank (cleared), the engine resets and re-reads it from the beginning.
+     */
+    public void sync(CanvasData cd) {
+        if (cd == null) return;
+        DoubleColumn.View tx = cd.getTimexView();
+        DoubleColumn.View t1 = cd.getTemp1View();
+        DoubleColumn.View t2 = cd.getTemp2View();
+        int n = Math.min(tx.size(), Math.min(t1.size(), t2.size()));
+        if (n < size) {
+            reset();
+        }
+        for (int i = size; i < n; i++) {
+            addSample(tx.get(i), t2.get(i), t1.get(i));
+        }
+        setEventIndices(cd.getChargeIndex(), cd.getDryEndIndex(), cd.getFcStartIndex(), cd.getDropIndex());
+    }
+
+    /** Appends one sample (time in seconds, BT and ET in Celsius). */
+    public void addSample(double timeSec, double btC, double etC) {
+        if (size == timex.length) {
+            int cap = size * 2;
+            timex = Arrays.copyOf(timex, cap);
+            bt = Arrays.copyOf(bt, cap);
+            et = Arrays.copyOf(et, cap);
+        }
+        timex[size] = timeSec;
+        bt[size] = btC;
+        et[size] = etC;
+        size++;
+    }
+
+    /**
+     * Sets event indices with CanvasData semantics (charge -1 = unset, others &lt;= 0 = unset).
+     * Running sums are invalidated only when CHARGE moves or DROP moves behind the summed range.
+     */
+    public void setEventIndices(int charge, int dryEnd, int fcStart, int drop) {
+        if (charge != chargeIndex) {
+            segStart = -1;
+            scanStart = -1;
+        }
+        if (drop != dropIndex && segStart >= 0 && drop > 0 && drop < segNext) {
+            segStart = -1;
+        }
+        chargeIndex = charge;
+        dryEndIndex = dryEnd;
+        fcStartIndex = fcStart;
+        dropIndex = drop;
+    }
+
+    /**
+     * Time of CHARGE in seconds. Without CHARGE the roast starts at the first sample, as in
+     * Artisan ({@code timex[0]}); 0 if there are no samples. Same as AlarmEngine's profile lookup.
+     */
+    public double getChargeTimeSec() {
+        if (size == 0) return 0.0;
+        if (chargeIndex < 0 || chargeIndex >= size) return timex[0];
+        return timex[chargeIndex];
+    }
+
+    /**
+     * Returns the current statistics, phases, DTR and AUC.
+     *
+     * @param config       phases config (manual thresholds / auto-adjusted); may be null
+     * @param aucBaseTempC AUC base temperature in Celsius; NaN to skip AUC (reported as 0)
+     */
+    public StatisticsUpdate snapshot(PhasesConfig config, double aucBaseTempC) {
+        boolean withAuc = !Double.isNaN(aucBaseTempC);
+        if (withAuc && Double.compare(aucBaseTempC, this.aucBaseTempC) != 0) {
+            this.aucBaseTempC = aucBaseTempC;
+            segStart = -1;
+        }
+        advanceSegments();
+        RoastStats stats = computeStats();
+        PhaseResult phase = computePhases(config);
+        double dtr = developmentTimeRatio(phase);
+        double auc = withAuc ? computeAuc() : 0.0;
+        return new StatisticsUpdate(stats, phase, dtr, auc, aucBaseTempC);
+    }
+
+    // ── Running sums (Statistics + AUC) ───────────────────────────────
+
+    private int endIndex() {
+        return dropIndex > 0 && dropIndex < size ? dropIndex : size - 1;
+    }
+
+    private void advanceSegments() {
+        int start = chargeIndex >= 0 ? chargeIndex : 0;
+        if (segStart != start) {
+            segStart = start;
+            segNext = start;
+            sumBt = 0;
+            sumEt = 0;
+            countBt = 0;
+            countEt = 0;
+            rorSum = 0;
+            rorMin = Double.POSITIVE_INFINITY;
+            rorMax = Double.NEGATIVE_INFINITY;
+            rorCount = 0;
+            aucSumCsec = 0;
+        }
+        int end = endIndex();
+        for (int j = segNext; j < end; j++) {
+            addSegment(j);
+        }
+        if (segNext < end) segNext = end;
+    }
+
+    /** Folds segment (j, j+1) into the sums; same loop body as Statistics and Calculator AUC. */
+    private void addSegment(int j) {
+        double dt = timex[j + 1] - timex[j];
+        if (dt <= 0) return;
+        double b = bt[j];
+        double bNext = bt[j + 1];
+        if (validTemp(b)) {
+            sumBt += b;
+            countBt++;
+        }
+        if (validTemp(b) && validTemp(bNext)) {
+            double ror = (bNext - b) / dt * 60.0;
+            rorSum += ror;
+            rorCount++;
+            if (ror < rorMin) rorMin = ror;
+            if (ror > rorMax) rorMax = ror;
+        }
+        double e = et[j];
+        if (validTemp(e)) {
+            sumEt += e;
+            countEt++;
+        }
+        if (!Double.isNaN(aucBaseTempC)) {
+            double ta = (Math.max(0, clampAucTemp(bNext)) + Math.max(0, clampAucTemp(b))) / 2.0;
+            aucSumCsec += Math.max(0.0, ta - aucBaseTempC) * dt;
+        }
+    }
+
+    private RoastStats computeStats() {
+        if (size == 0) return emptyStats();
+        int start = chargeIndex >= 0 && chargeIndex < size ? chargeIndex : 0;
+        int end = endIndex();
+        if (start >= end) return emptyStats();
+        double totalTimeSec = timex[end] - timex[start];
+        if (totalTimeSec <= 0) return emptyStats();
+        double sb = sumBt;
+        double se = sumEt;
+        int cb = countBt;
+        int ce = countEt;
+        if (validTemp(bt[end])) {
+            sb += bt[end];
+            cb++;
+        }
+        if (validTemp(et[end])) {
+            se += et[end];
+            ce++;
+        }
+        double meanBt = cb > 0 ? sb / cb : 0;
+        double meanEt = ce > 0 ? se / ce : 0;
+        double min = rorCount > 0 ? rorMin : 0;
+        double max = rorCount > 0 ? rorMax : 0;
+        double mean = rorCount > 0 ? rorSum / rorCount : 0;
+        return new RoastStats(meanBt, meanEt, min, max, mean, totalTimeSec, false);
+    }
+
+    private double computeAuc() {
+        int start = chargeIndex >= 0 ? chargeIndex : 0;
+        if (size == 0 || start >= endIndex()) return 0.0;
+        return aucSumCsec / 60.0;
+    }
+
+    // ── Phases ────────────────────────────────────────────────────────
+
+    private PhaseResult computePhases(PhasesConfig config) {
+        if (size == 0) return PhaseResult.INVALID;
+        int start = chargeIndex >= 0 ? chargeIndex : 0;
+        if (start >= size) return PhaseResult.INVALID;
+        int end = endIndex();
+        int dryIdx = dryEndIndex > 0 ? dryEndIndex : -1;
+        int fcsIdx = fcStartIndex > 0 ? fcStartIndex : -1;
+        int dropIdx = dropIndex > 0 ? dropIndex : -1;
+
+        if (config != null) {
+            boolean useManual = !config.isAutoAdjustedLimits() || dryIdx <= 0 || fcsIdx <= 0;
+            if (useManual) {
+                advanceScans(start, config);
+                int dry = dryCrossIndex >= 0 && dryCrossIndex <= end ? dryCrossIndex : -1;
+                int fcs = fcsCrossIndex >= 0 && fcsCrossIndex <= end ? fcsCrossIndex : -1;
+                if (dry > 0) dryIdx = dry;
+                if (fcs > 0 && (dry <= 0 || fcs > dry)) fcsIdx = fcs;
+            }
+        }
+
+        double startTime = timex[start];
+        double totalTimeSec = timex[end] - startTime;
+        if (totalTimeSec <= 0) return PhaseResult.INVALID;
+        if (dropIdx > 0 && fcsIdx > 0 && dropIdx < fcsIdx) {
+            return new PhaseResult(totalTimeSec, 0, 0, 0, 0, 0, 0, true);
+        }
+        double drySec = 0;
+        if (dryIdx > 0 && dryIdx < size) {
+            drySec = Math.max(0, timex[dryIdx] - startTime);
+        }
+        double fcsSec = 0;
+        if (fcsIdx > 0 && fcsIdx < size) {
+            fcsSec = Math.max(0, timex[fcsIdx] - startTime);
+        }
+        double developmentSec = (fcsSec > 0 && dropIdx > 0 && dropIdx < size)
+                ? timex[dropIdx] - startTime - fcsSec
+                : (totalTimeSec - fcsSec);
+        if (developmentSec < 0) developmentSec = 0;
+        double maillardSec = totalTimeSec - drySec - developmentSec;
+        if (maillardSec < 0) maillardSec = 0;
+        return new PhaseResult(
+                totalTimeSec,
+                drySec,
+                maillardSec,
+                developmentSec,
+                (drySec / totalTimeSec) * 100.0,
+                (maillardSec / totalTimeSec) * 100.0,
+                (developmentSec / totalTimeSec) * 100.0,
+                false);
+    }
+
+    /**
+     * Scans new samples for the first BT crossing of the DRY and FCs thresholds from CHARGE.
+     * Any FCs crossing is also a DRY crossing, so both first crossings from CHARGE equal the
+     * chained search in Phases.getEffectiveTimeindex.
+     */
+    private void advanceScans(int start, PhasesConfig config) {
+        double dryTemp = config.getDryEndTempC();
+        double fcsTemp = config.getFcsTempC();
+        if (dryTemp > fcsTemp) {
+            double t = dryTemp;
+            dryTemp = fcsTemp;
+            fcsTemp = t;
+        }
+        if (scanStart != start || Double.compare(dryTemp, dryTempC) != 0
+                || Double.compare(fcsTemp, fcsTempC) != 0) {
+            scanStart = start;
+            scanNext = start;
+            dryTempC = dryTemp;
+            fcsTempC = fcsTemp;
+            dryCrossIndex = -1;
+            fcsCrossIndex = -1;
+        }
+        for (int i = scanNext; i < size && fcsCrossIndex < 0; i++) {
+            double v = bt[i];
+            if (dryCrossIndex < 0 && v >= dryTempC) dryCrossIndex = i;
+            if (v >= fcsTempC) fcsCrossIndex = i;
+        }
+        scanNext = size;
+    }
+
+    private static double developmentTimeRatio(PhaseResult phase) {
+        if (phase.isInvalid() || phase.getTotalTimeSec() <= 0) return 0.0;
+        double total = phase.getTotalTimeSec();
+        double fcsTimeSec = total - phase.getDevelopmentTimeSec();
+        return 100.0 * (total - fcsTimeSec) / total;
+    }
+
+    private static RoastStats emptyStats() {
+        return new RoastStats(0, 0, 0, 0, 0, 0, true);
+    }
+
+    private static boolean validTemp(double t) {
+        return Double.isFinite(t) && t >= -100 && t < 500;
+    }
+
+    private static double clampAucTemp(double t) {
+        if (!Double.isFinite(t) || t > 500) return 0;
+        return t;
+    }
+}
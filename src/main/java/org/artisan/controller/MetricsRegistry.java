@@ -0,0 +1,312 @@
+package org.artisan.controller;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide runtime metrics in the Prometheus text exposition format (0.0.4), served by
+ * {@code WebLcdServer} at {@code /metrics}. Three kinds:
+ * <ul>
+ *   <li>counters ({@link #counter}) — monotonic {@link LongAdder}s, or a monotonic value owned
+ *       elsewhere read at scrape time,</li>
+ *   <li>gauges ({@link #gauge}) — sampled from a supplier at scrape time,</li>
+ *   <li>timers ({@link #timer}, {@link #histogram}) — {@link LatencyHistogram}s exported as
+ *       summaries in seconds (p50/p90/p99/p999, _sum, _count).</li>
+ * </ul>
+ * Looking up a registered metric takes no lock: one {@link ConcurrentHashMap#get} on its name and
+ * a scan of that family's label sets. A label-less call allocates nothing, but labels are varargs,
+ * so every labelled call allocates its {@code String[]} (unless the JIT elides it). Per-sample
+ * paths should look the metric up once and keep the returned {@link Counter} or
+ * {@link LatencyHistogram}, as CommController does for its read-error counter; recording on a
+ * handle neither locks nor allocates. Labels are passed as name/value pairs.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    static {
+        DEFAULT.bindJvm();
+    }
+
+    private enum Type { COUNTER, GAUGE, SUMMARY }
+
+    private record Family(String name, Type type, String help) {}
+
+    /** {@code labelValues} as registered (nulls as ""); {@code labels} rendered once for scrapes. */
+    private record Metric(String name, String[] labelValues, String labels, Object value) {}
+
+    private static final String[] NO_LABELS = {};
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+    /** Per family name, its metrics (one per label set); arrays are replaced, never mutated. */
+    private final Map<String, Metric[]> metrics = new ConcurrentHashMap<>();
+
+    /** Empty registry (tests, embedding); the application records into {@link #getDefault()}. */
+    public MetricsRegistry() {
+    }
+
+    /** Registry used by the application; includes the JVM metrics. */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /** Monotonic counter; one instance per name and label set. */
+    public static final class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public void add(long n) {
+            adder.add(n);
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+    }
+
+    /** Returns the counter {@code name{labels}}, registering it on first use. */
+    public Counter counter(String name, String help, String... labels) {
+        return getOrRegister(name, Type.COUNTER, help, labels, Counter.class, Counter::new);
+    }
+
+    /** Exports a monotonic value kept elsewhere as counter {@code name{labels}}, replacing a previous one. */
+    public void counter(String name, String help, DoubleSupplier value, String... labels) {
+        put(name, Type.COUNTER, help, labels, value);
+    }
+
+    /** Returns the timer {@code name{labels}} (durations in nanoseconds), registering it on first use. */
+    public LatencyHistogram timer(String name, String help, String... labels) {
+        return getOrRegister(name, Type.SUMMARY, help, labels, LatencyHistogram.class, LatencyHistogram::new);
+    }
+
+    /** Exports an existing histogram as {@code name{labels}}, replacing a previous registration. */
+    public void histogram(String name, String help, LatencyHistogram histogram, String... labels) {
+        put(name, Type.SUMMARY, help, labels, histogram);
+    }
+
+    /** Exports {@code value} as gauge {@code name{labels}}, replacing a previous registration. */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        put(name, Type.GAUGE, help, labels, value);
+    }
+
+    /** Removes {@code name{labels}}; the family disappears from scrapes once it has no metrics. */
+    public void remove(String name, String... labels) {
+        metrics.computeIfPresent(name, (k, all) -> {
+            int i = indexOf(all, labels);
+            if (i < 0) return all;
+            if (all.length == 1) return null;
+            Metric[] rest = new Metric[all.length - 1];
+            System.arraycopy(all, 0, rest, 0, i);
+            System.arraycopy(all, i + 1, rest, i, rest.length - i);
+            return rest;
+        });
+    }
+
+    /** Registered instance of {@code kind}; allocates ({@code fresh}, label rendering) only on a miss. */
+    private <T> T getOrRegister(String name, Type type, String help, String[] labels, Class<T> kind,
+                                Supplier<T> fresh) {
+        Metric m = find(name, labels);
+        if (m == null) {
+            family(name, type, help);
+            String rendered = renderLabels(labels);
+            Metric[] found = new Metric[1];
+            metrics.compute(name, (k, all) -> {
+                int i = indexOf(all, labels);
+                if (i >= 0) {
+                    found[0] = all[i];
+                    return all;
+                }
+                found[0] = new Metric(name, copyLabels(labels), rendered, fresh.get());
+                return append(all, found[0]);
+            });
+            m = found[0];
+        }
+        if (!kind.isInstance(m.value())) {
+            throw new IllegalArgumentException(name + " is exported from a value owned elsewhere");
+        }
+        return kind.cast(m.value());
+    }
+
+    private void put(String name, Type type, String help, String[] labels, Object value) {
+        family(name, type, help);
+        Metric m = new Metric(name, copyLabels(labels), renderLabels(labels), value);
+        metrics.compute(name, (k, all) -> {
+            int i = indexOf(all, labels);
+            if (i < 0) return append(all, m);
+            Metric[] replaced = all.clone();
+            replaced[i] = m;
+            return replaced;
+        });
+    }
+
+    private Metric find(String name, String[] labels) {
+        Metric[] all = metrics.get(name);
+        int i = indexOf(all, labels);
+        return i >= 0 ? all[i] : null;
+    }
+
+    private static int indexOf(Metric[] all, String[] labels) {
+        if (all == null) return -1;
+        String[] l = labels != null ? labels : NO_LABELS;
+        for (int i = 0; i < all.length; i++) {
+            if (sameLabels(all[i].labelValues(), l)) return i;
+        }
+        return -1;
+    }
+
+    /** Equal pairs, a null value matching "" (as rendered). */
+    private static boolean sameLabels(String[] registered, String[] labels) {
+        if (registered.length != labels.length) return false;
+        for (int i = 0; i < labels.length; i++) {
+            String v = labels[i] != null ? labels[i] : "";
+            if (!registered[i].equals(v)) return false;
+        }
+        return true;
+    }
+
+    private static String[] copyLabels(String[] labels) {
+        if (labels == null || labels.length == 0) return NO_LABELS;
+        String[] copy = new String[labels.length];
+        for (int i = 0; i < labels.length; i++) copy[i] = labels[i] != null ? labels[i] : "";
+        return copy;
+    }
+
+    private static Metric[] append(Metric[] all, Metric m) {
+        if (all == null) return new Metric[] { m };
+        Metric[] grown = Arrays.copyOf(all, all.length + 1);
+        grown[all.length] = m;
+        return grown;
+    }
+
+    private void family(String name, Type type, String help) {
+        Family f = families.get(name);
+        if (f == null) {
+            if (!name.matches("[a-zA-Z_:][a-zA-Z0-9_:]*")) {
+                throw new IllegalArgumentException("Bad metric name: " + name);
+            }
+            Family prev = families.putIfAbsent(name, new Family(name, type, help != null ? help : ""));
+            f = prev != null ? prev : families.get(name);
+        }
+        if (f.type() != type) {
+            throw new IllegalArgumentException(name + " is already registered as " + f.type());
+        }
+    }
+
+    /** {@code a="x",b="y"} from name/value pairs, escaped per the exposition format. */
+    private static String renderLabels(String[] labels) {
+        if (labels == null || labels.length == 0) return "";
+        if ((labels.length & 1) != 0) throw new IllegalArgumentException("Labels must be name/value pairs");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(labels[i]).append("=\"");
+            String v = labels[i + 1] != null ? labels[i + 1] : "";
+            for (int j = 0; j < v.length(); j++) {
+                char c = v.charAt(j);
+                switch (c) {
+                    case '\\' -> sb.append("\\\\");
+                    case '"' -> sb.append("\\\"");
+                    case '\n' -> sb.append("\\n");
+                    default -> sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+
+    /** Current values of all metrics, families sorted by name. */
+    public String scrape() {
+        List<Metric> all = new ArrayList<>();
+        for (Metric[] family : metrics.values()) all.addAll(Arrays.asList(family));
+        all.sort(Comparator.comparing(Metric::name).thenComparing(Metric::labels));
+        StringBuilder sb = new StringBuilder(4096);
+        String current = null;
+        for (Metric m : all) {
+            String name = m.name();
+            Family f = families.get(name);
+            if (!name.equals(current)) {
+                current = name;
+                sb.append("# HELP ").append(name).append(' ')
+                    .append(f.help().replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+                sb.append("# TYPE ").append(name).append(' ').append(f.type().name().toLowerCase(Locale.ROOT))
+                    .append('\n');
+            }
+            String labels = m.labels();
+            switch (f.type()) {
+                case COUNTER -> sample(sb, name, labels, null, m.value() instanceof Counter c
+                    ? c.get() : ((DoubleSupplier) m.value()).getAsDouble());
+                case GAUGE -> sample(sb, name, labels, null, ((DoubleSupplier) m.value()).getAsDouble());
+                case SUMMARY -> {
+                    LatencyHistogram h = (LatencyHistogram) m.value();
+                    long count;
+                    double mean;
+                    long[] q = new long[QUANTILES.length];
+                    synchronized (h) {
+                        count = h.getCount();
+                        mean = h.getMeanNanos();
+                        for (int i = 0; i < q.length; i++) q[i] = h.percentileNanos(QUANTILES[i]);
+                    }
+                    for (int i = 0; i < q.length; i++) {
+                        sample(sb, name, labels, "quantile=\"" + QUANTILES[i] + "\"", q[i] / 1e9);
+                    }
+                    sample(sb, name + "_sum", labels, null, mean * count / 1e9);
+                    sample(sb, name + "_count", labels, null, count);
+                }
+                default -> { }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, String extra, double value) {
+        sb.append(name);
+        if (!labels.isEmpty() || extra != null) {
+            sb.append('{').append(labels);
+            if (extra != null) sb.append(labels.isEmpty() ? "" : ",").append(extra);
+            sb.append('}');
+        }
+        sb.append(' ');
+        if (Double.isNaN(value)) sb.append("NaN");
+        else if (Double.isInfinite(value)) sb.append(value > 0 ? "+Inf" : "-Inf");
+        else if (value == Math.rint(value) && Math.abs(value) < 1e15) sb.append((long) value);
+        else sb.append(value);
+        sb.append('\n');
+    }
+
+    /** Heap/non-heap memory, GC counts and time per collector, live threads. */
+    void bindJvm() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        String used = "artisan_jvm_memory_used_bytes";
+        String committed = "artisan_jvm_memory_committed_bytes";
+        String max = "artisan_jvm_memory_max_bytes";
+        gauge(used, "Used JVM memory", () -> memory.getHeapMemoryUsage().getUsed(), "area", "heap");
+        gauge(used, "Used JVM memory", () -> memory.getNonHeapMemoryUsage().getUsed(), "area", "nonheap");
+        gauge(committed, "Committed JVM memory", () -> memory.getHeapMemoryUsage().getCommitted(), "area", "heap");
+        gauge(committed, "Committed JVM memory",
+            () -> memory.getNonHeapMemoryUsage().getCommitted(), "area", "nonheap");
+        gauge(max, "Maximum JVM heap (-1 = undefined)", () -> memory.getHeapMemoryUsage().getMax(), "area", "heap");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            counter("artisan_jvm_gc_collections_total", "Collections since JVM start",
+                () -> Math.max(0, gc.getCollectionCount()), "gc", gc.getName());
+            counter("artisan_jvm_gc_collection_seconds_total", "Accumulated collection time since JVM start",
+                () -> Math.max(0, gc.getCollectionTime()) / 1000.0, "gc", gc.getName());
+        }
+        gauge("artisan_jvm_threads", "Live JVM threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+}
@@ -0,0 +1,563 @@
+package org.artisan.controller;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.artisan.device.DeviceChannel;
+import org.artisan.device.DeviceException;
+import org.artisan.device.SampleResult;
+import org.artisan.model.CanvasData;
+import org.artisan.model.EventEntry;
+import org.artisan.model.EventType;
+import org.artisan.model.LiveRorCalculator;
+import org.artisan.model.PhasesConfig;
+import org.artisan.model.ProfileData;
+import org.artisan.model.RorCalculator;
+import org.artisan.model.Roastlog;
+import org.artisan.model.SamplingConfig;
+
+/**
+ * Headless sampling/recording core: DeviceChannel → SignalConditioner → CanvasData (+ live RoR)
+ * → AutoDRY/AutoFCs → LiveRoastAnalytics → AlarmEngine → journal/AutoSave. The engine either
+ * drives itself ({@link #start()} reads the channel on its own scheduler) or is fed by the caller
+ * through {@link #recordSample}: the desktop's AppController subscribes as a {@link Listener}
+ * and pushes the samples its CommController conditioned, so both run the same pipeline.
+ * <p>
+ * No JavaFX on this path. Public methods are thread-safe: sampling ticks and commands (events,
+ * snapshots) serialize on the engine. Listener callbacks are queued while the engine lock is
+ * held and delivered after it is released, in order and one at a time, on the thread that fed
+ * the sample or command; a listener may call back into the engine (e.g. mark CHARGE from
+ * onSample), and that callback is delivered after the current one returns.
+ */
+public final class RoastEngine implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(RoastEngine.class.getName());
+    private static final int MAX_CONSECUTIVE_ERRORS = 3;
+    private static final int DEFAULT_ROR_SMOOTHING = 5;
+
+    /** Engine callbacks; run without the engine lock held (see the class comment). */
+    public interface Listener {
+        /** Accepted sample with the clamped live RoR (°/min) appended to CanvasData. */
+        default void onSample(Sample sample, double rorBt, double rorEt) {}
+
+        default void onStatistics(StatisticsUpdate update) {}
+
+        default void onEvent(EventType type, int timeIndex) {}
+
+        /** Same as {@link #onEvent(EventType, int)} with the label given when marking (null if none). */
+        default void onEvent(EventType type, int timeIndex, String label) {
+            onEvent(type, timeIndex);
+        }
+
+        /** Channel failed to open or failed MAX_CONSECUTIVE_ERRORS reads; the engine has stopped. */
+        default void onError(String message) {}
+    }
+
+    private final RoastSession session;
+    private final DeviceChannel channel;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private SamplingConfig samplingConfig;
+    private final SignalConditioner conditioner;
+    private final LiveRoastAnalytics analytics = new LiveRoastAnalytics();
+    private final RoastStateMachine stateMachine = new RoastStateMachine();
+    private final AlarmEngine alarmEngine;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    /** Callbacks queued under the lock, delivered by {@link #dispatch()} (guarded by this). */
+    private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+    private boolean dispatching;
+
+    private PhasesConfig phasesConfig;
+    private double aucBaseTempC = Double.NaN;
+    private AutoSave autoSave;
+    private SampleJournal journal;
+    private String title = "roast";
+    private LiveRorCalculator rorEt = new LiveRorCalculator(DEFAULT_ROR_SMOOTHING);
+    private LiveRorCalculator rorBt = new LiveRorCalculator(DEFAULT_ROR_SMOOTHING);
+
+    private ScheduledFuture<?> future;
+    private long startNanos;
+    private final SamplingTimingStats timingStats = new SamplingTimingStats();
+    private int consecutiveErrors;
+    private boolean autoDryTriggered;
+    private boolean autoFcsTriggered;
+
+    /** Engine with its own single daemon thread ("roast-engine"). */
+    public RoastEngine(RoastSession session, DeviceChannel channel, SamplingConfig samplingConfig) {
+        this(session, channel, samplingConfig, Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "roast-engine");
+            t.setDaemon(true);
+            return t;
+        }), true, null);
+    }
+
+    /**
+     * Engine scheduled on a shared executor (not shut down by {@link #close()}). The executor
+     * may have several threads; ticks of one engine never overlap.
+     */
+    public RoastEngine(RoastSession session, DeviceChannel channel, SamplingConfig samplingConfig,
+                       ScheduledExecutorService scheduler) {
+        this(session, channel, samplingConfig, scheduler, false, null);
+    }
+
+    /**
+     * Engine without a channel or scheduler, fed by the caller through {@link #recordSample} or
+     * {@link #acceptSample} ({@link #start()} returns false). Conditioning stage timings are
+     * exported to {@code metrics} (may be null).
+     */
+    public RoastEngine(RoastSession session, MetricsRegistry metrics) {
+        this(session, null, null, null, false, metrics);
+    }
+
+    private RoastEngine(RoastSession session, DeviceChannel channel, SamplingConfig samplingConfig,
+                        ScheduledExecutorService scheduler, boolean ownsScheduler, MetricsRegistry metrics) {
+        this.session = session != null ? session : new RoastSession();
+        this.channel = channel;
+        this.samplingConfig = samplingConfig != null ? samplingConfig : new SamplingConfig();
+        this.conditioner = new SignalConditioner(metrics);
+        conditioner.setConfig(this.samplingConfig);
+        this.scheduler = scheduler;
+        this.ownsScheduler = ownsScheduler;
+        this.alarmEngine = new AlarmEngine(this.session.getAlarms(), null);
+        alarmEngine.setMarkEventCallback(this::addCustomEvent);
+        alarmEngine.setBurnerCallback(pct -> LOG.log(Level.INFO, "Alarm burner: {0}%", pct));
+        stateMachine.setOnAutoCharge(() -> markEvent(EventType.CHARGE));
+    }
+
+    public RoastSession getSession() {
+        return session;
+    }
+
+    public DeviceChannel getChannel() {
+        return channel;
+    }
+
+    public AlarmEngine getAlarmEngine() {
+        return alarmEngine;
+    }
+
+    public RoastStateMachine getStateMachine() {
+        return stateMachine;
+    }
+
+    public void addListener(Listener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Interval and conditioning settings; the interval takes effect on the next start. */
+    public synchronized void setSamplingConfig(SamplingConfig samplingConfig) {
+        this.samplingConfig = samplingConfig != null ? samplingConfig : new SamplingConfig();
+        conditioner.setConfig(this.samplingConfig);
+    }
+
+    /** Phase limits and AutoDRY/AutoFCs switches; null = manual phases only. */
+    public synchronized void setPhasesConfig(PhasesConfig phasesConfig) {
+        this.phasesConfig = phasesConfig;
+    }
+
+    /** AUC base temperature (°C); NaN = no AUC. */
+    public synchronized void setAucBaseTempC(double aucBaseTempC) {
+        this.aucBaseTempC = aucBaseTempC;
+    }
+
+    /** Optional autosave, started on CHARGE and flushed on DROP. */
+    public synchronized void setAutoSave(AutoSave autoSave) {
+        this.autoSave = autoSave;
+    }
+
+    /**
+     * Journals every accepted sample and event from now on (null = off). The caller owns the
+     * journal: it creates it per roast and finishes it once the roast is saved.
+     */
+    public synchronized void setJournal(SampleJournal journal) {
+        this.journal = journal;
+        syncJournal();
+    }
+
+    public synchronized void setTitle(String title) {
+        this.title = title != null && !title.isBlank() ? title : "roast";
+    }
+
+    /** RoR delta span in samples (DisplaySettings smoothing delta); restarts the live RoR. */
+    public synchronized void setRorSmoothing(int window) {
+        rorEt = new LiveRorCalculator(window);
+        rorBt = new LiveRorCalculator(window);
+    }
+
+    /**
+     * Clears the recorded roast and the live state (conditioning, RoR, analytics, AutoDRY/AutoFCs,
+     * alarm flags) for a new roast or before loading one into the session. Sampling keeps running.
+     */
+    public synchronized void reset() {
+        session.reset();
+        analytics.reset();
+        rorEt.reset();
+        rorBt.reset();
+        conditioner.reset();
+        autoDryTriggered = false;
+        autoFcsTriggered = false;
+    }
+
+    /**
+     * Opens the channel (if needed), starts the session and schedules sampling at the configured
+     * interval. Returns false if already running, if the engine has no channel or scheduler, or
+     * if the channel could not be opened.
+     */
+    public boolean start() {
+        boolean started;
+        synchronized (this) {
+            started = startLocked();
+        }
+        dispatch();
+        return started;
+    }
+
+    private boolean startLocked() {
+        if (future != null) return false;
+        if (channel == null || scheduler == null) {
+            LOG.warning("RoastEngine.start: no channel");
+            return false;
+        }
+        if (!channel.isOpen()) {
+            try {
+                channel.open();
+            } catch (DeviceException e) {
+                LOG.log(Level.WARNING, "Failed to open channel: {0}", e.getMessage());
+                fireError("Failed to open " + channel.getDescription() + ": " + e.getMessage());
+                return false;
+            }
+        }
+        reset();
+        session.start();
+        consecutiveErrors = 0;
+        stateMachine.reset();
+        stateMachine.onStartPressed();
+        startNanos = System.nanoTime();
+        long periodMs = Math.max(1, samplingConfig.getIntervalMs());
+        timingStats.reset(TimeUnit.MILLISECONDS.toNanos(periodMs), System.nanoTime());
+        future = scheduler.scheduleAtFixedRate(this::tick, 0, periodMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /** Stops sampling (channel stays open; see {@link #close()}). */
+    public synchronized void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+        if (autoSave != null) autoSave.stop();
+    }
+
+    public synchronized boolean isRunning() {
+        return future != null;
+    }
+
+    /** Stops sampling, closes the channel and shuts down the scheduler if the engine owns it. */
+    @Override
+    public void close() {
+        stop();
+        if (channel != null) channel.close();
+        if (ownsScheduler && scheduler != null) {
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(2, TimeUnit.SECONDS)) {
+                    scheduler.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                scheduler.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Seconds since {@link #start()}. */
+    public synchronized double getElapsedSec() {
+        return startNanos != 0 ? (System.nanoTime() - startNanos) / 1e9 : 0.0;
+    }
+
+    /** Tick timing of the current (or last) run; reset by {@link #start()}. */
+    public SamplingTimingStats getTimingStats() {
+        return timingStats;
+    }
+
+    /** Conditioning chain applied to every reading (configured by the SamplingConfig). */
+    public SignalConditioner getConditioner() {
+        return conditioner;
+    }
+
+    private void tick() {
+        long tickStart = timingStats.tickStarted();
+        SampleResult result;
+        try {
+            result = channel.read();
+            timingStats.readFinished(tickStart);
+        } catch (DeviceException e) {
+            timingStats.readFinished(tickStart);
+            LOG.log(Level.WARNING, "Device read error: {0}", e.getMessage());
+            if (++consecutiveErrors >= MAX_CONSECUTIVE_ERRORS) {
+                stop();
+                synchronized (this) {
+                    fireError("Device error: " + e.getMessage());
+                }
+                dispatch();
+            }
+            return;
+        } catch (RuntimeException e) {
+            timingStats.readFinished(tickStart);
+            LOG.log(Level.WARNING, "Device read failed", e);
+            return;
+        }
+        consecutiveErrors = 0;
+        acceptSample(getElapsedSec(), result.bt(), result.et());
+    }
+
+    /**
+     * Runs one raw sample through the pipeline (also used for replay and tests).
+     * Returns false if a spike gate rejected it.
+     */
+    public boolean acceptSample(double timeSec, double rawBt, double rawEt) {
+        boolean accepted;
+        synchronized (this) {
+            accepted = conditioner.process(timeSec, rawBt, rawEt);
+            if (accepted) record(timeSec, conditioner.getBt(), conditioner.getEt());
+        }
+        dispatch();
+        return accepted;
+    }
+
+    /**
+     * Records a sample that was already conditioned (e.g. by a CommController on its sampling
+     * thread, with {@link #getConditioner()}): CanvasData and live RoR, AutoDRY/AutoFCs at this
+     * sample's index, analytics, alarms and journal, then the listeners.
+     */
+    public void recordSample(double timeSec, double bt, double et) {
+        synchronized (this) {
+            record(timeSec, bt, et);
+        }
+        dispatch();
+    }
+
+    private void record(double timeSec, double bt, double et) {
+        CanvasData cd = session.getCanvasData();
+        cd.addDataPoint(timeSec, bt, et);
+        double dEt = clampRor(rorEt.addSample(timeSec, et));
+        double dBt = clampRor(rorBt.addSample(timeSec, bt));
+        cd.addDelta1(dEt);
+        cd.addDelta2(dBt);
+        stateMachine.onSample(timeSec, bt);
+
+        int idx = cd.size() - 1;
+        if (phasesConfig != null && cd.getChargeIndex() >= 0) {
+            if (phasesConfig.isAutoDRY() && !autoDryTriggered && bt >= phasesConfig.getDryEndTempC()) {
+                autoDryTriggered = true;
+                mark(EventType.DRY_END, idx, null);
+            }
+            if (phasesConfig.isAutoFCs() && !autoFcsTriggered && bt >= phasesConfig.getFcsTempC()) {
+                autoFcsTriggered = true;
+                mark(EventType.FC_START, idx, null);
+            }
+        }
+
+        analytics.sync(cd);
+        StatisticsUpdate update = analytics.snapshot(phasesConfig, aucBaseTempC);
+        alarmEngine.evaluate(timeSec, bt, et, dBt, analytics.getChargeTimeSec());
+        syncJournal();
+
+        if (!listeners.isEmpty()) {
+            Sample s = new Sample(timeSec, bt, et);
+            post(() -> {
+                for (Listener l : listeners) {
+                    l.onSample(s, dBt, dEt);
+                    l.onStatistics(update);
+                }
+            });
+        }
+    }
+
+    /** Marks an event at the latest sample (CHARGE starts autosave, DROP flushes and stops it). */
+    public void markEvent(EventType type) {
+        markEventAt(type, -1, null);
+    }
+
+    /**
+     * Marks an event at sample {@code idx} (-1 = latest sample). CHARGE resets the alarms,
+     * AutoDRY/AutoFCs and the live RoR; other types than the built-in events are added as
+     * {@code label} (type name if null). Ignored if {@code idx} is out of range.
+     */
+    public void markEventAt(EventType type, int idx, String label) {
+        synchronized (this) {
+            int n = session.getCanvasData().size();
+            int at = idx < 0 ? n - 1 : idx;
+            if (type != null && at >= 0 && at < n) mark(type, at, label);
+        }
+        dispatch();
+    }
+
+    /** Adds an event entry as given (e.g. an event button with its value), journals it and notifies. */
+    public void addEvent(EventEntry entry) {
+        if (entry == null) return;
+        synchronized (this) {
+            session.getEvents().add(entry);
+            syncJournal();
+            EventType type = entry.getType() != null ? entry.getType() : EventType.CUSTOM;
+            fireEvent(type, entry.getTimeIndex(), entry.getLabel());
+        }
+        dispatch();
+    }
+
+    private void mark(EventType type, int idx, String label) {
+        switch (type) {
+            case CHARGE:
+                session.markCharge(idx);
+                alarmEngine.reset();
+                autoDryTriggered = false;
+                autoFcsTriggered = false;
+                rorEt.reset();
+                rorBt.reset();
+                if (autoSave != null) autoSave.start(this::snapshot, this::getTitle);
+                break;
+            case DRY_END: session.markDryEnd(idx); break;
+            case FC_START: session.markFcStart(idx); break;
+            case FC_END: session.markFcEnd(idx); break;
+            case SC_START: session.markScStart(idx); break;
+            case SC_END: session.markScEnd(idx); break;
+            case TP: session.markTurningPoint(idx); break;
+            case DROP:
+                session.markDrop(idx);
+                stateMachine.onDrop();
+                if (autoSave != null) {
+                    autoSave.onDrop();
+                    autoSave.stop();
+                }
+                break;
+            case COOL_END: session.markCoolEnd(idx); break;
+            default:
+                session.getEvents().add(new EventEntry(idx, tempAt(idx),
+                        label != null && !label.isBlank() ? label : type.name(), type));
+                break;
+        }
+        syncJournal();
+        fireEvent(type, idx, label);
+    }
+
+    /** Alarm MARK_EVENT: a CUSTOM event at the latest sample. */
+    private void addCustomEvent(String label) {
+        markEventAt(EventType.CUSTOM, -1, label != null && !label.isBlank() ? label : "Event");
+    }
+
+    private double tempAt(int idx) {
+        var bt = session.getCanvasData().getTemp2View();
+        return idx >= 0 && idx < bt.size() ? bt.get(idx) : 0.0;
+    }
+
+    private void syncJournal() {
+        if (journal == null) return;
+        try {
+            journal.sync(session);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Sample journal failed, journaling stopped: " + journal.getFile(), e);
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+                // already failing
+            }
+            journal = null;
+        }
+    }
+
+    public synchronized String getTitle() {
+        return title;
+    }
+
+    /**
+     * Statistics over the whole session, rebuilt in one pass (after a profile was loaded into the
+     * session or the phases/AUC settings changed).
+     */
+    public synchronized StatisticsUpdate recomputeStatistics() {
+        analytics.reset();
+        analytics.sync(session.getCanvasData());
+        return analytics.snapshot(phasesConfig, aucBaseTempC);
+    }
+
+    /** Consistent copy of the recorded roast (safe from any thread, e.g. autosave). */
+    public synchronized ProfileData snapshot() {
+        ProfileData p = session.toProfileData(samplingConfig.getIntervalSeconds());
+        p.setTitle(title);
+        return p;
+    }
+
+    /** Writes the current recording as .alog. */
+    public void save(Path path) throws IOException {
+        Roastlog.save(snapshot(), path);
+    }
+
+    private void fireEvent(EventType type, int idx, String label) {
+        if (!listeners.isEmpty()) post(() -> {
+            for (Listener l : listeners) l.onEvent(type, idx, label);
+        });
+    }
+
+    private void fireError(String message) {
+        post(() -> {
+            for (Listener l : listeners) l.onError(message);
+        });
+    }
+
+    /** Queues a listener callback; call with the lock held, then {@link #dispatch()} after releasing it. */
+    private void post(Runnable callback) {
+        pending.add(callback);
+    }
+
+    /**
+     * Delivers queued callbacks outside the lock. A call made while the lock is held, or while
+     * another call is delivering (re-entrant listener, second thread), leaves its callbacks to
+     * the delivering call, so callbacks never overlap and keep their order.
+     */
+    private void dispatch() {
+        if (Thread.holdsLock(this)) return;
+        synchronized (this) {
+            if (dispatching || pending.isEmpty()) return;
+            dispatching = true;
+        }
+        try {
+            while (true) {
+                Runnable callback;
+                synchronized (this) {
+                    callback = pending.poll();
+                    if (callback == null) {
+                        dispatching = false;
+                        return;
+                    }
+                }
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    LOG.log(Level.WARNING, "RoastEngine listener failed", e);
+                }
+            }
+        } catch (Error e) {
+            synchronized (this) {
+                dispatching = false;
+            }
+            throw e;
+        }
+    }
+
+    private static double clampRor(double v) {
+        if (!Double.isFinite(v)) return 0.0;
+        return Math.max(RorCalculator.DEFAULT_MIN_ROR, Math.min(RorCalculator.DEFAULT_MAX_ROR, v));
+    }
+}
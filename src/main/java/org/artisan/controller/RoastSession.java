@@ -1,10 +1,14 @@
 package org.artisan.controller;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.artisan.model.AlarmList;
 import org.artisan.model.CanvasData;
 import org.artisan.model.EventEntry;
 import org.artisan.model.EventList;
 import org.artisan.model.EventType;
+import org.artisan.model.ProfileData;
 import org.artisan.model.RoastProperties;
 
 /**
@@ -130,9 +134,78 @@ public final class RoastSession {
     this.state = RoastState.OFF;
   }
 
+  /**
+   * Immutable copy of the recorded curves, event indices and special events. Taking it costs a
+   * few array copies, so it can be captured on the recording thread and turned into ProfileData
+   * (boxing, serialization) on another.
+   */
+  public record Snapshot(double[] timex, double[] temp1, double[] temp2, int[] timeindex, int[] specialevents,
+      int[] specialeventstype, double[] specialeventsvalue, double samplingIntervalSec) {
+
+    /** True if CHARGE is set. */
+    public boolean hasCharge() {
+      return timeindex[0] >= 0;
+    }
+
+    public ProfileData toProfileData() {
+      ProfileData p = new ProfileData();
+      p.setTimex(boxed(timex));
+      p.setTemp1(boxed(temp1));
+      p.setTemp2(boxed(temp2));
+      List<Integer> ti = new ArrayList<>(timeindex.length);
+      for (int v : timeindex) ti.add(v);
+      p.setTimeindex(ti);
+      List<Integer> se = new ArrayList<>(specialevents.length);
+      List<Integer> set = new ArrayList<>(specialevents.length);
+      for (int i = 0; i < specialevents.length; i++) {
+        se.add(specialevents[i]);
+        set.add(specialeventstype[i]);
+      }
+      p.setSpecialevents(se);
+      p.setSpecialeventstype(set);
+      p.setSpecialeventsvalue(boxed(specialeventsvalue));
+      p.setSamplingInterval(samplingIntervalSec);
+      return p;
+    }
+
+    private static List<Double> boxed(double[] values) {
+      List<Double> out = new ArrayList<>(values.length);
+      for (double v : values) out.add(v);
+      return out;
+    }
+  }
+
+  /** Copies the session for saving; call on the thread that records into it. */
+  public Snapshot snapshot(double samplingIntervalSec) {
+    int[] ti = {
+        canvasData.getChargeIndex(), canvasData.getDryEndIndex(), canvasData.getFcStartIndex(),
+        canvasData.getFcEndIndex(), 0, 0, canvasData.getDropIndex(), 0 };
+    List<EventEntry> all = events.getAll();
+    int n = all.size();
+    int[] se = new int[n];
+    int[] set = new int[n];
+    double[] sev = new double[n];
+    for (int i = 0; i < n; i++) {
+      EventEntry e = all.get(i);
+      se[i] = e.getTimeIndex();
+      set[i] = e.getType().ordinal();
+      sev[i] = e.getValue();
+    }
+    return new Snapshot(canvasData.getTimexView().toArray(), canvasData.getTemp1View().toArray(),
+        canvasData.getTemp2View().toArray(), ti, se, set, sev, samplingIntervalSec);
+  }
+
+  /**
+   * Snapshot of the curves, event indices and special events as ProfileData (for save / autosave).
+   * Curves are copied, so the result stays valid while recording continues.
+   */
+  public ProfileData toProfileData(double samplingIntervalSec) {
+    return snapshot(samplingIntervalSec).toProfileData();
+  }
+
   private double tempAt(int timexIndex) {
     if (timexIndex < 0) return 0;
-    var temp2 = canvasData.getTemp2();
+    var temp2 = canvasData.getTemp2View();
     if (timexIndex < temp2.size()) return temp2.get(timexIndex);
     return 0;
   }
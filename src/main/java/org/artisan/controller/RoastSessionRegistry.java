@@ -0,0 +1,239 @@
+package org.artisan.controller;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.artisan.device.DeviceChannel;
+import org.artisan.model.EventType;
+import org.artisan.model.SamplingConfig;
+
+/**
+ * Hosts several roasters in one JVM. Each roaster id gets its own {@link RoastEngine}
+ * (RoastSession with its own events and alarms, DeviceChannel, sampling schedule); all engines
+ * share one small scheduler pool, one listener fan-out and one autosave task.
+ * <p>
+ * Engines are headless; a UI attaches through {@link #addListener} and forwards to its thread.
+ * Each roaster's sampling timings are exported to a {@link MetricsRegistry} with a
+ * {@code roaster} label; a host serves them with e.g. {@code WebLcdServer#setMetricsRegistry}.
+ */
+public final class RoastSessionRegistry implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(RoastSessionRegistry.class.getName());
+
+    /** Registry-wide callbacks, tagged with the roaster id; run on scheduler threads. */
+    public interface Listener {
+        default void onSample(String roasterId, Sample sample, double rorBt, double rorEt) {}
+
+        default void onStatistics(String roasterId, StatisticsUpdate update) {}
+
+        default void onEvent(String roasterId, EventType type, int timeIndex) {}
+
+        default void onError(String roasterId, String message) {}
+    }
+
+    private static final String[] ROASTER_METRICS = {
+        "artisan_roaster_tick_lateness_seconds", "artisan_roaster_read_seconds", "artisan_roaster_ticks",
+        "artisan_roaster_overrun_ticks", "artisan_roaster_running"
+    };
+
+    private final ScheduledExecutorService scheduler;
+    private final MetricsRegistry metrics;
+    private final Map<String, RoastEngine> engines = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile AutoSave autoSave;
+    private ScheduledFuture<?> autoSaveFuture;
+
+    /** Registry with a pool sized for a handful of roasters (2 threads). */
+    public RoastSessionRegistry() {
+        this(2);
+    }
+
+    /** @param threads scheduler threads shared by all roasters (ticks of one roaster never overlap) */
+    public RoastSessionRegistry(int threads) {
+        this(threads, MetricsRegistry.getDefault());
+    }
+
+    /**
+     * @param threads scheduler threads shared by all roasters (ticks of one roaster never overlap)
+     * @param metrics registry the roasters' metrics are exported to (null = {@link MetricsRegistry#getDefault()})
+     */
+    public RoastSessionRegistry(int threads, MetricsRegistry metrics) {
+        this.metrics = metrics != null ? metrics : MetricsRegistry.getDefault();
+        this.metrics.gauge("artisan_roasters", "Roasters registered in the host", this::size);
+        AtomicInteger n = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "roast-host-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Creates and registers an engine for {@code roasterId} on the shared scheduler.
+     *
+     * @throws IllegalArgumentException if the id is blank or already registered
+     */
+    public RoastEngine register(String roasterId, DeviceChannel channel, SamplingConfig samplingConfig) {
+        if (roasterId == null || roasterId.isBlank()) {
+            throw new IllegalArgumentException("roasterId must not be blank");
+        }
+        RoastEngine engine = new RoastEngine(new RoastSession(), channel, samplingConfig, scheduler);
+        engine.setTitle(roasterId);
+        if (engines.putIfAbsent(roasterId, engine) != null) {
+            throw new IllegalArgumentException("Roaster already registered: " + roasterId);
+        }
+        exportMetrics(roasterId, engine);
+        engine.addListener(new RoastEngine.Listener() {
+            @Override
+            public void onSample(Sample sample, double rorBt, double rorEt) {
+                for (Listener l : listeners) l.onSample(roasterId, sample, rorBt, rorEt);
+            }
+
+            @Override
+            public void onStatistics(StatisticsUpdate update) {
+                for (Listener l : listeners) l.onStatistics(roasterId, update);
+            }
+
+            @Override
+            public void onEvent(EventType type, int timeIndex) {
+                if (type == EventType.DROP) scheduler.execute(() -> saveOnDrop(roasterId));
+                for (Listener l : listeners) l.onEvent(roasterId, type, timeIndex);
+            }
+
+            @Override
+            public void onError(String message) {
+                for (Listener l : listeners) l.onError(roasterId, message);
+            }
+        });
+        return engine;
+    }
+
+    /** Stops, closes and removes the roaster. Returns false if unknown. */
+    public boolean unregister(String roasterId) {
+        RoastEngine engine = engines.remove(roasterId);
+        if (engine == null) return false;
+        engine.close();
+        for (String name : ROASTER_METRICS) metrics.remove(name, "roaster", roasterId);
+        return true;
+    }
+
+    /** Registry the roasters' metrics are exported to. */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    private void exportMetrics(String roasterId, RoastEngine engine) {
+        SamplingTimingStats t = engine.getTimingStats();
+        metrics.histogram(ROASTER_METRICS[0], "Sampling tick start minus its scheduled time",
+            t.getLatenessHistogram(), "roaster", roasterId);
+        metrics.histogram(ROASTER_METRICS[1], "Duration of DeviceChannel.read()", t.getReadHistogram(),
+            "roaster", roasterId);
+        metrics.gauge(ROASTER_METRICS[2], "Ticks of the current sampling run", t::getTickCount, "roaster", roasterId);
+        metrics.gauge(ROASTER_METRICS[3], "Reads that ended after the next tick was due", t::getOverrunTicks,
+            "roaster", roasterId);
+        metrics.gauge(ROASTER_METRICS[4], "1 while the roaster samples", () -> engine.isRunning() ? 1 : 0,
+            "roaster", roasterId);
+    }
+
+    public RoastEngine get(String roasterId) {
+        return engines.get(roasterId);
+    }
+
+    /** Registered roaster ids (snapshot). */
+    public List<String> getRoasterIds() {
+        return new ArrayList<>(engines.keySet());
+    }
+
+    public int size() {
+        return engines.size();
+    }
+
+    public void addListener(Listener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Starts every registered roaster that is not running. Returns how many started. */
+    public int startAll() {
+        int started = 0;
+        for (RoastEngine e : engines.values()) {
+            if (!e.isRunning() && e.start()) started++;
+        }
+        return started;
+    }
+
+    public void stopAll() {
+        for (RoastEngine e : engines.values()) e.stop();
+    }
+
+    /**
+     * One autosave task for all roasters: every {@code autoSave.getIntervalMinutes()} each charged
+     * roaster is written to autoSave's folder as {@code <prefix>_<roasterId>_<title>...alog};
+     * DROP saves immediately when saveOnDrop is set. Null disables.
+     */
+    public synchronized void setAutoSave(AutoSave autoSave) {
+        if (autoSaveFuture != null) {
+            autoSaveFuture.cancel(false);
+            autoSaveFuture = null;
+        }
+        this.autoSave = autoSave;
+        if (autoSave == null || !autoSave.isEnabled()) return;
+        long period = Math.max(1, autoSave.getIntervalMinutes());
+        autoSaveFuture = scheduler.scheduleAtFixedRate(this::saveAll, period, period, TimeUnit.MINUTES);
+    }
+
+    /** Saves every running roaster now (autosave naming). Returns the number of files written. */
+    public int saveAll() {
+        AutoSave as = autoSave;
+        if (as == null) return 0;
+        int saved = 0;
+        for (Map.Entry<String, RoastEngine> e : engines.entrySet()) {
+            if (!e.getValue().isRunning()) continue;
+            if (save(as, e.getKey(), e.getValue()) != null) saved++;
+        }
+        return saved;
+    }
+
+    private void saveOnDrop(String roasterId) {
+        AutoSave as = autoSave;
+        RoastEngine engine = engines.get(roasterId);
+        if (as == null || engine == null || !as.isEnabled() || !as.isSaveOnDrop()) return;
+        Path path = save(as, roasterId, engine);
+        if (path != null) LOG.log(Level.INFO, "Autosave on DROP ({0}): {1}", new Object[] { roasterId, path });
+    }
+
+    private static Path save(AutoSave as, String roasterId, RoastEngine engine) {
+        String title = engine.getTitle();
+        return as.saveSnapshot(engine.snapshot(), roasterId.equals(title) ? roasterId : roasterId + "_" + title);
+    }
+
+    /** Closes all roasters and shuts down the shared scheduler. */
+    @Override
+    public void close() {
+        setAutoSave(null);
+        for (String id : getRoasterIds()) unregister(id);
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(2, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package org.artisan.controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import org.artisan.model.CanvasData;
+import org.artisan.model.DoubleColumn;
+import org.artisan.model.EventEntry;
+import org.artisan.model.EventList;
+import org.artisan.model.EventType;
+
+/**
+ * Crash-safe write-ahead journal of a recording: every sample (time, BT, ET and both live RoR
+ * values) and every marked event is appended as a fixed 48-byte record to a preallocated,
+ * memory-mapped file, so the cost per sample stays constant however long the roast gets, and
+ * a crash or power cut loses at most the last sync interval instead of the autosave interval.
+ * <p>
+ * Records are fed incrementally via {@link #sync(RoastSession)} (only samples and events added
+ * since the last call are written, like {@link LiveRoastAnalytics#sync}); the mapped pages are
+ * forced to disk every {@code syncIntervalMillis} on a daemon thread, or on each sync when the
+ * interval is 0. Each record carries a CRC32 and its kind byte is written last, so a torn record
+ * ends the journal on recovery. When already journaled events were edited (removed, moved or
+ * replaced), an events-reset record is appended followed by the whole current event list, so
+ * recovery replays each event once.
+ * <p>
+ * {@link #finish()} marks the journal finished, drops the mapping and deletes the file once the
+ * roast is saved or discarded. Where the file cannot be deleted yet (Windows keeps a mapped file
+ * until the buffer is collected) it stays marked finished and {@link #findUnfinished} deletes it
+ * on a later start. A journal still present on startup is replayed with {@link #recover}, which
+ * reads the file through a FileChannel and leaves no mapping behind.
+ * <p>
+ * File layout (little-endian): a 64-byte header ({@code "AJNL"}, or {@code "AJNX"} once finished,
+ * u16 version, u16 0, i32 record size, i32 0, i64 start epoch millis, f64 sampling interval,
+ * u8 title length + 31 bytes UTF-8 title) followed by records:
+ * <pre>
+ *   sample: u8 1, 3 x 0, u32 crc, f64 time, f64 BT, f64 ET, f64 RoR ET, f64 RoR BT
+ *   event:  u8 2, 3 x 0, u32 crc, i32 index, u8 type, u8 label length, u16 0, f64 temp, f64 value, 16 bytes label
+ *   events reset: u8 3, 3 x 0, u32 crc, 40 x 0
+ * </pre>
+ */
+public final class SampleJournal implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(SampleJournal.class.getName());
+    private static final LatencyHistogram SYNC_TIMES = MetricsRegistry.getDefault()
+        .timer("artisan_journal_sync_seconds", "Duration of journal fsyncs");
+
+    public static final String EXTENSION = ".ajournal";
+
+    static final int MAGIC = 'A' | 'J' << 8 | 'N' << 16 | 'L' << 24;
+    static final int FINISHED_MAGIC = 'A' | 'J' << 8 | 'N' << 16 | 'X' << 24;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 48;
+    /** Records preallocated on create; the mapping doubles when full. */
+    static final int INITIAL_RECORDS = 4096;
+
+    private static final byte SAMPLE = 1;
+    private static final byte EVENT = 2;
+    private static final byte EVENTS_RESET = 3;
+    private static final int TITLE_BYTES = 31;
+    private static final int LABEL_BYTES = 16;
+
+    /** What {@link #recover} found. */
+    public record Recovery(String title, long startEpochMillis, double samplingIntervalSec, int samples,
+                           int events) {}
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long syncIntervalMillis;
+    private final ScheduledExecutorService syncer;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer map;
+    private int position = HEADER_BYTES;
+    private int forcedPosition;
+    private int samples;
+    /** Events as journaled since the last events reset, to detect edits of earlier events. */
+    private final List<EventEntry> journaledEvents = new ArrayList<>();
+    private boolean closed;
+
+    private SampleJournal(Path file, FileChannel channel, long syncIntervalMillis) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.syncIntervalMillis = Math.max(0, syncIntervalMillis);
+        this.map = map(channel, HEADER_BYTES + (long) INITIAL_RECORDS * RECORD_BYTES);
+        if (this.syncIntervalMillis > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "journal-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            syncer.scheduleWithFixedDelay(this::forceQuietly, this.syncIntervalMillis, this.syncIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        MappedByteBuffer m = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        m.order(ByteOrder.LITTLE_ENDIAN);
+        return m;
+    }
+
+    /**
+     * Creates (or truncates) a journal at {@code file} and writes its header to disk.
+     *
+     * @param syncIntervalMillis how often appended records are forced to disk; 0 = on every sync
+     */
+    public static SampleJournal create(Path file, String title, double samplingIntervalSec, long syncIntervalMillis)
+            throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            SampleJournal j = new SampleJournal(file, ch, syncIntervalMillis);
+            j.writeHeader(title, samplingIntervalSec);
+            return j;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private void writeHeader(String title, double samplingIntervalSec) {
+        map.putInt(0, MAGIC);
+        map.putShort(4, (short) VERSION);
+        map.putInt(8, RECORD_BYTES);
+        map.putLong(16, System.currentTimeMillis());
+        map.putDouble(24, samplingIntervalSec);
+        byte[] t = utf8Prefix(title != null ? title : "", TITLE_BYTES);
+        map.put(32, (byte) t.length);
+        map.put(33, t);
+        map.force(0, HEADER_BYTES);
+        forcedPosition = HEADER_BYTES;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized int getSampleCount() {
+        return samples;
+    }
+
+    /** Events of the current list in the journal (an events reset starts over). */
+    public synchronized int getEventCount() {
+        return journaledEvents.size();
+    }
+
+    /**
+     * Appends the samples and events added to {@code session} since the last call. Call from the
+     * thread that records into the session. A cleared session (new roast) is not detected; use
+     * a new journal per roast.
+     */
+    public synchronized void sync(RoastSession session) throws IOException {
+        if (closed) return;
+        CanvasData cd = session.getCanvasData();
+        DoubleColumn.View timex = cd.getTimexView();
+        int n = timex.size();
+        if (n > samples) {
+            DoubleColumn.View bt = cd.getTemp2View();
+            DoubleColumn.View et = cd.getTemp1View();
+            DoubleColumn.View rorEt = cd.getDelta1View();
+            DoubleColumn.View rorBt = cd.getDelta2View();
+            for (int i = samples; i < n; i++) {
+                appendSample(timex.get(i), valueAt(bt, i), valueAt(et, i), valueAt(rorEt, i), valueAt(rorBt, i));
+            }
+        }
+        EventList list = session.getEvents();
+        if (eventsEdited(list)) {
+            appendEventsReset();
+        }
+        for (int i = journaledEvents.size(); i < list.size(); i++) appendEvent(list.get(i));
+        if (syncIntervalMillis == 0) force();
+    }
+
+    /** True if an already journaled event was removed or replaced (appends alone are not edits). */
+    private boolean eventsEdited(EventList list) {
+        int n = journaledEvents.size();
+        if (list.size() < n) return true;
+        for (int i = 0; i < n; i++) {
+            if (!journaledEvents.get(i).equals(list.get(i))) return true;
+        }
+        return false;
+    }
+
+    private static double valueAt(DoubleColumn.View v, int i) {
+        return i < v.size() ? v.get(i) : Double.NaN;
+    }
+
+    private void appendSample(double timeSec, double bt, double et, double rorEt, double rorBt) throws IOException {
+        int at = reserve();
+        map.putDouble(at + 8, timeSec);
+        map.putDouble(at + 16, bt);
+        map.putDouble(at + 24, et);
+        map.putDouble(at + 32, rorEt);
+        map.putDouble(at + 40, rorBt);
+        commit(at, SAMPLE);
+        samples++;
+    }
+
+    private void appendEvent(EventEntry e) throws IOException {
+        int at = reserve();
+        byte[] label = utf8Prefix(e.getLabel() != null ? e.getLabel() : "", LABEL_BYTES);
+        EventType type = e.getType() != null ? e.getType() : EventType.CUSTOM;
+        map.putInt(at + 8, e.getTimeIndex());
+        map.put(at + 12, (byte) type.ordinal());
+        map.put(at + 13, (byte) label.length);
+        map.putDouble(at + 16, e.getTemp());
+        map.putDouble(at + 24, e.getValue());
+        map.put(at + 32, label);
+        commit(at, EVENT);
+        journaledEvents.add(e);
+    }
+
+    private void appendEventsReset() throws IOException {
+        int at = reserve();
+        for (int i = at + 8; i < at + RECORD_BYTES; i += 8) map.putLong(i, 0L);
+        commit(at, EVENTS_RESET);
+        journaledEvents.clear();
+    }
+
+    /** Offset of the next record, growing the mapping when it is full. */
+    private int reserve() throws IOException {
+        if (position + RECORD_BYTES > map.capacity()) {
+            map.force();
+            forcedPosition = position;
+            map = map(channel, (long) map.capacity() * 2 - HEADER_BYTES);
+        }
+        int at = position;
+        position += RECORD_BYTES;
+        return at;
+    }
+
+    /** Writes the checksum, then the kind byte that makes the record visible to recovery. */
+    private void commit(int at, byte kind) {
+        map.putInt(at + 4, checksum(crc, map, at, kind));
+        map.put(at, kind);
+    }
+
+    private static int checksum(CRC32 crc, ByteBuffer buf, int at, byte kind) {
+        crc.reset();
+        crc.update(kind);
+        crc.update(buf.slice(at + 8, RECORD_BYTES - 8));
+        return (int) crc.getValue();
+    }
+
+    /** Forces records appended since the last force to disk. */
+    public synchronized void force() {
+        if (closed || position == forcedPosition) return;
+        long start = System.nanoTime();
+        map.force(forcedPosition, position - forcedPosition);
+        forcedPosition = position;
+        SYNC_TIMES.record(System.nanoTime() - start);
+    }
+
+    private void forceQuietly() {
+        try {
+            force();
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Journal sync failed: " + file, e);
+        }
+    }
+
+    /** Forces pending records and releases the file; the journal stays on disk for recovery. */
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) syncer.shutdownNow();
+        synchronized (this) {
+            if (closed) return;
+            force();
+            release();
+        }
+    }
+
+    /**
+     * The roast was saved or discarded: marks the journal finished, closes it and deletes it
+     * (see {@link #discard}).
+     */
+    public void finish() throws IOException {
+        if (syncer != null) syncer.shutdownNow();
+        synchronized (this) {
+            if (!closed) {
+                force();
+                map.putInt(0, FINISHED_MAGIC);
+                map.force(0, HEADER_BYTES);
+                release();
+            }
+        }
+        discard(file);
+    }
+
+    private void release() throws IOException {
+        closed = true;
+        map = null;
+        channel.close();
+    }
+
+    /**
+     * Deletes a journal that is no longer needed (saved, discarded or recovered). If the file
+     * cannot be deleted yet, it is marked finished so that {@link #findUnfinished} skips it and
+     * retries the delete on a later start. Returns true if the file is gone.
+     */
+    public static boolean discard(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException e) {
+            LOG.log(Level.INFO, "Journal {0} not deleted yet ({1}), deleting on a later start",
+                new Object[] { file, e.getMessage() });
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, FINISHED_MAGIC);
+            ch.write(magic, 0);
+            ch.force(false);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Cannot mark journal finished: " + file, e);
+        }
+        return false;
+    }
+
+    // ── Recovery ──────────────────────────────────────────────────────────────
+
+    /**
+     * Journals left in {@code dir} by a recording that was neither saved nor discarded. Journals
+     * marked finished whose delete failed earlier are deleted now (or left for the next start).
+     */
+    public static List<Path> findUnfinished(Path dir) {
+        List<Path> out = new ArrayList<>();
+        if (dir == null || !Files.isDirectory(dir)) return out;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path p : ds) {
+                if (!Files.isRegularFile(p) || Files.size(p) < HEADER_BYTES) continue;
+                int magic = readMagic(p);
+                if (magic == MAGIC) {
+                    out.add(p);
+                } else if (magic == FINISHED_MAGIC) {
+                    try {
+                        Files.deleteIfExists(p);
+                    } catch (IOException e) {
+                        LOG.log(Level.FINE, "Finished journal {0} still not deletable", p);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Cannot list journals in " + dir, e);
+        }
+        out.sort(null);
+        return out;
+    }
+
+    private static int readMagic(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer b = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (b.hasRemaining() && ch.read(b) >= 0) {
+                // read the full magic
+            }
+            return b.hasRemaining() ? 0 : b.getInt(0);
+        }
+    }
+
+    /**
+     * Replays {@code file} into {@code session} (samples with their RoR into CanvasData, events
+     * into the event list and CanvasData's event indices). Stops at the first unwritten or torn
+     * record. The session should be empty. The file is read into a heap buffer (no mapping stays
+     * open), so it can be deleted right after.
+     *
+     * @throws IOException if the file is not a journal
+     */
+    public static Recovery recover(Path file, RoastSession session) throws IOException {
+        ByteBuffer m;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES || ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a sample journal: " + file);
+            }
+            m = ByteBuffer.allocate((int) ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (m.hasRemaining() && ch.read(m) >= 0) {
+                // read the whole file
+            }
+            m.flip();
+        }
+        if (m.limit() < HEADER_BYTES || m.getInt(0) != MAGIC || m.getShort(4) < 1 || m.getShort(4) > VERSION
+                || m.getInt(8) != RECORD_BYTES) {
+            throw new IOException("Not a sample journal: " + file);
+        }
+        int titleLen = Math.min(m.get(32) & 0xFF, TITLE_BYTES);
+        byte[] title = new byte[titleLen];
+        m.get(33, title);
+        CanvasData cd = session.getCanvasData();
+        CRC32 crc = new CRC32();
+        int samples = 0;
+        int events = 0;
+        for (int at = HEADER_BYTES; at + RECORD_BYTES <= m.limit(); at += RECORD_BYTES) {
+            byte kind = m.get(at);
+            if (kind != SAMPLE && kind != EVENT && kind != EVENTS_RESET) break;
+            if (checksum(crc, m, at, kind) != m.getInt(at + 4)) {
+                LOG.log(Level.WARNING, "Journal {0}: torn record at {1}, stopping", new Object[] { file, at });
+                break;
+            }
+            if (kind == SAMPLE) {
+                cd.addDataPoint(m.getDouble(at + 8), m.getDouble(at + 16), m.getDouble(at + 24));
+                cd.addDelta1(m.getDouble(at + 32));
+                cd.addDelta2(m.getDouble(at + 40));
+                samples++;
+            } else if (kind == EVENT) {
+                replayEvent(m, at, session);
+                events++;
+            } else {
+                clearEvents(session);
+                events = 0;
+            }
+        }
+        return new Recovery(new String(title, StandardCharsets.UTF_8), m.getLong(16), m.getDouble(24), samples,
+            events);
+    }
+
+    private static void clearEvents(RoastSession session) {
+        session.getEvents().clear();
+        CanvasData cd = session.getCanvasData();
+        cd.setChargeIndex(-1);
+        cd.setDryEndIndex(-1);
+        cd.setFcStartIndex(-1);
+        cd.setFcEndIndex(-1);
+        cd.setScStartIndex(-1);
+        cd.setScEndIndex(-1);
+        cd.setDropIndex(-1);
+    }
+
+    private static void replayEvent(ByteBuffer m, int at, RoastSession session) {
+        int idx = m.getInt(at + 8);
+        int ord = m.get(at + 12) & 0xFF;
+        EventType type = ord < EventType.values().length ? EventType.values()[ord] : EventType.CUSTOM;
+        byte[] label = new byte[Math.min(m.get(at + 13) & 0xFF, LABEL_BYTES)];
+        m.get(at + 32, label);
+        session.getEvents().add(new EventEntry(idx, m.getDouble(at + 16),
+            new String(label, StandardCharsets.UTF_8), type, m.getDouble(at + 24)));
+        CanvasData cd = session.getCanvasData();
+        switch (type) {
+            case CHARGE -> cd.setChargeIndex(idx);
+            case DRY_END -> cd.setDryEndIndex(idx);
+            case FC_START -> cd.setFcStartIndex(idx);
+            case FC_END -> cd.setFcEndIndex(idx);
+            case SC_START -> cd.setScStartIndex(idx);
+            case SC_END -> cd.setScEndIndex(idx);
+            case DROP -> cd.setDropIndex(idx);
+            default -> { }
+        }
+    }
+
+    /** UTF-8 bytes of {@code s}, cut at a character boundary to at most {@code max} bytes. */
+    private static byte[] utf8Prefix(String s, int max) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        if (b.length <= max) return b;
+        int n = max;
+        while (n > 0 && (b[n] & 0xC0) == 0x80) n--;
+        byte[] out = new byte[n];
+        System.arraycopy(b, 0, out, 0, n);
+        return out;
+    }
+}
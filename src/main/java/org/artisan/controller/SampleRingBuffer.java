@@ -0,0 +1,142 @@
+package org.artisan.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer/single-consumer ring of (time, BT, ET) samples stored in primitive
+ * arrays. The comm thread {@link #offer}s, the FX pulse {@link #drain}s everything pending in
+ * one batch; neither side locks or allocates.
+ * <p>
+ * When the ring is full the new sample is dropped (the consumer owns the older ones). Drop,
+ * overflow-episode and high-water counters show when the UI falls behind the device. With a
+ * {@link #setLatencyHistogram latency histogram} set, each sample is stamped on offer and its
+ * offer-to-drain time is recorded on drain.
+ */
+public final class SampleRingBuffer {
+
+    /** Receives drained samples without boxing. */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(double timeSec, double bt, double et);
+    }
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final double[] time;
+    private final double[] bt;
+    private final double[] et;
+    private final long[] stamp;
+    private final int mask;
+    private volatile LatencyHistogram latency;
+
+    /** Next slot to read; written by the consumer only. */
+    private final AtomicLong head = new AtomicLong();
+    /** Next slot to write; written by the producer only. */
+    private final AtomicLong tail = new AtomicLong();
+    /** Producer-local copy of head, refreshed only when the ring looks full. */
+    private long headCache;
+
+    // Producer-written counters (single writer, volatile for readers on other threads).
+    private volatile long droppedCount;
+    private volatile long overflowCount;
+    private volatile int highWaterMark;
+    private boolean overflowing;
+
+    public SampleRingBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** @param capacity rounded up to a power of two (minimum 2) */
+    public SampleRingBuffer(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        time = new double[cap];
+        bt = new double[cap];
+        et = new double[cap];
+        stamp = new long[cap];
+        mask = cap - 1;
+    }
+
+    /** Records offer-to-drain time of every sample into {@code histogram} (null = off). */
+    public void setLatencyHistogram(LatencyHistogram histogram) {
+        this.latency = histogram;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Approximate number of pending samples (exact when called from either endpoint thread). */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Producer side: appends one sample.
+     *
+     * @return false if the ring was full and the sample was dropped
+     */
+    public boolean offer(double timeSec, double btValue, double etValue) {
+        long t = tail.get();
+        if (t - headCache > mask) {
+            headCache = head.get();
+            if (t - headCache > mask) {
+                droppedCount++;
+                if (!overflowing) {
+                    overflowing = true;
+                    overflowCount++;
+                }
+                return false;
+            }
+        }
+        int i = (int) t & mask;
+        time[i] = timeSec;
+        bt[i] = btValue;
+        et[i] = etValue;
+        stamp[i] = latency != null ? System.nanoTime() : 0;
+        tail.lazySet(t + 1);
+        overflowing = false;
+        int pending = (int) (t + 1 - head.get());
+        if (pending > highWaterMark) highWaterMark = pending;
+        return true;
+    }
+
+    /**
+     * Consumer side: passes every sample published so far to {@code sink}, oldest first.
+     *
+     * @return number of samples drained
+     */
+    public int drain(Sink sink) {
+        long h = head.get();
+        long t = tail.get();
+        long start = h;
+        LatencyHistogram hist = latency;
+        long now = hist != null && h < t ? System.nanoTime() : 0;
+        while (h < t) {
+            int i = (int) h & mask;
+            if (hist != null && stamp[i] != 0) hist.record(now - stamp[i]);
+            sink.accept(time[i], bt[i], et[i]);
+            head.lazySet(++h);
+        }
+        return (int) (h - start);
+    }
+
+    /** Consumer side: discards all pending samples. */
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+
+    /** Samples rejected because the ring was full. */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /** Number of distinct overflow episodes (full → dropping → accepting again counts once). */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    /** Highest number of pending samples seen right after an offer. */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+}
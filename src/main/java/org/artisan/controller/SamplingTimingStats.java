@@ -0,0 +1,156 @@
+package org.artisan.controller;
+
+import java.util.Locale;
+
+/**
+ * Per-tick timing of a fixed-rate sampling loop. Tick {@code k} is due at
+ * {@code origin + k * period}; for every tick the loop records
+ * <ul>
+ *   <li>lateness: actual start minus due time (grows when ticks bunch up behind a slow read),</li>
+ *   <li>interval error: |start-to-start time minus period| (the "1 Hz ± x ms" figure),</li>
+ *   <li>read: duration of {@code DeviceChannel.read()},</li>
+ *   <li>dispatch: publish on the sampling thread until the FX thread consumed the sample,</li>
+ * </ul>
+ * and counts skipped ticks (no read, channel closed), overruns (read ended after the next tick
+ * was due) and late ticks (started a full period or more behind schedule, i.e. fixed-rate
+ * catch-up). The sampling thread is the only writer apart from the dispatch histogram.
+ */
+public final class SamplingTimingStats {
+
+    /** Tolerance used by {@link #format()} for the on-time fraction. */
+    public static final long DEFAULT_TOLERANCE_NANOS = 5_000_000L;
+
+    private final LatencyHistogram lateness = new LatencyHistogram();
+    private final LatencyHistogram intervalError = new LatencyHistogram();
+    private final LatencyHistogram read = new LatencyHistogram();
+    private final LatencyHistogram dispatch = new LatencyHistogram();
+
+    private long periodNanos;
+    private long originNanos;
+    private long tickIndex;
+    private long lastStartNanos;
+    private long skippedTicks;
+    private long overrunTicks;
+    private long lateTicks;
+
+    /**
+     * Clears everything for a loop whose first tick is due at {@code firstTickNanos}
+     * ({@link System#nanoTime()} time base).
+     */
+    public synchronized void reset(long periodNanos, long firstTickNanos) {
+        this.periodNanos = Math.max(1, periodNanos);
+        this.originNanos = firstTickNanos;
+        tickIndex = 0;
+        lastStartNanos = 0;
+        skippedTicks = 0;
+        overrunTicks = 0;
+        lateTicks = 0;
+        lateness.reset();
+        intervalError.reset();
+        read.reset();
+        dispatch.reset();
+    }
+
+    /** Clears the counters and histograms, keeping period and schedule. */
+    public synchronized void clear() {
+        long due = originNanos + tickIndex * periodNanos;
+        reset(periodNanos, due);
+    }
+
+    /**
+     * Call first thing in a tick. Records lateness and interval error.
+     *
+     * @return the tick start ({@link System#nanoTime()})
+     */
+    public synchronized long tickStarted() {
+        long now = System.nanoTime();
+        long due = originNanos + tickIndex * periodNanos;
+        long late = now - due;
+        lateness.record(late);
+        if (late >= periodNanos) lateTicks++;
+        if (lastStartNanos != 0) intervalError.record(Math.abs(now - lastStartNanos - periodNanos));
+        lastStartNanos = now;
+        tickIndex++;
+        return now;
+    }
+
+    /** The current tick did not read (channel missing or closed). */
+    public synchronized void tickSkipped() {
+        skippedTicks++;
+    }
+
+    /** The read of the tick started at {@code startNanos} returned (or failed) now. */
+    public synchronized void readFinished(long startNanos) {
+        long now = System.nanoTime();
+        read.record(now - startNanos);
+        if (now > originNanos + tickIndex * periodNanos) overrunTicks++;
+    }
+
+    /** Fed by the consumer side (FX thread) with publish-to-consume times. */
+    public LatencyHistogram getDispatchHistogram() {
+        return dispatch;
+    }
+
+    public LatencyHistogram getLatenessHistogram() {
+        return lateness;
+    }
+
+    public LatencyHistogram getIntervalErrorHistogram() {
+        return intervalError;
+    }
+
+    public LatencyHistogram getReadHistogram() {
+        return read;
+    }
+
+    public synchronized long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    public synchronized long getTickCount() {
+        return tickIndex;
+    }
+
+    public synchronized long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    public synchronized long getOverrunTicks() {
+        return overrunTicks;
+    }
+
+    public synchronized long getLateTicks() {
+        return lateTicks;
+    }
+
+    /** Fraction (0..1) of tick intervals within ±{@code toleranceNanos} of the period; 1 when none yet. */
+    public double onTimeFraction(long toleranceNanos) {
+        long n = intervalError.getCount();
+        return n > 0 ? (double) intervalError.countAtOrBelow(toleranceNanos) / n : 1.0;
+    }
+
+    /** Multi-line summary (percentiles in ms) for the Log Viewer and the headless recorder. */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        synchronized (this) {
+            sb.append(String.format(Locale.ROOT, "period %.1f ms  ticks %d  skipped %d  overrun %d  late %d%n",
+                periodNanos / 1e6, tickIndex, skippedTicks, overrunTicks, lateTicks));
+        }
+        sb.append(String.format(Locale.ROOT, "within ±%.0f ms of period: %.2f %%%n%n",
+            DEFAULT_TOLERANCE_NANOS / 1e6, 100.0 * onTimeFraction(DEFAULT_TOLERANCE_NANOS)));
+        sb.append(String.format(Locale.ROOT, "%-16s %8s %8s %8s %8s %8s %8s %8s%n",
+            "", "count", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        row(sb, "start lateness", lateness);
+        row(sb, "interval error", intervalError);
+        row(sb, "read", read);
+        row(sb, "dispatch to FX", dispatch);
+        return sb.toString();
+    }
+
+    private static void row(StringBuilder sb, String name, LatencyHistogram h) {
+        sb.append(String.format(Locale.ROOT, "%-16s %8d %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+            name, h.getCount(), h.getMeanNanos() / 1e6, h.percentileNanos(0.5) / 1e6,
+            h.percentileNanos(0.9) / 1e6, h.percentileNanos(0.99) / 1e6, h.percentileNanos(0.999) / 1e6,
+            h.getMaxNanos() / 1e6));
+    }
+}
@@ -0,0 +1,336 @@
+package org.artisan.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.artisan.model.AxisConfig;
+import org.artisan.model.SamplingConfig;
+import org.artisan.model.SamplingConfig.Channel;
+import org.artisan.util.IirFilterDesign;
+import org.artisan.util.LiveFilter;
+import org.artisan.util.LiveMedian;
+import org.artisan.util.LiveSosFilter;
+
+/**
+ * Per-channel signal conditioning between the device read and CanvasData, run on the sampling
+ * thread: spike gate → median → Butterworth low-pass → °F to °C, each stage switched on by
+ * {@link SamplingConfig}, followed by any stages added with {@link #addStage}.
+ * <p>
+ * Every gate sees the raw BT and ET first; if one rejects, the whole sample is dropped and no
+ * stage state changes. Accepted values then run through the chains and are read back with
+ * {@link #getBt()}/{@link #getEt()}. The chains are rebuilt (fresh filter state) when the config
+ * changes or after {@link #reset()}; otherwise {@link #process} does not allocate. Each stage's
+ * time is recorded into a {@link LatencyHistogram} kept per channel and stage name.
+ * <p>
+ * {@link #process} must be called from one thread at a time; the other methods are thread-safe.
+ */
+public final class SignalConditioner {
+
+    private static final Logger LOG = Logger.getLogger(SignalConditioner.class.getName());
+
+    /** One step of a channel chain. */
+    public interface Stage {
+        /** Short name for latency reports (e.g. "median"). */
+        String name();
+
+        /**
+         * Checked against the raw reading before any stage runs.
+         *
+         * @return false to drop the whole sample
+         */
+        default boolean accepts(double timeSec, double value) {
+            return true;
+        }
+
+        /** Conditions one value of an accepted sample. */
+        double apply(double timeSec, double value);
+
+        /** Clears state for a new roast. */
+        default void reset() {}
+    }
+
+    /** Stages of one channel with their latency histograms (sampling thread only). */
+    private static final class Chain {
+        final Stage[] stages;
+        final LatencyHistogram[] latency;
+
+        Chain(Stage[] stages, LatencyHistogram[] latency) {
+            this.stages = stages;
+            this.latency = latency;
+        }
+
+        boolean accepts(double timeSec, double value) {
+            for (Stage s : stages) {
+                if (!s.accepts(timeSec, value)) return false;
+            }
+            return true;
+        }
+
+        double apply(double timeSec, double value) {
+            if (stages.length == 0) return value;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < stages.length; i++) {
+                value = stages[i].apply(timeSec, value);
+                long t1 = System.nanoTime();
+                latency[i].record(t1 - t0);
+                t0 = t1;
+            }
+            return value;
+        }
+    }
+
+    private final MetricsRegistry metrics;
+    private volatile SamplingConfig config;
+    private volatile boolean stale = true;
+    private final List<List<Stage>> extraStages = List.of(new CopyOnWriteArrayList<>(), new CopyOnWriteArrayList<>());
+    /** Latency per "CHANNEL/stage", kept across rebuilds; insertion order is chain order. */
+    private final Map<String, LatencyHistogram> latency = new ConcurrentHashMap<>();
+    private final List<String> latencyOrder = new CopyOnWriteArrayList<>();
+
+    private int builtRevision;
+    private Chain btChain = new Chain(new Stage[0], new LatencyHistogram[0]);
+    private Chain etChain = btChain;
+    private double bt = Double.NaN;
+    private double et = Double.NaN;
+    private volatile long rejectedCount;
+
+    /** Conditioner without exported metrics. */
+    public SignalConditioner() {
+        this(null);
+    }
+
+    /** Conditioner whose stage latencies and rejections are exported to {@code metrics} (may be null). */
+    public SignalConditioner(MetricsRegistry metrics) {
+        this.metrics = metrics;
+        if (metrics != null) {
+            metrics.counter("artisan_conditioning_rejected_total", "Samples dropped by a spike gate",
+                this::getRejectedCount);
+        }
+    }
+
+    /** Settings to build the chains from; null passes samples through unchanged. */
+    public void setConfig(SamplingConfig config) {
+        this.config = config;
+        stale = true;
+    }
+
+    public SamplingConfig getConfig() {
+        return config;
+    }
+
+    /** Appends {@code stage} to the chain of {@code channel}, after the configured stages. */
+    public void addStage(Channel channel, Stage stage) {
+        if (channel == null || stage == null) return;
+        extraStages.get(channel.ordinal()).add(stage);
+        stale = true;
+    }
+
+    public void removeStage(Channel channel, Stage stage) {
+        if (channel == null) return;
+        if (extraStages.get(channel.ordinal()).remove(stage)) stale = true;
+    }
+
+    /** Drops filter and gate state; the next sample starts a new roast. */
+    public void reset() {
+        stale = true;
+    }
+
+    /**
+     * Runs one sample through the gates and chains.
+     *
+     * @return false if a spike gate rejected the sample; otherwise the conditioned values are
+     *         available from {@link #getBt()} and {@link #getEt()}
+     */
+    public boolean process(double timeSec, double btValue, double etValue) {
+        SamplingConfig cfg = config;
+        if (stale || (cfg != null && cfg.getRevision() != builtRevision)) rebuild(cfg);
+        Chain b = btChain;
+        Chain e = etChain;
+        if (!b.accepts(timeSec, btValue) || !e.accepts(timeSec, etValue)) {
+            rejectedCount++;
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.log(Level.FINE, "Spike gate: rejected sample at {0} s (BT={1}, ET={2})",
+                    new Object[] { timeSec, btValue, etValue });
+            }
+            return false;
+        }
+        bt = b.apply(timeSec, btValue);
+        et = e.apply(timeSec, etValue);
+        return true;
+    }
+
+    /** Conditioned BT of the last accepted sample. */
+    public double getBt() {
+        return bt;
+    }
+
+    /** Conditioned ET of the last accepted sample. */
+    public double getEt() {
+        return et;
+    }
+
+    /** Samples dropped by a spike gate since construction. */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /** Latency of stage {@code stage} of {@code channel}, or null if it never ran. */
+    public LatencyHistogram getStageLatency(Channel channel, String stage) {
+        return latency.get(channel.name() + "/" + stage);
+    }
+
+    /** Clears the stage latency histograms. */
+    public void clearLatency() {
+        for (LatencyHistogram h : latency.values()) h.reset();
+    }
+
+    /** Stage latency table (µs) and rejection count for the Log Viewer and the headless recorder. */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-22s %8s %8s %8s %8s %8s%n", "conditioning (µs)", "count", "mean",
+            "p50", "p99", "max"));
+        for (String key : latencyOrder) {
+            LatencyHistogram h = latency.get(key);
+            sb.append(String.format(Locale.ROOT, "%-22s %8d %8.2f %8.2f %8.2f %8.2f%n", key, h.getCount(),
+                h.getMeanNanos() / 1e3, h.percentileNanos(0.5) / 1e3, h.percentileNanos(0.99) / 1e3,
+                h.getMaxNanos() / 1e3));
+        }
+        sb.append(String.format(Locale.ROOT, "rejected by spike gate: %d%n", rejectedCount));
+        return sb.toString();
+    }
+
+    private void rebuild(SamplingConfig cfg) {
+        stale = false;
+        builtRevision = cfg != null ? cfg.getRevision() : 0;
+        btChain = chain(cfg, Channel.BT);
+        etChain = chain(cfg, Channel.ET);
+    }
+
+    private Chain chain(SamplingConfig cfg, Channel ch) {
+        List<Stage> stages = new ArrayList<>();
+        if (cfg != null) stages.addAll(configuredStages(cfg, ch));
+        stages.addAll(extraStages.get(ch.ordinal()));
+        LatencyHistogram[] hist = new LatencyHistogram[stages.size()];
+        for (int i = 0; i < hist.length; i++) {
+            Stage s = stages.get(i);
+            s.reset();
+            hist[i] = latencyFor(ch, s.name());
+        }
+        return new Chain(stages.toArray(new Stage[0]), hist);
+    }
+
+    private LatencyHistogram latencyFor(Channel ch, String stage) {
+        String key = ch.name() + "/" + stage;
+        return latency.computeIfAbsent(key, k -> {
+            LatencyHistogram h = new LatencyHistogram();
+            latencyOrder.add(k);
+            if (metrics != null) {
+                metrics.histogram("artisan_conditioning_stage_seconds", "Time spent in one signal conditioning stage",
+                    h, "channel", ch.name(), "stage", stage);
+            }
+            return h;
+        });
+    }
+
+    /** The built-in chain of {@code ch}: spike gate, median, low-pass, unit conversion. */
+    static List<Stage> configuredStages(SamplingConfig cfg, Channel ch) {
+        List<Stage> stages = new ArrayList<>();
+        boolean fahrenheit = cfg.isFahrenheitInput(ch);
+        if (cfg.isFilterSpikes() && cfg.isSpikeGate(ch)) {
+            // The gate sees raw readings; the threshold is in °C/s
+            stages.add(new SpikeGate(cfg.getSpikeThreshold() * (fahrenheit ? 1.8 : 1.0)));
+        }
+        int window = cfg.getMedianWindow(ch);
+        if (window > 1) {
+            stages.add(new FilterStage("median", new LiveMedian(window)));
+        }
+        double hz = cfg.getLowpassHz(ch);
+        if (hz > 0) {
+            double[][] sos = IirFilterDesign.butter1LowpassSos(1.0 / cfg.getIntervalSeconds(), hz);
+            stages.add(new FilterStage("low-pass", new LiveSosFilter(sos)));
+        }
+        if (fahrenheit) {
+            stages.add(new Stage() {
+                @Override
+                public String name() {
+                    return "F to C";
+                }
+
+                @Override
+                public double apply(double timeSec, double value) {
+                    return AxisConfig.fahrenheitToCelsius(value);
+                }
+            });
+        }
+        return stages;
+    }
+
+    /** Rejects a reading that moved faster than the threshold since the last accepted one. */
+    static final class SpikeGate implements Stage {
+        private final double thresholdPerSec;
+        private double last = Double.NaN;
+        private double lastTimeSec = Double.NaN;
+
+        SpikeGate(double thresholdPerSec) {
+            this.thresholdPerSec = thresholdPerSec;
+        }
+
+        @Override
+        public String name() {
+            return "spike gate";
+        }
+
+        @Override
+        public boolean accepts(double timeSec, double value) {
+            if (!Double.isFinite(last) || !Double.isFinite(lastTimeSec)) return true;
+            double dt = timeSec - lastTimeSec;
+            if (dt <= 0) return true;
+            return !(Math.abs(value - last) / dt > thresholdPerSec);
+        }
+
+        @Override
+        public double apply(double timeSec, double value) {
+            last = value;
+            lastTimeSec = timeSec;
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            last = Double.NaN;
+            lastTimeSec = Double.NaN;
+        }
+    }
+
+    /** Adapts a {@link LiveFilter} (NaN passes through unfiltered). */
+    private static final class FilterStage implements Stage {
+        private final String name;
+        private final LiveFilter filter;
+
+        FilterStage(String name, LiveFilter filter) {
+            this.name = name;
+            this.filter = filter;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public double apply(double timeSec, double value) {
+            return filter.process(value);
+        }
+
+        @Override
+        public void reset() {
+            filter.reset();
+        }
+    }
+}
@@ -31,6 +31,19 @@ public interface DeviceChannel {
      */
     SampleResult read() throws DeviceException;
 
+    /**
+     * Number of values of the last read (0 = BT, 1 = ET, 2.. = extra channels); 0 if the
+     * channel does not keep them.
+     */
+    default int getLastValueCount() {
+        return 0;
+    }
+
+    /** Value {@code i} of the last read (see {@link #getLastValueCount()}); NaN if absent. */
+    default double getLastValue(int i) {
+        return Double.NaN;
+    }
+
     /**
      * Short description for status bar (e.g. "Serial COM3", "Modbus 192.168.1.1:502").
      */
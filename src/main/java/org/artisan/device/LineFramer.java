@@ -0,0 +1,145 @@
+package org.artisan.device;
+
+import org.artisan.util.AsciiDoubles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable line framer for ASCII CSV devices ("BT,ET[,extra...]" terminated by CR and/or LF).
+ * <p>
+ * Bytes arrive through bulk reads into one {@link ByteBuffer} and fields are parsed straight
+ * from its bytes into a caller-supplied {@code double[]}: no per-byte reads, no Strings, no regex.
+ * Empty lines (e.g. the LF of CRLF) are skipped; bytes after the returned line stay buffered
+ * for the next call. Not thread-safe; one framer per channel.
+ */
+public final class LineFramer {
+
+    /** Bulk byte source; returns bytes read, 0 on timeout, -1 at end of stream / error. */
+    @FunctionalInterface
+    public interface ByteSource {
+        int read(byte[] buf, int off, int len) throws IOException;
+    }
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final ByteBuffer buf;
+    private final byte[] bytes;
+
+    public LineFramer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** @param capacity longest line accepted, in bytes */
+    public LineFramer(int capacity) {
+        bytes = new byte[Math.max(16, capacity)];
+        buf = ByteBuffer.wrap(bytes);
+        buf.limit(0);
+    }
+
+    /** Convenience source over an InputStream. */
+    public static ByteSource of(InputStream in) {
+        return in::read;
+    }
+
+    /** Drops buffered bytes (e.g. after reopening the port). */
+    public void clear() {
+        buf.clear();
+        buf.limit(0);
+    }
+
+    /** Number of bytes received but not yet consumed. */
+    public int buffered() {
+        return buf.remaining();
+    }
+
+    /**
+     * Reads the next non-empty line and parses its comma-separated numbers into {@code out}.
+     *
+     * @return number of fields on the line (values beyond {@code out.length} are parsed but not stored)
+     * @throws DeviceException on timeout / end of stream before a full line, overlong line,
+     *                         I/O failure, or a field that is not a number
+     */
+    public int readFields(ByteSource source, double[] out) throws DeviceException {
+        while (true) {
+            int start = buf.position();
+            int end = findTerminator(start, buf.limit());
+            if (end < 0) {
+                fill(source);
+                continue;
+            }
+            buf.position(end + 1);
+            if (isBlank(start, end)) continue;
+            return parseLine(start, end, out);
+        }
+    }
+
+    private int findTerminator(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b == '\n' || b == '\r') return i;
+        }
+        return -1;
+    }
+
+    private void fill(ByteSource source) throws DeviceException {
+        buf.compact();
+        if (!buf.hasRemaining()) {
+            buf.clear();
+            buf.limit(0);
+            throw new DeviceException("Line too long (> " + bytes.length + " bytes without terminator)");
+        }
+        int n;
+        try {
+            n = source.read(bytes, buf.position(), buf.remaining());
+        } catch (IOException e) {
+            buf.flip();
+            throw new DeviceException("Serial read failed", e);
+        }
+        if (n > 0) buf.position(buf.position() + n);
+        buf.flip();
+        if (n <= 0) {
+            throw new DeviceException(n == 0 ? "No data received (timeout)" : "No data received (end of stream)");
+        }
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isSpace(bytes[i])) return false;
+        }
+        return true;
+    }
+
+    private int parseLine(int from, int to, double[] out) throws DeviceException {
+        int fields = 0;
+        int i = from;
+        while (true) {
+            int comma = i;
+            while (comma < to && bytes[comma] != ',') comma++;
+            double v = parseNumber(i, comma);
+            if (fields < out.length) out[fields] = v;
+            fields++;
+            if (comma >= to) return fields;
+            i = comma + 1;
+        }
+    }
+
+    /** Parses bytes[from, to) trimmed of spaces/tabs; same results as Double.parseDouble. */
+    private double parseNumber(int from, int to) throws DeviceException {
+        while (from < to && isSpace(bytes[from])) from++;
+        while (to > from && isSpace(bytes[to - 1])) to--;
+        try {
+            if (from == to) throw new NumberFormatException("empty");
+            return AsciiDoubles.parseDouble(bytes, from, to);
+        } catch (NumberFormatException e) {
+            throw new DeviceException("Parse error: expected number: "
+                    + new String(bytes, from, to - from, StandardCharsets.US_ASCII), e);
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
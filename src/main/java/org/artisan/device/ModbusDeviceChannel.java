@@ -3,16 +3,23 @@ package org.artisan.device;
 import com.ghgande.j2mod.modbus.facade.AbstractModbusMaster;
 import com.ghgande.j2mod.modbus.facade.ModbusSerialMaster;
 import com.ghgande.j2mod.modbus.facade.ModbusTCPMaster;
+import com.ghgande.j2mod.modbus.procimg.InputRegister;
 import com.ghgande.j2mod.modbus.util.SerialParameters;
 
 /**
  * DeviceChannel implementation using Modbus (TCP or RTU over serial).
- * Reads holding registers for BT and ET, applies scale factor.
+ * Reads BT, ET and the configured extra channels through a {@link ModbusReadPlan} (fewest block
+ * reads per tick), applies each channel's scale factor. On TCP with pipeline depth &gt; 1 the
+ * blocks go through a {@link ModbusTcpPipeline}; otherwise through the j2mod master.
  */
 public final class ModbusDeviceChannel implements DeviceChannel {
 
     private final ModbusPortConfig config;
+    private final ModbusReadStats stats = new ModbusReadStats();
     private AbstractModbusMaster master;
+    private ModbusTcpPipeline pipeline;
+    private ModbusReadPlan plan;
+    private double[] values = new double[0];
     private volatile boolean connected;
 
     public ModbusDeviceChannel(ModbusPortConfig config) {
@@ -23,22 +30,30 @@ public final class ModbusDeviceChannel implements DeviceChannel {
 
     @Override
     public void open() throws DeviceException {
-        if (master != null && connected) {
+        if (isOpen()) {
             return;
         }
-        if (master != null) {
-            try {
-                master.disconnect();
-            } catch (Exception ignored) {
-            }
-            master = null;
+        close();
+        try {
+            plan = ModbusReadPlan.plan(config.getChannelSpecs(), ModbusReadPlan.MAX_READ_REGISTERS,
+                config.effectiveMaxGap());
+        } catch (IllegalArgumentException e) {
+            throw new DeviceException("Invalid Modbus channel: " + e.getMessage(), e);
         }
+        values = new double[plan.getChannelCount()];
+        stats.reset(plan);
         try {
             if (config.isUseTcp()) {
                 String h = config.getHost();
                 if (h == null || h.isBlank()) {
                     throw new DeviceException("Modbus TCP host is empty");
                 }
+                if (config.getPipelineDepth() > 1) {
+                    pipeline = new ModbusTcpPipeline(h, config.getPort(), 1000, config.getPipelineDepth());
+                    pipeline.connect();
+                    connected = true;
+                    return;
+                }
                 master = new ModbusTCPMaster(h, config.getPort(), 1000, false);
             } else {
                 String portName = config.getHost();
@@ -56,16 +71,25 @@ public final class ModbusDeviceChannel implements DeviceChannel {
             }
             master.connect();
             connected = true;
+        } catch (DeviceException e) {
+            close();
+            throw e;
         } catch (Exception e) {
-            master = null;
-            connected = false;
+            close();
             throw new DeviceException("Modbus connect failed: " + e.getMessage(), e);
         }
     }
 
     @Override
     public void close() {
-        if (master == null) return;
+        if (pipeline != null) {
+            pipeline.close();
+            pipeline = null;
+        }
+        if (master == null) {
+            connected = false;
+            return;
+        }
         try {
             master.disconnect();
         } catch (Exception ignored) {
@@ -77,7 +101,7 @@ public final class ModbusDeviceChannel implements DeviceChannel {
 
     @Override
     public boolean isOpen() {
-        return master != null && connected;
+        return (master != null || pipeline != null) && connected;
     }
 
     @Override
@@ -85,30 +109,53 @@ public final class ModbusDeviceChannel implements DeviceChannel {
         if (!isOpen()) {
             throw new DeviceException("Modbus port is not open");
         }
-        int slaveId = config.getSlaveId();
-        int btReg = config.getBtRegister();
-        int etReg = config.getEtRegister();
-        double scale = config.getScale();
-        try {
-            int start = Math.min(btReg, etReg);
-            int count = Math.abs(etReg - btReg) + 1;
-            com.ghgande.j2mod.modbus.procimg.Register[] regs = master.readMultipleRegisters(slaveId, start, count);
-            double bt = Double.NaN;
-            double et = Double.NaN;
-            if (regs != null) {
-                int btOffset = btReg - start;
-                int etOffset = etReg - start;
-                if (btOffset >= 0 && btOffset < regs.length) {
-                    bt = regs[btOffset].getValue() * scale;
-                }
-                if (etOffset >= 0 && etOffset < regs.length) {
-                    et = regs[etOffset].getValue() * scale;
-                }
-            }
-            return SampleResult.now(bt, et);
-        } catch (Exception e) {
-            throw new DeviceException("Modbus read failed: " + e.getMessage(), e);
+        ModbusReadPlan.RegisterReader reader = pipeline != null ? pipeline : this::readRegisters;
+        int failed = plan.execute(reader, values, stats);
+        Exception btError = failed > 0 ? plan.getLastError(0) : null;
+        if (btError != null) {
+            throw new DeviceException("Modbus read failed: " + btError.getMessage(), btError);
+        }
+        return SampleResult.now(values[0], values[1]);
+    }
+
+    /** Number of channels of the last read (BT, ET, extras). */
+    @Override
+    public int getLastValueCount() {
+        return values.length;
+    }
+
+    /** Channel {@code i} of the last read (0 = BT, 1 = ET, 2.. = extras in config order); NaN if failed. */
+    @Override
+    public double getLastValue(int i) {
+        double[] v = values;
+        return i >= 0 && i < v.length ? v[i] : Double.NaN;
+    }
+
+    /** Configuration this channel reads with. */
+    public ModbusPortConfig getConfig() {
+        return config;
+    }
+
+    /** Current read plan (after {@link #open()}), or null. */
+    public ModbusReadPlan getReadPlan() {
+        return plan;
+    }
+
+    /** Per-transaction timings of the read plan. */
+    public ModbusReadStats getReadStats() {
+        return stats;
+    }
+
+    private int[] readRegisters(int slaveId, int functionCode, int start, int count) throws Exception {
+        InputRegister[] regs = functionCode == ModbusRegisterSpec.FC_INPUT
+            ? master.readInputRegisters(slaveId, start, count)
+            : master.readMultipleRegisters(slaveId, start, count);
+        if (regs == null) return null;
+        int[] out = new int[regs.length];
+        for (int i = 0; i < regs.length; i++) {
+            out[i] = regs[i].getValue();
         }
+        return out;
     }
 
     @Override
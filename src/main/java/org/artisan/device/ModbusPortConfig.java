@@ -1,5 +1,7 @@
 package org.artisan.device;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.prefs.Preferences;
 
 /**
@@ -15,6 +17,11 @@ public final class ModbusPortConfig {
     public static final int DEFAULT_BT_REGISTER = 1;
     public static final int DEFAULT_ET_REGISTER = 2;
     public static final double DEFAULT_SCALE = 0.1;
+    public static final int DEFAULT_FUNCTION_CODE = ModbusRegisterSpec.FC_HOLDING;
+    /** -1 = pick by transport (see {@link ModbusReadPlan}). */
+    public static final int DEFAULT_MAX_GAP = -1;
+    public static final int DEFAULT_PIPELINE_DEPTH = 1;
+    public static final int MAX_PIPELINE_DEPTH = 16;
 
     private String host = "";
     private int port = DEFAULT_PORT;
@@ -23,6 +30,29 @@ public final class ModbusPortConfig {
     private int btRegister = DEFAULT_BT_REGISTER;
     private int etRegister = DEFAULT_ET_REGISTER;
     private double scale = DEFAULT_SCALE;
+    private int functionCode = DEFAULT_FUNCTION_CODE;
+    private int maxGap = DEFAULT_MAX_GAP;
+    private int pipelineDepth = DEFAULT_PIPELINE_DEPTH;
+    private List<ModbusRegisterSpec> extraChannels = new ArrayList<>();
+
+    public ModbusPortConfig() {
+    }
+
+    /** Copy of {@code other} (every field, including extra channels, gap and pipeline depth). */
+    public ModbusPortConfig(ModbusPortConfig other) {
+        if (other == null) return;
+        this.host = other.host;
+        this.port = other.port;
+        this.useTcp = other.useTcp;
+        this.slaveId = other.slaveId;
+        this.btRegister = other.btRegister;
+        this.etRegister = other.etRegister;
+        this.scale = other.scale;
+        this.functionCode = other.functionCode;
+        this.maxGap = other.maxGap;
+        this.pipelineDepth = other.pipelineDepth;
+        this.extraChannels = new ArrayList<>(other.extraChannels);
+    }
 
     /** TCP host or serial port name depending on useTcp. */
     public String getHost() {
@@ -86,6 +116,60 @@ public final class ModbusPortConfig {
         this.scale = Math.max(0.001, Math.min(10.0, scale));
     }
 
+    /** Function code for BT/ET: 3 = holding registers, 4 = input registers. */
+    public int getFunctionCode() {
+        return functionCode;
+    }
+
+    public void setFunctionCode(int functionCode) {
+        this.functionCode = functionCode == ModbusRegisterSpec.FC_INPUT ? ModbusRegisterSpec.FC_INPUT : ModbusRegisterSpec.FC_HOLDING;
+    }
+
+    /** Widest run of unused registers read to save a transaction; -1 = default for the transport. */
+    public int getMaxGap() {
+        return maxGap;
+    }
+
+    public void setMaxGap(int maxGap) {
+        this.maxGap = Math.max(-1, Math.min(ModbusReadPlan.MAX_READ_REGISTERS, maxGap));
+    }
+
+    /** Effective gap limit: {@link #getMaxGap()} or the RTU/TCP default. */
+    public int effectiveMaxGap() {
+        if (maxGap >= 0) return maxGap;
+        return useTcp ? ModbusReadPlan.DEFAULT_MAX_GAP_TCP : ModbusReadPlan.DEFAULT_MAX_GAP_RTU;
+    }
+
+    /**
+     * Requests kept in flight on Modbus TCP (1 = one at a time). Higher values need a slave or
+     * gateway that accepts several outstanding transactions.
+     */
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    public void setPipelineDepth(int pipelineDepth) {
+        this.pipelineDepth = Math.max(1, Math.min(MAX_PIPELINE_DEPTH, pipelineDepth));
+    }
+
+    /** Extra channels sampled with BT/ET (own slave id, function code and scale). */
+    public List<ModbusRegisterSpec> getExtraChannels() {
+        return List.copyOf(extraChannels);
+    }
+
+    public void setExtraChannels(List<ModbusRegisterSpec> extraChannels) {
+        this.extraChannels = extraChannels != null ? new ArrayList<>(extraChannels) : new ArrayList<>();
+    }
+
+    /** All channels in sampling order: BT, ET, then extras. */
+    public List<ModbusRegisterSpec> getChannelSpecs() {
+        List<ModbusRegisterSpec> specs = new ArrayList<>(2 + extraChannels.size());
+        specs.add(new ModbusRegisterSpec("BT", slaveId, functionCode, btRegister, scale));
+        specs.add(new ModbusRegisterSpec("ET", slaveId, functionCode, etRegister, scale));
+        specs.addAll(extraChannels);
+        return specs;
+    }
+
     public static void loadFromPreferences(ModbusPortConfig target) {
         if (target == null) return;
         Preferences p = Preferences.userRoot().node(PREFS_NODE);
@@ -96,6 +180,10 @@ public final class ModbusPortConfig {
         target.setBtRegister(p.getInt(PREFIX + "btRegister", DEFAULT_BT_REGISTER));
         target.setEtRegister(p.getInt(PREFIX + "etRegister", DEFAULT_ET_REGISTER));
         target.setScale(p.getDouble(PREFIX + "scale", DEFAULT_SCALE));
+        target.setFunctionCode(p.getInt(PREFIX + "functionCode", DEFAULT_FUNCTION_CODE));
+        target.setMaxGap(p.getInt(PREFIX + "maxGap", DEFAULT_MAX_GAP));
+        target.setPipelineDepth(p.getInt(PREFIX + "pipelineDepth", DEFAULT_PIPELINE_DEPTH));
+        target.setExtraChannels(ModbusRegisterSpec.parse(p.get(PREFIX + "extraChannels", "")));
     }
 
     public static void saveToPreferences(ModbusPortConfig config) {
@@ -108,5 +196,9 @@ public final class ModbusPortConfig {
         p.putInt(PREFIX + "btRegister", config.getBtRegister());
         p.putInt(PREFIX + "etRegister", config.getEtRegister());
         p.putDouble(PREFIX + "scale", config.getScale());
+        p.putInt(PREFIX + "functionCode", config.getFunctionCode());
+        p.putInt(PREFIX + "maxGap", config.getMaxGap());
+        p.putInt(PREFIX + "pipelineDepth", config.getPipelineDepth());
+        p.put(PREFIX + "extraChannels", ModbusRegisterSpec.format(config.getExtraChannels()));
     }
 }
@@ -0,0 +1,184 @@
+package org.artisan.device;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read plan for a set of Modbus channels: the fewest contiguous block reads (per slave id and
+ * function code) that cover every configured register, executed in one pass per sample tick.
+ * <p>
+ * Registers of one (slave, function code) group are sorted and merged greedily; a block is closed
+ * when the next register would exceed {@code maxRegisters} or leave a hole wider than
+ * {@code maxGap}. Greedy extension is optimal for both constraints, so the block count is minimal.
+ * {@code maxGap} is the gap-filling trade-off: on RTU each unneeded register costs 2 bytes on the
+ * wire while a separate transaction costs a request, a response header/CRC and two frame gaps
+ * (~20 character times at 9600 baud), hence {@link #DEFAULT_MAX_GAP_RTU}; on TCP the round trip
+ * dominates and gaps are filled up to the block limit.
+ * <p>
+ * An instance reuses scratch arrays and is meant for one sampling thread.
+ */
+public final class ModbusReadPlan {
+
+    /** Protocol limit for FC 3/4 (Modbus application protocol spec, 125 registers per request). */
+    public static final int MAX_READ_REGISTERS = 125;
+    public static final int DEFAULT_MAX_GAP_RTU = 10;
+    public static final int DEFAULT_MAX_GAP_TCP = MAX_READ_REGISTERS;
+
+    /** Transport for block reads; {@link #readAll} may overlap transactions (e.g. pipelined TCP). */
+    @FunctionalInterface
+    public interface RegisterReader {
+        /** Reads {@code count} registers (unsigned 16-bit values) starting at {@code start}. */
+        int[] read(int slaveId, int functionCode, int start, int count) throws Exception;
+
+        /**
+         * Reads every block; fills {@code values[i]} or {@code errors[i]} and the transaction
+         * time {@code nanos[i]}. Default: one transaction after another.
+         */
+        default void readAll(List<Block> blocks, int[][] values, long[] nanos, Exception[] errors) {
+            for (int i = 0; i < blocks.size(); i++) {
+                Block b = blocks.get(i);
+                long t0 = System.nanoTime();
+                try {
+                    values[i] = read(b.slaveId(), b.functionCode(), b.start(), b.count());
+                } catch (Exception e) {
+                    errors[i] = e;
+                }
+                nanos[i] = System.nanoTime() - t0;
+            }
+        }
+    }
+
+    /**
+     * One transaction: {@code count} registers from {@code start}; {@code channels[k]} is filled
+     * from register {@code start + offsets[k]}.
+     */
+    public record Block(int slaveId, int functionCode, int start, int count, int[] channels, int[] offsets) {
+
+        /** Short label for metrics, e.g. {@code "slave 1 FC3 10..14"}. */
+        public String label() {
+            return "slave " + slaveId + " FC" + functionCode + " " + start + ".." + (start + count - 1);
+        }
+    }
+
+    private final List<ModbusRegisterSpec> channels;
+    private final List<Block> blocks;
+    private final int[][] values;
+    private final long[] nanos;
+    private final Exception[] errors;
+
+    private ModbusReadPlan(List<ModbusRegisterSpec> channels, List<Block> blocks) {
+        this.channels = List.copyOf(channels);
+        this.blocks = List.copyOf(blocks);
+        this.values = new int[blocks.size()][];
+        this.nanos = new long[blocks.size()];
+        this.errors = new Exception[blocks.size()];
+    }
+
+    /**
+     * Plans reads for {@code channels} (channel index = list index).
+     *
+     * @param maxRegisters registers per request, clamped to 1..{@link #MAX_READ_REGISTERS}
+     * @param maxGap       widest run of unneeded registers read to avoid another transaction
+     */
+    public static ModbusReadPlan plan(List<ModbusRegisterSpec> channels, int maxRegisters, int maxGap) {
+        int limit = Math.max(1, Math.min(MAX_READ_REGISTERS, maxRegisters));
+        int gap = Math.max(0, maxGap);
+        Integer[] order = new Integer[channels.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator
+            .comparingInt((Integer i) -> channels.get(i).slaveId())
+            .thenComparingInt(i -> channels.get(i).functionCode())
+            .thenComparingInt(i -> channels.get(i).register()));
+
+        List<Block> blocks = new ArrayList<>();
+        int from = 0;
+        while (from < order.length) {
+            ModbusRegisterSpec first = channels.get(order[from]);
+            int start = first.register();
+            int last = start;
+            int to = from + 1;
+            while (to < order.length) {
+                ModbusRegisterSpec next = channels.get(order[to]);
+                if (next.slaveId() != first.slaveId() || next.functionCode() != first.functionCode()) break;
+                int reg = next.register();
+                if (reg - start + 1 > limit || reg - last - 1 > gap) break;
+                last = reg;
+                to++;
+            }
+            int[] idx = new int[to - from];
+            int[] off = new int[to - from];
+            for (int k = 0; k < idx.length; k++) {
+                idx[k] = order[from + k];
+                off[k] = channels.get(idx[k]).register() - start;
+            }
+            blocks.add(new Block(first.slaveId(), first.functionCode(), start, last - start + 1, idx, off));
+            from = to;
+        }
+        return new ModbusReadPlan(channels, blocks);
+    }
+
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+
+    public List<ModbusRegisterSpec> getChannels() {
+        return channels;
+    }
+
+    public int getChannelCount() {
+        return channels.size();
+    }
+
+    /** Total registers transferred per pass (including gap fill). */
+    public int getRegisterCount() {
+        int n = 0;
+        for (Block b : blocks) n += b.count();
+        return n;
+    }
+
+    /**
+     * Runs every block once and writes scaled values into {@code out} (channel order). Channels of
+     * failed blocks are set to NaN; timings and failures go to {@code stats} when not null.
+     *
+     * @return number of failed blocks
+     */
+    public int execute(RegisterReader reader, double[] out, ModbusReadStats stats) {
+        Arrays.fill(values, null);
+        Arrays.fill(errors, null);
+        Arrays.fill(nanos, 0L);
+        long t0 = System.nanoTime();
+        reader.readAll(blocks, values, nanos, errors);
+        long total = System.nanoTime() - t0;
+        int failed = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            Block b = blocks.get(i);
+            int[] regs = values[i];
+            Exception err = errors[i];
+            if (err == null && (regs == null || regs.length < b.count())) {
+                err = new DeviceException("Short response: " + (regs == null ? 0 : regs.length)
+                    + " of " + b.count() + " registers");
+                errors[i] = err;
+            }
+            for (int k = 0; k < b.channels().length; k++) {
+                int ch = b.channels()[k];
+                out[ch] = err == null ? regs[b.offsets()[k]] * channels.get(ch).scale() : Double.NaN;
+            }
+            if (err != null) failed++;
+            if (stats != null) stats.recordTransaction(i, nanos[i], err);
+        }
+        if (stats != null) stats.recordPass(total, failed > 0);
+        return failed;
+    }
+
+    /** First failure of the last {@link #execute} for the block holding {@code channel}, or null. */
+    public Exception getLastError(int channel) {
+        for (int i = 0; i < blocks.size(); i++) {
+            for (int ch : blocks.get(i).channels()) {
+                if (ch == channel) return errors[i];
+            }
+        }
+        return null;
+    }
+}
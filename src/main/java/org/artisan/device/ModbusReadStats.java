@@ -0,0 +1,83 @@
+package org.artisan.device;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-transaction timing of a {@link ModbusReadPlan}: count, errors, last/mean/max time for every
+ * block plus the whole pass. Written by the sampling thread, read by the UI (synchronized).
+ */
+public final class ModbusReadStats {
+
+    /** Timing summary of one block (or of the whole pass, label "pass"). */
+    public record Entry(String label, long count, long errors, double lastMs, double meanMs, double maxMs,
+                        String lastError) {}
+
+    private String[] labels = new String[0];
+    private long[] count = new long[0];
+    private long[] errors = new long[0];
+    private long[] lastNanos = new long[0];
+    private long[] totalNanos = new long[0];
+    private long[] maxNanos = new long[0];
+    private String[] lastError = new String[0];
+    private long passCount;
+    private long passErrors;
+    private long passLastNanos;
+    private long passTotalNanos;
+    private long passMaxNanos;
+
+    /** Clears all counters and labels them after {@code plan}'s blocks. */
+    public synchronized void reset(ModbusReadPlan plan) {
+        List<ModbusReadPlan.Block> blocks = plan != null ? plan.getBlocks() : List.of();
+        int n = blocks.size();
+        labels = new String[n];
+        for (int i = 0; i < n; i++) labels[i] = blocks.get(i).label();
+        count = new long[n];
+        errors = new long[n];
+        lastNanos = new long[n];
+        totalNanos = new long[n];
+        maxNanos = new long[n];
+        lastError = new String[n];
+        passCount = 0;
+        passErrors = 0;
+        passLastNanos = 0;
+        passTotalNanos = 0;
+        passMaxNanos = 0;
+    }
+
+    synchronized void recordTransaction(int block, long nanos, Exception error) {
+        if (block < 0 || block >= count.length) return;
+        count[block]++;
+        lastNanos[block] = nanos;
+        totalNanos[block] += nanos;
+        if (nanos > maxNanos[block]) maxNanos[block] = nanos;
+        if (error != null) {
+            errors[block]++;
+            lastError[block] = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        }
+    }
+
+    synchronized void recordPass(long nanos, boolean failed) {
+        passCount++;
+        if (failed) passErrors++;
+        passLastNanos = nanos;
+        passTotalNanos += nanos;
+        if (nanos > passMaxNanos) passMaxNanos = nanos;
+    }
+
+    /** Snapshot: one entry per block, then the "pass" entry (all blocks of one tick). */
+    public synchronized List<Entry> snapshot() {
+        List<Entry> out = new ArrayList<>(labels.length + 1);
+        for (int i = 0; i < labels.length; i++) {
+            out.add(new Entry(labels[i], count[i], errors[i], ms(lastNanos[i]),
+                count[i] > 0 ? ms(totalNanos[i]) / count[i] : 0.0, ms(maxNanos[i]), lastError[i]));
+        }
+        out.add(new Entry("pass", passCount, passErrors, ms(passLastNanos),
+            passCount > 0 ? ms(passTotalNanos) / passCount : 0.0, ms(passMaxNanos), null));
+        return out;
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,63 @@
+package org.artisan.device;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One Modbus value to sample: slave id, function code (3 = holding, 4 = input registers),
+ * 0-based register and scale factor. Used for BT/ET and extra channels (burner, airflow, drum).
+ */
+public record ModbusRegisterSpec(
+    String name,
+    int slaveId,
+    int functionCode,
+    int register,
+    double scale
+) {
+    public static final int FC_HOLDING = 3;
+    public static final int FC_INPUT = 4;
+
+    public ModbusRegisterSpec {
+        name = name != null ? name.trim() : "";
+        if (functionCode != FC_HOLDING && functionCode != FC_INPUT) {
+            throw new IllegalArgumentException("Unsupported Modbus function code: " + functionCode);
+        }
+        if (register < 0 || register > 0xFFFF) {
+            throw new IllegalArgumentException("Register out of range: " + register);
+        }
+        if (slaveId < 0 || slaveId > 255) {
+            throw new IllegalArgumentException("Slave id out of range: " + slaveId);
+        }
+    }
+
+    /** Serializes specs as {@code name,slave,fc,register,scale;...} (Preferences format). */
+    public static String format(List<ModbusRegisterSpec> specs) {
+        StringBuilder sb = new StringBuilder();
+        for (ModbusRegisterSpec s : specs) {
+            if (sb.length() > 0) sb.append(';');
+            sb.append(s.name().replace(",", " ").replace(";", " ")).append(',')
+                .append(s.slaveId()).append(',')
+                .append(s.functionCode()).append(',')
+                .append(s.register()).append(',')
+                .append(s.scale());
+        }
+        return sb.toString();
+    }
+
+    /** Parses {@link #format} output; malformed entries are skipped. */
+    public static List<ModbusRegisterSpec> parse(String text) {
+        List<ModbusRegisterSpec> out = new ArrayList<>();
+        if (text == null || text.isBlank()) return out;
+        for (String entry : text.split(";")) {
+            String[] f = entry.split(",");
+            if (f.length != 5) continue;
+            try {
+                out.add(new ModbusRegisterSpec(f[0], Integer.parseInt(f[1].trim()), Integer.parseInt(f[2].trim()),
+                    Integer.parseInt(f[3].trim()), Double.parseDouble(f[4].trim())));
+            } catch (IllegalArgumentException ignored) {
+                // NumberFormatException included; skip the entry
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,190 @@
+package org.artisan.device;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimal Modbus TCP client that keeps up to {@code depth} read requests in flight on one
+ * connection, matching responses by MBAP transaction id. With several blocks per tick the pass
+ * costs about one round trip instead of one per block. Only FC 3/4 reads; depth 1 behaves like
+ * a plain sequential master.
+ * <p>
+ * A timeout or I/O error drops the connection (responses can no longer be matched); the next
+ * {@link #readAll} reconnects. Not thread-safe.
+ */
+public final class ModbusTcpPipeline implements ModbusReadPlan.RegisterReader, AutoCloseable {
+
+    private static final int MBAP_LENGTH = 7;
+
+    private final String host;
+    private final int port;
+    private final int timeoutMs;
+    private final int depth;
+    private Socket socket;
+    private DataInputStream in;
+    private OutputStream out;
+    private int nextTransactionId;
+    private final byte[] request = new byte[12];
+    private final byte[] header = new byte[MBAP_LENGTH];
+    private byte[] pdu = new byte[256];
+    private int pduLength;
+
+    public ModbusTcpPipeline(String host, int port, int timeoutMs, int depth) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMs = Math.max(1, timeoutMs);
+        this.depth = Math.max(1, depth);
+    }
+
+    public void connect() throws IOException {
+        if (isConnected()) return;
+        Socket s = new Socket();
+        try {
+            s.setTcpNoDelay(true);
+            s.connect(new InetSocketAddress(host, port), timeoutMs);
+            s.setSoTimeout(timeoutMs);
+            in = new DataInputStream(s.getInputStream());
+            out = new BufferedOutputStream(s.getOutputStream());
+            socket = s;
+        } catch (IOException e) {
+            s.close();
+            throw e;
+        }
+    }
+
+    public boolean isConnected() {
+        return socket != null && socket.isConnected() && !socket.isClosed();
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public void close() {
+        Socket s = socket;
+        socket = null;
+        in = null;
+        out = null;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public int[] read(int slaveId, int functionCode, int start, int count) throws Exception {
+        ModbusReadPlan.Block b = new ModbusReadPlan.Block(slaveId, functionCode, start, count, new int[0], new int[0]);
+        int[][] values = new int[1][];
+        Exception[] errors = new Exception[1];
+        readAll(List.of(b), values, new long[1], errors);
+        if (errors[0] != null) throw errors[0];
+        return values[0];
+    }
+
+    @Override
+    public void readAll(List<ModbusReadPlan.Block> blocks, int[][] values, long[] nanos, Exception[] errors) {
+        int n = blocks.size();
+        if (n == 0) return;
+        try {
+            connect();
+        } catch (IOException e) {
+            Arrays.fill(errors, 0, n, e);
+            return;
+        }
+        long[] sentAt = new long[n];
+        int[] txIds = new int[n];
+        boolean[] answered = new boolean[n];
+        int sent = 0;
+        int done = 0;
+        try {
+            while (done < n) {
+                while (sent < n && sent - done < depth) {
+                    txIds[sent] = send(blocks.get(sent));
+                    sentAt[sent] = System.nanoTime();
+                    sent++;
+                }
+                out.flush();
+                int tx = receive();
+                int i = pendingIndex(txIds, answered, sent, tx);
+                if (i < 0) {
+                    throw new IOException("Unexpected Modbus transaction id " + tx);
+                }
+                nanos[i] = System.nanoTime() - sentAt[i];
+                answered[i] = true;
+                decode(blocks.get(i), i, values, errors);
+                done++;
+            }
+        } catch (IOException e) {
+            close();
+            for (int i = 0; i < n; i++) {
+                if (values[i] == null && errors[i] == null) errors[i] = e;
+            }
+        }
+    }
+
+    private int send(ModbusReadPlan.Block b) throws IOException {
+        int tx = nextTransactionId = (nextTransactionId + 1) & 0xFFFF;
+        request[0] = (byte) (tx >> 8);
+        request[1] = (byte) tx;
+        request[2] = 0;
+        request[3] = 0;
+        request[4] = 0;
+        request[5] = 6;
+        request[6] = (byte) b.slaveId();
+        request[7] = (byte) b.functionCode();
+        request[8] = (byte) (b.start() >> 8);
+        request[9] = (byte) b.start();
+        request[10] = (byte) (b.count() >> 8);
+        request[11] = (byte) b.count();
+        out.write(request);
+        return tx;
+    }
+
+    /** Reads one response frame into {@link #pdu}; returns its transaction id. */
+    private int receive() throws IOException {
+        in.readFully(header);
+        int tx = ((header[0] & 0xFF) << 8) | (header[1] & 0xFF);
+        int len = ((header[4] & 0xFF) << 8) | (header[5] & 0xFF);
+        if (len < 2) throw new IOException("Malformed Modbus TCP frame (length " + len + ")");
+        if (pdu.length < len - 1) pdu = new byte[len - 1];
+        in.readFully(pdu, 0, len - 1);
+        pduLength = len - 1;
+        return tx;
+    }
+
+    private void decode(ModbusReadPlan.Block b, int i, int[][] values, Exception[] errors) {
+        int fc = pdu[0] & 0xFF;
+        if ((fc & 0x80) != 0) {
+            int code = pduLength > 1 ? pdu[1] & 0xFF : -1;
+            errors[i] = new DeviceException("Modbus exception " + code + " (" + b.label() + ")");
+            return;
+        }
+        int bytes = pduLength > 1 ? pdu[1] & 0xFF : 0;
+        if (fc != b.functionCode() || bytes != 2 * b.count() || pduLength < 2 + bytes) {
+            errors[i] = new DeviceException("Unexpected Modbus response (" + b.label() + ")");
+            return;
+        }
+        int[] regs = new int[b.count()];
+        for (int k = 0; k < regs.length; k++) {
+            regs[k] = ((pdu[2 + 2 * k] & 0xFF) << 8) | (pdu[3 + 2 * k] & 0xFF);
+        }
+        values[i] = regs;
+    }
+
+    /** Responses may arrive out of order; find the unanswered request with this id. */
+    private static int pendingIndex(int[] txIds, boolean[] answered, int sent, int tx) {
+        for (int i = 0; i < sent; i++) {
+            if (!answered[i] && txIds[i] == tx) return i;
+        }
+        return -1;
+    }
+}
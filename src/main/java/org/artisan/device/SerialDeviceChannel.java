@@ -2,16 +2,25 @@ package org.artisan.device;
 
 import com.fazecast.jSerialComm.SerialPort;
 
-import java.io.IOException;
-import java.io.InputStream;
 /**
  * DeviceChannel implementation using jSerialComm. Reads one line per sample;
- * parses "BT,ET" or "BT" CSV format.
+ * parses "BT", "BT,ET" or "BT,ET,extra..." CSV format.
+ * <p>
+ * Lines are framed by a {@link LineFramer} fed by bulk {@code readBytes} calls, so a sample costs
+ * one or two native reads and no String/regex work; extra channels are available through
+ * {@link #getLastValue(int)}.
  */
 public final class SerialDeviceChannel implements DeviceChannel {
 
+    /** Values kept per line; further fields are validated but dropped. */
+    public static final int MAX_CHANNELS = 16;
+
     private final SerialPortConfig config;
     private SerialPort port;
+    private final LineFramer framer = new LineFramer();
+    private final LineFramer.ByteSource source = (buf, off, len) -> port.readBytes(buf, len, off);
+    private final double[] values = new double[MAX_CHANNELS];
+    private int valueCount;
 
     public SerialDeviceChannel(SerialPortConfig config) {
         this.config = config != null ? config : new SerialPortConfig();
@@ -45,6 +54,8 @@ public final class SerialDeviceChannel implements DeviceChannel {
             throw new DeviceException("Failed to open serial port: " + name + " (error " + p.getLastErrorCode() + ")");
         }
         this.port = p;
+        framer.clear();
+        valueCount = 0;
     }
 
     @Override
@@ -69,30 +80,21 @@ public final class SerialDeviceChannel implements DeviceChannel {
         if (!isOpen()) {
             throw new DeviceException("Serial port is not open");
         }
-        String line = readLine();
-        if (line == null || line.isBlank()) {
-            throw new DeviceException("No data received (timeout or empty line)");
-        }
-        double bt;
-        double et = Double.NaN;
-        String[] parts = line.trim().split("\\s*,\\s*");
-        if (parts.length >= 2) {
-            try {
-                bt = Double.parseDouble(parts[0].trim());
-                et = Double.parseDouble(parts[1].trim());
-            } catch (NumberFormatException e) {
-                throw new DeviceException("Parse error: expected BT,ET numbers: " + line, e);
-            }
-        } else if (parts.length == 1) {
-            try {
-                bt = Double.parseDouble(parts[0].trim());
-            } catch (NumberFormatException e) {
-                throw new DeviceException("Parse error: expected BT number: " + line, e);
-            }
-        } else {
-            throw new DeviceException("Parse error: expected BT or BT,ET: " + line);
-        }
-        return SampleResult.now(bt, et);
+        int n = framer.readFields(source, values);
+        valueCount = Math.min(n, MAX_CHANNELS);
+        return SampleResult.now(values[0], n >= 2 ? values[1] : Double.NaN);
+    }
+
+    /** Number of values on the last line read (BT, ET, extras), capped at {@link #MAX_CHANNELS}. */
+    @Override
+    public int getLastValueCount() {
+        return valueCount;
+    }
+
+    /** Value {@code i} of the last line read (0 = BT, 1 = ET, 2.. = extra channels); NaN if absent. */
+    @Override
+    public double getLastValue(int i) {
+        return i >= 0 && i < valueCount ? values[i] : Double.NaN;
     }
 
     @Override
@@ -100,27 +102,4 @@ public final class SerialDeviceChannel implements DeviceChannel {
         String name = config.getPortName();
         return name != null && !name.isEmpty() ? "Serial " + name : "Serial";
     }
-
-    private String readLine() throws DeviceException {
-        InputStream in = port.getInputStream();
-        StringBuilder sb = new StringBuilder();
-        byte[] one = new byte[1];
-        try {
-            while (true) {
-                int n = in.read(one);
-                if (n <= 0) {
-                    if (sb.length() > 0) return sb.toString();
-                    return null;
-                }
-                char c = (char) (one[0] & 0xFF);
-                if (c == '\r' || c == '\n') {
-                    break;
-                }
-                sb.append(c);
-            }
-            return sb.toString();
-        } catch (IOException e) {
-            throw new DeviceException("Serial read failed", e);
-        }
-    }
 }
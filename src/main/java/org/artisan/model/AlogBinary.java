@@ -0,0 +1,422 @@
+package org.artisan.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Compact binary companion to .alog ({@code .alogb}) for scanning large roast libraries: a fixed
+ * header, one column per curve, an event table and the remaining keys as JSON, read through a
+ * {@link java.nio.MappedByteBuffer} so a scan touches only the header and the columns it asks for.
+ * <p>
+ * Layout (little-endian):
+ * <pre>
+ *   0  "ALGB", u16 version, u16 flags (bit 0: event table present)
+ *   8  i32 samples, i32 columns, i32 events, i32 event offset, i32 metadata offset, i32 metadata length
+ *  32  f64 CHARGE time, f64 DROP time (NaN = unset), i64 roastepoch (MIN_VALUE = absent), 8 reserved
+ *  64  column directory: columns x { i32 name offset, i32 name length, u8 encoding, u8 decimals, u16 0,
+ *                                    i32 count, i32 offset, i32 length }
+ *      column names (UTF-8), column data, event table (i32 index, i32 type, f64 value per event), metadata JSON
+ * </pre>
+ * Curves whose values are all exact decimals with at most {@value #MAX_DECIMALS} places (every
+ * value a device or .alog file produces) are stored as zigzag varint deltas of the scaled value,
+ * about two bytes per sample; any other column (NaN, computed values) is stored as raw doubles.
+ * Extra device rows become columns {@code extratemp1[0]}, {@code extratemp1[1]}, ... The metadata
+ * JSON keeps every key in file order with {@code null} in place of column-backed values, so
+ * {@link #toDocument()} rebuilds the document exactly and .alog → .alogb → .alog is byte-identical.
+ */
+public final class AlogBinary {
+
+    public static final String EXTENSION = ".alogb";
+
+    static final int MAGIC = 'A' | 'L' << 8 | 'G' << 16 | 'B' << 24;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 64;
+    static final int ENTRY_BYTES = 24;
+    static final int MAX_DECIMALS = 6;
+
+    private static final int FLAG_EVENTS = 1;
+    private static final int RAW = 0;
+    private static final int DELTA = 1;
+    private static final int INT_DELTA = 2;
+    private static final double[] POW10 = { 1, 10, 100, 1e3, 1e4, 1e5, 1e6 };
+    /** Beyond this the scaled value is no longer an exact integer in a double. */
+    private static final double MAX_SCALED = 1L << 52;
+    private static final String[] EVENT_KEYS = { "specialevents", "specialeventstype", "specialeventsvalue" };
+
+    private record Column(String name, int encoding, int decimals, int count, int offset, int length) {}
+
+    private final ByteBuffer buf;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    private AlogBinary(ByteBuffer buf) throws IOException {
+        this.buf = buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.limit() < HEADER_BYTES || buf.getInt(0) != MAGIC) {
+            throw new IOException("Not an .alogb file");
+        }
+        if (buf.getShort(4) != VERSION) {
+            throw new IOException("Unsupported .alogb version " + buf.getShort(4));
+        }
+        int n = buf.getInt(12);
+        check(n >= 0 && (long) HEADER_BYTES + (long) n * ENTRY_BYTES <= buf.limit());
+        for (int i = 0; i < n; i++) {
+            int at = HEADER_BYTES + i * ENTRY_BYTES;
+            Column c = new Column(name(buf.getInt(at), buf.getInt(at + 4)), buf.get(at + 8), buf.get(at + 9),
+                buf.getInt(at + 12), buf.getInt(at + 16), buf.getInt(at + 20));
+            check(c.count() >= 0 && c.offset() >= 0 && c.length() >= 0
+                && (long) c.offset() + c.length() <= buf.limit() && c.decimals() >= 0 && c.decimals() <= MAX_DECIMALS
+                && (c.encoding() != RAW || c.length() == c.count() * 8L)
+                && (c.encoding() == RAW || c.count() <= c.length()));
+            columns.put(c.name(), c);
+        }
+        check(eventCount() >= 0 && buf.getInt(20) >= 0 && (long) buf.getInt(20) + eventCount() * 16L <= buf.limit());
+        check(buf.getInt(24) >= 0 && buf.getInt(28) >= 0 && (long) buf.getInt(24) + buf.getInt(28) <= buf.limit());
+    }
+
+    private String name(int offset, int length) throws IOException {
+        check(offset >= 0 && length >= 0 && (long) offset + length <= buf.limit());
+        byte[] name = new byte[length];
+        buf.get(offset, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static void check(boolean ok) throws IOException {
+        if (!ok) throw new IOException("Corrupt .alogb file");
+    }
+
+    // ── Reading ───────────────────────────────────────────────────────────────
+
+    /** Maps {@code path} read-only; nothing beyond the header and directory is decoded yet. */
+    public static AlogBinary open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("File too large: " + path);
+            return new AlogBinary(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /** View over an encoded file held in memory (see {@link #encode}). */
+    public static AlogBinary wrap(ByteBuffer bytes) throws IOException {
+        return new AlogBinary(bytes.duplicate());
+    }
+
+    /** Length of {@code timex} (0 if absent). */
+    public int sampleCount() {
+        return buf.getInt(8);
+    }
+
+    public int eventCount() {
+        return buf.getInt(16);
+    }
+
+    /** CHARGE time in seconds, NaN if not set. */
+    public double chargeTime() {
+        return buf.getDouble(32);
+    }
+
+    /** DROP time in seconds, NaN if not set. */
+    public double dropTime() {
+        return buf.getDouble(40);
+    }
+
+    public OptionalLong roastEpoch() {
+        long v = buf.getLong(48);
+        return v == Long.MIN_VALUE ? OptionalLong.empty() : OptionalLong.of(v);
+    }
+
+    /** Column names in file order ({@code timex}, {@code temp1}, ..., {@code extratemp1[0]}, ...). */
+    public List<String> columnNames() {
+        return List.copyOf(columns.keySet());
+    }
+
+    /**
+     * Decodes one column (int columns are widened); null if the file has no such column.
+     *
+     * @throws IOException if the column's data ends early
+     */
+    public double[] column(String name) throws IOException {
+        Column c = columns.get(name);
+        if (c == null) return null;
+        double[] out = new double[c.count()];
+        if (c.encoding() == RAW) {
+            for (int i = 0; i < out.length; i++) out[i] = buf.getDouble(c.offset() + i * 8);
+            return out;
+        }
+        double scale = POW10[c.decimals()];
+        int at = c.offset();
+        int end = c.offset() + c.length();
+        long q = 0;
+        for (int i = 0; i < out.length; i++) {
+            long raw = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (at >= end) throw new IOException("Corrupt .alogb file: truncated column " + name);
+                byte b = buf.get(at++);
+                raw |= (long) (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            q += (raw >>> 1) ^ -(raw & 1);
+            out[i] = c.decimals() == 0 ? q : q / scale;
+        }
+        return out;
+    }
+
+    private int[] intColumn(String name) throws IOException {
+        double[] v = column(name);
+        int[] out = new int[v.length];
+        for (int i = 0; i < out.length; i++) out[i] = (int) v[i];
+        return out;
+    }
+
+    /** Sample index of event {@code i}. */
+    public int eventIndex(int i) {
+        return buf.getInt(eventOffset(i));
+    }
+
+    public int eventType(int i) {
+        return buf.getInt(eventOffset(i) + 4);
+    }
+
+    public double eventValue(int i) {
+        return buf.getDouble(eventOffset(i) + 8);
+    }
+
+    private int eventOffset(int i) {
+        if (i < 0 || i >= eventCount()) throw new IndexOutOfBoundsException(i);
+        return buf.getInt(20) + i * 16;
+    }
+
+    /** Non-curve keys (title, beans, weight, timeindex, ...) in file order, parsed on each call. */
+    public AlogDocument metadata() throws IOException {
+        AlogDocument doc = rawMetadata();
+        List<String> placeholders = new ArrayList<>();
+        for (String key : doc.keys()) {
+            if (doc.get(key) == null && isColumnBacked(key)) placeholders.add(key);
+        }
+        placeholders.forEach(doc::remove);
+        return doc;
+    }
+
+    /** The full document, equal to the one encoded. */
+    public AlogDocument toDocument() throws IOException {
+        AlogDocument doc = rawMetadata();
+        boolean events = (buf.getShort(6) & FLAG_EVENTS) != 0;
+        for (String key : new ArrayList<>(doc.keys())) {
+            if (doc.get(key) != null) continue;
+            if (events && key.equals(EVENT_KEYS[0])) {
+                int[] idx = new int[eventCount()];
+                for (int i = 0; i < idx.length; i++) idx[i] = eventIndex(i);
+                doc.put(key, idx);
+            } else if (events && key.equals(EVENT_KEYS[1])) {
+                int[] type = new int[eventCount()];
+                for (int i = 0; i < type.length; i++) type[i] = eventType(i);
+                doc.put(key, type);
+            } else if (events && key.equals(EVENT_KEYS[2])) {
+                double[] value = new double[eventCount()];
+                for (int i = 0; i < value.length; i++) value[i] = eventValue(i);
+                doc.put(key, value);
+            } else if (columns.containsKey(key)) {
+                doc.put(key, columns.get(key).encoding() == INT_DELTA ? intColumn(key) : column(key));
+            } else if (columns.containsKey(key + "[0]")) {
+                List<double[]> rows = new ArrayList<>();
+                for (int i = 0; columns.containsKey(key + "[" + i + "]"); i++) rows.add(column(key + "[" + i + "]"));
+                doc.put(key, rows.toArray(new double[0][]));
+            }
+        }
+        return doc;
+    }
+
+    private boolean isColumnBacked(String key) {
+        boolean events = (buf.getShort(6) & FLAG_EVENTS) != 0;
+        return columns.containsKey(key) || columns.containsKey(key + "[0]")
+            || events && List.of(EVENT_KEYS).contains(key);
+    }
+
+    private AlogDocument rawMetadata() throws IOException {
+        byte[] json = new byte[buf.getInt(28)];
+        buf.get(buf.getInt(24), json);
+        return AlogCodec.read(new ByteArrayInputStream(json));
+    }
+
+    // ── Writing ───────────────────────────────────────────────────────────────
+
+    /** Writes {@code doc} to {@code path} in .alogb format. */
+    public static void write(AlogDocument doc, Path path) throws IOException {
+        ByteBuffer bytes = encode(doc);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) ch.write(bytes);
+        }
+    }
+
+    /** Encodes {@code doc}; the returned buffer is positioned at 0 and limited to the file length. */
+    public static ByteBuffer encode(AlogDocument doc) throws IOException {
+        Map<String, Object> fields = doc.fields();
+        boolean events = hasEventTable(fields);
+        AlogDocument meta = new AlogDocument();
+        List<String> names = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (Map.Entry<String, Object> e : fields.entrySet()) {
+            String key = e.getKey();
+            Object v = e.getValue();
+            boolean inEvents = events && List.of(EVENT_KEYS).contains(key);
+            if (!inEvents && (v instanceof double[] || v instanceof int[])) {
+                names.add(key);
+                values.add(v);
+            } else if (!inEvents && v instanceof double[][] rows && rows.length > 0) {
+                for (int i = 0; i < rows.length; i++) {
+                    names.add(key + "[" + i + "]");
+                    values.add(rows[i]);
+                }
+            } else if (!inEvents) {
+                meta.fields().put(key, v);
+                continue;
+            }
+            meta.fields().put(key, null);
+        }
+        ByteArrayOutputStream nameTable = new ByteArrayOutputStream();
+        int namesStart = HEADER_BYTES + names.size() * ENTRY_BYTES;
+        int[] nameOffsets = new int[names.size()];
+        int[] nameLengths = new int[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+            nameOffsets[i] = namesStart + nameTable.size();
+            nameLengths[i] = name.length;
+            nameTable.writeBytes(name);
+        }
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream(1 << 14);
+        int[][] entries = new int[names.size()][];
+        int dataStart = namesStart + nameTable.size();
+        for (int i = 0; i < names.size(); i++) {
+            int offset = dataStart + data.size();
+            int[] enc = encodeColumn(values.get(i), data);
+            entries[i] = new int[] { enc[0], enc[1], enc[2], offset, dataStart + data.size() - offset };
+        }
+        int eventCount = events ? ((int[]) fields.get(EVENT_KEYS[0])).length : 0;
+        int eventOffset = dataStart + data.size();
+        ByteArrayOutputStream json = new ByteArrayOutputStream(1 << 12);
+        AlogCodec.write(meta, json);
+        int metaOffset = eventOffset + eventCount * 16;
+        int total = metaOffset + json.size();
+
+        ByteBuffer out = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putShort((short) VERSION).putShort((short) (events ? FLAG_EVENTS : 0));
+        double[] timex = fields.get("timex") instanceof double[] t ? t : new double[0];
+        out.putInt(timex.length).putInt(names.size()).putInt(eventCount).putInt(eventOffset)
+            .putInt(metaOffset).putInt(json.size());
+        out.putDouble(eventTime(fields.get("timeindex"), 0, timex)).putDouble(eventTime(fields.get("timeindex"), 6, timex));
+        out.putLong(fields.get("roastepoch") instanceof Number n ? n.longValue() : Long.MIN_VALUE).putLong(0);
+        for (int i = 0; i < names.size(); i++) {
+            out.putInt(nameOffsets[i]).putInt(nameLengths[i]);
+            out.put((byte) entries[i][0]).put((byte) entries[i][1]).putShort((short) 0);
+            out.putInt(entries[i][2]).putInt(entries[i][3]).putInt(entries[i][4]);
+        }
+        out.put(nameTable.toByteArray());
+        out.put(data.toByteArray());
+        if (events) {
+            int[] idx = (int[]) fields.get(EVENT_KEYS[0]);
+            int[] type = (int[]) fields.get(EVENT_KEYS[1]);
+            double[] value = (double[]) fields.get(EVENT_KEYS[2]);
+            for (int i = 0; i < eventCount; i++) out.putInt(idx[i]).putInt(type[i]).putDouble(value[i]);
+        }
+        out.put(json.toByteArray());
+        return out.flip();
+    }
+
+    /** The three special-event arrays go to the event table only when present and of equal length. */
+    private static boolean hasEventTable(Map<String, Object> fields) {
+        return fields.get(EVENT_KEYS[0]) instanceof int[] idx
+            && fields.get(EVENT_KEYS[1]) instanceof int[] type
+            && fields.get(EVENT_KEYS[2]) instanceof double[] value
+            && idx.length == type.length && idx.length == value.length;
+    }
+
+    /** Writes one column to {@code data}; returns {encoding, decimals, count}. */
+    private static int[] encodeColumn(Object values, ByteArrayOutputStream data) {
+        if (values instanceof int[] ints) {
+            long prev = 0;
+            for (int v : ints) {
+                writeZigzag(data, v - prev);
+                prev = v;
+            }
+            return new int[] { INT_DELTA, 0, ints.length };
+        }
+        double[] v = (double[]) values;
+        int decimals = exactDecimals(v);
+        if (decimals < 0) {
+            byte[] raw = new byte[v.length * 8];
+            ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().put(v);
+            data.writeBytes(raw);
+            return new int[] { RAW, 0, v.length };
+        }
+        double scale = POW10[decimals];
+        long prev = 0;
+        for (double x : v) {
+            long q = Math.round(x * scale);
+            writeZigzag(data, q - prev);
+            prev = q;
+        }
+        return new int[] { DELTA, decimals, v.length };
+    }
+
+    /** Fewest decimals that reproduce every value bit for bit as {@code round(v * 10^d) / 10^d}; -1 if none. */
+    static int exactDecimals(double[] v) {
+        for (int d = 0; d <= MAX_DECIMALS; d++) {
+            double scale = POW10[d];
+            boolean exact = true;
+            for (int i = 0; i < v.length && exact; i++) {
+                double scaled = v[i] * scale;
+                if (!(Math.abs(scaled) < MAX_SCALED)) {
+                    return -1;
+                }
+                long q = Math.round(scaled);
+                double back = d == 0 ? q : q / scale;
+                exact = Double.doubleToRawLongBits(back) == Double.doubleToRawLongBits(v[i]);
+            }
+            if (exact) return d;
+        }
+        return -1;
+    }
+
+    private static void writeZigzag(ByteArrayOutputStream out, long v) {
+        long z = (v << 1) ^ (v >> 63);
+        while ((z & ~0x7FL) != 0) {
+            out.write((int) ((z & 0x7F) | 0x80));
+            z >>>= 7;
+        }
+        out.write((int) z);
+    }
+
+    /** Time of timeindex slot {@code slot} (CHARGE set at >= 0, others at > 0), else NaN. */
+    private static double eventTime(Object timeindex, int slot, double[] timex) {
+        if (!(timeindex instanceof List<?> ti) || slot >= ti.size() || !(ti.get(slot) instanceof Number n)) {
+            return Double.NaN;
+        }
+        int idx = n.intValue();
+        boolean set = slot == 0 ? idx >= 0 : idx > 0;
+        return set && idx < timex.length ? timex[idx] : Double.NaN;
+    }
+
+    /** True when {@code path} has the {@value #EXTENSION} extension. */
+    public static boolean isBinary(Path path) {
+        Path name = path.getFileName();
+        return name != null && name.toString().toLowerCase(Locale.ROOT).endsWith(EXTENSION);
+    }
+
+    @Override
+    public String toString() {
+        return "AlogBinary[samples=" + sampleCount() + ", columns=" + columns.keySet()
+            + ", events=" + eventCount() + "]";
+    }
+}
@@ -0,0 +1,335 @@
+package org.artisan.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.PrettyPrinter;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming .alog codec on Jackson's {@link JsonParser}/{@link JsonGenerator}: curve fields are
+ * decoded straight into primitive arrays (no {@code Double} per sample), all other keys are kept
+ * as plain values in file order (see {@link AlogDocument}).
+ * <p>
+ * Output matches Python's {@code json.dumps(obj)} as used by Artisan: {@code ", "} and
+ * {@code ": "} separators, no indentation, non-ASCII escaped as lower-case {@code \\uXXXX},
+ * floats in {@code repr} form ({@code 200.0}, {@code 1e-05}, {@code 1e+16}) and
+ * {@code NaN}/{@code Infinity} literals, which the reader accepts too. {@code null} inside a
+ * curve is read as NaN.
+ */
+public final class AlogCodec {
+
+    /** Top-level keys decoded as {@code double[]}. */
+    public static final Set<String> DOUBLE_KEYS =
+        Set.of("timex", "temp1", "temp2", "delta1", "delta2", "specialeventsvalue");
+    /** Top-level keys decoded as {@code int[]}. */
+    public static final Set<String> INT_KEYS = Set.of("specialevents", "specialeventstype");
+    /** Top-level keys decoded as {@code double[][]} (one row per extra device). */
+    public static final Set<String> ROW_KEYS = Set.of("extratimex", "extratemp1", "extratemp2");
+
+    private static final JsonFactory FACTORY = new JsonFactoryBuilder()
+        .enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS)
+        .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+        .characterEscapes(new PythonAsciiEscapes())
+        .build();
+
+    private AlogCodec() {}
+
+    // ── Reading ───────────────────────────────────────────────────────────────
+
+    /** Reads one .alog document; the stream is not closed. */
+    public static AlogDocument read(InputStream in) throws IOException {
+        try (JsonParser p = FACTORY.createParser(in)) {
+            p.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(p, "Expected a JSON object");
+            }
+            AlogDocument doc = new AlogDocument();
+            Map<String, Object> fields = doc.fields();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String key = p.currentName();
+                JsonToken t = p.nextToken();
+                Object value;
+                if (t == JsonToken.START_ARRAY && DOUBLE_KEYS.contains(key)) value = readDoubles(p);
+                else if (t == JsonToken.START_ARRAY && INT_KEYS.contains(key)) value = readInts(p);
+                else if (t == JsonToken.START_ARRAY && ROW_KEYS.contains(key)) value = readRows(p);
+                else value = readValue(p);
+                fields.put(key, value);
+            }
+            if (p.currentToken() != JsonToken.END_OBJECT) {
+                throw new JsonParseException(p, "Unterminated object");
+            }
+            return doc;
+        }
+    }
+
+    /** Parser positioned on START_ARRAY; returns on its END_ARRAY. */
+    private static double[] readDoubles(JsonParser p) throws IOException {
+        double[] out = new double[256];
+        int n = 0;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            double v;
+            if (t == JsonToken.VALUE_NUMBER_FLOAT || t == JsonToken.VALUE_NUMBER_INT) v = p.getDoubleValue();
+            else if (t == JsonToken.VALUE_NULL) v = Double.NaN;
+            else throw new JsonParseException(p, "Expected a number in a curve array");
+            if (n == out.length) out = Arrays.copyOf(out, n * 2);
+            out[n++] = v;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static int[] readInts(JsonParser p) throws IOException {
+        int[] out = new int[16];
+        int n = 0;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t != JsonToken.VALUE_NUMBER_INT && t != JsonToken.VALUE_NUMBER_FLOAT) {
+                throw new JsonParseException(p, "Expected an integer");
+            }
+            if (n == out.length) out = Arrays.copyOf(out, n * 2);
+            out[n++] = p.getValueAsInt();
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static double[][] readRows(JsonParser p) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t != JsonToken.START_ARRAY) throw new JsonParseException(p, "Expected an array of arrays");
+            rows.add(readDoubles(p));
+        }
+        return rows.toArray(new double[0][]);
+    }
+
+    /** Generic JSON value at the current token (objects keep key order). */
+    private static Object readValue(JsonParser p) throws IOException {
+        JsonToken t = p.currentToken();
+        switch (t) {
+            case START_OBJECT -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String key = p.currentName();
+                    p.nextToken();
+                    map.put(key, readValue(p));
+                }
+                return map;
+            }
+            case START_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                while (p.nextToken() != JsonToken.END_ARRAY) list.add(readValue(p));
+                return list;
+            }
+            case VALUE_STRING -> {
+                return p.getText();
+            }
+            case VALUE_NUMBER_INT -> {
+                return p.getNumberValue();
+            }
+            case VALUE_NUMBER_FLOAT -> {
+                return p.getDoubleValue();
+            }
+            case VALUE_TRUE -> {
+                return Boolean.TRUE;
+            }
+            case VALUE_FALSE -> {
+                return Boolean.FALSE;
+            }
+            case VALUE_NULL -> {
+                return null;
+            }
+            default -> throw new JsonParseException(p, "Unexpected token " + t);
+        }
+    }
+
+    /** Converts a curve key's List value (e.g. from ProfileData) to its primitive form. */
+    static Object toPrimitive(String key, Object value) {
+        if (!(value instanceof List<?> list)) return value;
+        if (DOUBLE_KEYS.contains(key)) return unboxDoubles(list);
+        if (INT_KEYS.contains(key)) {
+            int[] out = new int[list.size()];
+            for (int i = 0; i < out.length; i++) out[i] = list.get(i) instanceof Number n ? n.intValue() : 0;
+            return out;
+        }
+        if (ROW_KEYS.contains(key)) {
+            double[][] rows = new double[list.size()][];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = list.get(i) instanceof List<?> row ? unboxDoubles(row) : new double[0];
+            }
+            return rows;
+        }
+        return value;
+    }
+
+    private static double[] unboxDoubles(List<?> list) {
+        double[] out = new double[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i) instanceof Number n ? n.doubleValue() : Double.NaN;
+        return out;
+    }
+
+    // ── Writing ───────────────────────────────────────────────────────────────
+
+    /** Writes {@code doc} as Python {@code json.dumps} would; the stream is flushed, not closed. */
+    public static void write(AlogDocument doc, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+        try (JsonGenerator g = FACTORY.createGenerator(w)) {
+            g.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            g.setPrettyPrinter(PythonSeparators.INSTANCE);
+            writeValue(g, doc.fields());
+        }
+        w.flush();
+    }
+
+    private static void writeValue(JsonGenerator g, Object v) throws IOException {
+        if (v == null) {
+            g.writeNull();
+        } else if (v instanceof double[] a) {
+            g.writeStartArray(a, a.length);
+            for (double d : a) g.writeNumber(pythonRepr(d));
+            g.writeEndArray();
+        } else if (v instanceof int[] a) {
+            g.writeStartArray(a, a.length);
+            for (int i : a) g.writeNumber(i);
+            g.writeEndArray();
+        } else if (v instanceof double[][] rows) {
+            g.writeStartArray(rows, rows.length);
+            for (double[] row : rows) writeValue(g, row);
+            g.writeEndArray();
+        } else if (v instanceof Map<?, ?> map) {
+            g.writeStartObject();
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                g.writeFieldName(String.valueOf(e.getKey()));
+                writeValue(g, e.getValue());
+            }
+            g.writeEndObject();
+        } else if (v instanceof List<?> list) {
+            g.writeStartArray();
+            for (Object o : list) writeValue(g, o);
+            g.writeEndArray();
+        } else if (v instanceof String s) {
+            g.writeString(s);
+        } else if (v instanceof Boolean b) {
+            g.writeBoolean(b);
+        } else if (v instanceof Double || v instanceof Float) {
+            g.writeNumber(pythonRepr(((Number) v).doubleValue()));
+        } else if (v instanceof Number n) {
+            g.writeNumber(n.toString());
+        } else {
+            throw new IOException("Unsupported value type " + v.getClass().getName());
+        }
+    }
+
+    /** Python {@code repr(float)}: shortest digits, fixed notation for exponents -4..15. */
+    static String pythonRepr(double v) {
+        if (Double.isNaN(v)) return "NaN";
+        if (Double.isInfinite(v)) return v > 0 ? "Infinity" : "-Infinity";
+        if (v == 0) return 1 / v < 0 ? "-0.0" : "0.0";
+        double abs = Math.abs(v);
+        // Java already prints plain decimals (same digits as Python) between 1e-3 and 1e7
+        if (abs >= 1e-3 && abs < 1e7) return Double.toString(v);
+        String s = Double.toString(abs);
+        int e = s.indexOf('E');
+        String mantissa = e >= 0 ? s.substring(0, e) : s;
+        int dot = mantissa.indexOf('.');
+        String digits = mantissa.substring(0, dot) + mantissa.substring(dot + 1);
+        int point = dot + (e >= 0 ? Integer.parseInt(s.substring(e + 1)) : 0);
+        int lead = 0;
+        while (lead < digits.length() - 1 && digits.charAt(lead) == '0') lead++;
+        int end = digits.length();
+        while (end > lead + 1 && digits.charAt(end - 1) == '0') end--;
+        digits = digits.substring(lead, end);
+        point -= lead;
+        int exp = point - 1;
+        StringBuilder sb = new StringBuilder(24);
+        if (v < 0) sb.append('-');
+        if (exp >= -4 && exp < 16) {
+            if (point <= 0) {
+                sb.append("0.");
+                for (int i = point; i < 0; i++) sb.append('0');
+                sb.append(digits);
+            } else if (point >= digits.length()) {
+                sb.append(digits);
+                for (int i = digits.length(); i < point; i++) sb.append('0');
+                sb.append(".0");
+            } else {
+                sb.append(digits, 0, point).append('.').append(digits, point, digits.length());
+            }
+        } else {
+            sb.append(digits.charAt(0));
+            if (digits.length() > 1) sb.append('.').append(digits, 1, digits.length());
+            sb.append('e').append(exp < 0 ? '-' : '+');
+            int e10 = Math.abs(exp);
+            if (e10 < 10) sb.append('0');
+            sb.append(e10);
+        }
+        return sb.toString();
+    }
+
+    /** Python's default {@code json.dumps} separators: {@code ", "} and {@code ": "}. */
+    private static final class PythonSeparators implements PrettyPrinter {
+        static final PythonSeparators INSTANCE = new PythonSeparators();
+
+        @Override public void writeRootValueSeparator(JsonGenerator g) throws IOException { }
+        @Override public void writeStartObject(JsonGenerator g) throws IOException { g.writeRaw('{'); }
+        @Override public void writeEndObject(JsonGenerator g, int n) throws IOException { g.writeRaw('}'); }
+        @Override public void writeObjectEntrySeparator(JsonGenerator g) throws IOException { g.writeRaw(", "); }
+        @Override public void writeObjectFieldValueSeparator(JsonGenerator g) throws IOException { g.writeRaw(": "); }
+        @Override public void writeStartArray(JsonGenerator g) throws IOException { g.writeRaw('['); }
+        @Override public void writeEndArray(JsonGenerator g, int n) throws IOException { g.writeRaw(']'); }
+        @Override public void writeArrayValueSeparator(JsonGenerator g) throws IOException { g.writeRaw(", "); }
+        @Override public void beforeArrayValues(JsonGenerator g) throws IOException { }
+        @Override public void beforeObjectEntries(JsonGenerator g) throws IOException { }
+    }
+
+    /**
+     * {@code ensure_ascii}: everything outside printable ASCII becomes {@code \\uxxxx} (lower-case
+     * hex, UTF-16 units, so astral characters become surrogate pairs as in Python).
+     */
+    private static final class PythonAsciiEscapes extends CharacterEscapes {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] ascii;
+
+        PythonAsciiEscapes() {
+            ascii = standardAsciiEscapesForJSON();
+            for (int c = 0; c < 0x20; c++) {
+                if (c != '\b' && c != '\f' && c != '\n' && c != '\r' && c != '\t') ascii[c] = ESCAPE_CUSTOM;
+            }
+            ascii[0x7F] = ESCAPE_CUSTOM;
+        }
+
+        @Override
+        public int[] getEscapeCodesForAscii() {
+            return ascii;
+        }
+
+        @Override
+        public SerializableString getEscapeSequence(int ch) {
+            if (ch >= 0x20 && ch < 0x7F) return null;
+            String hex = Integer.toHexString(ch);
+            return new SerializedString("\\u" + "0000".substring(hex.length()) + hex);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.artisan.model;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A .alog file as read by {@link AlogCodec}: every top-level key in file order, with the
+ * curve-heavy fields ({@link AlogCodec#DOUBLE_KEYS}, {@link AlogCodec#INT_KEYS},
+ * {@link AlogCodec#ROW_KEYS}) held as {@code double[]}, {@code int[]} and {@code double[][]}
+ * and everything else, known to {@link ProfileData} or not, as plain JSON values
+ * (Map, List, String, Number, Boolean, null). Writing it back reproduces unknown keys.
+ */
+public final class AlogDocument {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+
+    /** Key set in file order (read-only). */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(fields.keySet());
+    }
+
+    public boolean containsKey(String key) {
+        return fields.containsKey(key);
+    }
+
+    /** Raw value: a primitive array for curve keys, otherwise a JSON value. */
+    public Object get(String key) {
+        return fields.get(key);
+    }
+
+    /**
+     * Sets a value (appended at the end when the key is new). Curve keys given as {@code List}s
+     * are converted to their primitive form.
+     */
+    public void put(String key, Object value) {
+        fields.put(key, AlogCodec.toPrimitive(key, value));
+    }
+
+    public void remove(String key) {
+        fields.remove(key);
+    }
+
+    /** A {@code double[]} curve (timex, temp1, ...); null if absent or not numeric. */
+    public double[] getDoubles(String key) {
+        return fields.get(key) instanceof double[] a ? a : null;
+    }
+
+    /** An {@code int[]} field (specialevents, specialeventstype); null if absent. */
+    public int[] getInts(String key) {
+        return fields.get(key) instanceof int[] a ? a : null;
+    }
+
+    /** A {@code double[][]} field (extratimex, extratemp1/2); null if absent. */
+    public double[][] getDoubleRows(String key) {
+        return fields.get(key) instanceof double[][] a ? a : null;
+    }
+
+    /** Backing map for the codec. */
+    Map<String, Object> fields() {
+        return fields;
+    }
+
+    /** Document with the properties of {@code profile} in ProfileData's declaration order. */
+    public static AlogDocument of(ProfileData profile) {
+        Map<String, Object> values = MAPPER.convertValue(profile, new TypeReference<LinkedHashMap<String, Object>>() {});
+        AlogDocument doc = new AlogDocument();
+        for (Map.Entry<String, Object> e : values.entrySet()) doc.put(e.getKey(), e.getValue());
+        return doc;
+    }
+
+    /** Binds the document to ProfileData (boxing the curves); keys ProfileData lacks are dropped. */
+    public ProfileData toProfileData() {
+        return MAPPER.convertValue(fields, ProfileData.class);
+    }
+}
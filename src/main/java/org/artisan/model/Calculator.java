@@ -61,13 +61,30 @@ public final class Calculator {
                 || endIdx >= temp2.size() || startIdx >= endIdx) {
             return 0.0;
         }
+        int n = endIdx - startIdx + 1;
+        double[] t = new double[n];
+        double[] bt = new double[n];
+        for (int i = 0; i < n; i++) {
+            t[i] = timex.get(startIdx + i);
+            bt[i] = temp2.get(startIdx + i);
+        }
+        return areaUnderCurve(t, bt, baseTempC, 0, n - 1);
+    }
+
+    /**
+     * Same as {@link #areaUnderCurve(List, List, double, int, int)} over primitive curves
+     * (e.g. from {@link AlogDocument#getDoubles}).
+     */
+    public static double areaUnderCurve(double[] timex, double[] temp2, double baseTempC, int startIdx, int endIdx) {
+        if (timex == null || temp2 == null || startIdx < 0 || endIdx >= timex.length
+                || endIdx >= temp2.length || startIdx >= endIdx) {
+            return 0.0;
+        }
         double sumCsec = 0.0;
         for (int i = startIdx + 1; i <= endIdx; i++) {
-            double dt = timex.get(i) - timex.get(i - 1);
+            double dt = timex[i] - timex[i - 1];
             if (dt <= 0) continue;
-            double t1 = clampTemp(temp2.get(i));
-            double t2 = clampTemp(temp2.get(i - 1));
-            double ta = (Math.max(0, t1) + Math.max(0, t2)) / 2.0;
+            double ta = (Math.max(0, clampTemp(temp2[i])) + Math.max(0, clampTemp(temp2[i - 1]))) / 2.0;
             sumCsec += Math.max(0.0, ta - baseTempC) * dt;
         }
         return sumCsec / 60.0;
@@ -1,18 +1,22 @@
 package org.artisan.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Canvas data model for roast profile: time, temperatures, and RoR (delta) arrays.
  * Holds event indices for CHARGE, DRY_END, FC_START, FC_END, DROP.
  * Ported from Python artisanlib.canvas (timex, temp1, temp2, delta1, delta2, timeindex).
  * temp1 = ET, temp2 = BT; delta1 = RoR ET, delta2 = RoR BT.
+ * <p>
+ * Curves are stored in primitive {@link DoubleColumn}s (no boxing on append). Hot readers use the
+ * {@code get*View()} snapshots for primitive access and bulk {@code double[]} export; the
+ * {@code List<Double>} getters return read-only snapshots over the same storage.
  */
 public final class CanvasData {
 
+    /** Always-empty column returned for unknown extra channels. */
+    private static final DoubleColumn NO_CHANNEL = new DoubleColumn();
+
     /** Index into timex/temp/delta arrays for CHARGE. -1 if not set. */
     private int chargeIndex = -1;
     /** Index for DRY END. */
@@ -28,20 +32,20 @@ public final class CanvasData {
     /** Index for DROP. */
     private int dropIndex = -1;
 
-    private final List<Double> timex = new ArrayList<>();
-    private final List<Double> temp1 = new ArrayList<>();
-    private final List<Double> temp2 = new ArrayList<>();
-    private final List<Double> delta1 = new ArrayList<>();
-    private final List<Double> delta2 = new ArrayList<>();
-
-    private final List<Double> extraTimex1 = new ArrayList<>();
-    private final List<Double> extraTemp1 = new ArrayList<>();
-    private final List<Double> extraTimex2 = new ArrayList<>();
-    private final List<Double> extraTemp2 = new ArrayList<>();
-    private final List<Double> extraTimex3 = new ArrayList<>();
-    private final List<Double> extraTemp3 = new ArrayList<>();
-    private final List<Double> extraTimex4 = new ArrayList<>();
-    private final List<Double> extraTemp4 = new ArrayList<>();
+    private final DoubleColumn timex = new DoubleColumn();
+    private final DoubleColumn temp1 = new DoubleColumn();
+    private final DoubleColumn temp2 = new DoubleColumn();
+    private final DoubleColumn delta1 = new DoubleColumn();
+    private final DoubleColumn delta2 = new DoubleColumn();
+
+    private final DoubleColumn extraTimex1 = new DoubleColumn();
+    private final DoubleColumn extraTemp1 = new DoubleColumn();
+    private final DoubleColumn extraTimex2 = new DoubleColumn();
+    private final DoubleColumn extraTemp2 = new DoubleColumn();
+    private final DoubleColumn extraTimex3 = new DoubleColumn();
+    private final DoubleColumn extraTemp3 = new DoubleColumn();
+    private final DoubleColumn extraTimex4 = new DoubleColumn();
+    private final DoubleColumn extraTemp4 = new DoubleColumn();
 
     /**
      * Appends one data point and computes deltas externally (caller uses RorCalculator).
@@ -64,26 +68,12 @@ public final class CanvasData {
      */
     public void setDelta1(List<Double> ror1) {
         if (ror1 == null) return;
-        delta1.clear();
-        int n = Math.min(timex.size(), ror1.size());
-        for (int i = 0; i < n; i++) {
-            delta1.add(ror1.get(i));
-        }
-        while (delta1.size() < timex.size()) {
-            delta1.add(0.0);
-        }
+        delta1.setAll(ror1, timex.size(), 0.0);
     }
 
     public void setDelta2(List<Double> ror2) {
         if (ror2 == null) return;
-        delta2.clear();
-        int n = Math.min(timex.size(), ror2.size());
-        for (int i = 0; i < n; i++) {
-            delta2.add(ror2.get(i));
-        }
-        while (delta2.size() < timex.size()) {
-            delta2.add(0.0);
-        }
+        delta2.setAll(ror2, timex.size(), 0.0);
     }
 
     /** Clears all arrays and resets event indices to -1 / 0. */
@@ -106,11 +96,22 @@ public final class CanvasData {
         dropIndex = 0;
     }
 
-    public List<Double> getTimex()  { return Collections.unmodifiableList(timex); }
-    public List<Double> getTemp1()  { return Collections.unmodifiableList(temp1); }
-    public List<Double> getTemp2()  { return Collections.unmodifiableList(temp2); }
-    public List<Double> getDelta1() { return Collections.unmodifiableList(delta1); }
-    public List<Double> getDelta2() { return Collections.unmodifiableList(delta2); }
+    /** Read-only snapshot of the current time axis (shares storage, no copy). */
+    public List<Double> getTimex()  { return timex.view().asList(); }
+    public List<Double> getTemp1()  { return temp1.view().asList(); }
+    public List<Double> getTemp2()  { return temp2.view().asList(); }
+    public List<Double> getDelta1() { return delta1.view().asList(); }
+    public List<Double> getDelta2() { return delta2.view().asList(); }
+
+    /** Primitive snapshot of timex for hot readers (chart, analytics, export). */
+    public DoubleColumn.View getTimexView()  { return timex.view(); }
+    public DoubleColumn.View getTemp1View()  { return temp1.view(); }
+    public DoubleColumn.View getTemp2View()  { return temp2.view(); }
+    public DoubleColumn.View getDelta1View() { return delta1.view(); }
+    public DoubleColumn.View getDelta2View() { return delta2.view(); }
+
+    /** Number of samples (length of timex). */
+    public int size() { return timex.size(); }
 
     /** Appends one RoR(ET) sample without a full list copy. */
     public void addDelta1(double ror) { delta1.add(ror); }
@@ -138,14 +139,40 @@ public final class CanvasData {
     public int getDropIndex() { return dropIndex; }
     public void setDropIndex(int dropIndex) { this.dropIndex = dropIndex; }
 
-    public List<Double> getExtraTimex1() { return Collections.unmodifiableList(extraTimex1); }
-    public List<Double> getExtraTemp1()  { return Collections.unmodifiableList(extraTemp1); }
-    public List<Double> getExtraTimex2() { return Collections.unmodifiableList(extraTimex2); }
-    public List<Double> getExtraTemp2()  { return Collections.unmodifiableList(extraTemp2); }
-    public List<Double> getExtraTimex3() { return Collections.unmodifiableList(extraTimex3); }
-    public List<Double> getExtraTemp3()  { return Collections.unmodifiableList(extraTemp3); }
-    public List<Double> getExtraTimex4() { return Collections.unmodifiableList(extraTimex4); }
-    public List<Double> getExtraTemp4()  { return Collections.unmodifiableList(extraTemp4); }
+    public List<Double> getExtraTimex1() { return extraTimex1.view().asList(); }
+    public List<Double> getExtraTemp1()  { return extraTemp1.view().asList(); }
+    public List<Double> getExtraTimex2() { return extraTimex2.view().asList(); }
+    public List<Double> getExtraTemp2()  { return extraTemp2.view().asList(); }
+    public List<Double> getExtraTimex3() { return extraTimex3.view().asList(); }
+    public List<Double> getExtraTemp3()  { return extraTemp3.view().asList(); }
+    public List<Double> getExtraTimex4() { return extraTimex4.view().asList(); }
+    public List<Double> getExtraTemp4()  { return extraTemp4.view().asList(); }
+
+    /** Primitive snapshot of an extra channel's time axis (channel 1..4); empty for other channels. */
+    public DoubleColumn.View getExtraTimexView(int channel) { return extraTimexColumn(channel).view(); }
+
+    /** Primitive snapshot of an extra channel's values (channel 1..4); empty for other channels. */
+    public DoubleColumn.View getExtraTempView(int channel) { return extraTempColumn(channel).view(); }
+
+    private DoubleColumn extraTimexColumn(int channel) {
+        switch (channel) {
+            case 1: return extraTimex1;
+            case 2: return extraTimex2;
+            case 3: return extraTimex3;
+            case 4: return extraTimex4;
+            default: return NO_CHANNEL;
+        }
+    }
+
+    private DoubleColumn extraTempColumn(int channel) {
+        switch (channel) {
+            case 1: return extraTemp1;
+            case 2: return extraTemp2;
+            case 3: return extraTemp3;
+            case 4: return extraTemp4;
+            default: return NO_CHANNEL;
+        }
+    }
 
     public void addExtraDataPoint(int channel, double timeSec, double temp) {
         switch (channel) {
@@ -0,0 +1,162 @@
+package org.artisan.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Growable, append-only column of primitive doubles (backing store for CanvasData curves).
+ * <p>
+ * Appends are amortized O(1) and never box. {@link #view()} returns a read-only snapshot of
+ * the first {@code size()} values that shares storage with the column: values below
+ * {@code size()} are never overwritten in place, and {@link #clear()} / {@link #setAll}
+ * switch to fresh storage, so an existing view stays stable while the column keeps growing.
+ * <p>
+ * Not thread-safe; a view may be handed to another thread once taken.
+ */
+public final class DoubleColumn {
+
+    private static final double[] EMPTY = new double[0];
+    private static final int MIN_CAPACITY = 256;
+
+    private double[] data = EMPTY;
+    private int size;
+
+    public DoubleColumn() {}
+
+    public DoubleColumn(int initialCapacity) {
+        if (initialCapacity > 0) data = new double[initialCapacity];
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return data[index];
+    }
+
+    /** Last value, or {@code fallback} if empty. */
+    public double last(double fallback) {
+        return size > 0 ? data[size - 1] : fallback;
+    }
+
+    /** Appends one value (amortized O(1), no boxing). */
+    public void add(double value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, Math.max(MIN_CAPACITY, size + (size >> 1)));
+        }
+        data[size++] = value;
+    }
+
+    /** Removes all values. Existing views keep their contents. */
+    public void clear() {
+        data = EMPTY;
+        size = 0;
+    }
+
+    /**
+     * Replaces the contents with the first {@code n} values of {@code src}, padding with
+     * {@code pad} up to {@code length} when {@code src} is shorter. Existing views keep their contents.
+     */
+    public void setAll(List<Double> src, int length, double pad) {
+        double[] fresh = new double[Math.max(MIN_CAPACITY, length)];
+        int n = src != null ? Math.min(length, src.size()) : 0;
+        for (int i = 0; i < n; i++) fresh[i] = src.get(i);
+        for (int i = n; i < length; i++) fresh[i] = pad;
+        data = fresh;
+        size = length;
+    }
+
+    /** Read-only snapshot of the current contents; O(1), shares storage. */
+    public View view() {
+        return new View(data, size);
+    }
+
+    /** Copies the current contents into a new array sized exactly {@code size()}. */
+    public double[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    /**
+     * Read-only, fixed-length window over a column's storage. Exposes primitive access for hot
+     * readers and bulk {@code double[]} export for chart-fx; {@link #asList()} adapts it for
+     * legacy {@code List<Double>} callers.
+     */
+    public static final class View {
+
+        private final double[] data;
+        private final int size;
+
+        private View(double[] data, int size) {
+            this.data = data;
+            this.size = size;
+        }
+
+        public int size() { return size; }
+
+        public boolean isEmpty() { return size == 0; }
+
+        public double get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return data[index];
+        }
+
+        /** Last value, or {@code fallback} if empty. */
+        public double last(double fallback) {
+            return size > 0 ? data[size - 1] : fallback;
+        }
+
+        /** Copies {@code length} values starting at {@code from} into {@code dst} at {@code dstPos}. */
+        public void copyTo(int from, double[] dst, int dstPos, int length) {
+            if (from < 0 || length < 0 || from + length > size) {
+                throw new IndexOutOfBoundsException("Range [" + from + ", " + (from + length)
+                        + ") out of bounds for length " + size);
+            }
+            System.arraycopy(data, from, dst, dstPos, length);
+        }
+
+        /** New array with all values of this view. */
+        public double[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+
+        /** New mutable {@code ArrayList<Double>} copy (for ProfileData and other boxed APIs). */
+        public List<Double> toBoxedList() {
+            List<Double> out = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) out.add(data[i]);
+            return out;
+        }
+
+        /** Unmodifiable {@code List<Double>} adapter (boxes on each {@code get}). */
+        public List<Double> asList() {
+            return new ListAdapter(this);
+        }
+    }
+
+    private static final class ListAdapter extends AbstractList<Double> implements RandomAccess {
+
+        private final View view;
+
+        ListAdapter(View view) {
+            this.view = view;
+        }
+
+        @Override
+        public Double get(int index) {
+            return view.get(index);
+        }
+
+        @Override
+        public int size() {
+            return view.size;
+        }
+    }
+}
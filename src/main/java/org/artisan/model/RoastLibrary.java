@@ -0,0 +1,525 @@
+package org.artisan.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Index of the roasts (.alog / .alogb) under one or more directory trees, with the metadata and
+ * computed stats needed to find a roast without opening it. Persistence: ~/.artisan/library.index
+ * (compact binary, written atomically).
+ * <p>
+ * {@link #scan(Path)} walks a tree and parses new or changed files in parallel on the common
+ * fork-join pool; files whose size and modification time match the index are not reopened.
+ * {@link #watch(Path)} keeps the index current from a {@link WatchService} daemon thread.
+ * Queries work on an in-memory snapshot sorted by roast date, so a date range is a binary search
+ * and bean/stat filters are a linear pass over plain records. Thread-safe.
+ */
+public final class RoastLibrary implements Closeable {
+
+    private static final String DIR_NAME = ".artisan";
+    private static final String FILE_NAME = "library.index";
+    private static final int MAGIC = 0x41524C49; // "ARLI"
+    private static final int VERSION = 2;
+
+    /** AUC base temperature used for the indexed AUC (°C), the Artisan default. */
+    public static final double AUC_BASE_TEMP_C = 100.0;
+
+    private static final int IDX_CHARGE = 0;
+    private static final int IDX_FC_START = 2;
+    private static final int IDX_DROP = 6;
+
+    /**
+     * One indexed roast. Times are seconds from CHARGE and NaN when the event is not set;
+     * {@code roastEpochSec} falls back to roastisodate and then the file time.
+     */
+    public record Entry(
+        String path,
+        long modifiedMillis,
+        long size,
+        String title,
+        String beans,
+        long roastEpochSec,
+        int batchNr,
+        double chargeTimeSec,
+        double dropTimeSec,
+        double fcsTimeSec,
+        double dtr,
+        double auc,
+        double weightLossPercent) {
+
+        public Path file() {
+            return Paths.get(path);
+        }
+    }
+
+    /** Entries sorted by roast date plus their lower-cased "beans\ntitle" for substring search. */
+    private record Snapshot(Entry[] byDate, String[] searchKeys) {}
+
+    private final Path indexFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Object snapshotLock = new Object();
+    private volatile Snapshot snapshot;
+    private volatile Runnable onChange;
+
+    private final Object watchLock = new Object();
+    private WatchService watcher;
+    private Thread watchThread;
+    private final Map<WatchKey, Path> watchedDirs = new ConcurrentHashMap<>();
+
+    /** Library backed by ~/.artisan/library.index. */
+    public RoastLibrary() {
+        this(Paths.get(System.getProperty("user.home"), DIR_NAME, FILE_NAME));
+    }
+
+    /** Library backed by the given index file. Used for tests. */
+    public RoastLibrary(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    public Path getIndexFile() {
+        return indexFile;
+    }
+
+    /** Called (on the scanning or watch thread) after the index changed. */
+    public void setOnChange(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    // ── Persistence ──────────────────────────────────────────────────────────
+
+    /** Loads the index file; silently empty if missing or unreadable. */
+    public void load() {
+        entries.clear();
+        if (indexFile != null && Files.isRegularFile(indexFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Not a library index");
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) {
+                    Entry e = new Entry(readString(in), in.readLong(), in.readLong(), readString(in), readString(in),
+                        in.readLong(), in.readInt(), in.readDouble(), in.readDouble(), in.readDouble(),
+                        in.readDouble(), in.readDouble(), in.readDouble());
+                    entries.put(e.path(), e);
+                }
+            } catch (IOException | RuntimeException e) {
+                entries.clear();
+            }
+        }
+        invalidate();
+    }
+
+    /** Writes the index file (temp file + atomic rename). */
+    public void save() throws IOException {
+        if (indexFile == null) return;
+        Path dir = indexFile.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Path tmp = indexFile.resolveSibling(".tmp-" + indexFile.getFileName());
+        Entry[] all = snapshot().byDate();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(all.length);
+            for (Entry e : all) {
+                writeString(out, e.path());
+                out.writeLong(e.modifiedMillis());
+                out.writeLong(e.size());
+                writeString(out, e.title());
+                writeString(out, e.beans());
+                out.writeLong(e.roastEpochSec());
+                out.writeInt(e.batchNr());
+                out.writeDouble(e.chargeTimeSec());
+                out.writeDouble(e.dropTimeSec());
+                out.writeDouble(e.fcsTimeSec());
+                out.writeDouble(e.dtr());
+                out.writeDouble(e.auc());
+                out.writeDouble(e.weightLossPercent());
+            }
+        }
+        try {
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Length-prefixed UTF-8 (writeUTF is limited to 64 KB and uses modified UTF-8). */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) throw new IOException("Corrupt library index");
+        byte[] bytes = in.readNBytes(len);
+        if (bytes.length != len) throw new EOFException();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ── Scanning ─────────────────────────────────────────────────────────────
+
+    /**
+     * Brings the index up to date with the roasts under {@code root}: parses new and changed files
+     * in parallel and drops entries for files that are gone. Unreadable roasts are skipped.
+     *
+     * @return number of files (re)parsed
+     */
+    public int scan(Path root) throws IOException {
+        Path dir = root.toAbsolutePath().normalize();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(RoastLibrary::isRoastFile).filter(Files::isRegularFile).toList();
+        }
+        Set<String> present = new HashSet<>();
+        for (Path f : files) present.add(f.toString());
+        boolean removed = entries.keySet().removeIf(p -> Paths.get(p).startsWith(dir) && !present.contains(p));
+
+        List<Entry> parsed = files.parallelStream()
+            .filter(this::isStale)
+            .map(RoastLibrary::readEntry)
+            .filter(Objects::nonNull)
+            .toList();
+        for (Entry e : parsed) entries.put(e.path(), e);
+        if (removed || !parsed.isEmpty()) changed();
+        return parsed.size();
+    }
+
+    /** Re-reads one file (or removes it from the index when it no longer exists). */
+    public void update(Path file) {
+        Path f = file.toAbsolutePath().normalize();
+        if (!Files.isRegularFile(f)) {
+            if (entries.remove(f.toString()) != null) changed();
+            return;
+        }
+        if (!isStale(f)) return;
+        Entry e = readEntry(f);
+        if (e != null) {
+            entries.put(e.path(), e);
+        } else {
+            entries.remove(f.toString());
+        }
+        changed();
+    }
+
+    private boolean isStale(Path f) {
+        Entry e = entries.get(f.toString());
+        if (e == null) return true;
+        try {
+            return e.size() != Files.size(f) || e.modifiedMillis() != Files.getLastModifiedTime(f).toMillis();
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    static boolean isRoastFile(Path p) {
+        Path name = p.getFileName();
+        if (name == null) return false;
+        String s = name.toString().toLowerCase(Locale.ROOT);
+        return !s.startsWith(".tmp-") && (s.endsWith(".alog") || s.endsWith(AlogBinary.EXTENSION));
+    }
+
+    /** Parses one roast file into an index entry; null if it cannot be read. */
+    static Entry readEntry(Path file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            AlogDocument doc;
+            double[] timex;
+            double[] bt;
+            if (AlogBinary.isBinary(file)) {
+                // header + metadata JSON + the two curves the stats need; other columns stay undecoded
+                AlogBinary bin = AlogBinary.open(file);
+                doc = bin.metadata();
+                timex = bin.column("timex");
+                bt = bin.column("temp2");
+            } else {
+                doc = Roastlog.loadDocument(file);
+                timex = doc.getDoubles("timex");
+                bt = doc.getDoubles("temp2");
+            }
+            int n = timex != null ? timex.length : 0;
+            int[] ti = timeindex(doc.get("timeindex"));
+            int charge = ti[IDX_CHARGE] >= 0 && ti[IDX_CHARGE] < n ? ti[IDX_CHARGE] : -1;
+            int fcs = ti[IDX_FC_START] > 0 && ti[IDX_FC_START] < n ? ti[IDX_FC_START] : -1;
+            int drop = ti[IDX_DROP] > 0 && ti[IDX_DROP] < n ? ti[IDX_DROP] : -1;
+            double t0 = n > 0 ? timex[Math.max(charge, 0)] : 0.0;
+            double chargeTime = charge >= 0 ? timex[charge] : Double.NaN;
+            double dropTime = drop >= 0 ? timex[drop] - t0 : Double.NaN;
+            double fcsTime = fcs >= 0 ? timex[fcs] - t0 : Double.NaN;
+            double dtr = drop >= 0 && fcs >= 0 ? Calculator.developmentTimeRatio(dropTime, fcsTime) : Double.NaN;
+            double auc = n > 1 && bt != null
+                ? Calculator.areaUnderCurve(timex, bt, AUC_BASE_TEMP_C, Math.max(charge, 0), drop >= 0 ? drop : n - 1)
+                : 0.0;
+            long modified = attrs.lastModifiedTime().toMillis();
+            return new Entry(file.toString(), modified, attrs.size(),
+                string(doc.get("title")), string(doc.get("beans")),
+                roastEpoch(doc, modified), doc.get("roastbatchnr") instanceof Number b ? b.intValue() : 0,
+                chargeTime, dropTime, fcsTime, dtr, auc, weightLoss(doc.get("weight")));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static int[] timeindex(Object value) {
+        int[] ti = { -1, 0, 0, 0, 0, 0, 0, 0 };
+        if (value instanceof List<?> list) {
+            for (int i = 0; i < Math.min(list.size(), ti.length); i++) {
+                if (list.get(i) instanceof Number v) ti[i] = v.intValue();
+            }
+        }
+        return ti;
+    }
+
+    private static long roastEpoch(AlogDocument doc, long modifiedMillis) {
+        if (doc.get("roastepoch") instanceof Number epoch && epoch.longValue() > 0) return epoch.longValue();
+        if (doc.get("roastisodate") instanceof String iso && !iso.isBlank()) {
+            try {
+                return LocalDate.parse(iso.trim()).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+            } catch (RuntimeException ignored) {
+                // fall back to the file time
+            }
+        }
+        return modifiedMillis / 1000;
+    }
+
+    /** (in - out) / in * 100 from the [in, out, unit] weight list; NaN if either is missing. */
+    private static double weightLoss(Object value) {
+        if (value instanceof List<?> w && w.size() >= 2
+                && w.get(0) instanceof Number in && w.get(1) instanceof Number out
+                && in.doubleValue() > 0 && out.doubleValue() > 0) {
+            return (in.doubleValue() - out.doubleValue()) / in.doubleValue() * 100.0;
+        }
+        return Double.NaN;
+    }
+
+    private static String string(Object value) {
+        return value instanceof String s ? s : "";
+    }
+
+    // ── Queries ──────────────────────────────────────────────────────────────
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Optional<Entry> get(Path file) {
+        return Optional.ofNullable(entries.get(file.toAbsolutePath().normalize().toString()));
+    }
+
+    /** All entries, oldest roast first. */
+    public List<Entry> entries() {
+        return List.of(snapshot().byDate());
+    }
+
+    /** Roasts with {@code fromEpochSec <= roastEpochSec < toEpochSec}, oldest first. */
+    public List<Entry> between(long fromEpochSec, long toEpochSec) {
+        Entry[] all = snapshot().byDate();
+        int lo = lowerBound(all, fromEpochSec);
+        int hi = lowerBound(all, toEpochSec);
+        return lo < hi ? List.of(Arrays.copyOfRange(all, lo, hi)) : List.of();
+    }
+
+    /** Roasts whose beans (or title) contain {@code text}, case-insensitive, oldest first. */
+    public List<Entry> byBeans(String text) {
+        String needle = text == null ? "" : text.toLowerCase(Locale.ROOT);
+        Snapshot s = snapshot();
+        List<Entry> out = new ArrayList<>();
+        for (int i = 0; i < s.byDate().length; i++) {
+            if (s.searchKeys()[i].contains(needle)) out.add(s.byDate()[i]);
+        }
+        return out;
+    }
+
+    /** Roasts matching {@code filter} (e.g. on DTR, AUC or weight loss), oldest first. */
+    public List<Entry> query(Predicate<Entry> filter) {
+        List<Entry> out = new ArrayList<>();
+        for (Entry e : snapshot().byDate()) {
+            if (filter.test(e)) out.add(e);
+        }
+        return out;
+    }
+
+    private static int lowerBound(Entry[] all, long epochSec) {
+        int lo = 0;
+        int hi = all.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (all[mid].roastEpochSec() < epochSec) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+        synchronized (snapshotLock) {
+            if (snapshot == null) {
+                Entry[] sorted = entries.values().toArray(new Entry[0]);
+                Arrays.sort(sorted, Comparator.comparingLong(Entry::roastEpochSec).thenComparing(Entry::path));
+                String[] keys = new String[sorted.length];
+                for (int i = 0; i < sorted.length; i++) {
+                    keys[i] = (sorted[i].beans() + '\n' + sorted[i].title()).toLowerCase(Locale.ROOT);
+                }
+                snapshot = new Snapshot(sorted, keys);
+            }
+            return snapshot;
+        }
+    }
+
+    private void invalidate() {
+        synchronized (snapshotLock) {
+            snapshot = null;
+        }
+    }
+
+    private void changed() {
+        invalidate();
+        Runnable r = onChange;
+        if (r != null) r.run();
+    }
+
+    // ── Watching ─────────────────────────────────────────────────────────────
+
+    /**
+     * Scans {@code root} and then follows changes below it (new directories included) on a daemon
+     * thread, saving the index after each batch of events. An event overflow triggers a rescan.
+     */
+    public void watch(Path root) throws IOException {
+        Path dir = root.toAbsolutePath().normalize();
+        synchronized (watchLock) {
+            if (watcher == null) {
+                watcher = FileSystems.getDefault().newWatchService();
+                WatchService ws = watcher;
+                watchThread = new Thread(() -> watchLoop(ws), "library-watch");
+                watchThread.setDaemon(true);
+                watchThread.start();
+            }
+            register(dir);
+        }
+        scan(dir);
+        saveQuietly();
+    }
+
+    private void register(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path d, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = d.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirs.put(key, d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watchLoop(WatchService ws) {
+        try {
+            while (true) {
+                WatchKey key = ws.take();
+                do {
+                    handle(key);
+                    key = ws.poll();
+                } while (key != null);
+                saveQuietly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private void handle(WatchKey key) {
+        Path dir = watchedDirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null) continue;
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                try {
+                    scan(dir);
+                } catch (IOException ignored) {
+                    // directory vanished; its DELETE event follows
+                }
+                continue;
+            }
+            Path child = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                try {
+                    synchronized (watchLock) {
+                        if (watcher != null) register(child);
+                    }
+                    scan(child);
+                } catch (IOException | ClosedWatchServiceException ignored) {
+                    // removed again before we got to it
+                }
+            } else if (isRoastFile(child)) {
+                update(child);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                Path gone = child.toAbsolutePath().normalize();
+                if (entries.keySet().removeIf(p -> Paths.get(p).startsWith(gone))) changed();
+            }
+        }
+        if (!key.reset()) watchedDirs.remove(key);
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException ignored) {
+            // index is a cache; the next save or scan rebuilds it
+        }
+    }
+
+    /** Stops watching. The index stays loaded. */
+    @Override
+    public void close() throws IOException {
+        Thread t;
+        synchronized (watchLock) {
+            if (watcher == null) return;
+            watcher.close();
+            watcher = null;
+            t = watchThread;
+            watchThread = null;
+            watchedDirs.clear();
+        }
+        try {
+            t.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
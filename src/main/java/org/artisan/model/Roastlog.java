@@ -1,23 +1,31 @@
 package org.artisan.model;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Saves and loads roast profiles to/from .alog files (JSON format).
  * Migrated from Artisan Python serialize/deserialize (util.py); Java uses JSON via Jackson.
+ * <p>
+ * Files go through the streaming {@link AlogCodec}: curves are parsed into primitive arrays and
+ * output is formatted like Python's {@code json.dumps}. Bulk readers (comparator, reports) should
+ * use {@link #loadDocument(Path)} and read the curves from the arrays instead of binding
+ * {@link ProfileData}.
+ * <p>
+ * Paths ending in {@value AlogBinary#EXTENSION} are written and read in the binary columnar
+ * format ({@link AlogBinary}); {@link #convert} translates losslessly in either direction.
  */
 public final class Roastlog {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper()
-            .enable(SerializationFeature.INDENT_OUTPUT);
-
     private Roastlog() {}
 
     /**
@@ -31,8 +39,51 @@ public final class Roastlog {
         if (profile == null || path == null) {
             throw new IllegalArgumentException("profile and path must be non-null");
         }
-        try (OutputStream out = Files.newOutputStream(path)) {
-            MAPPER.writeValue(out, profile);
+        saveDocument(AlogDocument.of(profile), path);
+    }
+
+    /**
+     * Saves like {@link #save} but through a temporary file in the same directory that is flushed
+     * to disk and then atomically renamed over {@code path}: readers (file browsers, sync clients,
+     * a crash) see either the previous file or the complete new one, never a partial write.
+     *
+     * @throws IOException if writing or renaming fails (the temporary file is removed)
+     */
+    public static void saveAtomically(ProfileData profile, Path path) throws IOException {
+        if (profile == null || path == null || path.getFileName() == null) {
+            throw new IllegalArgumentException("profile and path must be non-null");
+        }
+        Path tmp = path.resolveSibling(".tmp-" + path.getFileName());
+        try {
+            saveDocument(AlogDocument.of(profile), tmp);
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ch.force(true);
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Saves a document (e.g. one read with {@link #loadDocument}, unknown keys included).
+     *
+     * @throws IOException if writing fails
+     */
+    public static void saveDocument(AlogDocument document, Path path) throws IOException {
+        if (document == null || path == null) {
+            throw new IllegalArgumentException("document and path must be non-null");
+        }
+        if (AlogBinary.isBinary(path)) {
+            AlogBinary.write(document, path);
+            return;
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            AlogCodec.write(document, out);
         }
     }
 
@@ -43,12 +94,9 @@ public final class Roastlog {
      * @return loaded profile, or null if file is empty/corrupted or invalid JSON
      */
     public static ProfileData load(Path path) {
-        if (path == null || !Files.isRegularFile(path)) {
-            return null;
-        }
-        try (InputStream in = Files.newInputStream(path)) {
-            return MAPPER.readValue(in, ProfileData.class);
-        } catch (IOException e) {
+        try {
+            return loadOrThrow(path);
+        } catch (IOException | IllegalArgumentException e) {
             return null;
         }
     }
@@ -61,11 +109,34 @@ public final class Roastlog {
      * @throws IOException if reading or parsing fails
      */
     public static ProfileData loadOrThrow(Path path) throws IOException {
+        return loadDocument(path).toProfileData();
+    }
+
+    /**
+     * Loads a .alog file with its curves as primitive arrays and all other keys as read.
+     *
+     * @throws IOException if the file is missing, unreadable or not a JSON object
+     */
+    public static AlogDocument loadDocument(Path path) throws IOException {
         if (path == null || !Files.isRegularFile(path)) {
             throw new IOException("Missing or not a file: " + path);
         }
-        try (InputStream in = Files.newInputStream(path)) {
-            return MAPPER.readValue(in, ProfileData.class);
+        if (AlogBinary.isBinary(path)) {
+            return AlogBinary.open(path).toDocument();
         }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return AlogCodec.read(in);
+        }
+    }
+
+    /**
+     * Copies {@code source} to {@code target}, each in the format its extension selects (.alog to
+     * .alogb and back). All keys and values are kept, so an .alog converted to .alogb and back is
+     * identical to the original as Artisan writes it.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    public static void convert(Path source, Path target) throws IOException {
+        saveDocument(loadDocument(source), target);
     }
 }
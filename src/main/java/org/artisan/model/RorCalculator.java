@@ -53,6 +53,28 @@ public final class RorCalculator {
         return result;
     }
 
+    /**
+     * Primitive range variant of {@link #computeRoR(List, List, int)}: writes RoR for indices
+     * {@code [from, n)} into {@code out}, reading {@code timex[0..n)} and {@code temps[0..n)}.
+     */
+    public void computeRoR(double[] timex, double[] temps, int n, int smoothingWindow, int from, double[] out) {
+        int window = Math.max(1, smoothingWindow);
+        for (int i = Math.max(0, from); i < n; i++) {
+            if (i < window) {
+                out[i] = 0.0;
+                continue;
+            }
+            double dtSec = timex[i] - timex[i - window];
+            double temp0 = temps[i - window];
+            double temp1 = temps[i];
+            if (dtSec <= 0 || !Double.isFinite(temp0) || !Double.isFinite(temp1)) {
+                out[i] = 0.0;
+                continue;
+            }
+            out[i] = (temp1 - temp0) / dtSec * 60.0;
+        }
+    }
+
     /**
      * Computes RoR after smoothing the temperature series with the given SOS filter.
      * Filter is applied sample-by-sample; then RoR is computed on the smoothed series.
@@ -3,11 +3,15 @@ package org.artisan.model;
 import java.util.prefs.Preferences;
 
 /**
- * Sampling configuration: interval, oversampling, spike filter.
+ * Sampling configuration: interval, oversampling, spike filter and the per-channel conditioning
+ * chain (spike gate, median, low-pass, unit conversion) applied by SignalConditioner.
  * Persisted under Preferences "sampling.*". Used by AppController to drive Sampling timer.
  */
 public final class SamplingConfig {
 
+    /** Input channels with their own conditioning chain. */
+    public enum Channel { BT, ET }
+
     private static final String PREFS_NODE = "org/artisan/artisan-java";
     private static final String PREFIX = "sampling.";
 
@@ -18,11 +22,20 @@ public final class SamplingConfig {
     public static final int MIN_OVERSAMPLING = 1;
     public static final int MAX_OVERSAMPLING = 10;
     public static final double DEFAULT_SPIKE_THRESHOLD = 25.0; // °C/s
+    public static final int MAX_MEDIAN_WINDOW = 15;
+    public static final double MAX_LOWPASS_HZ = 10.0;
 
     private double intervalSeconds = DEFAULT_INTERVAL_SECONDS;
     private int oversampling = DEFAULT_OVERSAMPLING;
     private boolean filterSpikes = false;
     private double spikeThreshold = DEFAULT_SPIKE_THRESHOLD;
+    // Per channel, indexed by Channel.ordinal()
+    private final boolean[] spikeGate = { true, false };
+    private final int[] medianWindow = { 1, 1 };
+    private final double[] lowpassHz = { 0.0, 0.0 };
+    private final boolean[] fahrenheitInput = { false, false };
+    /** Bumped by every setter so a running conditioner can pick up changes. */
+    private volatile int revision;
 
     public double getIntervalSeconds() {
         return intervalSeconds;
@@ -30,6 +43,7 @@ public final class SamplingConfig {
 
     public void setIntervalSeconds(double intervalSeconds) {
         this.intervalSeconds = Math.max(MIN_INTERVAL, Math.min(MAX_INTERVAL, intervalSeconds));
+        revision++;
     }
 
     public int getOversampling() {
@@ -46,6 +60,7 @@ public final class SamplingConfig {
 
     public void setFilterSpikes(boolean filterSpikes) {
         this.filterSpikes = filterSpikes;
+        revision++;
     }
 
     public double getSpikeThreshold() {
@@ -54,6 +69,53 @@ public final class SamplingConfig {
 
     public void setSpikeThreshold(double spikeThreshold) {
         this.spikeThreshold = Math.max(0.1, Math.min(200, spikeThreshold));
+        revision++;
+    }
+
+    /** True if the spike filter, when on, gates this channel (default: BT only). */
+    public boolean isSpikeGate(Channel channel) {
+        return spikeGate[channel.ordinal()];
+    }
+
+    public void setSpikeGate(Channel channel, boolean gate) {
+        spikeGate[channel.ordinal()] = gate;
+        revision++;
+    }
+
+    /** Median window in samples (odd, 1 = off). */
+    public int getMedianWindow(Channel channel) {
+        return medianWindow[channel.ordinal()];
+    }
+
+    /** Clamped to 1..MAX_MEDIAN_WINDOW and rounded up to odd. */
+    public void setMedianWindow(Channel channel, int window) {
+        medianWindow[channel.ordinal()] = Math.max(1, Math.min(MAX_MEDIAN_WINDOW, window)) | 1;
+        revision++;
+    }
+
+    /** Butterworth low-pass cutoff in Hz (0 = off). */
+    public double getLowpassHz(Channel channel) {
+        return lowpassHz[channel.ordinal()];
+    }
+
+    public void setLowpassHz(Channel channel, double hz) {
+        lowpassHz[channel.ordinal()] = Double.isFinite(hz) ? Math.max(0.0, Math.min(MAX_LOWPASS_HZ, hz)) : 0.0;
+        revision++;
+    }
+
+    /** True if the device reports this channel in °F (converted to °C). */
+    public boolean isFahrenheitInput(Channel channel) {
+        return fahrenheitInput[channel.ordinal()];
+    }
+
+    public void setFahrenheitInput(Channel channel, boolean fahrenheit) {
+        fahrenheitInput[channel.ordinal()] = fahrenheit;
+        revision++;
+    }
+
+    /** Changes whenever a setting changes. */
+    public int getRevision() {
+        return revision;
     }
 
     /** Interval in milliseconds for the Sampling timer. */
@@ -68,6 +130,13 @@ public final class SamplingConfig {
         target.setOversampling(p.getInt(PREFIX + "oversampling", DEFAULT_OVERSAMPLING));
         target.setFilterSpikes(p.getBoolean(PREFIX + "filterSpikes", false));
         target.setSpikeThreshold(p.getDouble(PREFIX + "spikeThreshold", DEFAULT_SPIKE_THRESHOLD));
+        for (Channel ch : Channel.values()) {
+            String c = PREFIX + ch.name().toLowerCase() + ".";
+            target.setSpikeGate(ch, p.getBoolean(c + "spikeGate", ch == Channel.BT));
+            target.setMedianWindow(ch, p.getInt(c + "medianWindow", 1));
+            target.setLowpassHz(ch, p.getDouble(c + "lowpassHz", 0.0));
+            target.setFahrenheitInput(ch, p.getBoolean(c + "fahrenheitInput", false));
+        }
     }
 
     public static void saveToPreferences(SamplingConfig config) {
@@ -77,5 +146,12 @@ public final class SamplingConfig {
         p.putInt(PREFIX + "oversampling", config.getOversampling());
         p.putBoolean(PREFIX + "filterSpikes", config.isFilterSpikes());
         p.putDouble(PREFIX + "spikeThreshold", config.getSpikeThreshold());
+        for (Channel ch : Channel.values()) {
+            String c = PREFIX + ch.name().toLowerCase() + ".";
+            p.putBoolean(c + "spikeGate", config.isSpikeGate(ch));
+            p.putInt(c + "medianWindow", config.getMedianWindow(ch));
+            p.putDouble(c + "lowpassHz", config.getLowpassHz(ch));
+            p.putBoolean(c + "fahrenheitInput", config.isFahrenheitInput(ch));
+        }
     }
 }
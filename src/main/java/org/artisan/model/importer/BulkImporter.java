@@ -0,0 +1,380 @@
+package org.artisan.model.importer;
+
+import org.artisan.model.AlogBinary;
+import org.artisan.model.ProfileData;
+import org.artisan.model.RoastLibrary;
+import org.artisan.model.Roastlog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import of vendor roast exports: detects the format of each file, parses it with the matching
+ * importer and writes it as .alog (or .alogb), optionally registering the result in a
+ * {@link RoastLibrary}.
+ * <p>
+ * Files are parsed on a dedicated {@link ForkJoinPool}; each task holds one profile and drops it
+ * once written, so memory is bounded by the parallelism, not the number of files. Failures are
+ * reported per file and never stop the run.
+ * <p>
+ * CLI: {@code ./gradlew runBulkImport --args="--out imported --index exports"}
+ */
+public final class BulkImporter {
+
+    private static final Logger LOG = Logger.getLogger(BulkImporter.class.getName());
+
+    /** Bytes read from the start of a file for format detection. */
+    private static final int SNIFF_BYTES = 4096;
+
+    /** Parses one vendor file. */
+    @FunctionalInterface
+    public interface Importer {
+        ProfileData importFile(Path file) throws IOException;
+    }
+
+    /** Supported vendor formats. */
+    public enum Format {
+        HIBEAN(HiBeanImporter::importFile),
+        RUBASSE(RubasseImporter::importFile),
+        GIESEN(GiesenImporter::importFile),
+        LORING(LoringImporter::importFile),
+        ROEST(RoestImporter::importFile),
+        PETRONCINI(PetronciniImporter::importFile),
+        STRONGHOLD(StrongholdImporter::importFile);
+
+        private final Importer importer;
+
+        Format(Importer importer) {
+            this.importer = importer;
+        }
+
+        public Importer importer() {
+            return importer;
+        }
+    }
+
+    /** Outcome of one file. */
+    public enum Status { IMPORTED, SKIPPED, FAILED }
+
+    /** Result for one source file; {@code format} and {@code output} are null when unknown. */
+    public record Result(Path source, Format format, Path output, Status status, int samples, String error) {}
+
+    /** Progress after each file; called on the worker thread that finished it. */
+    public record Progress(int done, int total, Result last) {}
+
+    /** Results of a run in input order. */
+    public record Report(List<Result> results, long elapsedNanos) {
+
+        public long count(Status status) {
+            return results.stream().filter(r -> r.status() == status).count();
+        }
+
+        public double filesPerSecond() {
+            return elapsedNanos > 0 ? results.size() * 1e9 / elapsedNanos : 0;
+        }
+
+        public String summary() {
+            return String.format(Locale.ROOT, "%d files in %.2f s (%.1f files/s): %d imported, %d skipped, %d failed",
+                results.size(), elapsedNanos / 1e9, filesPerSecond(),
+                count(Status.IMPORTED), count(Status.SKIPPED), count(Status.FAILED));
+        }
+    }
+
+    private final Path outputDir;
+    private Format format;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private boolean binary;
+    private boolean overwrite;
+    private RoastLibrary library;
+    private Consumer<Progress> onProgress;
+
+    /** @param outputDir directory the converted profiles are written to (created if missing) */
+    public BulkImporter(Path outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    /** Forces one format for every file instead of detecting it (null = detect). */
+    public void setFormat(Format format) {
+        this.format = format;
+    }
+
+    /** Number of files parsed concurrently (at least 1). */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /** Writes .alogb instead of .alog. */
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    /** Re-imports files whose output already exists and is newer than the source. */
+    public void setOverwrite(boolean overwrite) {
+        this.overwrite = overwrite;
+    }
+
+    /** Library to add imported profiles to (null = none). The caller saves it. */
+    public void setLibrary(RoastLibrary library) {
+        this.library = library;
+    }
+
+    public void setOnProgress(Consumer<Progress> onProgress) {
+        this.onProgress = onProgress;
+    }
+
+    // ── Detection ────────────────────────────────────────────────────────────
+
+    /** True if the file has an extension any importer reads (.csv, .txt, .json, .xlsx). */
+    public static boolean isCandidate(Path file) {
+        String name = file.getFileName() != null ? file.getFileName().toString().toLowerCase(Locale.ROOT) : "";
+        return name.endsWith(".csv") || name.endsWith(".txt") || name.endsWith(".json") || name.endsWith(".xlsx");
+    }
+
+    /**
+     * Detects the vendor format from the extension and the header line (first {@value #SNIFF_BYTES}
+     * bytes only).
+     *
+     * @return the format, or empty if the file matches none
+     */
+    public static Optional<Format> detect(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xlsx")) return Optional.of(Format.STRONGHOLD);
+        String head;
+        try (var in = Files.newInputStream(file)) {
+            head = new String(in.readNBytes(SNIFF_BYTES), StandardCharsets.UTF_8);
+        }
+        if (head.startsWith("\uFEFF")) head = head.substring(1);
+        if (name.endsWith(".json")) {
+            return head.contains("\"dataList\"") || head.contains("\"roastContext\"")
+                ? Optional.of(Format.HIBEAN) : Optional.empty();
+        }
+        int eol = head.indexOf('\n');
+        String header = (eol >= 0 ? head.substring(0, eol) : head).strip();
+        return detectHeader(header);
+    }
+
+    /** Format for a CSV header line, by the column names each vendor writes. */
+    static Optional<Format> detectHeader(String header) {
+        List<String> cols = Arrays.stream(header.split("[,;\t]", -1)).map(String::trim).toList();
+        Set<String> set = new HashSet<>(cols);
+        if (set.contains("BeanTemp") && (set.contains("InletTemp") || set.contains("RoastingOnOff"))) {
+            return Optional.of(Format.LORING);
+        }
+        if (set.contains("beans") && set.contains("air")) return Optional.of(Format.GIESEN);
+        // Rubasse: positional columns, with event indices in the header row from column 19 on
+        if (cols.size() >= 20 && "time".equals(cols.get(0))
+                || cols.size() >= 4 && cols.subList(0, 4).equals(List.of("time", "BT", "Fan", "Heater"))) {
+            return Optional.of(Format.RUBASSE);
+        }
+        if (set.contains("Date") && set.contains("BT")
+                && (set.contains("Gas") || set.contains("Burner") || header.contains(";"))) {
+            return Optional.of(Format.PETRONCINI);
+        }
+        if (set.contains("time") && set.contains("BT")) return Optional.of(Format.ROEST);
+        if (set.contains("Time") && set.contains("BT")) return Optional.of(Format.STRONGHOLD);
+        return Optional.empty();
+    }
+
+    // ── Running ──────────────────────────────────────────────────────────────
+
+    /** Imports every candidate file under {@code root}, mirroring its directory layout in the output. */
+    public Report run(Path root) throws IOException {
+        Path base = root.toAbsolutePath().normalize();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(base)) {
+            files = walk.filter(Files::isRegularFile).filter(BulkImporter::isCandidate).sorted().toList();
+        }
+        List<Path> outputs = new ArrayList<>(files.size());
+        for (Path f : files) outputs.add(outputDir.resolve(withExtension(base.relativize(f).toString())));
+        return run(files, outputs);
+    }
+
+    /**
+     * Imports the given files into the output directory by file name; clashing names get a
+     * {@code _2}, {@code _3}, ... suffix.
+     */
+    public Report run(Collection<Path> files) throws IOException {
+        List<Path> sources = new ArrayList<>(files);
+        List<Path> outputs = new ArrayList<>(sources.size());
+        Set<String> used = new HashSet<>();
+        for (Path f : sources) {
+            String stem = stem(f.getFileName().toString());
+            String name = stem;
+            for (int n = 2; !used.add(name.toLowerCase(Locale.ROOT)); n++) name = stem + "_" + n;
+            outputs.add(outputDir.resolve(withExtension(name)));
+        }
+        return run(sources, outputs);
+    }
+
+    private Report run(List<Path> sources, List<Path> outputs) throws IOException {
+        Files.createDirectories(outputDir);
+        int total = sources.size();
+        Result[] results = new Result[total];
+        AtomicInteger done = new AtomicInteger();
+        long t0 = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, total).parallel().forEach(i -> {
+                Result r = importOne(sources.get(i), outputs.get(i));
+                results[i] = r;
+                Consumer<Progress> p = onProgress;
+                if (p != null) p.accept(new Progress(done.incrementAndGet(), total, r));
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Report(List.of(results), System.nanoTime() - t0);
+    }
+
+    private Result importOne(Path source, Path output) {
+        Format fmt = format;
+        try {
+            if (!overwrite && Files.isRegularFile(output)
+                    && Files.getLastModifiedTime(output).compareTo(Files.getLastModifiedTime(source)) >= 0) {
+                return new Result(source, fmt, output, Status.SKIPPED, 0, null);
+            }
+            if (fmt == null) {
+                fmt = detect(source).orElse(null);
+                if (fmt == null) return new Result(source, null, null, Status.FAILED, 0, "Unrecognized format");
+            }
+            ProfileData profile = fmt.importer().importFile(source);
+            int samples = profile.getTimex() != null ? profile.getTimex().size() : 0;
+            if (samples == 0) return new Result(source, fmt, null, Status.FAILED, 0, "No samples");
+            if (profile.getTitle() == null || profile.getTitle().isBlank()) {
+                profile.setTitle(stem(source.getFileName().toString()));
+            }
+            Path dir = output.getParent();
+            if (dir != null) Files.createDirectories(dir);
+            Roastlog.save(profile, output);
+            RoastLibrary lib = library;
+            if (lib != null) lib.update(output);
+            return new Result(source, fmt, output, Status.IMPORTED, samples, null);
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.FINE, "Bulk import failed: " + source, e);
+            String msg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new Result(source, fmt, null, Status.FAILED, 0, msg);
+        }
+    }
+
+    private String withExtension(String relative) {
+        return stem(relative) + (binary ? AlogBinary.EXTENSION : ".alog");
+    }
+
+    private static String stem(String name) {
+        int dot = name.lastIndexOf('.');
+        int sep = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        return dot > sep + 1 ? name.substring(0, dot) : name;
+    }
+
+    // ── CLI ──────────────────────────────────────────────────────────────────
+
+    /**
+     * <pre>
+     * BulkImporter --out DIR [--format GIESEN] [--threads N] [--binary] [--index] [--overwrite]
+     *              [--quiet] FILE_OR_DIR...
+     * </pre>
+     * Exit code 1 if any file failed.
+     */
+    public static void main(String[] args) {
+        Path out = null;
+        Format fmt = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean bin = false;
+        boolean index = false;
+        boolean force = false;
+        boolean quiet = false;
+        List<Path> inputs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                switch (a) {
+                    case "--out": out = Paths.get(args[++i]); break;
+                    case "--format": fmt = Format.valueOf(args[++i].toUpperCase(Locale.ROOT)); break;
+                    case "--threads": threads = Integer.parseInt(args[++i]); break;
+                    case "--binary": bin = true; break;
+                    case "--index": index = true; break;
+                    case "--overwrite": force = true; break;
+                    case "--quiet": quiet = true; break;
+                    case "-h":
+                    case "--help":
+                        usage();
+                        return;
+                    default:
+                        if (a.startsWith("--")) throw new IllegalArgumentException("Unknown option: " + a);
+                        inputs.add(Paths.get(a));
+                }
+            }
+            if (out == null || inputs.isEmpty()) throw new IllegalArgumentException("--out and at least one input are required");
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage() != null ? e.getMessage() : e.toString());
+            usage();
+            System.exit(2);
+            return;
+        }
+
+        BulkImporter importer = new BulkImporter(out);
+        importer.setFormat(fmt);
+        importer.setParallelism(threads);
+        importer.setBinary(bin);
+        importer.setOverwrite(force);
+        RoastLibrary lib = null;
+        if (index) {
+            lib = new RoastLibrary();
+            lib.load();
+            importer.setLibrary(lib);
+        }
+        boolean printProgress = !quiet;
+        importer.setOnProgress(p -> {
+            if (p.last().status() == Status.FAILED) {
+                System.err.println("FAILED " + p.last().source() + ": " + p.last().error());
+            }
+            if (printProgress && (p.done() % 100 == 0 || p.done() == p.total())) {
+                System.out.printf(Locale.ROOT, "%d/%d%n", p.done(), p.total());
+            }
+        });
+
+        boolean failed = false;
+        try {
+            for (Path in : inputs) {
+                Report report = Files.isDirectory(in) ? importer.run(in) : importer.run(List.of(in));
+                System.out.println(in + ": " + report.summary());
+                failed |= report.count(Status.FAILED) > 0;
+            }
+            if (lib != null) lib.save();
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (failed) System.exit(1);
+    }
+
+    private static void usage() {
+        System.err.println("Usage: BulkImporter --out DIR [--format " + Arrays.toString(Format.values())
+            + "] [--threads N] [--binary] [--index] [--overwrite] [--quiet] FILE_OR_DIR...");
+    }
+}
@@ -0,0 +1,223 @@
+package org.artisan.model.importer;
+
+import org.artisan.util.AsciiDoubles;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming CSV tokenizer over a byte buffer, shared by the vendor CSV importers.
+ * <p>
+ * A row is held as (start, end) offsets into the buffer, trimmed as {@link String#trim()} would
+ * and with a surrounding pair of double quotes removed; nothing is copied. Header names are
+ * resolved to column indices once ({@link #column(String)}), numbers are parsed straight from the
+ * bytes ({@link #getDouble(int, double)}, see {@link AsciiDoubles}) and only {@link #getString(int)}
+ * allocates. Separators
+ * are ASCII, so UTF-8 input is never decoded as a whole. Lines end at LF, CR or CRLF.
+ * <p>
+ * Not thread-safe.
+ */
+public final class CsvTokenizer {
+
+    private final byte[] buf;
+    private final int limit;
+    private int pos;
+    /** ASCII lookup: true for separator characters. */
+    private final boolean[] separator = new boolean[128];
+
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private boolean[] quoted = new boolean[32];
+    private int count;
+    private int rowStart;
+    private int rowEnd;
+
+    private final Map<String, Integer> headerIndex = new HashMap<>();
+
+    /**
+     * @param bytes      file contents from position to limit; a heap buffer is used in place
+     * @param separators field separator characters (e.g. {@code ","} or {@code ",;"})
+     */
+    public CsvTokenizer(ByteBuffer bytes, String separators) {
+        if (bytes.hasArray()) {
+            this.buf = bytes.array();
+            this.pos = bytes.arrayOffset() + bytes.position();
+            this.limit = bytes.arrayOffset() + bytes.limit();
+        } else {
+            this.buf = new byte[bytes.remaining()];
+            bytes.duplicate().get(buf);
+            this.pos = 0;
+            this.limit = buf.length;
+        }
+        setSeparators(separators);
+        if (limit - pos >= 3 && buf[pos] == (byte) 0xEF && buf[pos + 1] == (byte) 0xBB && buf[pos + 2] == (byte) 0xBF) {
+            pos += 3;
+        }
+    }
+
+    /** Reads {@code file} into memory and tokenizes it with the given separators. */
+    public static CsvTokenizer open(Path file, String separators) throws IOException {
+        return new CsvTokenizer(ByteBuffer.wrap(Files.readAllBytes(file)), separators);
+    }
+
+    /** Changes the separators for the rows that follow. */
+    public void setSeparators(String separators) {
+        Arrays.fill(separator, false);
+        for (int k = 0; k < separators.length(); k++) {
+            char c = separators.charAt(k);
+            if (c < 128) separator[c] = true;
+        }
+    }
+
+    /** True if the next (not yet read) line contains {@code c}; used to sniff the separator. */
+    public boolean nextLineContains(char c) {
+        for (int i = pos; i < limit && buf[i] != '\n' && buf[i] != '\r'; i++) {
+            if (buf[i] == c) return true;
+        }
+        return false;
+    }
+
+    // ── Rows ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Advances to the next line.
+     *
+     * @return false at end of input
+     */
+    public boolean nextRow() {
+        if (pos >= limit) return false;
+        count = 0;
+        int i = pos;
+        rowStart = pos;
+        while (true) {
+            while (i < limit && isBlank(buf[i]) && !isEol(buf[i]) && !isSeparator(buf[i])) i++;
+            int s = i;
+            int e;
+            boolean q = false;
+            if (i < limit && buf[i] == '"') {
+                q = true;
+                s = ++i;
+                while (i < limit && !(buf[i] == '"' && (i + 1 >= limit || buf[i + 1] != '"')) && !isEol(buf[i])) {
+                    i += buf[i] == '"' ? 2 : 1;
+                }
+                e = i;
+                if (i < limit && buf[i] == '"') i++;
+                while (i < limit && !isSeparator(buf[i]) && !isEol(buf[i])) i++;
+            } else {
+                while (i < limit && !isSeparator(buf[i]) && !isEol(buf[i])) i++;
+                e = i;
+                while (e > s && isBlank(buf[e - 1])) e--;
+            }
+            addField(s, e, q);
+            if (i < limit && isSeparator(buf[i])) {
+                i++;
+                continue;
+            }
+            break;
+        }
+        rowEnd = i;
+        if (i < limit && buf[i] == '\r') {
+            i++;
+            if (i < limit && buf[i] == '\n') i++;
+        } else if (i < limit && buf[i] == '\n') {
+            i++;
+        }
+        pos = i;
+        return true;
+    }
+
+    /**
+     * Reads the next line as the header and indexes its names (trimmed; the last of duplicate
+     * names wins, as with a map keyed by name).
+     *
+     * @return the header names, or null if the input is empty
+     */
+    public String[] readHeader() {
+        if (!nextRow()) return null;
+        String[] names = new String[count];
+        headerIndex.clear();
+        for (int k = 0; k < count; k++) {
+            names[k] = getString(k);
+            headerIndex.put(names[k], k);
+        }
+        return names;
+    }
+
+    /** Index of header column {@code name}, or -1 if the header has no such column. */
+    public int column(String name) {
+        Integer k = headerIndex.get(name);
+        return k != null ? k : -1;
+    }
+
+    /** Number of fields in the current row. */
+    public int fieldCount() {
+        return count;
+    }
+
+    /** True if the current line is empty or whitespace only (separators included). */
+    public boolean isBlankRow() {
+        for (int i = rowStart; i < rowEnd; i++) {
+            if (!isBlank(buf[i])) return false;
+        }
+        return true;
+    }
+
+    /** True if the current row has column {@code col} (it may be empty). */
+    public boolean has(int col) {
+        return col >= 0 && col < count;
+    }
+
+    /** True if column {@code col} is missing from the current row or empty. */
+    public boolean isEmpty(int col) {
+        return !has(col) || starts[col] == ends[col];
+    }
+
+    /** Cell as a string (allocates); null if the row has no such column. */
+    public String getString(int col) {
+        if (!has(col)) return null;
+        String s = new String(buf, starts[col], ends[col] - starts[col], StandardCharsets.UTF_8);
+        return quoted[col] ? s.replace("\"\"", "\"") : s;
+    }
+
+    /**
+     * Cell parsed as {@link Double#parseDouble} would, without allocating for plain decimal
+     * numbers.
+     *
+     * @return the value, or {@code fallback} if the cell is missing, empty or not a number
+     */
+    public double getDouble(int col, double fallback) {
+        if (isEmpty(col)) return fallback;
+        return AsciiDoubles.parseDouble(buf, starts[col], ends[col], fallback);
+    }
+
+    private void addField(int s, int e, boolean q) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            quoted = Arrays.copyOf(quoted, count * 2);
+        }
+        starts[count] = s;
+        ends[count] = e;
+        quoted[count] = q;
+        count++;
+    }
+
+    private boolean isSeparator(byte b) {
+        return b >= 0 && separator[b];
+    }
+
+    private static boolean isEol(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /** {@link String#trim()} whitespace: control characters and space. */
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
@@ -1,20 +1,12 @@
 package org.artisan.model.importer;
 
+import org.artisan.model.DoubleColumn;
 import org.artisan.model.ProfileData;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * Giesen CSV roast profile importer — parity with Python artisanlib/giesen.py.
@@ -25,8 +17,6 @@ import java.util.logging.Logger;
  */
 public final class GiesenImporter {
 
-    private static final Logger LOG = Logger.getLogger(GiesenImporter.class.getName());
-
     private GiesenImporter() {}
 
     /**
@@ -40,21 +30,22 @@ public final class GiesenImporter {
         ProfileData res = new ProfileData();
         res.setSamplingInterval(1.0);
 
-        try (InputStream is = Files.newInputStream(file);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-
-            String headerLine = reader.readLine();
-            if (headerLine == null) return res;
-            String[] headerCols = headerLine.split(",", -1);
-            for (int h = 0; h < headerCols.length; h++) headerCols[h] = headerCols[h].trim();
-
-            List<Double> timex  = new ArrayList<>();
-            List<Double> temp1  = new ArrayList<>();
-            List<Double> temp2  = new ArrayList<>();
-            List<Double> extra1 = new ArrayList<>(); // ror
-            List<Double> extra2 = new ArrayList<>(); // power
-            List<Double> extra3 = new ArrayList<>(); // speed
-            List<Double> extra4 = new ArrayList<>(); // pressure
+        CsvTokenizer csv = CsvTokenizer.open(file, ",");
+        if (csv.readHeader() != null) {
+            int colAir = csv.column("air");
+            int colBeans = csv.column("beans");
+            int colRor = csv.column("ror");
+            int colPower = csv.column("power");
+            int colSpeed = csv.column("speed");
+            int colPressure = csv.column("pressure");
+
+            DoubleColumn timexCol  = new DoubleColumn();
+            DoubleColumn temp1Col  = new DoubleColumn();
+            DoubleColumn temp2Col  = new DoubleColumn();
+            DoubleColumn extra1Col = new DoubleColumn(); // ror
+            DoubleColumn extra2Col = new DoubleColumn(); // power
+            DoubleColumn extra3Col = new DoubleColumn(); // speed
+            DoubleColumn extra4Col = new DoubleColumn(); // pressure
             List<Integer> timeindex = new ArrayList<>(List.of(-1, 0, 0, 0, 0, 0, 0, 0));
             List<Integer> specialevents      = new ArrayList<>();
             List<Integer> specialeventstype  = new ArrayList<>();
@@ -65,81 +56,74 @@ public final class GiesenImporter {
             boolean speedEvent = false, powerEvent = false;
             int i = 0;
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] cols = line.split(",", -1);
-                Map<String, String> item = new HashMap<>();
-                for (int k = 0; k < Math.min(headerCols.length, cols.length); k++) {
-                    item.put(headerCols[k], cols[k].trim());
-                }
-
+            while (csv.nextRow()) {
                 i++;
-                timex.add((double) i);
-                temp1.add(parseDouble(item.get("air"), -1.0));
-                temp2.add(parseDouble(item.get("beans"), -1.0));
-                extra1.add(parseDouble(item.get("ror"), -1.0));
-                extra2.add(parseDouble(item.get("power"), -1.0));
-                extra3.add(parseDouble(item.get("speed"), -1.0));
-                extra4.add(parseDouble(item.get("pressure"), -1.0));
+                timexCol.add(i);
+                temp1Col.add(csv.getDouble(colAir, -1.0));
+                temp2Col.add(csv.getDouble(colBeans, -1.0));
+                extra1Col.add(csv.getDouble(colRor, -1.0));
+                extra2Col.add(csv.getDouble(colPower, -1.0));
+                extra3Col.add(csv.getDouble(colSpeed, -1.0));
+                extra4Col.add(csv.getDouble(colPressure, -1.0));
 
                 if (timeindex.get(0) <= -1) timeindex.set(0, i);
 
                 // Speed event (drum, type 1)
-                String speedStr = item.get("speed");
-                if (speedStr != null && !speedStr.isEmpty()) {
-                    try {
-                        double v = Double.parseDouble(speedStr);
-                        if (speed == null || v != speed) {
-                            if (speedLast != null && v == speedLast) {
-                                int idx = lastEventOfType(specialeventstype, 1);
-                                if (idx >= 0) removeAt(specialevents, specialeventstype, specialeventsvalue, specialeventsStrings, idx);
-                                speed = speedLast;
-                                speedLast = null;
-                            } else {
-                                speedLast = speed;
-                                speed = v;
-                                speedEvent = true;
-                                specialevents.add(i);
-                                specialeventstype.add(1);
-                                specialeventsvalue.add(v / 10.0);
-                                specialeventsStrings.add(String.format("%.1f%%", v));
-                            }
-                        } else {
+                double v = csv.getDouble(colSpeed, Double.NaN);
+                if (!Double.isNaN(v)) {
+                    if (speed == null || v != speed) {
+                        if (speedLast != null && v == speedLast) {
+                            int idx = lastEventOfType(specialeventstype, 1);
+                            if (idx >= 0) removeAt(specialevents, specialeventstype, specialeventsvalue, specialeventsStrings, idx);
+                            speed = speedLast;
                             speedLast = null;
+                        } else {
+                            speedLast = speed;
+                            speed = v;
+                            speedEvent = true;
+                            specialevents.add(i);
+                            specialeventstype.add(1);
+                            specialeventsvalue.add(v / 10.0);
+                            specialeventsStrings.add(String.format("%.1f%%", v));
                         }
-                    } catch (NumberFormatException e) { LOG.log(Level.FINE, "speed parse", e); }
+                    } else {
+                        speedLast = null;
+                    }
                 }
 
                 // Power event (heat, type 3)
-                String powerStr = item.get("power");
-                if (powerStr != null && !powerStr.isEmpty()) {
-                    try {
-                        double v = Double.parseDouble(powerStr);
-                        if (power == null || v != power) {
-                            if (powerLast != null && v == powerLast) {
-                                int idx = lastEventOfType(specialeventstype, 3);
-                                if (idx >= 0) removeAt(specialevents, specialeventstype, specialeventsvalue, specialeventsStrings, idx);
-                                power = powerLast;
-                                powerLast = null;
-                            } else {
-                                powerLast = power;
-                                power = v;
-                                powerEvent = true;
-                                specialevents.add(i);
-                                specialeventstype.add(3);
-                                specialeventsvalue.add(v / 10.0);
-                                specialeventsStrings.add(String.format("%.0f%%", v));
-                            }
-                        } else {
+                v = csv.getDouble(colPower, Double.NaN);
+                if (!Double.isNaN(v)) {
+                    if (power == null || v != power) {
+                        if (powerLast != null && v == powerLast) {
+                            int idx = lastEventOfType(specialeventstype, 3);
+                            if (idx >= 0) removeAt(specialevents, specialeventstype, specialeventsvalue, specialeventsStrings, idx);
+                            power = powerLast;
                             powerLast = null;
+                        } else {
+                            powerLast = power;
+                            power = v;
+                            powerEvent = true;
+                            specialevents.add(i);
+                            specialeventstype.add(3);
+                            specialeventsvalue.add(v / 10.0);
+                            specialeventsStrings.add(String.format("%.0f%%", v));
                         }
-                    } catch (NumberFormatException e) { LOG.log(Level.FINE, "power parse", e); }
+                    } else {
+                        powerLast = null;
+                    }
                 }
             }
 
+            List<Double> timex = timexCol.view().toBoxedList();
+            List<Double> extra1 = extra1Col.view().toBoxedList();
+            List<Double> extra2 = extra2Col.view().toBoxedList();
+            List<Double> extra3 = extra3Col.view().toBoxedList();
+            List<Double> extra4 = extra4Col.view().toBoxedList();
+
             res.setTimex(timex);
-            res.setTemp1(temp1);
-            res.setTemp2(temp2);
+            res.setTemp1(temp1Col.view().toBoxedList());
+            res.setTemp2(temp2Col.view().toBoxedList());
             res.setTimeindex(timeindex);
 
             res.setExtradevices(List.of(25, 25));
@@ -165,11 +149,6 @@ public final class GiesenImporter {
         return res;
     }
 
-    private static double parseDouble(String s, double fallback) {
-        if (s == null || s.isEmpty()) return fallback;
-        try { return Double.parseDouble(s); } catch (NumberFormatException e) { return fallback; }
-    }
-
     private static int lastEventOfType(List<Integer> types, int type) {
         for (int k = types.size() - 1; k >= 0; k--) {
             if (types.get(k) == type) return k;
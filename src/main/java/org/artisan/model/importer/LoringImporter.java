@@ -1,21 +1,15 @@
 package org.artisan.model.importer;
 
+import org.artisan.model.DoubleColumn;
 import org.artisan.model.ProfileData;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,21 +41,24 @@ public final class LoringImporter {
         res.setRoastertype("Loring");
         res.setRoasterheating(2); // NG
 
-        try (InputStream is = Files.newInputStream(file);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-
-            String headerLine = reader.readLine();
-            if (headerLine == null) return res;
-            String[] headerCols = headerLine.split(",", -1);
-            for (int h = 0; h < headerCols.length; h++) headerCols[h] = headerCols[h].trim();
-
-            List<Double>  timex   = new ArrayList<>();
-            List<Double>  temp1   = new ArrayList<>();
-            List<Double>  temp2   = new ArrayList<>();
-            List<Double>  extra1  = new ArrayList<>(); // burner
-            List<Double>  extra2  = new ArrayList<>(); // inlet air
-            List<Double>  extra3  = new ArrayList<>(); // stack
-            List<Double>  extra4  = new ArrayList<>(); // ror
+        CsvTokenizer csv = CsvTokenizer.open(file, ",");
+        if (csv.readHeader() != null) {
+            int colTime = csv.column("Time");
+            int colOnOff = csv.column("RoastingOnOff");
+            int colInlet = csv.column("InletTemp");
+            int colBean = csv.column("BeanTemp");
+            int colBurner = csv.column("BurnerPercent");
+            int colInletAir = csv.column("InletAir");
+            int colStack = csv.column("Stack");
+            int colRor = csv.column("RoR");
+
+            DoubleColumn timexCol  = new DoubleColumn();
+            DoubleColumn temp1Col  = new DoubleColumn();
+            DoubleColumn temp2Col  = new DoubleColumn();
+            DoubleColumn extra1Col = new DoubleColumn(); // burner
+            DoubleColumn extra2Col = new DoubleColumn(); // inlet air
+            DoubleColumn extra3Col = new DoubleColumn(); // stack
+            DoubleColumn extra4Col = new DoubleColumn(); // ror
             List<Integer> timeindex = new ArrayList<>(List.of(-1, 0, 0, 0, 0, 0, 0, 0));
             List<Integer> specialevents      = new ArrayList<>();
             List<Integer> specialeventstype  = new ArrayList<>();
@@ -76,20 +73,12 @@ public final class LoringImporter {
             int i = 0;
             String mode = "C";
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] cols = line.split(",", -1);
-                Map<String, String> item = new HashMap<>();
-                for (int k = 0; k < Math.min(headerCols.length, cols.length); k++) {
-                    item.put(headerCols[k], cols[k].trim());
-                }
-
-                if (!item.containsKey("Time") || !item.containsKey("RoastingOnOff")
-                        || item.get("RoastingOnOff").isEmpty()) continue;
+            while (csv.nextRow()) {
+                if (!csv.has(colTime) || csv.isEmpty(colOnOff)) continue;
 
                 LocalDateTime dt = null;
                 try {
-                    dt = LocalDateTime.parse(item.get("Time"), TIME_FMT);
+                    dt = LocalDateTime.parse(csv.getString(colTime), TIME_FMT);
                 } catch (DateTimeParseException e) {
                     LOG.log(Level.FINE, "Loring time parse error", e);
                     continue;
@@ -109,49 +98,52 @@ public final class LoringImporter {
                 }
                 lastSecs = secs;
 
-                timex.add(secs);
-                temp1.add(parseDouble(item.get("InletTemp"), -1.0));
-                temp2.add(parseDouble(item.get("BeanTemp"), -1.0));
-                extra1.add(parseDouble(item.get("BurnerPercent"), -1.0));
-                extra2.add(parseDouble(item.get("InletAir"), -1.0));
-                extra3.add(parseDouble(item.get("Stack"), -1.0));
-                extra4.add(parseDouble(item.get("RoR"), -1.0));
+                timexCol.add(secs);
+                temp1Col.add(csv.getDouble(colInlet, -1.0));
+                temp2Col.add(csv.getDouble(colBean, -1.0));
+                extra1Col.add(csv.getDouble(colBurner, -1.0));
+                extra2Col.add(csv.getDouble(colInletAir, -1.0));
+                extra3Col.add(csv.getDouble(colStack, -1.0));
+                extra4Col.add(csv.getDouble(colRor, -1.0));
 
                 if (timeindex.get(0) <= -1) timeindex.set(0, i);
 
                 // Power / burner event (type 3)
-                String burnerStr = item.get("BurnerPercent");
-                if (burnerStr != null && !burnerStr.isEmpty()) {
-                    try {
-                        double v = Double.parseDouble(burnerStr);
-                        if (power == null || v != power) {
-                            if (powerLast != null && v == powerLast) {
-                                int idx = lastEventOfType(specialeventstype, 3);
-                                if (idx >= 0) removeAt(specialevents, specialeventstype, specialeventsvalue, specialeventsStrings, idx);
-                                power = powerLast;
-                                powerLast = null;
-                            } else {
-                                powerLast = power;
-                                power = v;
-                                powerEvent = true;
-                                specialevents.add(i);
-                                specialeventstype.add(3);
-                                specialeventsvalue.add(v / 10.0);
-                                specialeventsStrings.add(String.format("%.0f%%", v));
-                            }
-                        } else {
+                double v = csv.getDouble(colBurner, Double.NaN);
+                if (!Double.isNaN(v)) {
+                    if (power == null || v != power) {
+                        if (powerLast != null && v == powerLast) {
+                            int idx = lastEventOfType(specialeventstype, 3);
+                            if (idx >= 0) removeAt(specialevents, specialeventstype, specialeventsvalue, specialeventsStrings, idx);
+                            power = powerLast;
                             powerLast = null;
+                        } else {
+                            powerLast = power;
+                            power = v;
+                            powerEvent = true;
+                            specialevents.add(i);
+                            specialeventstype.add(3);
+                            specialeventsvalue.add(v / 10.0);
+                            specialeventsStrings.add(String.format("%.0f%%", v));
                         }
-                    } catch (NumberFormatException e) { LOG.log(Level.FINE, "power parse", e); }
+                    } else {
+                        powerLast = null;
+                    }
                 }
                 i++;
             }
 
+            List<Double> timex = timexCol.view().toBoxedList();
+            List<Double> extra1 = extra1Col.view().toBoxedList();
+            List<Double> extra2 = extra2Col.view().toBoxedList();
+            List<Double> extra3 = extra3Col.view().toBoxedList();
+            List<Double> extra4 = extra4Col.view().toBoxedList();
+
             res.setSamplingInterval(samplingInterval);
             res.setMode(mode);
             res.setTimex(timex);
-            res.setTemp1(temp1);
-            res.setTemp2(temp2);
+            res.setTemp1(temp1Col.view().toBoxedList());
+            res.setTemp2(temp2Col.view().toBoxedList());
             res.setTimeindex(timeindex);
 
             res.setExtradevices(List.of(25, 25));
@@ -177,11 +169,6 @@ public final class LoringImporter {
         return res;
     }
 
-    private static double parseDouble(String s, double fallback) {
-        if (s == null || s.isEmpty()) return fallback;
-        try { return Double.parseDouble(s); } catch (NumberFormatException e) { return fallback; }
-    }
-
     private static int lastEventOfType(List<Integer> types, int type) {
         for (int k = types.size() - 1; k >= 0; k--) {
             if (types.get(k) == type) return k;
@@ -1,21 +1,13 @@
 package org.artisan.model.importer;
 
+import org.artisan.model.DoubleColumn;
 import org.artisan.model.ProfileData;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * Rubasse CSV roast profile importer — parity with Python rubasse.py.
@@ -28,12 +20,14 @@ import java.util.logging.Logger;
  */
 public final class RubasseImporter {
 
-    private static final Logger LOG = Logger.getLogger(RubasseImporter.class.getName());
-
-    private static final String[] HEADER = {
-        "time", "BT", "Fan", "Heater", "RoR", "Drum", "Humidity", "ET", "Pressure",
-        "DT", "timeB", "BTB", "FanB", "HeaterB", "RoRB", "DrumB", "HumidityB", "ETB", "PressureB", "DTB"
-    };
+    /** Indices of the columns read, in the order documented above. */
+    private static final int COL_FAN = 2;
+    private static final int COL_HEATER = 3;
+    private static final int COL_DRUM = 5;
+    private static final int COL_HUMIDITY = 6;
+    private static final int COL_ET = 7;
+    private static final int COL_PRESSURE = 8;
+    private static final int COL_DT = 9;
 
     private static final List<String> DEFAULT_ETYPES = List.of("Air", "Drum", "TS", "Power");
 
@@ -54,23 +48,17 @@ public final class RubasseImporter {
         res.setRoastertype("Rubasse");
         res.setRoasterheating(3); // electric
 
-        try (InputStream is = Files.newInputStream(file);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-
-            String headerLine = reader.readLine();
-            if (headerLine == null) return res;
-
-            String[] headerRow = headerLine.split(",", -1);
-
-            List<Double> timex  = new ArrayList<>();
-            List<Double> temp1  = new ArrayList<>();
-            List<Double> temp2  = new ArrayList<>();
-            List<Double> extra1 = new ArrayList<>(); // Heater
-            List<Double> extra2 = new ArrayList<>(); // Fan
-            List<Double> extra3 = new ArrayList<>(); // Humidity
-            List<Double> extra4 = new ArrayList<>(); // Pressure
-            List<Double> extra5 = new ArrayList<>(); // Drum
-            List<Double> extra6 = new ArrayList<>(); // DT
+        CsvTokenizer csv = CsvTokenizer.open(file, ",");
+        String[] headerRow = csv.readHeader();
+        if (headerRow != null) {
+            DoubleColumn timexCol  = new DoubleColumn();
+            DoubleColumn temp1Col  = new DoubleColumn();
+            DoubleColumn extra1Col = new DoubleColumn(); // Heater
+            DoubleColumn extra2Col = new DoubleColumn(); // Fan
+            DoubleColumn extra3Col = new DoubleColumn(); // Humidity
+            DoubleColumn extra4Col = new DoubleColumn(); // Pressure
+            DoubleColumn extra5Col = new DoubleColumn(); // Drum
+            DoubleColumn extra6Col = new DoubleColumn(); // DT
 
             List<Integer> timeindex = new ArrayList<>(List.of(-1, 0, 0, 0, 0, 0, 0, 0));
             List<Integer> specialevents      = new ArrayList<>();
@@ -86,94 +74,85 @@ public final class RubasseImporter {
             boolean heaterEvent = false;
 
             int i = 0;
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] cols = line.split(",", -1);
-                Map<String, String> item = new HashMap<>();
-                for (int k = 0; k < Math.min(HEADER.length, cols.length); k++) {
-                    item.put(HEADER[k], cols[k].trim());
-                }
-
-                timex.add((double) i);
-                temp1.add(parseDouble(item.get("ET"), -1.0));
-                temp2.add(-1.0); // BT not present in this format
-                extra1.add(parseDouble(item.get("Heater"), -1.0));
-                extra2.add(parseDouble(item.get("Fan"), -1.0));
-                extra3.add(parseDouble(item.get("Humidity"), -1.0));
-                extra4.add(parseDouble(item.get("Pressure"), -1.0));
-                extra5.add(parseDouble(item.get("Drum"), -1.0));
-                extra6.add(parseDouble(item.get("DT"), -1.0));
+            while (csv.nextRow()) {
+                timexCol.add(i);
+                temp1Col.add(csv.getDouble(COL_ET, -1.0));
+                extra1Col.add(csv.getDouble(COL_HEATER, -1.0));
+                extra2Col.add(csv.getDouble(COL_FAN, -1.0));
+                extra3Col.add(csv.getDouble(COL_HUMIDITY, -1.0));
+                extra4Col.add(csv.getDouble(COL_PRESSURE, -1.0));
+                extra5Col.add(csv.getDouble(COL_DRUM, -1.0));
+                extra6Col.add(csv.getDouble(COL_DT, -1.0));
 
                 // Fan event with fluctuation suppression
-                String fanStr = item.get("Fan");
-                if (fanStr != null && !fanStr.isEmpty()) {
-                    try {
-                        double v = Double.parseDouble(fanStr);
-                        if (fan == null || v != fan) {
-                            if (fanLast != null && v == fanLast) {
-                                // fluctuation — remove the last fan event
-                                int lastFanIdx = lastEventOfType(specialeventstype, 0);
-                                if (lastFanIdx >= 0) {
-                                    specialevents.remove(lastFanIdx);
-                                    specialeventstype.remove(lastFanIdx);
-                                    specialeventsvalue.remove(lastFanIdx);
-                                    specialeventsStrings.remove(lastFanIdx);
-                                }
-                                fan = fanLast;
-                                fanLast = null;
-                            } else {
-                                fanLast = fan;
-                                fan = v;
-                                fanEvent = true;
-                                specialevents.add(i);
-                                specialeventstype.add(0);
-                                specialeventsvalue.add(externalToInternal((int) Math.round(v)));
-                                specialeventsStrings.add(v + "%");
+                double v = csv.getDouble(COL_FAN, Double.NaN);
+                if (!Double.isNaN(v)) {
+                    if (fan == null || v != fan) {
+                        if (fanLast != null && v == fanLast) {
+                            // fluctuation — remove the last fan event
+                            int lastFanIdx = lastEventOfType(specialeventstype, 0);
+                            if (lastFanIdx >= 0) {
+                                specialevents.remove(lastFanIdx);
+                                specialeventstype.remove(lastFanIdx);
+                                specialeventsvalue.remove(lastFanIdx);
+                                specialeventsStrings.remove(lastFanIdx);
                             }
-                        } else {
+                            fan = fanLast;
                             fanLast = null;
+                        } else {
+                            fanLast = fan;
+                            fan = v;
+                            fanEvent = true;
+                            specialevents.add(i);
+                            specialeventstype.add(0);
+                            specialeventsvalue.add(externalToInternal((int) Math.round(v)));
+                            specialeventsStrings.add(v + "%");
                         }
-                    } catch (NumberFormatException e) {
-                        LOG.log(Level.FINE, "Fan parse error", e);
+                    } else {
+                        fanLast = null;
                     }
                 }
 
                 // Heater event with fluctuation suppression
-                String heaterStr = item.get("Heater");
-                if (heaterStr != null && !heaterStr.isEmpty()) {
-                    try {
-                        double v = Double.parseDouble(heaterStr);
-                        if (heater == null || v != heater) {
-                            if (heaterLast != null && v == heaterLast) {
-                                int lastHeaterIdx = lastEventOfType(specialeventstype, 3);
-                                if (lastHeaterIdx >= 0) {
-                                    specialevents.remove(lastHeaterIdx);
-                                    specialeventstype.remove(lastHeaterIdx);
-                                    specialeventsvalue.remove(lastHeaterIdx);
-                                    specialeventsStrings.remove(lastHeaterIdx);
-                                }
-                                heater = heaterLast;
-                                heaterLast = null;
-                            } else {
-                                heaterLast = heater;
-                                heater = v;
-                                heaterEvent = true;
-                                specialevents.add(i);
-                                specialeventstype.add(3);
-                                specialeventsvalue.add(externalToInternal((int) Math.round(v)));
-                                specialeventsStrings.add(v + "%");
+                v = csv.getDouble(COL_HEATER, Double.NaN);
+                if (!Double.isNaN(v)) {
+                    if (heater == null || v != heater) {
+                        if (heaterLast != null && v == heaterLast) {
+                            int lastHeaterIdx = lastEventOfType(specialeventstype, 3);
+                            if (lastHeaterIdx >= 0) {
+                                specialevents.remove(lastHeaterIdx);
+                                specialeventstype.remove(lastHeaterIdx);
+                                specialeventsvalue.remove(lastHeaterIdx);
+                                specialeventsStrings.remove(lastHeaterIdx);
                             }
-                        } else {
+                            heater = heaterLast;
                             heaterLast = null;
+                        } else {
+                            heaterLast = heater;
+                            heater = v;
+                            heaterEvent = true;
+                            specialevents.add(i);
+                            specialeventstype.add(3);
+                            specialeventsvalue.add(externalToInternal((int) Math.round(v)));
+                            specialeventsStrings.add(v + "%");
                         }
-                    } catch (NumberFormatException e) {
-                        LOG.log(Level.FINE, "Heater parse error", e);
+                    } else {
+                        heaterLast = null;
                     }
                 }
 
                 i++;
             }
 
+            List<Double> timex = timexCol.view().toBoxedList();
+            List<Double> temp2 = new ArrayList<>(Collections.nCopies(timex.size(), -1.0)); // BT not present in this format
+            List<Double> extra1 = extra1Col.view().toBoxedList();
+            List<Double> extra2 = extra2Col.view().toBoxedList();
+            List<Double> extra3 = extra3Col.view().toBoxedList();
+            List<Double> extra4 = extra4Col.view().toBoxedList();
+            List<Double> extra5 = extra5Col.view().toBoxedList();
+            List<Double> extra6 = extra6Col.view().toBoxedList();
+
             // Mark CHARGE
             if (timeindex.get(0) == -1) timeindex.set(0, 0);
 
@@ -200,7 +179,7 @@ public final class RubasseImporter {
 
             res.setMode("C");
             res.setTimex(timex);
-            res.setTemp1(temp1);
+            res.setTemp1(temp1Col.view().toBoxedList());
             res.setTemp2(temp2);
             res.setTimeindex(timeindex);
 
@@ -239,11 +218,6 @@ public final class RubasseImporter {
 
     // ── Helpers ──────────────────────────────────────────────────────────────
 
-    private static double parseDouble(String s, double fallback) {
-        if (s == null || s.isEmpty()) return fallback;
-        try { return Double.parseDouble(s); } catch (NumberFormatException e) { return fallback; }
-    }
-
     private static double externalToInternal(int pct) {
         return pct / 10.0;
     }
@@ -1,19 +1,12 @@
 package org.artisan.model.importer;
 
+import org.artisan.model.DoubleColumn;
 import org.artisan.model.ProfileData;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.logging.Logger;
 
 /**
  * Stronghold XLS/CSV roast profile importer — parity with Python artisanlib/stronghold.py.
@@ -24,8 +17,6 @@ import java.util.logging.Logger;
  */
 public final class StrongholdImporter {
 
-    private static final Logger LOG = Logger.getLogger(StrongholdImporter.class.getName());
-
     private StrongholdImporter() {}
 
     /**
@@ -40,20 +31,19 @@ public final class StrongholdImporter {
         res.setRoastertype("Stronghold");
         res.setSamplingInterval(1.0);
 
-        try (InputStream is = Files.newInputStream(file);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-
-            String headerLine = reader.readLine();
-            if (headerLine == null) return res;
-
-            // Support both comma- and tab-separated
-            String sep = headerLine.contains("\t") ? "\t" : ",";
-            String[] headerCols = headerLine.split(sep, -1);
-            for (int h = 0; h < headerCols.length; h++) headerCols[h] = headerCols[h].trim();
-
-            List<Double>  timex    = new ArrayList<>();
-            List<Double>  temp1    = new ArrayList<>();
-            List<Double>  temp2    = new ArrayList<>();
+        CsvTokenizer csv = CsvTokenizer.open(file, ",");
+        // Support both comma- and tab-separated
+        if (csv.nextLineContains('\t')) csv.setSeparators("\t");
+        if (csv.readHeader() != null) {
+            int colTime = csv.column("Time");
+            int colEt = csv.column("ET");
+            int colBt = csv.column("BT");
+            int colFan = csv.column("Fan");
+            int colHeater = csv.column("Heater");
+
+            DoubleColumn timexCol = new DoubleColumn();
+            DoubleColumn temp1Col = new DoubleColumn();
+            DoubleColumn temp2Col = new DoubleColumn();
             List<Integer> timeindex = new ArrayList<>(List.of(-1, 0, 0, 0, 0, 0, 0, 0));
             List<Integer> specialevents      = new ArrayList<>();
             List<Integer> specialeventstype  = new ArrayList<>();
@@ -63,63 +53,47 @@ public final class StrongholdImporter {
             int i = 0;
             Double lastFan = null, lastHeater = null;
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] cols = line.split(sep, -1);
-                Map<String, String> item = new HashMap<>();
-                for (int k = 0; k < Math.min(headerCols.length, cols.length); k++) {
-                    item.put(headerCols[k], cols[k].trim());
-                }
+            while (csv.nextRow()) {
+                if (csv.isBlankRow()) continue;
 
-                double t = parseDouble(item.get("Time"), (double) i);
-                timex.add(t);
-                temp1.add(parseDouble(item.get("ET"), -1.0));
-                temp2.add(parseDouble(item.get("BT"), -1.0));
+                timexCol.add(csv.getDouble(colTime, i));
+                temp1Col.add(csv.getDouble(colEt, -1.0));
+                temp2Col.add(csv.getDouble(colBt, -1.0));
 
                 if (timeindex.get(0) <= -1) timeindex.set(0, i);
 
                 // Fan event (type 0)
-                String fanStr = item.get("Fan");
-                if (fanStr != null && !fanStr.isEmpty()) {
-                    try {
-                        double v = Double.parseDouble(fanStr);
-                        if (lastFan == null || v != lastFan) {
-                            lastFan = v;
-                            specialevents.add(i);
-                            specialeventstype.add(0);
-                            specialeventsvalue.add(v / 10.0);
-                            specialeventsStrings.add(String.format("%.0f%%", v));
-                        }
-                    } catch (NumberFormatException ignored) {}
+                double v = csv.getDouble(colFan, Double.NaN);
+                if (!Double.isNaN(v) && (lastFan == null || v != lastFan)) {
+                    lastFan = v;
+                    specialevents.add(i);
+                    specialeventstype.add(0);
+                    specialeventsvalue.add(v / 10.0);
+                    specialeventsStrings.add(String.format("%.0f%%", v));
                 }
 
                 // Heater event (type 3)
-                String heaterStr = item.get("Heater");
-                if (heaterStr != null && !heaterStr.isEmpty()) {
-                    try {
-                        double v = Double.parseDouble(heaterStr);
-                        if (lastHeater == null || v != lastHeater) {
-                            lastHeater = v;
-                            specialevents.add(i);
-                            specialeventstype.add(3);
-                            specialeventsvalue.add(v / 10.0);
-                            specialeventsStrings.add(String.format("%.0f%%", v));
-                        }
-                    } catch (NumberFormatException ignored) {}
+                v = csv.getDouble(colHeater, Double.NaN);
+                if (!Double.isNaN(v) && (lastHeater == null || v != lastHeater)) {
+                    lastHeater = v;
+                    specialevents.add(i);
+                    specialeventstype.add(3);
+                    specialeventsvalue.add(v / 10.0);
+                    specialeventsStrings.add(String.format("%.0f%%", v));
                 }
 
                 i++;
             }
 
+            List<Double> timex = timexCol.view().toBoxedList();
             if (timeindex.get(6) == 0 && !timex.isEmpty()) {
                 timeindex.set(6, timex.size() - 1);
             }
 
             res.setMode("C");
             res.setTimex(timex);
-            res.setTemp1(temp1);
-            res.setTemp2(temp2);
+            res.setTemp1(temp1Col.view().toBoxedList());
+            res.setTemp2(temp2Col.view().toBoxedList());
             res.setTimeindex(timeindex);
 
             if (!specialevents.isEmpty()) {
@@ -136,8 +110,4 @@ public final class StrongholdImporter {
         return res;
     }
 
-    private static double parseDouble(String s, double fallback) {
-        if (s == null || s.isEmpty()) return fallback;
-        try { return Double.parseDouble(s); } catch (NumberFormatException e) { return fallback; }
-    }
 }
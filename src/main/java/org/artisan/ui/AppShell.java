@@ -13,11 +13,18 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.artisan.controller.AppController;
 import org.artisan.controller.CommController;
+import org.artisan.controller.RoastState;
+import org.artisan.device.DeviceChannel;
+import org.artisan.model.BackgroundProfile;
 import org.artisan.model.ReferenceProfile;
+import org.artisan.ui.components.CurveSnapshot;
 import org.artisan.ui.components.WebLcdServer;
 import org.artisan.ui.components.CustomTitleBar;
 import org.artisan.ui.components.LeftDrawer;
@@ -30,6 +37,7 @@ import org.artisan.ui.screens.PreRoastScreen;
 import org.artisan.ui.screens.RoastLiveScreen;
 import org.artisan.ui.state.PreferencesStore;
 import org.artisan.ui.state.UIPreferences;
+import org.artisan.view.RoastChartController;
 
 /**
  * Main application shell: custom title bar + main content.
@@ -52,6 +60,8 @@ public final class AppShell {
     private final PreferencesStore preferencesStore;
     private final Pane drawerOverlay;
     private WebLcdServer webLcdServer;
+    private AppController.SampleListener webLcdSampleListener;
+    private AppController.EventListener webLcdEventListener;
 
     private Runnable onSettings;
     private Runnable onResetLayout;
@@ -212,21 +222,70 @@ public final class AppShell {
             webLcdServer.start();
             if (appController != null) {
                 final WebLcdServer srv = webLcdServer;
-                appController.addSampleListener((bt, et, rorBT, rorET, timeSec) -> {
-                    if (srv.isRunning()) {
-                        String json = String.format(
-                            "{\"bt\":%.1f,\"et\":%.1f,\"ror\":%.1f,\"time\":%.0f}",
-                            bt, et, rorBT, timeSec);
-                        srv.broadcast(json);
+                RoastState[] lastState = { null };
+                webLcdSampleListener = (bt, et, rorBT, rorET, timeSec) -> {
+                    srv.publishSample(timeSec, bt, et, rorBT, rorET, extraValues());
+                    RoastState state = appController.getSession().getState();
+                    if (state != lastState[0]) {
+                        lastState[0] = state;
+                        srv.publishPhase(state.name());
                     }
-                });
+                };
+                webLcdEventListener = (type, label, timeSec, bt) -> srv.publishEvent(label, timeSec, bt);
+                appController.addSampleListener(webLcdSampleListener);
+                appController.addEventListener(webLcdEventListener);
+                srv.setCurveSource("live", () -> onFxThread(
+                    () -> CurveSnapshot.of(appController.getSession().getCanvasData())));
+                srv.setCurveSource("background", () -> onFxThread(() -> {
+                    RoastChartController chart = appController.getChartController();
+                    BackgroundProfile bg = chart != null ? chart.getBackgroundProfile() : null;
+                    return bg != null && !bg.isEmpty() ? CurveSnapshot.of(bg.getProfileData()) : CurveSnapshot.EMPTY;
+                }));
             }
         } catch (Exception ex) {
             webLcdServer = null;
         }
     }
 
+    /** Runs {@code task} on the FX thread (owner of the roast data) and waits up to 2 s for it. */
+    private static <T> T onFxThread(Supplier<T> task) {
+        if (Platform.isFxApplicationThread()) return task.get();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        try {
+            return result.get(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("FX thread did not answer", e);
+        }
+    }
+
+    /** Extra channels (index 2..) of the active device channel's last read, or null. */
+    private double[] extraValues() {
+        CommController comm = appController.getCommController();
+        DeviceChannel ch = comm != null ? comm.getActiveChannel() : null;
+        int n = ch != null ? ch.getLastValueCount() - 2 : 0;
+        if (n <= 0) return null;
+        double[] extras = new double[n];
+        for (int i = 0; i < n; i++) extras[i] = ch.getLastValue(i + 2);
+        return extras;
+    }
+
     private void stopWebLcdServer() {
+        if (appController != null) {
+            appController.removeSampleListener(webLcdSampleListener);
+            appController.removeEventListener(webLcdEventListener);
+        }
+        webLcdSampleListener = null;
+        webLcdEventListener = null;
         if (webLcdServer != null) {
             webLcdServer.stop();
             webLcdServer = null;
@@ -0,0 +1,228 @@
+package org.artisan.ui.components;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.artisan.util.Lttb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@code GET /curve} for {@link WebLcdServer}: the curve so far as JSON, so a dashboard that joins
+ * late can draw the history and then follow the live stream. Query parameters (all optional):
+ * <ul>
+ *   <li>{@code profile} — a registered source, {@code live} (default) or {@code background},</li>
+ *   <li>{@code from}, {@code to} — time range in seconds, inclusive,</li>
+ *   <li>{@code since} — only samples with time strictly greater (incremental fetch),</li>
+ *   <li>{@code points} — LTTB-downsample the selected range to at most this many points (by BT).</li>
+ * </ul>
+ * Response: {@code {"profile","size","count","last","time":[..],"bt","et","rorbt","roret",
+ * "events":{"CHARGE":t,..}}} where {@code size}/{@code last} describe the whole curve (a
+ * {@code last} below the client's {@code since} means a new roast started). The ETag is a hash
+ * of the body; {@code If-None-Match} answers 304. Bodies are gzipped when the client accepts it.
+ */
+@SuppressWarnings("restriction")
+final class CurveEndpoint implements HttpHandler {
+
+    private static final Logger LOG = Logger.getLogger(CurveEndpoint.class.getName());
+
+    static final String PATH = "/curve";
+    static final String DEFAULT_PROFILE = "live";
+    /** Smaller bodies are not worth the gzip header and CPU. */
+    private static final int GZIP_MIN_BYTES = 512;
+
+    private final Map<String, Supplier<CurveSnapshot>> sources;
+
+    CurveEndpoint(Map<String, Supplier<CurveSnapshot>> sources) {
+        this.sources = sources;
+    }
+
+    /** Parsed query; NaN / 0 = not given. */
+    record Query(String profile, double from, double to, double since, int points) {
+
+        static Query parse(String raw) {
+            Map<String, String> p = new HashMap<>();
+            if (raw != null) {
+                for (String pair : raw.split("&")) {
+                    int eq = pair.indexOf('=');
+                    if (eq <= 0) continue;
+                    p.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8).trim(),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8).trim());
+                }
+            }
+            int points = p.containsKey("points") ? Integer.parseInt(p.get("points")) : 0;
+            if (points < 0) throw new IllegalArgumentException("Bad points: " + points);
+            return new Query(p.getOrDefault("profile", DEFAULT_PROFILE).toLowerCase(Locale.ROOT),
+                number(p, "from"), number(p, "to"), number(p, "since"), points);
+        }
+
+        private static double number(Map<String, String> p, String key) {
+            String v = p.get(key);
+            if (v == null || v.isEmpty()) return Double.NaN;
+            double d = Double.parseDouble(v);
+            if (Double.isNaN(d)) throw new IllegalArgumentException("Bad " + key + ": " + v);
+            return d;
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            boolean head = "HEAD".equals(method);
+            exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+            exchange.getResponseHeaders().set("Access-Control-Expose-Headers", "ETag");
+            if (!head && !"GET".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                sendText(exchange, 405, "Method not allowed");
+                return;
+            }
+            Query q;
+            try {
+                q = Query.parse(exchange.getRequestURI().getRawQuery());
+            } catch (IllegalArgumentException e) {
+                sendText(exchange, 400, e.getMessage());
+                return;
+            }
+            Supplier<CurveSnapshot> source = sources.get(q.profile());
+            if (source == null) {
+                sendText(exchange, 404, "Unknown profile: " + q.profile());
+                return;
+            }
+            CurveSnapshot snap;
+            try {
+                snap = source.get();
+            } catch (RuntimeException e) {
+                LOG.log(Level.FINE, "Curve snapshot failed", e);
+                sendText(exchange, 503, "Curve not available");
+                return;
+            }
+            byte[] body = render(q.profile(), snap != null ? snap : CurveSnapshot.EMPTY, q)
+                .getBytes(StandardCharsets.UTF_8);
+            String etag = etag(body);
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (body.length >= GZIP_MIN_BYTES && accept != null && accept.toLowerCase(Locale.ROOT).contains("gzip")) {
+                body = gzip(body);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            if (head) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    /** JSON body for {@code q} over {@code snap}. */
+    static String render(String profile, CurveSnapshot snap, Query q) {
+        double[] t = snap.time();
+        int n = snap.size();
+        double lower = Double.isNaN(q.since()) ? q.from()
+            : Double.isNaN(q.from()) ? q.since() : Math.max(q.from(), q.since());
+        int lo = Double.isNaN(lower) ? 0 : firstAbove(t, n, lower, !Double.isNaN(q.since()) && lower == q.since());
+        int hi = Double.isNaN(q.to()) ? n : firstAbove(t, n, q.to(), true);
+        if (hi < lo) hi = lo;
+        int[] idx = q.points() > 0 ? Lttb.select(t, snap.bt(), lo, hi, q.points()) : null;
+        int count = idx != null ? idx.length : hi - lo;
+
+        StringBuilder sb = new StringBuilder(64 + count * 40);
+        sb.append("{\"profile\":\"").append(profile.replace("\"", "")).append('"');
+        sb.append(",\"size\":").append(n);
+        sb.append(",\"count\":").append(count);
+        sb.append(",\"last\":");
+        if (n > 0) WebLcdServer.appendFixed(sb, t[n - 1], 2);
+        else sb.append("null");
+        series(sb, "time", t, idx, lo, count, 2);
+        series(sb, "bt", snap.bt(), idx, lo, count, 1);
+        series(sb, "et", snap.et(), idx, lo, count, 1);
+        series(sb, "rorbt", snap.rorBt(), idx, lo, count, 1);
+        series(sb, "roret", snap.rorEt(), idx, lo, count, 1);
+        sb.append(",\"events\":{");
+        boolean first = true;
+        for (Map.Entry<String, Double> e : snap.events().entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append('"').append(e.getKey()).append("\":");
+            WebLcdServer.appendFixed(sb, e.getValue(), 2);
+        }
+        return sb.append("}}").toString();
+    }
+
+    private static void series(StringBuilder sb, String name, double[] v, int[] idx, int lo, int count,
+                               int decimals) {
+        sb.append(",\"").append(name).append("\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            WebLcdServer.appendFixed(sb, v[idx != null ? idx[i] : lo + i], decimals);
+        }
+        sb.append(']');
+    }
+
+    /** First index whose time is above {@code bound} ({@code >} when strict, else {@code >=}). */
+    static int firstAbove(double[] t, int n, double bound, boolean strict) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            boolean below = strict ? t[mid] <= bound : t[mid] < bound;
+            if (below) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    static String etag(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(body.length) + "\"";
+    }
+
+    /** {@code If-None-Match} check; weak validators compare equal to strong ones (RFC 9110 weak comparison). */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*")) return true;
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(bytes)) {
+            gz.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = (text != null ? text : "").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.artisan.ui.components;
+
+import org.artisan.model.CanvasData;
+import org.artisan.model.ProfileData;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of a roast curve served by {@link WebLcdServer}'s {@code /curve} endpoint:
+ * time axis, BT, ET and both RoR series (same length; missing values are NaN) plus event times.
+ * Taken on the thread that owns the source (the FX thread for the live {@link CanvasData}).
+ */
+public record CurveSnapshot(double[] time, double[] bt, double[] et, double[] rorBt, double[] rorEt,
+                            Map<String, Double> events) {
+
+    /** Event names in timeindex slot order (CHARGE .. DROP). */
+    static final List<String> EVENT_NAMES =
+        List.of("CHARGE", "DRY_END", "FC_START", "FC_END", "SC_START", "SC_END", "DROP");
+
+    public static final CurveSnapshot EMPTY =
+        new CurveSnapshot(new double[0], new double[0], new double[0], new double[0], new double[0], Map.of());
+
+    public int size() {
+        return time.length;
+    }
+
+    /** Copies the current roast. Call on the thread that mutates {@code data}. */
+    public static CurveSnapshot of(CanvasData data) {
+        if (data == null) return EMPTY;
+        int n = data.size();
+        double[] time = data.getTimexView().toArray();
+        int[] slots = { data.getChargeIndex(), data.getDryEndIndex(), data.getFcStartIndex(),
+            data.getFcEndIndex(), data.getScStartIndex(), data.getScEndIndex(), data.getDropIndex() };
+        return new CurveSnapshot(time,
+            padded(data.getTemp2View().toArray(), n),
+            padded(data.getTemp1View().toArray(), n),
+            padded(data.getDelta2View().toArray(), n),
+            padded(data.getDelta1View().toArray(), n),
+            events(time, slots));
+    }
+
+    /** Copies a loaded profile (e.g. the background). */
+    public static CurveSnapshot of(ProfileData profile) {
+        if (profile == null || profile.getTimex() == null) return EMPTY;
+        double[] time = unboxed(profile.getTimex(), profile.getTimex().size());
+        int n = time.length;
+        List<Integer> ti = profile.getTimeindex();
+        int[] slots = new int[EVENT_NAMES.size()];
+        for (int i = 0; i < slots.length; i++) {
+            Integer v = ti != null && i < ti.size() ? ti.get(i) : null;
+            slots[i] = v != null ? v : -1;
+        }
+        return new CurveSnapshot(time,
+            unboxed(profile.getTemp2(), n), unboxed(profile.getTemp1(), n),
+            unboxed(profile.getDelta2(), n), unboxed(profile.getDelta1(), n),
+            events(time, slots));
+    }
+
+    /** CHARGE is set at index >= 0, the other slots at index > 0 (0 = unset, as in Artisan). */
+    private static Map<String, Double> events(double[] time, int[] slots) {
+        Map<String, Double> events = new LinkedHashMap<>();
+        for (int i = 0; i < slots.length; i++) {
+            int idx = slots[i];
+            boolean set = i == 0 ? idx >= 0 : idx > 0;
+            if (set && idx < time.length) events.put(EVENT_NAMES.get(i), time[idx]);
+        }
+        return events;
+    }
+
+    private static double[] padded(double[] values, int n) {
+        if (values.length == n) return values;
+        double[] out = new double[n];
+        int m = Math.min(n, values.length);
+        System.arraycopy(values, 0, out, 0, m);
+        for (int i = m; i < n; i++) out[i] = Double.NaN;
+        return out;
+    }
+
+    private static double[] unboxed(List<Double> values, int n) {
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) {
+            Double v = values != null && i < values.size() ? values.get(i) : null;
+            out[i] = v != null ? v : Double.NaN;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,179 @@
+package org.artisan.ui.components;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compact binary frames for the Web LCD WebSocket, one encoder per subscriber. All numbers are
+ * little-endian; every frame starts with {@code u8 type, u8 reserved, u16 seq}.
+ * <pre>
+ *   KEY   (1): u32 mask, f32 timeSec, f32 value per set mask bit (NaN = no value)
+ *   DELTA (2): u32 mask of changed channels, i16 time delta (0.1 s), i16 value delta (0.1) per bit
+ *   EVENT (3): f32 timeSec, f32 BT, u8 length, UTF-8 label
+ *   PHASE (4): u8 length, UTF-8 phase name
+ * </pre>
+ * Mask bit {@code i} is channel {@code i} of {@link #CHANNELS} (bt, et, rorbt, roret, x1..x12).
+ * Deltas are taken between values quantized to 0.1, so they never drift; a KEY frame is sent
+ * first, every {@link #KEYFRAME_INTERVAL} frames and whenever a delta would not fit (NaN changes,
+ * jumps beyond ±3276.7).
+ */
+public final class LcdFrameEncoder {
+
+    public static final int TYPE_KEY = 1;
+    public static final int TYPE_DELTA = 2;
+    public static final int TYPE_EVENT = 3;
+    public static final int TYPE_PHASE = 4;
+
+    public static final int EXTRA_CHANNELS = 12;
+    /** Channel names in mask-bit order. */
+    public static final List<String> CHANNELS;
+    public static final int ALL_CHANNELS;
+    static final int KEYFRAME_INTERVAL = 60;
+
+    static {
+        List<String> names = new ArrayList<>(List.of("bt", "et", "rorbt", "roret"));
+        for (int i = 1; i <= EXTRA_CHANNELS; i++) names.add("x" + i);
+        CHANNELS = List.copyOf(names);
+        ALL_CHANNELS = (int) ((1L << CHANNELS.size()) - 1);
+    }
+
+    /** One published sample; {@code values} indexed like {@link #CHANNELS} (shorter = missing). */
+    public record Sample(double timeSec, double[] values) {}
+
+    private static final long NAN_TENTHS = Long.MIN_VALUE;
+
+    private final int mask;
+    private final long[] lastTenths = new long[CHANNELS.size()];
+    private long lastTimeTenths;
+    private int seq;
+    private int sinceKey = -1;
+
+    /** @param mask subscribed channels (bit i = {@link #CHANNELS}.get(i)) */
+    public LcdFrameEncoder(int mask) {
+        this.mask = mask & ALL_CHANNELS;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Parses a comma-separated channel list ("bt,et,x3"; empty/null/"all" = every channel).
+     *
+     * @throws IllegalArgumentException for an unknown name
+     */
+    public static int parseMask(String channels) {
+        if (channels == null || channels.isBlank() || channels.trim().equalsIgnoreCase("all")) return ALL_CHANNELS;
+        int m = 0;
+        for (String part : channels.split(",")) {
+            String name = part.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) continue;
+            int i = CHANNELS.indexOf(name);
+            if (i < 0) throw new IllegalArgumentException("Unknown channel: " + name);
+            m |= 1 << i;
+        }
+        return m;
+    }
+
+    /** Encodes {@code s} as a KEY or DELTA frame; null if nothing subscribed changed. */
+    public byte[] encode(Sample s) {
+        long timeTenths = Math.round(s.timeSec() * 10.0);
+        long[] tenths = new long[CHANNELS.size()];
+        int changed = 0;
+        boolean needKey = sinceKey < 0 || sinceKey >= KEYFRAME_INTERVAL - 1
+            || Math.abs(timeTenths - lastTimeTenths) > Short.MAX_VALUE;
+        for (int i = 0; i < tenths.length; i++) {
+            if ((mask & (1 << i)) == 0) continue;
+            double v = i < s.values().length ? s.values()[i] : Double.NaN;
+            tenths[i] = Double.isFinite(v) ? Math.round(v * 10.0) : NAN_TENTHS;
+            if (tenths[i] == lastTenths[i]) continue;
+            changed |= 1 << i;
+            if (tenths[i] == NAN_TENTHS || lastTenths[i] == NAN_TENTHS
+                || Math.abs(tenths[i] - lastTenths[i]) > Short.MAX_VALUE) {
+                needKey = true;
+            }
+        }
+        if (needKey) return key(s, tenths, timeTenths);
+        if (changed == 0 && timeTenths == lastTimeTenths) return null;
+        ByteBuffer b = header(TYPE_DELTA, 4 + 2 + 2 * Integer.bitCount(changed));
+        b.putInt(changed);
+        b.putShort((short) (timeTenths - lastTimeTenths));
+        for (int i = 0; i < tenths.length; i++) {
+            if ((changed & (1 << i)) == 0) continue;
+            b.putShort((short) (tenths[i] - lastTenths[i]));
+            lastTenths[i] = tenths[i];
+        }
+        lastTimeTenths = timeTenths;
+        sinceKey++;
+        return b.array();
+    }
+
+    private byte[] key(Sample s, long[] tenths, long timeTenths) {
+        ByteBuffer b = header(TYPE_KEY, 4 + 4 + 4 * Integer.bitCount(mask));
+        b.putInt(mask);
+        b.putFloat((float) s.timeSec());
+        for (int i = 0; i < tenths.length; i++) {
+            if ((mask & (1 << i)) == 0) continue;
+            b.putFloat(tenths[i] == NAN_TENTHS ? Float.NaN : tenths[i] / 10.0f);
+            lastTenths[i] = tenths[i];
+        }
+        lastTimeTenths = timeTenths;
+        sinceKey = 0;
+        return b.array();
+    }
+
+    /** Forces the next sample frame to be a KEY frame. */
+    public void requestKeyFrame() {
+        sinceKey = -1;
+    }
+
+    public byte[] encodeEvent(String label, double timeSec, double bt) {
+        byte[] text = utf8(label);
+        ByteBuffer b = header(TYPE_EVENT, 4 + 4 + 1 + text.length);
+        b.putFloat((float) timeSec);
+        b.putFloat((float) bt);
+        b.put((byte) text.length);
+        b.put(text);
+        return b.array();
+    }
+
+    public byte[] encodePhase(String phase) {
+        byte[] text = utf8(phase);
+        ByteBuffer b = header(TYPE_PHASE, 1 + text.length);
+        b.put((byte) text.length);
+        b.put(text);
+        return b.array();
+    }
+
+    /** Text greeting sent on connect and after each subscription change. */
+    public static String hello(int mask, double maxRate) {
+        StringBuilder sb = new StringBuilder("{\"channels\":[");
+        for (int i = 0; i < CHANNELS.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(CHANNELS.get(i)).append('"');
+        }
+        sb.append("],\"mask\":").append(mask & ALL_CHANNELS);
+        sb.append(",\"maxRate\":").append(maxRate > 0 ? String.format(Locale.ROOT, "%.3f", maxRate) : "0");
+        return sb.append('}').toString();
+    }
+
+    private ByteBuffer header(int type, int bodyLength) {
+        ByteBuffer b = ByteBuffer.allocate(4 + bodyLength).order(ByteOrder.LITTLE_ENDIAN);
+        b.put((byte) type);
+        b.put((byte) 0);
+        b.putShort((short) seq++);
+        return b;
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] text = (s != null ? s : "").getBytes(StandardCharsets.UTF_8);
+        if (text.length <= 255) return text;
+        byte[] cut = new byte[255];
+        System.arraycopy(text, 0, cut, 0, 255);
+        return cut;
+    }
+}
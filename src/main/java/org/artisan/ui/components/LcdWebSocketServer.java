@@ -0,0 +1,355 @@
+package org.artisan.ui.components;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * WebSocket side of {@link WebLcdServer}: serves {@code ws://host:port/ws} with
+ * {@link LcdFrameEncoder} binary frames. Subscriptions come from the query string and from text
+ * messages in the same syntax, e.g. {@code channels=bt,et,rorbt&rate=2} (rate = max sample frames
+ * per second, 0 = every sample). Each client keeps only the latest sample (coalescing) plus a
+ * small queue of events and phase changes; a reader and a writer thread serve it.
+ */
+final class LcdWebSocketServer implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(LcdWebSocketServer.class.getName());
+
+    static final String PATH = "/ws";
+    private static final int BACKLOG = 64;
+    private static final int MAX_CLIENT_FRAME = 4096;
+    private static final int MESSAGE_QUEUE_CAPACITY = 32;
+    private static final long PING_INTERVAL_MS = 15_000;
+    static final int DEFAULT_HANDSHAKE_TIMEOUT_MS = 5_000;
+
+    private final ServerSocket server;
+    private final ExecutorService threads;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong evicted = new AtomicLong();
+    private volatile LcdFrameEncoder.Sample lastSample;
+    private volatile String lastPhase;
+    private volatile int handshakeTimeoutMs = DEFAULT_HANDSHAKE_TIMEOUT_MS;
+    private volatile boolean closed;
+
+    LcdWebSocketServer(int port) throws IOException {
+        server = new ServerSocket();
+        server.setReuseAddress(true);
+        server.bind(new InetSocketAddress(port), BACKLOG);
+        threads = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "WebLcdServer-ws");
+            t.setDaemon(true);
+            return t;
+        });
+        threads.execute(this::acceptLoop);
+    }
+
+    int getPort() {
+        return server.getLocalPort();
+    }
+
+    int getClientCount() {
+        return clients.size();
+    }
+
+    long getEvictedClients() {
+        return evicted.get();
+    }
+
+    /** A connection that has not completed the HTTP upgrade after this long is dropped. */
+    void setHandshakeTimeout(int millis) {
+        handshakeTimeoutMs = Math.max(1, millis);
+    }
+
+    void publishSample(LcdFrameEncoder.Sample sample) {
+        lastSample = sample;
+        for (Client c : clients) c.offerSample(sample);
+    }
+
+    void publishEvent(String label, double timeSec, double bt) {
+        for (Client c : clients) c.offerMessage(new Message(Message.EVENT, label, timeSec, bt, 0, 0));
+    }
+
+    void publishPhase(String phase) {
+        lastPhase = phase;
+        for (Client c : clients) c.offerMessage(new Message(Message.PHASE, phase, 0, 0, 0, 0));
+    }
+
+    /** Closes clients whose current write started more than {@code limitNanos} ago. */
+    void evictStalled(long limitNanos) {
+        long now = System.nanoTime();
+        for (Client c : clients) {
+            long started = c.writeStartedNanos;
+            if (started != 0 && now - started > limitNanos && clients.remove(c)) {
+                evicted.incrementAndGet();
+                c.close();
+            }
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket s = server.accept();
+                threads.execute(() -> serve(s));
+            } catch (IOException e) {
+                if (!closed) LOG.log(Level.FINE, "WebSocket accept failed", e);
+            }
+        }
+    }
+
+    /** Handshake (bounded by the handshake timeout), then this thread reads client frames while a second thread writes. */
+    private void serve(Socket socket) {
+        Client client = null;
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(handshakeTimeoutMs);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            WebSocketCodec.Handshake h = WebSocketCodec.readHandshake(in);
+            if (!PATH.equals(h.path())) {
+                WebSocketCodec.writeStatus(out, "404 Not Found");
+                socket.close();
+                return;
+            }
+            if (!WebSocketCodec.respond(h, out)) {
+                socket.close();
+                return;
+            }
+            socket.setSoTimeout(0);
+            client = new Client(socket, out);
+            client.offerMessage(subscription(h.query()));
+            String phase = lastPhase;
+            if (phase != null) client.offerMessage(new Message(Message.PHASE, phase, 0, 0, 0, 0));
+            clients.add(client);
+            Client writer = client;
+            threads.execute(writer::writeLoop);
+            DataInputStream din = new DataInputStream(in);
+            while (!client.isClosed()) {
+                WebSocketCodec.Frame f = WebSocketCodec.readFrame(din, MAX_CLIENT_FRAME);
+                switch (f.opcode()) {
+                    case WebSocketCodec.OP_TEXT -> client.offerMessage(subscription(f.text()));
+                    case WebSocketCodec.OP_PING ->
+                        client.offerMessage(new Message(Message.PONG, null, 0, 0, 0, 0, f.payload()));
+                    // the writer answers and closes the socket, which ends this loop
+                    case WebSocketCodec.OP_CLOSE ->
+                        client.offerMessage(new Message(Message.CLOSE, null, 0, 0, 0, 0));
+                    default -> { }
+                }
+            }
+        } catch (IOException e) {
+            // client went away or sent garbage
+        } finally {
+            if (client != null) {
+                clients.remove(client);
+                client.close();
+            } else {
+                try { socket.close(); } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    /** Parses {@code channels=..&rate=..}; an unknown channel yields an ERROR message. */
+    static Message subscription(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.trim().split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq <= 0) continue;
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8).trim(),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8).trim());
+            }
+        }
+        try {
+            int mask = LcdFrameEncoder.parseMask(params.get("channels"));
+            double rate = params.containsKey("rate") ? Double.parseDouble(params.get("rate")) : 0;
+            if (!(rate >= 0) || Double.isInfinite(rate)) throw new IllegalArgumentException("Bad rate: " + rate);
+            return new Message(Message.SUBSCRIBE, null, 0, 0, mask, rate);
+        } catch (IllegalArgumentException e) {
+            return new Message(Message.ERROR, e.getMessage(), 0, 0, 0, 0);
+        }
+    }
+
+    /** {@code {"error":"..."}} with {@code text} JSON-escaped (quotes, backslashes, control characters). */
+    static String errorJson(String text) {
+        return "{\"error\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(String.valueOf(text)))
+            + "\"}";
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException ignored) {
+        }
+        for (Client c : clients) c.close();
+        clients.clear();
+        threads.shutdownNow();
+    }
+
+    /** Writer-thread work item. */
+    record Message(int kind, String text, double timeSec, double bt, int mask, double rate, byte[] payload) {
+        static final int SUBSCRIBE = 0;
+        static final int EVENT = 1;
+        static final int PHASE = 2;
+        static final int PONG = 3;
+        static final int CLOSE = 4;
+        static final int ERROR = 5;
+
+        Message(int kind, String text, double timeSec, double bt, int mask, double rate) {
+            this(kind, text, timeSec, bt, mask, rate, null);
+        }
+    }
+
+    private final class Client {
+        private final Socket socket;
+        private final OutputStream out;
+        private final ArrayDeque<Message> messages = new ArrayDeque<>();
+        private LcdFrameEncoder.Sample pendingSample;
+        private boolean closed;
+        /** Writer-thread state. */
+        private LcdFrameEncoder encoder = new LcdFrameEncoder(LcdFrameEncoder.ALL_CHANNELS);
+        private long minIntervalNanos;
+        private long nextSampleNanos;
+        /** System.nanoTime() when the current write began, 0 when not writing. */
+        volatile long writeStartedNanos;
+
+        Client(Socket socket, OutputStream out) {
+            this.socket = socket;
+            this.out = out;
+        }
+
+        synchronized void offerSample(LcdFrameEncoder.Sample s) {
+            pendingSample = s;
+            notifyAll();
+        }
+
+        synchronized void offerMessage(Message m) {
+            if (closed) return;
+            if (messages.size() >= MESSAGE_QUEUE_CAPACITY) messages.pollFirst();
+            messages.addLast(m);
+            notifyAll();
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+
+        void writeLoop() {
+            try {
+                long lastWrite = System.nanoTime();
+                while (true) {
+                    Message m;
+                    LcdFrameEncoder.Sample sample = null;
+                    synchronized (this) {
+                        while (!closed && messages.isEmpty()
+                            && (pendingSample == null || System.nanoTime() < nextSampleNanos)) {
+                            long now = System.nanoTime();
+                            long wait = TimeUnit.MILLISECONDS.toNanos(PING_INTERVAL_MS) - (now - lastWrite);
+                            if (pendingSample != null) wait = Math.min(wait, nextSampleNanos - now);
+                            if (wait <= 0) break;
+                            TimeUnit.NANOSECONDS.timedWait(this, wait);
+                        }
+                        if (closed) return;
+                        m = messages.pollFirst();
+                        if (m == null && pendingSample != null && System.nanoTime() >= nextSampleNanos) {
+                            sample = pendingSample;
+                            pendingSample = null;
+                        }
+                    }
+                    writeStartedNanos = System.nanoTime();
+                    if (m != null) {
+                        if (!handle(m)) return;
+                    } else if (sample != null) {
+                        byte[] frame = encoder.encode(sample);
+                        if (frame != null) WebSocketCodec.writeFrame(out, WebSocketCodec.OP_BINARY, frame);
+                        nextSampleNanos = minIntervalNanos > 0 ? System.nanoTime() + minIntervalNanos : 0;
+                    } else {
+                        WebSocketCodec.writeFrame(out, WebSocketCodec.OP_PING, new byte[0]);
+                    }
+                    if (isIdle()) out.flush();
+                    writeStartedNanos = 0;
+                    lastWrite = System.nanoTime();
+                }
+            } catch (IOException e) {
+                // socket closed
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                writeStartedNanos = 0;
+                if (clients.remove(this)) close();
+            }
+        }
+
+        private synchronized boolean isIdle() {
+            return messages.isEmpty() && (pendingSample == null || System.nanoTime() < nextSampleNanos);
+        }
+
+        /** Returns false when the connection must end. */
+        private boolean handle(Message m) throws IOException {
+            switch (m.kind()) {
+                case Message.SUBSCRIBE -> {
+                    encoder = new LcdFrameEncoder(m.mask());
+                    minIntervalNanos = m.rate() > 0 ? (long) (1e9 / m.rate()) : 0;
+                    nextSampleNanos = 0;
+                    WebSocketCodec.writeFrame(out, WebSocketCodec.OP_TEXT,
+                        LcdFrameEncoder.hello(m.mask(), m.rate()).getBytes(StandardCharsets.UTF_8));
+                    LcdFrameEncoder.Sample last = lastSample;
+                    if (last != null) {
+                        synchronized (this) {
+                            if (pendingSample == null) pendingSample = last;
+                        }
+                    }
+                }
+                case Message.EVENT -> WebSocketCodec.writeFrame(out, WebSocketCodec.OP_BINARY,
+                    encoder.encodeEvent(m.text(), m.timeSec(), m.bt()));
+                case Message.PHASE -> WebSocketCodec.writeFrame(out, WebSocketCodec.OP_BINARY,
+                    encoder.encodePhase(m.text()));
+                case Message.PONG -> WebSocketCodec.writeFrame(out, WebSocketCodec.OP_PONG, m.payload());
+                case Message.ERROR -> WebSocketCodec.writeFrame(out, WebSocketCodec.OP_TEXT,
+                    errorJson(m.text()).getBytes(StandardCharsets.UTF_8));
+                case Message.CLOSE -> {
+                    WebSocketCodec.writeFrame(out, WebSocketCodec.OP_CLOSE, new byte[0]);
+                    out.flush();
+                    return false;
+                }
+                default -> { }
+            }
+            return true;
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) return;
+                closed = true;
+                messages.clear();
+                pendingSample = null;
+                notifyAll();
+            }
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -2,17 +2,21 @@ package org.artisan.ui.components;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
+import org.artisan.controller.MetricsRegistry;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,6 +39,24 @@ import java.util.logging.Logger;
  *
  * <p>Clients connect to {@code http://host:port/lcd} and receive SSE events.
  * The {@code /} root serves a minimal LCD HTML page.
+ *
+ * <p>{@link #broadcast} never blocks on the network: the SSE frame is encoded once and the same
+ * byte array is offered to every client's bounded queue (when full the oldest frame is dropped,
+ * so a slow display skips values instead of lagging). Each client's queue is drained by that
+ * connection's own HTTP thread, which also sends the keepalive when idle. Clients whose write
+ * fails, or whose write has been stuck longer than the stall timeout, are evicted.
+ *
+ * <p>Wall displays that need every channel use the WebSocket endpoint
+ * {@code ws://host:wsPort/ws} ({@link LcdWebSocketServer}, compact {@link LcdFrameEncoder}
+ * frames, per-client channel subset and max rate) fed by {@link #publishSample},
+ * {@link #publishEvent} and {@link #publishPhase}. The JDK HttpServer cannot hand over a
+ * connection after a 101 response, so the WebSocket listens on its own port (default
+ * {@code port + 1}); {@code GET /ws} on the HTTP port answers 426 with the WebSocket URL.
+ *
+ * <p>{@code GET /curve} ({@link CurveEndpoint}) serves the history of a registered curve source
+ * (see {@link #setCurveSource}) for a time range, optionally LTTB-downsampled, gzipped, with
+ * ETag revalidation and incremental {@code since=} queries. {@code GET /metrics} exposes the
+ * {@link MetricsRegistry} in the Prometheus text format for unattended machines.
  */
 @SuppressWarnings("restriction")
 public final class WebLcdServer {
@@ -43,26 +65,49 @@ public final class WebLcdServer {
 
     private static final int KEEPALIVE_INTERVAL_SECONDS = 15;
     private static final double MIN_SEND_INTERVAL_SECONDS = 0.03; // parity with Python _min_send_interval
+    private static final int BACKLOG = 256;
+    /** Frames a client may have pending before the oldest is dropped. */
+    static final int CLIENT_QUEUE_CAPACITY = 8;
+    private static final long DEFAULT_WRITE_STALL_MS = 10_000;
+    private static final long REAPER_INTERVAL_MS = 1_000;
+    private static final byte[] KEEPALIVE_FRAME = ": keepalive\n\n".getBytes(StandardCharsets.UTF_8);
 
     private final int port;
+    private volatile int webSocketPort;
     private volatile HttpServer httpServer;
-    private volatile ScheduledExecutorService keepaliveExecutor;
-    private final Set<OutputStream> clients = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private volatile LcdWebSocketServer webSocketServer;
+    private volatile ScheduledExecutorService reaperExecutor;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final Map<String, Supplier<CurveSnapshot>> curveSources = new ConcurrentHashMap<>();
+    private volatile MetricsRegistry metrics = MetricsRegistry.getDefault();
 
-    private volatile String lastMessage = null;
+    private volatile byte[] lastFrame = null;
     private volatile long lastSendNanos = 0;
+    private volatile long minSendIntervalNanos = (long) (MIN_SEND_INTERVAL_SECONDS * 1e9);
+    private volatile long writeStallNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_WRITE_STALL_MS);
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong evictedClients = new AtomicLong();
 
     public WebLcdServer(int port) {
         this.port = port;
+        this.webSocketPort = port > 0 ? port + 1 : 0;
+    }
+
+    /** WebSocket port for the next {@link #start()}; 0 = any free port, negative = no WebSocket. */
+    public void setWebSocketPort(int webSocketPort) {
+        this.webSocketPort = webSocketPort;
     }
 
     /** Starts the HTTP server. Non-blocking. */
     public void start() {
         if (httpServer != null) return;
         try {
-            HttpServer srv = HttpServer.create(new InetSocketAddress(port), 10);
+            HttpServer srv = HttpServer.create(new InetSocketAddress(port), BACKLOG);
             srv.createContext("/", this::handleRoot);
             srv.createContext("/lcd", this::handleSse);
+            srv.createContext(LcdWebSocketServer.PATH, this::handleWebSocketInfo);
+            srv.createContext(CurveEndpoint.PATH, new CurveEndpoint(curveSources));
+            srv.createContext("/metrics", this::handleMetrics);
             srv.setExecutor(Executors.newCachedThreadPool(r -> {
                 Thread t = new Thread(r, "WebLcdServer-http");
                 t.setDaemon(true);
@@ -70,15 +115,23 @@ public final class WebLcdServer {
             }));
             srv.start();
             httpServer = srv;
-            LOG.info("WebLcdServer started on port " + port);
+            LOG.info("WebLcdServer started on port " + getPort());
+            if (webSocketPort >= 0) {
+                try {
+                    webSocketServer = new LcdWebSocketServer(webSocketPort);
+                    LOG.info("WebLcdServer WebSocket on port " + webSocketServer.getPort());
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "WebLcdServer WebSocket failed to start", e);
+                }
+            }
 
-            keepaliveExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
-                Thread t = new Thread(r, "WebLcdServer-keepalive");
+            reaperExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "WebLcdServer-reaper");
                 t.setDaemon(true);
                 return t;
             });
-            keepaliveExecutor.scheduleAtFixedRate(
-                    this::sendKeepalive, KEEPALIVE_INTERVAL_SECONDS, KEEPALIVE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            reaperExecutor.scheduleAtFixedRate(
+                    this::evictStalledClients, REAPER_INTERVAL_MS, REAPER_INTERVAL_MS, TimeUnit.MILLISECONDS);
         } catch (IOException e) {
             LOG.log(Level.WARNING, "WebLcdServer failed to start", e);
         }
@@ -86,14 +139,18 @@ public final class WebLcdServer {
 
     /** Stops the HTTP server and disconnects all clients. */
     public void stop() {
-        if (keepaliveExecutor != null) {
-            keepaliveExecutor.shutdownNow();
-            keepaliveExecutor = null;
+        if (reaperExecutor != null) {
+            reaperExecutor.shutdownNow();
+            reaperExecutor = null;
         }
-        for (OutputStream os : clients) {
-            try { os.close(); } catch (IOException ignored) {}
+        for (Client c : clients) {
+            c.close();
         }
         clients.clear();
+        if (webSocketServer != null) {
+            webSocketServer.close();
+            webSocketServer = null;
+        }
         if (httpServer != null) {
             httpServer.stop(1);
             httpServer = null;
@@ -105,31 +162,153 @@ public final class WebLcdServer {
         return httpServer != null;
     }
 
+    /** Bound port (differs from the constructor argument when that was 0); -1 when stopped. */
+    public int getPort() {
+        HttpServer srv = httpServer;
+        return srv != null ? srv.getAddress().getPort() : -1;
+    }
+
+    /** Bound WebSocket port, or -1 when not running. */
+    public int getWebSocketPort() {
+        LcdWebSocketServer ws = webSocketServer;
+        return ws != null ? ws.getPort() : -1;
+    }
+
+    /**
+     * Registers (or with null removes) the snapshot supplier served as {@code /curve?profile=name},
+     * e.g. "live" and "background". Called on an HTTP thread once per request; it must return a
+     * consistent copy, blocking briefly if the data lives on another thread.
+     */
+    public void setCurveSource(String name, Supplier<CurveSnapshot> source) {
+        if (source == null) curveSources.remove(name);
+        else curveSources.put(name, source);
+    }
+
+    /** Registry served at {@code /metrics} (default {@link MetricsRegistry#getDefault()}). */
+    public void setMetricsRegistry(MetricsRegistry metrics) {
+        this.metrics = metrics != null ? metrics : MetricsRegistry.getDefault();
+    }
+
+    /** Minimum time between broadcasts; faster calls are ignored (default 0.03 s). */
+    public void setMinSendInterval(double seconds) {
+        this.minSendIntervalNanos = (long) (Math.max(0, seconds) * 1e9);
+    }
+
+    /** A client whose current write has not returned after this long is evicted (default 10 s). */
+    void setWriteStallTimeout(long millis) {
+        this.writeStallNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, millis));
+    }
+
+    /** Connected SSE clients. */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /** Connected WebSocket clients. */
+    public int getWebSocketClientCount() {
+        LcdWebSocketServer ws = webSocketServer;
+        return ws != null ? ws.getClientCount() : 0;
+    }
+
+    /** Frames discarded from full client queues (drop-oldest), summed over all clients. */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /** Clients (SSE and WebSocket) removed because a write failed or stalled. */
+    public long getEvictedClients() {
+        LcdWebSocketServer ws = webSocketServer;
+        return evictedClients.get() + (ws != null ? ws.getEvictedClients() : 0);
+    }
+
     /**
      * Sends a JSON message to all connected SSE clients (rate-limited to MIN_SEND_INTERVAL_SECONDS).
-     * Parity with Python WebView.send() / _last_send / _min_send_interval.
+     * Parity with Python WebView.send() / _last_send / _min_send_interval. Only enqueues; safe to
+     * call on the JavaFX thread.
      *
      * @param jsonMessage JSON string, e.g. {@code {"bt":200.5,"et":220.0,"ror":10.2}}
      */
     public void broadcast(String jsonMessage) {
         if (jsonMessage == null) return;
         long now = System.nanoTime();
-        double elapsed = (now - lastSendNanos) / 1e9;
-        if (elapsed < MIN_SEND_INTERVAL_SECONDS) return;
+        if (now - lastSendNanos < minSendIntervalNanos) return;
         lastSendNanos = now;
-        lastMessage = jsonMessage;
-        String sseFrame = "data: " + jsonMessage + "\n\n";
-        byte[] bytes = sseFrame.getBytes(StandardCharsets.UTF_8);
-        Set<OutputStream> dead = ConcurrentHashMap.newKeySet();
-        for (OutputStream os : clients) {
-            try {
-                os.write(bytes);
-                os.flush();
-            } catch (IOException e) {
-                dead.add(os);
-            }
+        byte[] frame = ("data: " + jsonMessage + "\n\n").getBytes(StandardCharsets.UTF_8);
+        lastFrame = frame;
+        for (Client c : clients) {
+            c.offer(frame);
+        }
+    }
+
+    /**
+     * Broadcasts {@code {"bt":..,"et":..,"ror":..,"time":..}} (one decimal, whole seconds) without
+     * {@code String.format}; non-finite values are sent as null.
+     */
+    public void broadcastSample(double bt, double et, double ror, double timeSec) {
+        if (!isRunning()) return;
+        StringBuilder sb = new StringBuilder(64);
+        sb.append("{\"bt\":");
+        appendTenths(sb, bt);
+        sb.append(",\"et\":");
+        appendTenths(sb, et);
+        sb.append(",\"ror\":");
+        appendTenths(sb, ror);
+        sb.append(",\"time\":");
+        if (Double.isFinite(timeSec)) sb.append(Math.round(timeSec));
+        else sb.append("null");
+        broadcast(sb.append('}').toString());
+    }
+
+    /**
+     * Publishes one sample: SSE JSON (bt, et, RoR BT, time) as {@link #broadcastSample} and, for
+     * WebSocket clients, every channel of {@link LcdFrameEncoder#CHANNELS} ({@code extras} may be
+     * null or shorter than {@link LcdFrameEncoder#EXTRA_CHANNELS}).
+     */
+    public void publishSample(double timeSec, double bt, double et, double rorBt, double rorEt, double[] extras) {
+        if (!isRunning()) return;
+        broadcastSample(bt, et, rorBt, timeSec);
+        LcdWebSocketServer ws = webSocketServer;
+        if (ws == null) return;
+        int nExtras = extras != null ? Math.min(extras.length, LcdFrameEncoder.EXTRA_CHANNELS) : 0;
+        double[] values = new double[4 + nExtras];
+        values[0] = bt;
+        values[1] = et;
+        values[2] = rorBt;
+        values[3] = rorEt;
+        if (nExtras > 0) System.arraycopy(extras, 0, values, 4, nExtras);
+        ws.publishSample(new LcdFrameEncoder.Sample(timeSec, values));
+    }
+
+    /** Sends an event marker (e.g. "CHARGE", "FC START") to WebSocket clients. */
+    public void publishEvent(String label, double timeSec, double bt) {
+        LcdWebSocketServer ws = webSocketServer;
+        if (ws != null) ws.publishEvent(label, timeSec, bt);
+    }
+
+    /** Sends the roast phase/state (e.g. "ROASTING") to WebSocket clients; replayed to new ones. */
+    public void publishPhase(String phase) {
+        LcdWebSocketServer ws = webSocketServer;
+        if (ws != null) ws.publishPhase(phase);
+    }
+
+    static void appendTenths(StringBuilder sb, double v) {
+        appendFixed(sb, v, 1);
+    }
+
+    /** Appends {@code v} with {@code decimals} (1..6) fraction digits, or null when not finite. */
+    static void appendFixed(StringBuilder sb, double v, int decimals) {
+        if (!Double.isFinite(v)) {
+            sb.append("null");
+            return;
         }
-        clients.removeAll(dead);
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) scale *= 10;
+        long scaled = Math.round(Math.abs(v) * scale);
+        if (v < 0 && scaled != 0) sb.append('-');
+        sb.append(scaled / scale).append('.');
+        long frac = scaled % scale;
+        for (long d = scale / 10; d > frac && d > 1; d /= 10) sb.append('0');
+        sb.append(frac);
     }
 
     // ── HTTP handlers ──────────────────────────────────────────────────────────
@@ -144,56 +323,193 @@ public final class WebLcdServer {
         }
     }
 
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        gaugeClients();
+        byte[] bytes = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    /** This server's own figures; re-registered per scrape so the registry follows the live instance. */
+    private void gaugeClients() {
+        MetricsRegistry m = metrics;
+        m.gauge("artisan_weblcd_clients", "Connected Web LCD clients", this::getClientCount, "transport", "sse");
+        m.gauge("artisan_weblcd_clients", "Connected Web LCD clients", this::getWebSocketClientCount,
+            "transport", "websocket");
+        m.counter("artisan_weblcd_dropped_frames_total", "SSE frames dropped from full client queues",
+            this::getDroppedFrames);
+        m.counter("artisan_weblcd_evicted_clients_total", "Web LCD clients evicted after a failed or stalled write",
+            this::getEvictedClients);
+    }
+
+    private void handleWebSocketInfo(HttpExchange exchange) throws IOException {
+        int wsPort = getWebSocketPort();
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        host = host != null ? host.replaceFirst(":\\d+$", "") : "localhost";
+        String body = wsPort > 0 ? "ws://" + host + ":" + wsPort + LcdWebSocketServer.PATH : "WebSocket disabled";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.sendResponseHeaders(wsPort > 0 ? 426 : 404, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    /** Registers the client, then runs its writer loop on this exchange thread until it is gone. */
     private void handleSse(HttpExchange exchange) throws IOException {
         exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
         exchange.getResponseHeaders().set("Cache-Control", "no-cache");
         exchange.getResponseHeaders().set("Connection", "keep-alive");
         exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
         exchange.sendResponseHeaders(200, 0);
-        OutputStream os = exchange.getResponseBody();
-        clients.add(os);
+        Client client = new Client(exchange);
         // Send last known state to newly connected client (parity with Python _last_message)
-        String last = lastMessage;
-        if (last != null) {
-            try {
-                String sseFrame = "data: " + last + "\n\n";
-                os.write(sseFrame.getBytes(StandardCharsets.UTF_8));
-                os.flush();
-            } catch (IOException e) {
-                clients.remove(os);
-                return;
+        byte[] last = lastFrame;
+        if (last != null) client.offer(last);
+        clients.add(client);
+        try {
+            while (true) {
+                byte[] frame = client.take(TimeUnit.SECONDS.toMillis(KEEPALIVE_INTERVAL_SECONDS));
+                if (client.isClosed()) break;
+                client.write(frame != null ? frame : KEEPALIVE_FRAME);
             }
+        } catch (IOException e) {
+            evict(client);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            clients.remove(client);
+            client.close();
+            client.release();
         }
-        // Block until client disconnects or server stops
-        while (clients.contains(os)) {
-            try {
-                Thread.sleep(500);
-                // SSE keepalive comment
-                os.write(": keepalive\n\n".getBytes(StandardCharsets.UTF_8));
-                os.flush();
-            } catch (IOException e) {
-                break;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+    }
+
+    private void evict(Client client) {
+        if (clients.remove(client)) {
+            evictedClients.incrementAndGet();
+            droppedFrames.addAndGet(client.close());
+        }
+    }
+
+    /**
+     * Evicts clients stuck in a write. A blocked write cannot be interrupted through the
+     * HttpExchange API; the client stops receiving frames at once and its thread ends when the
+     * socket finally errors (or at {@link #stop()}).
+     */
+    private void evictStalledClients() {
+        long now = System.nanoTime();
+        long limit = writeStallNanos;
+        LcdWebSocketServer ws = webSocketServer;
+        if (ws != null) ws.evictStalled(limit);
+        for (Client c : clients) {
+            long started = c.writeStartedNanos;
+            if (started != 0 && now - started > limit) {
+                LOG.fine("WebLcdServer: evicting stalled client");
+                evict(c);
             }
         }
-        clients.remove(os);
-        try { os.close(); } catch (IOException ignored) {}
     }
 
-    private void sendKeepalive() {
-        byte[] ping = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
-        Set<OutputStream> dead = ConcurrentHashMap.newKeySet();
-        for (OutputStream os : clients) {
+    /**
+     * One SSE connection: a bounded drop-oldest queue of shared, pre-encoded frames. Any thread
+     * offers and may {@link #close()}; only the connection's exchange thread takes, writes and
+     * finally {@link #release() releases} the exchange.
+     */
+    private final class Client {
+        private final HttpExchange exchange;
+        private final OutputStream os;
+        private final byte[][] queue = new byte[CLIENT_QUEUE_CAPACITY][];
+        private int head;
+        private int size;
+        private boolean closed;
+        /** System.nanoTime() when the current write began, 0 when not writing. */
+        volatile long writeStartedNanos;
+
+        Client(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.os = exchange.getResponseBody();
+        }
+
+        synchronized void offer(byte[] frame) {
+            if (closed) return;
+            if (size == queue.length) {
+                queue[head] = null;
+                head = (head + 1) % queue.length;
+                size--;
+                droppedFrames.incrementAndGet();
+            }
+            queue[(head + size) % queue.length] = frame;
+            size++;
+            notifyAll();
+        }
+
+        /** Next frame, or null after {@code timeoutMs} without one (or when closed). */
+        synchronized byte[] take(long timeoutMs) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (size == 0 && !closed) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) return null;
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+            if (size == 0) return null;
+            byte[] frame = queue[head];
+            queue[head] = null;
+            head = (head + 1) % queue.length;
+            size--;
+            return frame;
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+
+        private synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        /** Writes one frame; flushes only once the queue is empty so bursts go out together. */
+        void write(byte[] frame) throws IOException {
+            writeStartedNanos = System.nanoTime();
+            try {
+                os.write(frame);
+                if (isEmpty()) os.flush();
+            } finally {
+                writeStartedNanos = 0;
+            }
+        }
+
+        /**
+         * Marks the client closed and wakes its writer, which then releases the exchange; returns
+         * the number of frames still queued (discarded).
+         */
+        int close() {
+            int pending;
+            synchronized (this) {
+                if (closed) return 0;
+                closed = true;
+                pending = size;
+                Arrays.fill(queue, null);
+                size = 0;
+                notifyAll();
+            }
+            return pending;
+        }
+
+        /** Closes the response stream and the exchange; called once by the writer thread on exit. */
+        void release() {
             try {
-                os.write(ping);
-                os.flush();
-            } catch (IOException e) {
-                dead.add(os);
+                os.close();
+            } catch (IOException ignored) {
+                // peer already gone
+            } finally {
+                exchange.close();
             }
         }
-        clients.removeAll(dead);
     }
 
     // ── LCD HTML page ──────────────────────────────────────────────────────────
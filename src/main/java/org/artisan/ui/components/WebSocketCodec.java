@@ -0,0 +1,155 @@
+package org.artisan.ui.components;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Minimal RFC 6455 server side: opening handshake, unfragmented frame writing and reading of
+ * masked client frames (continuation frames are rejected; LCD clients only send short text).
+ */
+final class WebSocketCodec {
+
+    static final int OP_TEXT = 0x1;
+    static final int OP_BINARY = 0x2;
+    static final int OP_CLOSE = 0x8;
+    static final int OP_PING = 0x9;
+    static final int OP_PONG = 0xA;
+
+    private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int MAX_HEADER_BYTES = 8192;
+    /** RFC 6455 5.5: control frames carry at most 125 payload bytes. */
+    static final int MAX_CONTROL_PAYLOAD = 125;
+    static final String VERSION = "13";
+
+    /** Parsed upgrade request: path (without query), raw query and lower-case header names. */
+    record Handshake(String path, String query, Map<String, String> headers) {
+        String header(String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /** One received frame. */
+    record Frame(int opcode, byte[] payload) {
+        String text() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    private WebSocketCodec() {
+    }
+
+    /** Reads the HTTP request head (up to the blank line); pass a buffered stream. */
+    static Handshake readHandshake(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        while (head.length() < 4 || head.lastIndexOf("\r\n\r\n") != head.length() - 4) {
+            int c = in.read();
+            if (c < 0) throw new IOException("Connection closed during handshake");
+            if (head.length() >= MAX_HEADER_BYTES) throw new IOException("Handshake too large");
+            head.append((char) c);
+        }
+        String[] lines = head.toString().split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length < 2 || !requestLine[0].equals("GET")) throw new IOException("Not a GET request");
+        String target = requestLine[1];
+        int q = target.indexOf('?');
+        Map<String, String> headers = new TreeMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) {
+                headers.put(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                    lines[i].substring(colon + 1).trim());
+            }
+        }
+        return new Handshake(q >= 0 ? target.substring(0, q) : target, q >= 0 ? target.substring(q + 1) : "",
+            headers);
+    }
+
+    /** Sec-WebSocket-Accept for a client key. */
+    static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key.trim() + GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 unavailable", e);
+        }
+    }
+
+    /**
+     * Answers the handshake with 101, with 400 and no upgrade if it is not a WebSocket request, or
+     * with 426 and {@code Sec-WebSocket-Version: 13} if the client speaks another protocol version.
+     */
+    static boolean respond(Handshake h, OutputStream out) throws IOException {
+        String key = h.header("Sec-WebSocket-Key");
+        String upgrade = h.header("Upgrade");
+        if (key == null || upgrade == null || !upgrade.equalsIgnoreCase("websocket")) {
+            writeStatus(out, "400 Bad Request");
+            return false;
+        }
+        String version = h.header("Sec-WebSocket-Version");
+        if (version == null || !version.trim().equals(VERSION)) {
+            out.write(("HTTP/1.1 426 Upgrade Required\r\nSec-WebSocket-Version: " + VERSION
+                + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return false;
+        }
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+            + "Upgrade: websocket\r\n"
+            + "Connection: Upgrade\r\n"
+            + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        out.write(response.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return true;
+    }
+
+    static void writeStatus(OutputStream out, String status) throws IOException {
+        out.write(("HTTP/1.1 " + status + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /** Writes one unmasked, final frame (server to client). Does not flush. */
+    static void writeFrame(OutputStream out, int opcode, byte[] payload) throws IOException {
+        int len = payload.length;
+        out.write(0x80 | opcode);
+        if (len < 126) {
+            out.write(len);
+        } else if (len <= 0xFFFF) {
+            out.write(126);
+            out.write(len >>> 8);
+            out.write(len);
+        } else {
+            out.write(127);
+            for (int shift = 56; shift >= 0; shift -= 8) out.write((int) ((long) len >>> shift));
+        }
+        out.write(payload);
+    }
+
+    /** Reads one masked client frame of at most {@code maxPayload} bytes. */
+    static Frame readFrame(DataInputStream in, int maxPayload) throws IOException {
+        int b0 = in.readUnsignedByte();
+        int b1 = in.readUnsignedByte();
+        if ((b0 & 0x80) == 0 || (b0 & 0x0F) == 0) throw new IOException("Fragmented frames not supported");
+        if ((b1 & 0x80) == 0) throw new IOException("Client frame not masked");
+        long len = b1 & 0x7F;
+        if (len == 126) len = in.readUnsignedShort();
+        else if (len == 127) len = in.readLong();
+        if (len < 0 || len > maxPayload) throw new IOException("Frame too large: " + len);
+        if ((b0 & 0x08) != 0 && len > MAX_CONTROL_PAYLOAD) throw new IOException("Control frame too large: " + len);
+        byte[] mask = new byte[4];
+        in.readFully(mask);
+        byte[] payload = new byte[(int) len];
+        in.readFully(payload);
+        for (int i = 0; i < payload.length; i++) payload[i] ^= mask[i & 3];
+        return new Frame(b0 & 0x0F, payload);
+    }
+}
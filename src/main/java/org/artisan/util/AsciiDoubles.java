@@ -0,0 +1,117 @@
+package org.artisan.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses decimal numbers straight from ASCII/UTF-8 bytes, with the results of
+ * {@link Double#parseDouble} and without allocating for plain decimals. Shared by the CSV
+ * importers' tokenizer and the serial line framer.
+ * <p>
+ * Fast path (Clinger): {@code [+-]digits[.digits][(e|E)[+-]digits]} with at most 15 significant
+ * digits and a power-of-ten scale within ±22 is exact as one correctly rounded multiply or
+ * divide. Anything else (longer mantissas, large exponents, NaN/Infinity, hex, suffixes) goes
+ * through {@link Double#parseDouble}.
+ */
+public final class AsciiDoubles {
+
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    /** Every character {@link Double#parseDouble} accepts (decimal, hex, NaN, Infinity, suffixes). */
+    private static final String NUMBER_CHARS = "0123456789+-.eEpPxXaAbBcCdDfFNIinty \t";
+    /** Significant digits that fit a long exactly below 2^53. */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private AsciiDoubles() {}
+
+    /**
+     * Parses {@code b[start, end)} (already trimmed).
+     *
+     * @throws NumberFormatException if the bytes are not a number
+     */
+    public static double parseDouble(byte[] b, int start, int end) {
+        double v = parseFast(b, start, end);
+        if (!Double.isNaN(v)) return v;
+        return Double.parseDouble(new String(b, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Parses {@code b[start, end)} (already trimmed) like {@link #parseDouble(byte[], int, int)}.
+     * Cells that are plainly not numbers (dates, labels) fail fast instead of through an exception.
+     *
+     * @return the value, or {@code fallback} if the bytes are not a number
+     */
+    public static double parseDouble(byte[] b, int start, int end, double fallback) {
+        double v = parseFast(b, start, end);
+        if (!Double.isNaN(v)) return v;
+        for (int i = start; i < end; i++) {
+            if (b[i] < 0 || NUMBER_CHARS.indexOf(b[i]) < 0) return fallback;
+        }
+        try {
+            return Double.parseDouble(new String(b, start, end - start, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /** Fast-path value, or NaN if the bytes need {@link Double#parseDouble} (never NaN otherwise). */
+    private static double parseFast(byte[] b, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int scale = 0;
+        boolean digits = false;
+        while (i < end && b[i] >= '0' && b[i] <= '9') {
+            if (mantissa != 0 || b[i] != '0') {
+                mantissa = mantissa * 10 + (b[i] - '0');
+                significant++;
+            }
+            digits = true;
+            i++;
+        }
+        if (i < end && b[i] == '.') {
+            i++;
+            while (i < end && b[i] >= '0' && b[i] <= '9') {
+                if (mantissa != 0 || b[i] != '0') {
+                    mantissa = mantissa * 10 + (b[i] - '0');
+                    significant++;
+                }
+                scale--;
+                digits = true;
+                i++;
+            }
+        }
+        if (digits && i < end && (b[i] == 'e' || b[i] == 'E')) {
+            int j = i + 1;
+            boolean expNegative = false;
+            if (j < end && (b[j] == '-' || b[j] == '+')) {
+                expNegative = b[j] == '-';
+                j++;
+            }
+            int exp = 0;
+            int expStart = j;
+            while (j < end && b[j] >= '0' && b[j] <= '9' && exp < 10_000) {
+                exp = exp * 10 + (b[j] - '0');
+                j++;
+            }
+            if (j > expStart) {
+                scale += expNegative ? -exp : exp;
+                i = j;
+            }
+        }
+        if (!digits || i != end || significant > MAX_FAST_DIGITS) return Double.NaN;
+        double v = mantissa;
+        if (mantissa != 0 && scale != 0) {
+            if (scale < 0 && scale >= -22) v /= POW10[-scale];
+            else if (scale > 0 && scale <= 22) v *= POW10[scale];
+            else return Double.NaN;
+        }
+        return negative ? -v : v;
+    }
+}
@@ -13,7 +13,8 @@ public final class CurveSmoothing {
 
     /**
      * Smooths the series with a symmetric window. Window must be odd (1 = no smoothing).
-     * At boundaries, uses available points (partial window).
+     * At boundaries, uses available points (partial window). Null and non-finite values are
+     * skipped; a point whose whole window is skipped keeps its input value.
      *
      * @param y      input values (not null)
      * @param window odd window size, 1–99 (1 = no smoothing)
@@ -22,25 +23,97 @@ public final class CurveSmoothing {
     public static List<Double> smooth(List<Double> y, int window) {
         if (y == null || y.isEmpty()) return new ArrayList<>();
         int n = y.size();
-        int w = Math.max(1, Math.min(99, window));
-        if ((w & 1) == 0) w++;
-        if (w == 1) return new ArrayList<>(y);
-        int half = w / 2;
+        if (halfWindow(window) == 0) return new ArrayList<>(y);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            Double v = y.get(i);
+            values[i] = v != null ? v : Double.NaN;
+        }
+        double[] smoothed = new double[n];
+        smooth(values, n, window, 0, smoothed);
         List<Double> out = new ArrayList<>(n);
         for (int i = 0; i < n; i++) {
+            // A non-finite result means an empty window: keep the input element itself (may be null)
+            out.add(Double.isFinite(smoothed[i]) ? Double.valueOf(smoothed[i]) : y.get(i));
+        }
+        return out;
+    }
+
+    /**
+     * Primitive range variant of {@link #smooth(List, int)}: writes the smoothed values for
+     * indices {@code [from, n)} of {@code y[0..n)} into {@code out} (not {@code y}). Same window
+     * and edge rules, so recomputing only the trailing half-window after an append matches a full
+     * pass.
+     * <p>
+     * O(n - from + window): the window sum and finite count slide by one point per index and
+     * are re-summed from scratch every window length, which keeps rounding drift to a few ulps.
+     */
+    public static void smooth(double[] y, int n, int window, int from, double[] out) {
+        int half = halfWindow(window);
+        int first = Math.max(0, from);
+        if (half == 0) {
+            if (first < n) System.arraycopy(y, first, out, first, n - first);
+            return;
+        }
+        int w = 2 * half + 1;
+        double sum = 0;
+        int count = 0;
+        int lo = 0;
+        int hi = 0;
+        int untilResum = 0;
+        for (int i = first; i < n; i++) {
             int start = Math.max(0, i - half);
             int end = Math.min(n, i + half + 1);
-            double sum = 0;
-            int count = 0;
-            for (int j = start; j < end; j++) {
-                Double v = y.get(j);
-                if (v != null && Double.isFinite(v)) {
-                    sum += v;
-                    count++;
+            if (--untilResum < 0) {
+                untilResum = w - 1;
+                sum = 0;
+                count = 0;
+                for (int j = start; j < end; j++) {
+                    double v = y[j];
+                    if (Double.isFinite(v)) {
+                        sum += v;
+                        count++;
+                    }
+                }
+            } else {
+                if (start > lo) {
+                    double v = y[lo];
+                    if (Double.isFinite(v)) {
+                        sum -= v;
+                        if (--count == 0) sum = 0;
+                    }
+                }
+                if (end > hi) {
+                    double v = y[hi];
+                    if (Double.isFinite(v)) {
+                        sum += v;
+                        count++;
+                    }
                 }
             }
-            out.add(count > 0 ? sum / count : (i < y.size() ? y.get(i) : 0.0));
+            lo = start;
+            hi = end;
+            out[i] = count > 0 ? sum / count : y[i];
         }
-        return out;
+    }
+
+    /**
+     * Incremental form for a growing series: after {@code y} grew from {@code oldN} to {@code n}
+     * values, rewrites only the points whose centered window changed, i.e. from
+     * {@code oldN - window / 2} on. {@code out[0..oldN)} must hold the previous result.
+     *
+     * @return the first index rewritten
+     */
+    public static int smoothAppended(double[] y, int oldN, int n, int window, double[] out) {
+        int from = Math.max(0, Math.min(oldN, n) - halfWindow(window));
+        smooth(y, n, window, from, out);
+        return from;
+    }
+
+    /** Half-width of the normalized (odd, 1–99) window; 0 means no smoothing. */
+    public static int halfWindow(int window) {
+        int w = Math.max(1, Math.min(99, window));
+        if ((w & 1) == 0) w++;
+        return w / 2;
     }
 }
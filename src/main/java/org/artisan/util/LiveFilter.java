@@ -3,6 +3,9 @@ package org.artisan.util;
 /**
  * Base class for live (streaming) digital filters.
  * Ported from Python artisanlib.filters.LiveFilter.
+ * <p>
+ * Implementations keep their state in primitive arrays sized at construction, so
+ * {@link #process(double)} does not allocate; {@link #reset()} clears the state for the next roast.
  */
 public abstract class LiveFilter {
 
@@ -26,4 +29,9 @@ public abstract class LiveFilter {
      * @return filtered value
      */
     protected abstract double processImpl(double x);
+
+    /**
+     * Clears the filter state so the next sample is processed as the first one.
+     */
+    public abstract void reset();
 }
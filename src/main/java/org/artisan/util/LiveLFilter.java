@@ -1,5 +1,7 @@
 package org.artisan.util;
 
+import java.util.Arrays;
+
 /**
  * Live IIR filter using difference equations (numerator b, denominator a).
  * Equivalent to scipy lfilter(b, a, xs) when applied sample-by-sample.
@@ -11,7 +13,7 @@ public final class LiveLFilter extends LiveFilter {
     private final double[] a;
     private final double[] xs;
     private final double[] ys;
-    private int xsHead; // newest at index 0 (logically)
+    private int xsHead; // next write position; newest sample just before it
     private int ysHead;
 
     /**
@@ -30,22 +32,32 @@ public final class LiveLFilter extends LiveFilter {
     @Override
     protected double processImpl(double x) {
         xs[xsHead] = x;
-        xsHead = (xsHead + 1) % xs.length;
-        // Logical order: newest first (index 0 = just written at xsHead-1)
+        // Walk both rings newest first, wrapping by branch rather than modulo
         double y = 0.0;
+        int idx = xsHead;
         for (int i = 0; i < b.length; i++) {
-            int idx = (xsHead - 1 - i + xs.length * 2) % xs.length;
             y += b[i] * xs[idx];
+            idx = idx == 0 ? xs.length - 1 : idx - 1;
         }
+        xsHead = xsHead + 1 == xs.length ? 0 : xsHead + 1;
+        idx = ysHead == 0 ? ys.length - 1 : ysHead - 1;
         for (int i = 0; i < ys.length; i++) {
-            int idx = (ysHead - 1 - i + ys.length * 2) % ys.length;
             y -= a[i + 1] * ys[idx];
+            idx = idx == 0 ? ys.length - 1 : idx - 1;
         }
         y /= a[0];
         if (ys.length > 0) {
             ys[ysHead] = y;
-            ysHead = (ysHead + 1) % ys.length;
+            ysHead = ysHead + 1 == ys.length ? 0 : ysHead + 1;
         }
         return y;
     }
+
+    @Override
+    public void reset() {
+        Arrays.fill(xs, 0.0);
+        Arrays.fill(ys, 0.0);
+        xsHead = 0;
+        ysHead = 0;
+    }
 }
@@ -1,52 +1,50 @@
 package org.artisan.util;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.List;
-
 /**
  * Live mean (moving average) low-pass filter with window size k.
  * Ported from Python artisanlib.filters.LiveMean.
+ * <p>
+ * The window is a primitive ring buffer with a running total: O(1) per sample, no allocation.
  */
 public final class LiveMean extends LiveFilter {
 
     private final int k;
-    private final List<Double> initList;
+    /** Ring buffer of the last k samples; {@code head} is the oldest once full. */
+    private final double[] window;
+    private int head;
+    private int count;
     private double total;
-    private boolean initialized;
-    private Deque<Double> window;
 
     /**
      * @param k window size
+     * @throws IllegalArgumentException if k is less than 1
      */
     public LiveMean(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Mean filter length must be positive.");
+        }
         this.k = k;
-        this.initList = new ArrayList<>();
-        this.total = 0.0;
-        this.initialized = false;
-        this.window = null;
+        this.window = new double[k];
     }
 
     @Override
     protected double processImpl(double x) {
-        if (!initialized) {
-            if (initList.size() < k) {
-                initList.add(x);
-                total += x;
-                return total / initList.size();
-            }
-            initQueue();
+        if (count < k) {
+            window[count++] = x;
+            total += x;
+            return total / count;
         }
-        double oldVal = window.removeFirst();
-        total -= oldVal;
+        total -= window[head];
         total += x;
-        window.addLast(x);
+        window[head] = x;
+        head = head + 1 == k ? 0 : head + 1;
         return total / k;
     }
 
-    private void initQueue() {
-        window = new ArrayDeque<>(initList);
-        initialized = true;
+    @Override
+    public void reset() {
+        head = 0;
+        count = 0;
+        total = 0.0;
     }
 }
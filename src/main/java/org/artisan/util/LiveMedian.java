@@ -1,22 +1,31 @@
 package org.artisan.util;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Live median low-pass filter (window size k, odd).
  * Ported from Python artisanlib.filters.LiveMedian.
+ * <p>
+ * Samples live in a primitive ring buffer; the window is split over two indexed heaps of ring
+ * slots: a max-heap holding the lower (k+1)/2 values, whose top is the median, and a min-heap
+ * holding the upper k/2. Each sample overwrites the oldest slot in place and restores the heaps in
+ * O(log k) without allocating. Values are ordered as {@link Double#compare} orders them, so the
+ * result is exactly the middle element of the sorted window.
  */
 public final class LiveMedian extends LiveFilter {
 
     private final int k;
-    private final List<Double> initList;
+    /** Ring buffer of the last k samples; {@code head} is the oldest once full. */
+    private final double[] values;
+    private int head;
+    private int count;
     private double total;
-    private boolean initialized;
-    private List<Double> sorted;
-    private List<Double> window;
-    private int midIdx;
+    private boolean heapsBuilt;
+
+    /** Max-heap of slots with the lower (k+1)/2 values. */
+    private final int[] low;
+    /** Min-heap of slots with the upper k/2 values. */
+    private final int[] high;
+    /** Heap position per slot: {@code p} in {@link #low}, or {@code -(p + 1)} in {@link #high}. */
+    private final int[] where;
 
     /**
      * @param k window size (must be odd)
@@ -27,44 +36,164 @@ public final class LiveMedian extends LiveFilter {
             throw new IllegalArgumentException("Median filter length must be odd.");
         }
         this.k = k;
-        this.initList = new ArrayList<>();
-        this.total = 0.0;
-        this.initialized = false;
-        this.sorted = null;
-        this.window = null;
-        this.midIdx = 0;
+        this.values = new double[k];
+        this.low = new int[(k + 1) / 2];
+        this.high = new int[k / 2];
+        this.where = new int[k];
     }
 
     @Override
     protected double processImpl(double x) {
-        if (!initialized) {
-            if (initList.size() < k) {
-                initList.add(x);
-                total += x;
-                return total / initList.size();
+        if (count < k) {
+            values[count++] = x;
+            total += x;
+            return total / count;
+        }
+        if (!heapsBuilt) {
+            buildHeaps();
+        }
+        int slot = head;
+        head = head + 1 == k ? 0 : head + 1;
+        values[slot] = x;
+        int p = where[slot];
+        if (p >= 0) {
+            siftDownLow(siftUpLow(p));
+        } else {
+            siftDownHigh(siftUpHigh(-p - 1));
+        }
+        // One value changed, so at most the two tops are on the wrong side
+        if (high.length > 0 && Double.compare(values[low[0]], values[high[0]]) > 0) {
+            int t = low[0];
+            low[0] = high[0];
+            high[0] = t;
+            where[low[0]] = 0;
+            where[high[0]] = -1;
+            siftDownLow(0);
+            siftDownHigh(0);
+        }
+        return values[low[0]];
+    }
+
+    @Override
+    public void reset() {
+        head = 0;
+        count = 0;
+        total = 0.0;
+        heapsBuilt = false;
+    }
+
+    /**
+     * Sorts the full window once (insertion sort into {@link #where} as scratch) and lays the lower
+     * half out descending in {@link #low} and the upper half ascending in {@link #high}; sorted
+     * arrays are valid heaps.
+     */
+    private void buildHeaps() {
+        int[] order = where;
+        for (int i = 0; i < k; i++) {
+            int j = i;
+            while (j > 0 && Double.compare(values[order[j - 1]], values[i]) > 0) {
+                order[j] = order[j - 1];
+                j--;
             }
-            initQueue();
+            order[j] = i;
         }
-        double oldElem = window.get(0);
-        window.remove(0);
-        window.add(x);
-        int removeIdx = Collections.binarySearch(sorted, oldElem);
-        if (removeIdx >= 0) {
-            sorted.remove(removeIdx);
+        int lowSize = low.length;
+        for (int i = 0; i < lowSize; i++) {
+            low[i] = order[lowSize - 1 - i];
         }
-        int insertIdx = Collections.binarySearch(sorted, x);
-        if (insertIdx < 0) {
-            insertIdx = -(insertIdx + 1);
+        for (int i = 0; i < high.length; i++) {
+            high[i] = order[lowSize + i];
         }
-        sorted.add(insertIdx, x);
-        return sorted.get(midIdx);
+        for (int i = 0; i < lowSize; i++) {
+            where[low[i]] = i;
+        }
+        for (int i = 0; i < high.length; i++) {
+            where[high[i]] = -(i + 1);
+        }
+        heapsBuilt = true;
     }
 
-    private void initQueue() {
-        window = new ArrayList<>(initList);
-        sorted = new ArrayList<>(window);
-        Collections.sort(sorted);
-        midIdx = (window.size() - 1) / 2;
-        initialized = true;
+    private int siftUpLow(int p) {
+        int slot = low[p];
+        double v = values[slot];
+        while (p > 0) {
+            int parent = (p - 1) >>> 1;
+            int ps = low[parent];
+            if (Double.compare(values[ps], v) >= 0) {
+                break;
+            }
+            low[p] = ps;
+            where[ps] = p;
+            p = parent;
+        }
+        low[p] = slot;
+        where[slot] = p;
+        return p;
+    }
+
+    private void siftDownLow(int p) {
+        int n = low.length;
+        int slot = low[p];
+        double v = values[slot];
+        while (true) {
+            int c = 2 * p + 1;
+            if (c >= n) {
+                break;
+            }
+            if (c + 1 < n && Double.compare(values[low[c + 1]], values[low[c]]) > 0) {
+                c++;
+            }
+            int cs = low[c];
+            if (Double.compare(values[cs], v) <= 0) {
+                break;
+            }
+            low[p] = cs;
+            where[cs] = p;
+            p = c;
+        }
+        low[p] = slot;
+        where[slot] = p;
+    }
+
+    private int siftUpHigh(int p) {
+        int slot = high[p];
+        double v = values[slot];
+        while (p > 0) {
+            int parent = (p - 1) >>> 1;
+            int ps = high[parent];
+            if (Double.compare(values[ps], v) <= 0) {
+                break;
+            }
+            high[p] = ps;
+            where[ps] = -(p + 1);
+            p = parent;
+        }
+        high[p] = slot;
+        where[slot] = -(p + 1);
+        return p;
+    }
+
+    private void siftDownHigh(int p) {
+        int n = high.length;
+        int slot = high[p];
+        double v = values[slot];
+        while (true) {
+            int c = 2 * p + 1;
+            if (c >= n) {
+                break;
+            }
+            if (c + 1 < n && Double.compare(values[high[c + 1]], values[high[c]]) < 0) {
+                c++;
+            }
+            int cs = high[c];
+            if (Double.compare(values[cs], v) >= 0) {
+                break;
+            }
+            high[p] = cs;
+            where[cs] = -(p + 1);
+            p = c;
+        }
+        high[p] = slot;
+        where[slot] = -(p + 1);
     }
 }
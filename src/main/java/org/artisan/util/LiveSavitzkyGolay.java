@@ -0,0 +1,95 @@
+package org.artisan.util;
+
+/**
+ * Streaming Savitzky-Golay filter: fits a polynomial of order {@code polyOrder} to the last
+ * {@code windowSize} samples and returns its value, or its {@code derivative}-th derivative, at
+ * the sample {@code lag} steps back. Lag 0 is causal (no delay, most noise); lag
+ * {@code windowSize / 2} reproduces the centered {@link SavitzkyGolayFilter} delayed by that
+ * many samples. With derivative 1 the output is a smooth rate straight from the fit, e.g. RoR
+ * ({@link #rateOfRise}).
+ * <p>
+ * Coefficient tables come from the {@link SavitzkyGolayFilter} cache, including the shorter
+ * tables used while the window fills. Samples are kept in a mirrored ring so the window is
+ * always contiguous: {@link #process} is one O(window) dot product without allocation.
+ */
+public final class LiveSavitzkyGolay extends LiveFilter {
+
+    private final int windowSize;
+    /** Coefficients for 1..windowSize samples (index = count - 1), each evaluated at the lag. */
+    private final double[][] tables;
+    /** Output multiplier: 1 / interval^derivative, times any unit factor. */
+    private final double scale;
+    /** Each sample is written at head and head + windowSize. */
+    private final double[] ring;
+    private int head;
+    private int count;
+
+    /**
+     * Causal smoothing filter.
+     *
+     * @param windowSize samples in the fit (&ge; 1)
+     * @param polyOrder  polynomial order, below windowSize
+     */
+    public LiveSavitzkyGolay(int windowSize, int polyOrder) {
+        this(windowSize, polyOrder, 0, 0, 1.0);
+    }
+
+    /**
+     * @param windowSize          samples in the fit (&ge; 1)
+     * @param polyOrder           polynomial order, below windowSize
+     * @param derivative          0 = smoothed value, 1 = rate, 2 = acceleration, ...
+     * @param lag                 samples between the newest input and the estimated point, below windowSize
+     * @param sampleIntervalSec   seconds between samples; derivatives are per second
+     * @throws IllegalArgumentException if the shape or interval is invalid
+     */
+    public LiveSavitzkyGolay(int windowSize, int polyOrder, int derivative, int lag, double sampleIntervalSec) {
+        this(windowSize, polyOrder, derivative, lag, sampleIntervalSec, 1.0);
+    }
+
+    private LiveSavitzkyGolay(int windowSize, int polyOrder, int derivative, int lag, double sampleIntervalSec,
+                              double unit) {
+        if (!(sampleIntervalSec > 0) || Double.isInfinite(sampleIntervalSec)) {
+            throw new IllegalArgumentException("Sample interval must be positive.");
+        }
+        SavitzkyGolayFilter.coefficients(windowSize, polyOrder, derivative, lag); // validates the shape
+        this.windowSize = windowSize;
+        this.tables = new double[windowSize][];
+        for (int n = 1; n <= windowSize; n++) {
+            tables[n - 1] = SavitzkyGolayFilter.cachedCoefficients(n, Math.min(polyOrder, n - 1), derivative,
+                    Math.min(lag, n - 1));
+        }
+        this.scale = unit / Math.pow(sampleIntervalSec, derivative);
+        this.ring = new double[2 * windowSize];
+    }
+
+    /**
+     * Causal rate of rise in degrees per minute from the slope of a {@code polyOrder} fit over
+     * {@code windowSize} samples.
+     */
+    public static LiveSavitzkyGolay rateOfRise(int windowSize, int polyOrder, double sampleIntervalSec) {
+        return new LiveSavitzkyGolay(windowSize, polyOrder, 1, 0, sampleIntervalSec, 60.0);
+    }
+
+    @Override
+    protected double processImpl(double x) {
+        ring[head] = x;
+        ring[head + windowSize] = x;
+        head = head + 1 == windowSize ? 0 : head + 1;
+        if (count < windowSize) count++;
+        // Oldest of the last count samples; the window ring[start, start + count) is contiguous
+        int start = head - count;
+        if (start < 0) start += windowSize;
+        double[] c = tables[count - 1];
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += c[i] * ring[start + i];
+        }
+        return sum * scale;
+    }
+
+    @Override
+    public void reset() {
+        head = 0;
+        count = 0;
+    }
+}
@@ -1,5 +1,7 @@
 package org.artisan.util;
 
+import java.util.Arrays;
+
 /**
  * Live digital filter using second-order sections (SOS).
  * More numerically stable than direct IIR. Equivalent to scipy.sosfilt(sos, xs) sample-by-sample.
@@ -7,33 +9,42 @@ package org.artisan.util;
  */
 public final class LiveSosFilter extends LiveFilter {
 
-    /** SOS matrix: n_sections x 6 [b0, b1, b2, a0, a1, a2]. */
-    private final double[][] sos;
-    /** State for transposed direct form II: n_sections x 2. */
-    private final double[][] state;
+    private final int sections;
+    /** SOS matrix, row-major n_sections x 6: [b0, b1, b2, a0, a1, a2] per section. */
+    private final double[] sos;
+    /** State for transposed direct form II, row-major n_sections x 2. */
+    private final double[] state;
 
     /**
      * @param sos second-order sections, shape [n_sections][6] with [b0, b1, b2, a0, a1, a2] per row
      */
     public LiveSosFilter(double[][] sos) {
-        this.sos = new double[sos.length][6];
+        this.sections = sos.length;
+        this.sos = new double[sos.length * 6];
         for (int i = 0; i < sos.length; i++) {
-            System.arraycopy(sos[i], 0, this.sos[i], 0, Math.min(6, sos[i].length));
+            System.arraycopy(sos[i], 0, this.sos, i * 6, Math.min(6, sos[i].length));
         }
-        this.state = new double[sos.length][2];
+        this.state = new double[sos.length * 2];
     }
 
     @Override
     protected double processImpl(double x) {
         double y = 0.0;
-        for (int s = 0; s < sos.length; s++) {
-            double b0 = sos[s][0], b1 = sos[s][1], b2 = sos[s][2];
-            double a1 = sos[s][4], a2 = sos[s][5];
-            y = b0 * x + state[s][0];
-            state[s][0] = b1 * x - a1 * y + state[s][1];
-            state[s][1] = b2 * x - a2 * y;
+        for (int s = 0; s < sections; s++) {
+            int c = s * 6;
+            int z = s * 2;
+            double b0 = sos[c], b1 = sos[c + 1], b2 = sos[c + 2];
+            double a1 = sos[c + 4], a2 = sos[c + 5];
+            y = b0 * x + state[z];
+            state[z] = b1 * x - a1 * y + state[z + 1];
+            state[z + 1] = b2 * x - a2 * y;
             x = y;
         }
         return y;
     }
+
+    @Override
+    public void reset() {
+        Arrays.fill(state, 0.0);
+    }
 }
@@ -0,0 +1,74 @@
+package org.artisan.util;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson 2013): picks {@code threshold} points
+ * of a curve that keep its visual shape, always including the first and last point. Works on
+ * indices so several channels sharing one time axis can be reduced with the same selection.
+ */
+public final class Lttb {
+
+    private Lttb() {}
+
+    /**
+     * Selects indices in {@code [from, to)} to keep.
+     *
+     * @param x         x values (time), ascending
+     * @param y         y values driving the selection; non-finite values never win a bucket
+     *                  unless the whole bucket is non-finite
+     * @param threshold wanted number of points; {@code < 3} or {@code >= to - from} keeps all
+     * @return ascending indices into {@code x}/{@code y}
+     */
+    public static int[] select(double[] x, double[] y, int from, int to, int threshold) {
+        int n = to - from;
+        if (n <= 0) return new int[0];
+        if (threshold < 3 || threshold >= n) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = from + i;
+            return all;
+        }
+        int[] out = new int[threshold];
+        int k = 0;
+        out[k++] = from;
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = from;
+        for (int b = 0; b < threshold - 2; b++) {
+            // average of the next bucket is the third triangle vertex
+            int nextStart = from + 1 + (int) Math.floor((b + 1) * every);
+            int nextEnd = Math.min(to, from + 1 + (int) Math.floor((b + 2) * every));
+            if (b == threshold - 3) nextEnd = to;
+            double avgX = 0;
+            double avgY = 0;
+            int avgN = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                if (!Double.isFinite(y[j])) continue;
+                avgX += x[j];
+                avgY += y[j];
+                avgN++;
+            }
+            if (avgN > 0) {
+                avgX /= avgN;
+                avgY /= avgN;
+            } else {
+                avgX = x[to - 1];
+                avgY = Double.isFinite(y[to - 1]) ? y[to - 1] : y[a];
+            }
+            int start = from + 1 + (int) Math.floor(b * every);
+            int end = from + 1 + (int) Math.floor((b + 1) * every);
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1;
+            int chosen = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((ax - avgX) * (y[j] - ay) - (ax - x[j]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            out[k++] = chosen;
+            a = chosen;
+        }
+        out[k] = to - 1;
+        return out;
+    }
+}
@@ -1,14 +1,23 @@
 package org.artisan.util;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Savitzky-Golay polynomial smoothing filter. Computes convolution coefficients
  * via least-squares polynomial fit for the given window size and polynomial order.
  * Provides three presets: RECOMMENDED, NOISE_SMOOTHING, and SENSITIVE.
+ * <p>
+ * Coefficient tables are cached per (window, order, derivative, lag), so repeated calls and the
+ * streaming {@link LiveSavitzkyGolay} only solve the least-squares system once per shape.
  */
 public final class SavitzkyGolayFilter {
 
+    private record Shape(int windowSize, int polyOrder, int derivative, int lag) {}
+
+    private static final Map<Shape, double[]> COEFFICIENTS = new ConcurrentHashMap<>();
+
     public enum Preset {
         /** Order 2, window 7 — balanced smoothing. */
         RECOMMENDED(7, 2),
@@ -54,7 +63,7 @@ public final class SavitzkyGolayFilter {
         int order = Math.min(polyOrder, w - 1);
         int half = w / 2;
 
-        double[] coeffs = computeCoefficients(w, order);
+        double[] coeffs = cachedCoefficients(w, order, 0, half);
         double[] result = new double[n];
 
         for (int i = 0; i < n; i++) {
@@ -64,7 +73,7 @@ public final class SavitzkyGolayFilter {
                     result[i] = data[i];
                     continue;
                 }
-                double[] localCoeffs = computeCoefficients(localW, Math.min(order, localW - 1));
+                double[] localCoeffs = cachedCoefficients(localW, Math.min(order, localW - 1), 0, localW / 2);
                 int localHalf = localW / 2;
                 double sum = 0;
                 for (int j = -localHalf; j <= localHalf; j++) {
@@ -100,11 +109,45 @@ public final class SavitzkyGolayFilter {
         return out;
     }
 
+    /**
+     * Convolution coefficients that estimate the {@code derivative}-th derivative (per sample
+     * step) of the least-squares polynomial through a window, at the sample {@code lag} steps
+     * before the newest one. {@code coeffs[0]} weights the oldest sample. Lag 0 is causal;
+     * lag {@code windowSize / 2} on an odd window is the classic centered filter.
+     *
+     * @return a new array (the cached table is not exposed)
+     * @throws IllegalArgumentException unless 0 &le; polyOrder &lt; windowSize, derivative &ge; 0
+     *                                  and 0 &le; lag &lt; windowSize
+     */
+    public static double[] coefficients(int windowSize, int polyOrder, int derivative, int lag) {
+        if (windowSize < 1 || polyOrder < 0 || polyOrder >= windowSize || derivative < 0
+                || lag < 0 || lag >= windowSize) {
+            throw new IllegalArgumentException("Invalid Savitzky-Golay shape: window " + windowSize + ", order "
+                    + polyOrder + ", derivative " + derivative + ", lag " + lag);
+        }
+        return cachedCoefficients(windowSize, polyOrder, derivative, lag).clone();
+    }
+
+    /** Cached table for a validated shape; callers must not modify it. */
+    static double[] cachedCoefficients(int windowSize, int polyOrder, int derivative, int lag) {
+        return COEFFICIENTS.computeIfAbsent(new Shape(windowSize, polyOrder, derivative, lag),
+                k -> computeCoefficients(windowSize, polyOrder, derivative, windowSize - 1 - windowSize / 2 - lag));
+    }
+
     /**
      * Computes the SG convolution coefficients for a given window and polynomial order.
      * Uses the pseudo-inverse of the Vandermonde matrix: coeffs = (J^T J)^{-1} J^T, row 0.
      */
     static double[] computeCoefficients(int windowSize, int polyOrder) {
+        return computeCoefficients(windowSize, polyOrder, 0, 0);
+    }
+
+    /**
+     * Coefficients of the {@code derivative}-th derivative of the fit at position {@code x0}
+     * (sample positions run from {@code -windowSize / 2}): row {@code k} of (J^T J)^{-1} J^T
+     * gives the fitted x^k coefficient, weighted by d^derivative/dx^derivative of x^k at x0.
+     */
+    static double[] computeCoefficients(int windowSize, int polyOrder, int derivative, int x0) {
         int half = windowSize / 2;
         int m = polyOrder + 1;
 
@@ -131,13 +174,26 @@ public final class SavitzkyGolayFilter {
 
         double[][] inv = invertMatrix(JtJ, m);
 
+        double[] weight = new double[m];
+        for (int k = derivative; k < m; k++) {
+            double c = 1.0;
+            for (int q = 0; q < derivative; q++) c *= k - q;
+            for (int q = derivative; q < k; q++) c *= x0;
+            weight[k] = c;
+        }
+
         double[] coeffs = new double[windowSize];
         for (int i = 0; i < windowSize; i++) {
-            double sum = 0;
-            for (int j = 0; j < m; j++) {
-                sum += inv[0][j] * J[i][j];
+            double total = 0;
+            for (int k = 0; k < m; k++) {
+                if (weight[k] == 0) continue;
+                double sum = 0;
+                for (int j = 0; j < m; j++) {
+                    sum += inv[k][j] * J[i][j];
+                }
+                total += weight[k] * sum;
             }
-            coeffs[i] = sum;
+            coeffs[i] = total;
         }
         return coeffs;
     }
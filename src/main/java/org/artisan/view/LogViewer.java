@@ -9,6 +9,8 @@ import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.ToolBar;
 import javafx.scene.input.Clipboard;
@@ -23,9 +25,14 @@ import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import java.util.logging.Level;
 
+import org.artisan.controller.CommController;
+import org.artisan.controller.SamplingTimingStats;
+import org.artisan.controller.SignalConditioner;
+
 /**
  * View » Log Viewer: non-modal Stage with read-only TextArea showing recent log entries
  * from InMemoryLogHandler. Polls every 2 seconds, filter by ALL/INFO/WARNING/SEVERE, Clear and Copy All.
+ * With a CommController, a second tab shows its sampling-loop timing (SamplingTimingStats).
  * Window size/pos in Preferences: logviewer.*
  */
 public final class LogViewer {
@@ -39,10 +46,18 @@ public final class LogViewer {
     private final ComboBox<String> filterCombo;
     private final InMemoryLogHandler handler;
     private final Label errorCountLabel;
+    private final SamplingTimingStats timingStats;
+    private final SignalConditioner conditioner;
+    private final TextArea timingArea;
     private Timeline pollTimer;
     private volatile boolean serialLoggingEnabled = false;
 
     public LogViewer(Window owner) {
+        this(owner, null);
+    }
+
+    /** @param commController sampling loop shown in the "Sampling Timing" tab; null = log only */
+    public LogViewer(Window owner, CommController commController) {
         stage = new Stage();
         stage.setTitle("Log Viewer");
         stage.initOwner(owner);
@@ -98,7 +113,32 @@ public final class LogViewer {
         root.setBottom(footer);
         BorderPane.setMargin(textArea, new Insets(8));
 
-        javafx.scene.Scene scene = new javafx.scene.Scene(root, 700, 500);
+        timingStats = commController != null ? commController.getTimingStats() : null;
+        conditioner = commController != null ? commController.getConditioner() : null;
+        timingArea = new TextArea();
+        timingArea.setEditable(false);
+        timingArea.setWrapText(false);
+        timingArea.setStyle("-fx-font-family: monospace; -fx-font-size: 12px;");
+        javafx.scene.Parent content = root;
+        if (timingStats != null) {
+            Button resetTimingBtn = new Button("Reset");
+            resetTimingBtn.setOnAction(e -> {
+                timingStats.clear();
+                if (conditioner != null) conditioner.clearLatency();
+                refresh();
+            });
+            BorderPane timingPane = new BorderPane();
+            timingPane.setTop(new ToolBar(resetTimingBtn));
+            timingPane.setCenter(timingArea);
+            BorderPane.setMargin(timingArea, new Insets(8));
+            Tab logTab = new Tab("Log", root);
+            Tab timingTab = new Tab("Sampling Timing", timingPane);
+            logTab.setClosable(false);
+            timingTab.setClosable(false);
+            content = new TabPane(logTab, timingTab);
+        }
+
+        javafx.scene.Scene scene = new javafx.scene.Scene(content, 700, 500);
         stage.setScene(scene);
 
         loadPreferences();
@@ -133,7 +173,10 @@ public final class LogViewer {
         long errorCount = records.stream()
                 .filter(r -> r != null && r.toUpperCase().contains("SEVERE"))
                 .count();
+        String timing = timingStats != null ? timingStats.format() : null;
+        if (timing != null && conditioner != null) timing += "\n" + conditioner.format();
         Platform.runLater(() -> {
+            if (timing != null) timingArea.setText(timing);
             textArea.setText(text);
             textArea.setScrollTop(Double.MAX_VALUE);
             errorCountLabel.setText("Errors found: " + errorCount);
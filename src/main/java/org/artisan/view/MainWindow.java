@@ -40,6 +40,8 @@ import org.artisan.controller.PhasesSettings;
 import org.artisan.controller.RoastSession;
 import org.artisan.controller.RoastStateMachine;
 import org.artisan.controller.Sample;
+import org.artisan.controller.SampleJournal;
+import org.artisan.controller.SampleRingBuffer;
 import org.artisan.device.AillioR1Config;
 import org.artisan.device.BleDeviceChannel;
 import org.artisan.device.BlePortConfig;
@@ -60,7 +62,6 @@ import org.artisan.model.AxisConfig;
 import org.artisan.model.ColorConfig;
 import org.artisan.model.CurveSet;
 import org.artisan.model.EventButtonConfig;
-import org.artisan.model.EventEntry;
 import org.artisan.model.EventType;
 import org.artisan.model.BackgroundProfile;
 import org.artisan.model.PhaseResult;
@@ -108,6 +109,7 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.prefs.Preferences;
 
@@ -135,7 +137,7 @@ public final class MainWindow extends Application {
   private AxisConfig axisConfig;
   private RoastChartController chartController;
   private CanvasData canvasData;
-  private final RoastStateMachine roastStateMachine = new RoastStateMachine();
+  private RoastStateMachine roastStateMachine;
   private SamplingConfig samplingConfig;
   private SerialPortConfig serialPortConfig;
   private ModbusPortConfig modbusPortConfig;
@@ -145,6 +147,8 @@ public final class MainWindow extends Application {
   private S7Config s7Config;
   private AillioR1Config aillioR1Config;
   private CommController commController;
+  private final SampleRingBuffer sampleBuffer = new SampleRingBuffer();
+  private AnimationTimer samplePump;
   private AppShell appShell;
   private DemoRunner demoRunner;
   private PreferencesStore preferencesStore;
@@ -197,6 +201,7 @@ public final class MainWindow extends Application {
     appController.setFileSession(fileSession);
     appController.setAutoSave(autoSave);
     appController.setSamplingConfig(samplingConfig);
+    roastStateMachine = appController.getEngine().getStateMachine();
 
     serialPortConfig = new SerialPortConfig();
     SerialPortConfig.loadFromPreferences(serialPortConfig);
@@ -216,8 +221,7 @@ public final class MainWindow extends Application {
     DeviceChannel defaultChannel = DeviceManager.createChannel(
         deviceConfig.getActiveType(), serialPortConfig, modbusPortConfig);
     commController.setChannel(defaultChannel);
-    commController.setOnSample(result -> Platform.runLater(() ->
-        appController.acceptSampleFromComm(commController.getElapsedMs() / 1000.0, result.bt(), result.et())));
+    commController.setSampleBuffer(sampleBuffer);
     commController.setOnError(() -> Platform.runLater(() -> {
       if (statusBar != null) statusBar.setText("Device error");
     }));
@@ -228,14 +232,14 @@ public final class MainWindow extends Application {
     appController.setStatisticsUpdateConsumer(update -> statisticsPanel.update(
         update.getStats(), update.getPhase(), update.getDtr(), update.getAuc(), update.getAucBaseTempC()));
 
-    appController.setOnSampleConsumer(s -> Platform.runLater(() -> {
-      roastStateMachine.onSample(s.timeSec(), s.bt());
-      if (appController.getChartController() != null) {
-        appController.getChartController().onSample(s.timeSec(), s.bt(), s.et());
+    appController.setOnSampleConsumer(s -> Platform.runLater(() -> appController.recordSample(s)));
+    samplePump = new AnimationTimer() {
+      @Override
+      public void handle(long now) {
+        appController.drainSamples(sampleBuffer);
       }
-      appController.afterSample(s);
-      appController.notifySampleListeners(s);
-    }));
+    };
+    samplePump.start();
 
     statusBarComponent = new StatusBar();
     appController.addSampleListener((bt, et, rorBT, rorET, timeSec) -> {
@@ -243,17 +247,6 @@ public final class MainWindow extends Application {
       statusBarComponent.setState(appController.getCurrentState());
     });
 
-    appController.setMarkEventCallback(label -> {
-      var cd = appController.getSession().getCanvasData();
-      var timex = cd.getTimex();
-      if (timex.isEmpty()) return;
-      int idx = timex.size() - 1;
-      double temp = idx < cd.getTemp2().size() ? cd.getTemp2().get(idx) : 0.0;
-      appController.getSession().getEvents().add(new EventEntry(idx, temp, label != null ? label : "Event", EventType.CUSTOM));
-      fileSession.markDirty();
-      if (appController.getChartController() != null) appController.getChartController().updateChart();
-    });
-
     appController.setBurnerCallback(pct -> {
       String msg = String.format("Burner: %.0f%%", pct);
       if (statusBar != null) statusBar.setText(msg);
@@ -345,7 +338,7 @@ public final class MainWindow extends Application {
     MenuItem qrCodeItem = new MenuItem("QR Code...");
     qrCodeItem.setOnAction(e -> new QrCodeDialog(stage, appController).show());
     MenuItem logViewerItem = new MenuItem("Open Log Viewer");
-    logViewerItem.setOnAction(e -> new LogViewer(stage).show());
+    logViewerItem.setOnAction(e -> new LogViewer(stage, commController).show());
     MenuItem githubItem = new MenuItem("GitHub Repository");
     githubItem.setOnAction(e -> {
       try {
@@ -386,8 +379,11 @@ public final class MainWindow extends Application {
     appShell.getRoastLiveScreen().setRoastStateMachine(roastStateMachine);
     applyRoastStateMachineFromAppSettings();
 
-    roastStateMachine.setOnAutoCharge(
-        () -> Platform.runLater(this::handleAutoCharge));
+    // Replaces the engine's default (mark CHARGE) handler; runs on the FX thread while recording.
+    roastStateMachine.setOnAutoCharge(() -> {
+      appController.markEvent(EventType.CHARGE);
+      Platform.runLater(this::handleAutoCharge);
+    });
     roastStateMachine.setOnPreRoastTimeout(
         () -> Platform.runLater(this::handlePreRoastTimeout));
 
@@ -435,6 +431,8 @@ public final class MainWindow extends Application {
         }
       }
       appController.stopSampling();
+      appController.finishJournal();
+      if (samplePump != null) samplePump.stop();
       if (appShell != null) appShell.shutdownWebLcd();
       if (demoRunner != null) demoRunner.stop();
       if (appShell != null && appShell.getRoastLiveScreen() != null) {
@@ -442,6 +440,7 @@ public final class MainWindow extends Application {
         appShell.getRoastLiveScreen().closeDetachedPanels();
       }
       autoSave.stop();
+      autoSave.awaitWrites(5, TimeUnit.SECONDS);
       appSettings.save();
       org.artisan.Launcher.releaseLock();
       Platform.exit();
@@ -451,6 +450,7 @@ public final class MainWindow extends Application {
       if (appShell != null && appShell.getRoastLiveScreen() != null) {
         appShell.getRoastLiveScreen().restoreDetachedPanels();
       }
+      offerJournalRecovery();
     });
   }
 
@@ -492,7 +492,7 @@ public final class MainWindow extends Application {
     MenuItem largeLcdsItem = new MenuItem("Large LCDs...");
     largeLcdsItem.setOnAction(e -> new LargeLCDsDialog(primaryStage, appController).show());
     MenuItem logViewerItem = new MenuItem("Log Viewer...");
-    logViewerItem.setOnAction(e -> new LogViewer(primaryStage).show());
+    logViewerItem.setOnAction(e -> new LogViewer(primaryStage, commController).show());
     viewMenu.getItems().addAll(largeLcdsItem, logViewerItem, new SeparatorMenuItem());
     MenuItem fullScreenItem = new MenuItem("Full Screen");
     fullScreenItem.setOnAction(e -> primaryStage.setFullScreen(!primaryStage.isFullScreen()));
@@ -823,6 +823,32 @@ public final class MainWindow extends Application {
     }
   }
 
+  /** Offers to recover a roast whose journal survived a crash (newest first; one per start). */
+  private void offerJournalRecovery() {
+    List<Path> journals = SampleJournal.findUnfinished(AutoSave.journalDirectory());
+    if (journals.isEmpty()) return;
+    Path latest = journals.get(journals.size() - 1);
+    Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+    alert.setTitle("Recover roast");
+    alert.setHeaderText("An unfinished recording was found");
+    alert.setContentText("The previous session ended before the roast was saved ("
+        + latest.getFileName() + "). Recover it?");
+    ButtonType recover = new ButtonType("Recover");
+    ButtonType discard = new ButtonType("Discard");
+    alert.getButtonTypes().setAll(recover, discard, ButtonType.CANCEL);
+    ButtonType choice = alert.showAndWait().orElse(ButtonType.CANCEL);
+    try {
+      if (choice == recover) {
+        Path saved = appController.recoverJournal(latest);
+        appController.notifyUser("Recovered roast saved to " + saved, NotificationLevel.INFO);
+      } else if (choice == discard) {
+        SampleJournal.discard(latest);
+      }
+    } catch (IOException ex) {
+      appController.notifyUser("Recovery failed: " + ex.getMessage(), NotificationLevel.ERROR);
+    }
+  }
+
   private void openAutoSaveDialog(BorderPane root) {
     Window owner = root.getScene() != null ? root.getScene().getWindow() : null;
     if (owner == null) return;
@@ -1201,13 +1227,6 @@ public final class MainWindow extends Application {
   }
 
   private void handleAutoCharge() {
-    if (canvasData == null) return;
-    java.util.List<Double> timex = canvasData.getTimex();
-    int chargeIdx = timex.size() - 1;
-    if (chargeIdx >= 0) {
-      canvasData.setChargeIndex(chargeIdx);
-      if (chartController != null) chartController.resetLiveRor();
-    }
     setTimerRoastingMode();
     if (appController != null) {
       appController.notifyUser("CHARGE detected", NotificationLevel.INFO);
@@ -1225,7 +1244,7 @@ public final class MainWindow extends Application {
       if (btn == javafx.scene.control.ButtonType.OK) {
         stopRecording();
         roastStateMachine.reset();
-        if (canvasData != null) canvasData.clear();
+        appController.getEngine().reset();
         if (chartController != null) chartController.updateChart();
       }
     });
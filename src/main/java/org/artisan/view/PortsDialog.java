@@ -26,6 +26,8 @@ import org.artisan.device.DeviceException;
 import org.artisan.device.DeviceManager;
 import org.artisan.device.ModbusDeviceChannel;
 import org.artisan.device.ModbusPortConfig;
+import org.artisan.device.ModbusReadPlan;
+import org.artisan.device.ModbusRegisterSpec;
 import org.artisan.device.SerialDeviceChannel;
 import org.artisan.device.SerialPortConfig;
 
@@ -64,6 +66,10 @@ public final class PortsDialog extends ArtisanDialog {
     private Spinner<Integer> btRegSpinner;
     private Spinner<Integer> etRegSpinner;
     private Spinner<Double> scaleSpinner;
+    private ComboBox<String> functionCodeCombo;
+    private TextField extraChannelsField;
+    private Spinner<Integer> pipelineDepthSpinner;
+    private Spinner<Integer> maxGapSpinner;
 
     private TextField bleAddressField;
     private TextField bleServiceUuidField;
@@ -200,6 +206,17 @@ public final class PortsDialog extends ArtisanDialog {
         etRegSpinner.setEditable(true);
         scaleSpinner = new Spinner<>(new SpinnerValueFactory.DoubleSpinnerValueFactory(0.001, 10.0, modbusConfig.getScale(), 0.001));
         scaleSpinner.setEditable(true);
+        functionCodeCombo = new ComboBox<>();
+        functionCodeCombo.getItems().addAll("3 - Holding registers", "4 - Input registers");
+        functionCodeCombo.getSelectionModel().select(modbusConfig.getFunctionCode() == 4 ? 1 : 0);
+        extraChannelsField = new TextField(ModbusRegisterSpec.format(modbusConfig.getExtraChannels()));
+        extraChannelsField.setPromptText("name,slave,fc,register,scale;... (e.g. Burner,1,3,10,1.0)");
+        pipelineDepthSpinner = new Spinner<>(new SpinnerValueFactory.IntegerSpinnerValueFactory(1,
+            ModbusPortConfig.MAX_PIPELINE_DEPTH, modbusConfig.getPipelineDepth(), 1));
+        pipelineDepthSpinner.setEditable(true);
+        maxGapSpinner = new Spinner<>(new SpinnerValueFactory.IntegerSpinnerValueFactory(-1,
+            ModbusReadPlan.MAX_READ_REGISTERS, modbusConfig.getMaxGap(), 1));
+        maxGapSpinner.setEditable(true);
 
         Button testModbusBtn = new Button("Test Connection");
         testModbusBtn.setOnAction(e -> testModbusConnection());
@@ -221,6 +238,14 @@ public final class PortsDialog extends ArtisanDialog {
         grid.add(etRegSpinner, 1, row++);
         grid.add(new Label("Scale:"), 0, row);
         grid.add(scaleSpinner, 1, row++);
+        grid.add(new Label("Function code:"), 0, row);
+        grid.add(functionCodeCombo, 1, row++);
+        grid.add(new Label("Extra channels:"), 0, row);
+        grid.add(extraChannelsField, 1, row++);
+        grid.add(new Label("TCP pipeline depth:"), 0, row);
+        grid.add(pipelineDepthSpinner, 1, row++);
+        grid.add(new Label("Max register gap (-1 = auto):"), 0, row);
+        grid.add(maxGapSpinner, 1, row++);
         grid.add(testModbusBtn, 0, row++, 2, 1);
         return new VBox(8, grid);
     }
@@ -301,6 +326,10 @@ public final class PortsDialog extends ArtisanDialog {
         if (btRegSpinner != null) modbusConfig.setBtRegister(btRegSpinner.getValue());
         if (etRegSpinner != null) modbusConfig.setEtRegister(etRegSpinner.getValue());
         if (scaleSpinner != null) modbusConfig.setScale(scaleSpinner.getValue());
+        if (functionCodeCombo != null) modbusConfig.setFunctionCode(functionCodeCombo.getSelectionModel().getSelectedIndex() == 1 ? 4 : 3);
+        if (extraChannelsField != null) modbusConfig.setExtraChannels(ModbusRegisterSpec.parse(extraChannelsField.getText()));
+        if (pipelineDepthSpinner != null) modbusConfig.setPipelineDepth(pipelineDepthSpinner.getValue());
+        if (maxGapSpinner != null) modbusConfig.setMaxGap(maxGapSpinner.getValue());
     }
 
     private void syncBleFromUi() {
@@ -1,6 +1,5 @@
 package org.artisan.view;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiConsumer;
 
@@ -10,9 +9,10 @@ import javafx.scene.paint.Color;
 
 import org.artisan.controller.BackgroundSettings;
 import org.artisan.controller.DisplaySettings;
+import org.artisan.controller.LatencyHistogram;
+import org.artisan.controller.MetricsRegistry;
 import org.artisan.model.*;
 import org.artisan.ui.state.ChartAppearance;
-import org.artisan.util.CurveSmoothing;
 import org.artisan.view.chart.*;
 
 import io.fair_acc.chartfx.XYChart;
@@ -29,10 +29,11 @@ import io.fair_acc.dataset.spi.DoubleDataSet;
 public final class RoastChartController {
 
     private static final int DEFAULT_ROR_SMOOTHING = 5;
+    private static final LatencyHistogram FRAME_TIMES = MetricsRegistry.getDefault()
+        .timer("artisan_chart_frame_seconds", "Duration of RoastChartController.updateChart()");
 
     private final ChartFactory chartFactory;
     private final CanvasData canvasData;
-    private final RorCalculator rorCalculator;
     private final ColorConfig colorConfig;
     private final AxisConfig axisConfig;
 
@@ -40,11 +41,16 @@ public final class RoastChartController {
     private RoastOverlayCanvas overlay;
 
     private DisplaySettings displaySettings;
-    private LiveRorCalculator liveRorET;
-    private LiveRorCalculator liveRorBT;
     private PhasesConfig phasesConfig;
     private CurveSet curveSet;
 
+    private final LiveCurveBuffer curves = new LiveCurveBuffer();
+    private final RunningRange tempRange = new RunningRange();
+    private final RunningRange rorRange = new RunningRange();
+    private double tempRangeXMin = Double.NaN;
+    private double tempRangeXMax = Double.NaN;
+    private int renderedCount;
+
     private boolean chartDirty = false;
     private boolean liveRecording = false;
     private boolean zoomFollow = true;
@@ -72,12 +78,9 @@ public final class RoastChartController {
 
     public RoastChartController(CanvasData canvasData, ColorConfig colorConfig, AxisConfig axisConfig, DisplaySettings displaySettings) {
         this.canvasData = canvasData;
-        this.rorCalculator = new RorCalculator();
         this.colorConfig = colorConfig != null ? colorConfig : new ColorConfig(ColorConfig.Theme.DARK);
         this.axisConfig = axisConfig != null ? axisConfig : new AxisConfig();
         this.displaySettings = displaySettings;
-        this.liveRorET = new LiveRorCalculator(getLiveRorWindow());
-        this.liveRorBT = new LiveRorCalculator(getLiveRorWindow());
 
         chartFactory = new ChartFactory(this.axisConfig);
 
@@ -99,10 +102,6 @@ public final class RoastChartController {
         applyGlowEffect();
     }
 
-    private int getLiveRorWindow() {
-        return displaySettings != null ? displaySettings.getSmoothingDelta() : DEFAULT_ROR_SMOOTHING;
-    }
-
     // ── Public API (backward-compatible) ──────────────────────────────
 
     public Node getView() {
@@ -143,10 +142,9 @@ public final class RoastChartController {
 
     public void setDisplaySettings(DisplaySettings ds) {
         this.displaySettings = ds;
-        this.liveRorET = new LiveRorCalculator(getLiveRorWindow());
-        this.liveRorBT = new LiveRorCalculator(getLiveRorWindow());
         overlay.setDisplaySettings(ds);
         bgManager.setDisplaySettings(ds);
+        curves.invalidate();
         applyColors();
         applyAxisConfig(axisConfig);
     }
@@ -161,6 +159,7 @@ public final class RoastChartController {
         bgManager.setBackgroundSettings(bs);
         bgManager.syncDatasetsInChart();
         applyColors();
+        curves.invalidate();
     }
 
     public BackgroundSettings getBackgroundSettings() {
@@ -172,6 +171,7 @@ public final class RoastChartController {
         bgManager.setBackgroundProfile(bp);
         bgManager.syncDatasetsInChart();
         applyColors();
+        curves.invalidate();
     }
 
     public BackgroundProfile getBackgroundProfile() {
@@ -317,6 +317,13 @@ public final class RoastChartController {
     // ── Axis Config ───────────────────────────────────────────────────
 
     public void applyAxisConfig(AxisConfig cfg) {
+        tempRange.reset();
+        rorRange.reset();
+        applyAxisConfigIncremental(cfg);
+    }
+
+    /** Applies the config and auto-scales from running extremes; only unseen samples are scanned. */
+    private void applyAxisConfigIncremental(AxisConfig cfg) {
         if (cfg == null) return;
         chartFactory.applyAxisConfig(cfg);
         if (cfg.isAutoScaleY()) {
@@ -328,23 +335,23 @@ public final class RoastChartController {
     }
 
     private void autoScaleTempAxis(AxisConfig cfg) {
-        List<Double> timex = canvasData.getTimex();
-        List<Double> temp1 = canvasData.getTemp1();
-        List<Double> temp2 = canvasData.getTemp2();
+        DoubleColumn.View timex = canvasData.getTimexView();
+        DoubleColumn.View temp1 = canvasData.getTemp1View();
+        DoubleColumn.View temp2 = canvasData.getTemp2View();
         double xMin = cfg.getTimeMinSec(), xMax = cfg.getTimeMaxSec();
-        double dataMin = Double.POSITIVE_INFINITY, dataMax = Double.NEGATIVE_INFINITY;
-        for (int i = 0; i < timex.size(); i++) {
+        if (xMin != tempRangeXMin || xMax != tempRangeXMax || timex.size() < tempRange.scanned) {
+            tempRange.reset();
+            tempRangeXMin = xMin;
+            tempRangeXMax = xMax;
+        }
+        for (int i = tempRange.scanned; i < timex.size(); i++) {
             double t = timex.get(i);
             if (t < xMin || t > xMax) continue;
-            if (temp1 != null && i < temp1.size()) {
-                double v = temp1.get(i);
-                if (Double.isFinite(v)) { dataMin = Math.min(dataMin, v); dataMax = Math.max(dataMax, v); }
-            }
-            if (temp2 != null && i < temp2.size()) {
-                double v = temp2.get(i);
-                if (Double.isFinite(v)) { dataMin = Math.min(dataMin, v); dataMax = Math.max(dataMax, v); }
-            }
+            if (i < temp1.size()) tempRange.accept(temp1.get(i));
+            if (i < temp2.size()) tempRange.accept(temp2.get(i));
         }
+        tempRange.scanned = timex.size();
+        double dataMin = tempRange.min, dataMax = tempRange.max;
         if (!Double.isFinite(dataMin) || !Double.isFinite(dataMax)) return;
         dataMin -= 10;
         dataMax += 10;
@@ -357,19 +364,43 @@ public final class RoastChartController {
     }
 
     private void autoScaleRorAxis() {
-        List<Double> delta1 = canvasData.getDelta1();
-        List<Double> delta2 = canvasData.getDelta2();
-        double dataMin = Double.POSITIVE_INFINITY, dataMax = Double.NEGATIVE_INFINITY;
-        for (List<Double> dl : List.of(delta1, delta2)) {
-            for (Double v : dl) {
-                if (v != null && Double.isFinite(v)) {
-                    dataMin = Math.min(dataMin, v);
-                    dataMax = Math.max(dataMax, v);
-                }
-            }
+        DoubleColumn.View delta1 = canvasData.getDelta1View();
+        DoubleColumn.View delta2 = canvasData.getDelta2View();
+        if (delta1.size() < rorRange.scanned || delta2.size() < rorRange.scanned2) {
+            rorRange.reset();
+        }
+        for (int i = rorRange.scanned; i < delta1.size(); i++) rorRange.accept(delta1.get(i));
+        for (int i = rorRange.scanned2; i < delta2.size(); i++) rorRange.accept(delta2.get(i));
+        rorRange.scanned = delta1.size();
+        rorRange.scanned2 = delta2.size();
+        if (Double.isFinite(rorRange.min) && Double.isFinite(rorRange.max)) {
+            chartFactory.autoScaleRor(rorRange.min, rorRange.max);
         }
-        if (Double.isFinite(dataMin) && Double.isFinite(dataMax)) {
-            chartFactory.autoScaleRor(dataMin, dataMax);
+    }
+
+    /** Running min/max of finite values plus how many samples have been folded in. */
+    private static final class RunningRange {
+        double min;
+        double max;
+        int scanned;
+        int scanned2;
+
+        RunningRange() {
+            reset();
+        }
+
+        void reset() {
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+            scanned = 0;
+            scanned2 = 0;
+        }
+
+        void accept(double v) {
+            if (Double.isFinite(v)) {
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
         }
     }
 
@@ -390,86 +421,100 @@ public final class RoastChartController {
     }
 
     /**
-     * Refreshes the entire chart from CanvasData. Call on JavaFX thread.
+     * Forces the next {@link #updateChart()} to rebuild all curves from CanvasData
+     * (call after loading or replacing a profile).
+     */
+    public void requestFullRebuild() {
+        curves.invalidate();
+        tempRange.reset();
+        rorRange.reset();
+    }
+
+    /**
+     * Refreshes the chart from CanvasData. Call on JavaFX thread.
+     * <p>
+     * Append-only: samples added since the previous call are pushed to the datasets, and only
+     * the trailing smoothing window of existing points is rewritten, so the cost per frame does
+     * not grow with roast length. Curves are rebuilt from scratch on the first call, after
+     * {@link #requestFullRebuild()}, on smoothing/unit changes, or when CanvasData was replaced.
      */
     public void updateChart() {
-        List<Double> timex = canvasData.getTimex();
-        List<Double> temp1 = canvasData.getTemp1();
-        List<Double> temp2 = canvasData.getTemp2();
+        long start = System.nanoTime();
+        try {
+            render();
+        } finally {
+            FRAME_TIMES.record(System.nanoTime() - start);
+        }
+    }
 
-        int n = timex.size();
+    private void render() {
+        int n = canvasData.size();
         if (n == 0) {
             chartFactory.getDataBT().clearData();
             chartFactory.getDataET().clearData();
             chartFactory.getDataDeltaBT().clearData();
             chartFactory.getDataDeltaET().clearData();
             bgManager.clearData();
+            curves.invalidate();
+            renderedCount = 0;
             return;
         }
 
-        List<Double> etList = temp1;
-        List<Double> btList = temp2;
         int smoothDelta = displaySettings != null ? displaySettings.getSmoothingDelta() : DEFAULT_ROR_SMOOTHING;
-        List<Double> d1List = rorCalculator.computeRoRSmoothed(timex, temp1, smoothDelta);
-        List<Double> d2List = rorCalculator.computeRoRSmoothed(timex, temp2, smoothDelta);
-        RorCalculator.clampRoR(d1List, RorCalculator.DEFAULT_MIN_ROR, RorCalculator.DEFAULT_MAX_ROR);
-        RorCalculator.clampRoR(d2List, RorCalculator.DEFAULT_MIN_ROR, RorCalculator.DEFAULT_MAX_ROR);
-        if (displaySettings != null) {
-            int smoothET = displaySettings.getSmoothingET();
-            int smoothBT = displaySettings.getSmoothingBT();
-            if (smoothET > 1) etList = CurveSmoothing.smooth(temp1, smoothET);
-            if (smoothBT > 1) btList = CurveSmoothing.smooth(temp2, smoothBT);
-        }
-
-        double[] tx = new double[n];
-        double[] et = new double[n];
-        double[] bt = new double[n];
-        double[] d1 = new double[n];
-        double[] d2 = new double[n];
-        for (int i = 0; i < n; i++) {
-            tx[i] = timex.get(i);
-            double etVal = i < etList.size() ? etList.get(i) : 0;
-            double btVal = i < btList.size() ? btList.get(i) : 0;
-            et[i] = (etVal == -1) ? Double.NaN : etVal;
-            bt[i] = (btVal == -1) ? Double.NaN : btVal;
-            d1[i] = i < d1List.size() ? d1List.get(i) : 0;
-            d2[i] = i < d2List.size() ? d2List.get(i) : 0;
-        }
-
+        int smoothET = displaySettings != null ? displaySettings.getSmoothingET() : 1;
+        int smoothBT = displaySettings != null ? displaySettings.getSmoothingBT() : 1;
         boolean useF = axisConfig.getUnit() == AxisConfig.TemperatureUnit.FAHRENHEIT;
-        if (useF) {
-            for (int i = 0; i < n; i++) {
-                if (Double.isFinite(et[i])) et[i] = AxisConfig.celsiusToFahrenheit(et[i]);
-                if (Double.isFinite(bt[i])) bt[i] = AxisConfig.celsiusToFahrenheit(bt[i]);
-            }
+        int from = curves.sync(canvasData, smoothDelta, smoothET, smoothBT, useF);
+        n = curves.size();
+
+        double[] tx = curves.timex();
+        double[] et = curves.etDisplay();
+        double[] bt = curves.btDisplay();
+        double[] d1 = curves.rorEt();
+        double[] d2 = curves.rorBt();
+        boolean full = curves.wasFullRebuild();
+        if (full) {
+            chartFactory.getDataET().set(tx, et, n, true);
+            chartFactory.getDataBT().set(tx, bt, n, true);
+            chartFactory.getDataDeltaET().set(tx, d1, n, true);
+            chartFactory.getDataDeltaBT().set(tx, d2, n, true);
+        } else if (from < n) {
+            appendTail(chartFactory.getDataET(), tx, et, from, n);
+            appendTail(chartFactory.getDataBT(), tx, bt, from, n);
+            appendTail(chartFactory.getDataDeltaET(), tx, d1, from, n);
+            appendTail(chartFactory.getDataDeltaBT(), tx, d2, from, n);
         }
+        renderedCount = n;
 
-        chartFactory.getDataET().set(tx, et);
-        chartFactory.getDataBT().set(tx, bt);
-        chartFactory.getDataDeltaET().set(tx, d1);
-        chartFactory.getDataDeltaBT().set(tx, d2);
-
-        if (canvasData.getChargeIndex() >= 0 && canvasData.getChargeIndex() < timex.size()) {
-            chartFactory.setChargeTimeSec((int) Math.round(timex.get(canvasData.getChargeIndex())));
+        int chargeIdx = canvasData.getChargeIndex();
+        if (chargeIdx >= 0 && chargeIdx < n) {
+            chartFactory.setChargeTimeSec((int) Math.round(tx[chargeIdx]));
         }
 
-        applyAxisConfig(axisConfig);
-
-        List<Double> etDisplay = new ArrayList<>(n);
-        List<Double> btDisplay = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            etDisplay.add(et[i]);
-            btDisplay.add(bt[i]);
+        if (full) {
+            applyAxisConfig(axisConfig);
+        } else {
+            applyAxisConfigIncremental(axisConfig);
         }
 
-        overlay.redraw(timex, btDisplay, etDisplay, d2List);
-        bgManager.updateData();
+        List<Double> timex = curves.asList(tx);
+        overlay.redraw(timex, curves.asList(bt), curves.asList(et), curves.asList(d2));
+        if (full) {
+            bgManager.updateData();
+        }
 
         if (liveRecording && zoomFollow && n > 0) {
             autoScrollXAxis(timex);
         }
     }
 
+    /** Rewrites points {@code [from, renderedCount)} in place and appends {@code [renderedCount, n)}. */
+    private void appendTail(DoubleDataSet ds, double[] x, double[] y, int from, int n) {
+        int rendered = Math.min(renderedCount, ds.getDataCount());
+        for (int i = from; i < rendered; i++) ds.set(i, x[i], y[i]);
+        for (int i = rendered; i < n; i++) ds.add(x[i], y[i]);
+    }
+
     private void autoScrollXAxis(List<Double> timex) {
         double latest = timex.get(timex.size() - 1);
         double xMin = chartFactory.getXAxis().getMin();
@@ -508,25 +553,4 @@ public final class RoastChartController {
             updateTimer = null;
         }
     }
-
-    // ── Live Sampling ─────────────────────────────────────────────────
-
-    public void onSample(double timeSec, double bt, double et) {
-        canvasData.addDataPoint(timeSec, bt, et);
-        double rorET = liveRorET.addSample(timeSec, et);
-        double rorBT = liveRorBT.addSample(timeSec, bt);
-        canvasData.addDelta1(clamp(rorET, RorCalculator.DEFAULT_MIN_ROR, RorCalculator.DEFAULT_MAX_ROR));
-        canvasData.addDelta2(clamp(rorBT, RorCalculator.DEFAULT_MIN_ROR, RorCalculator.DEFAULT_MAX_ROR));
-        markDirty();
-    }
-
-    public void resetLiveRor() {
-        liveRorET.reset();
-        liveRorBT.reset();
-    }
-
-    private static double clamp(double v, double min, double max) {
-        if (!Double.isFinite(v)) return 0.0;
-        return Math.max(min, Math.min(max, v));
-    }
 }
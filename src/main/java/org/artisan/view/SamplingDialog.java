@@ -13,9 +13,11 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Window;
 
 import org.artisan.model.SamplingConfig;
+import org.artisan.model.SamplingConfig.Channel;
 
 /**
- * Config » Sampling dialog: interval, oversampling, spike filter.
+ * Config » Sampling dialog: interval, oversampling, spike filter and per-channel conditioning
+ * (spike gate, median window, low-pass cutoff, °F input).
  * OK/Apply: save to SamplingConfig (Preferences "sampling.*") and restart sampling timer if running.
  */
 public final class SamplingDialog extends ArtisanDialog {
@@ -27,6 +29,11 @@ public final class SamplingDialog extends ArtisanDialog {
     private Spinner<Integer> oversamplingSpinner;
     private CheckBox filterSpikesCheck;
     private Spinner<Double> spikeThresholdSpinner;
+    // Per channel, indexed by Channel.ordinal()
+    private final CheckBox[] spikeGateChecks = new CheckBox[Channel.values().length];
+    private final Spinner<Integer>[] medianSpinners = newSpinners(Channel.values().length);
+    private final Spinner<Double>[] lowpassSpinners = newSpinners(Channel.values().length);
+    private final CheckBox[] fahrenheitChecks = new CheckBox[Channel.values().length];
 
     public SamplingDialog(Window owner, SamplingConfig config, Runnable onApply) {
         super(owner, true, true);
@@ -63,12 +70,32 @@ public final class SamplingDialog extends ArtisanDialog {
         grid.add(new Label("Spike threshold (°C/s):"), 0, row);
         grid.add(spikeThresholdSpinner, 1, row++);
 
+        GridPane channels = new GridPane();
+        channels.setHgap(10);
+        channels.setVgap(8);
+        channels.addRow(0, new Label(""), new Label("Spike gate"), new Label("Median (samples)"),
+                new Label("Low-pass (Hz, 0 = off)"), new Label("Input in °F"));
+        for (Channel ch : Channel.values()) {
+            int i = ch.ordinal();
+            spikeGateChecks[i] = new CheckBox();
+            medianSpinners[i] = new Spinner<>(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+                    1, SamplingConfig.MAX_MEDIAN_WINDOW, 1, 2));
+            medianSpinners[i].setEditable(true);
+            lowpassSpinners[i] = new Spinner<>(new SpinnerValueFactory.DoubleSpinnerValueFactory(
+                    0.0, SamplingConfig.MAX_LOWPASS_HZ, 0.0, 0.05));
+            lowpassSpinners[i].setEditable(true);
+            fahrenheitChecks[i] = new CheckBox();
+            channels.addRow(i + 1, new Label(ch.name()), spikeGateChecks[i], medianSpinners[i],
+                    lowpassSpinners[i], fahrenheitChecks[i]);
+        }
+        syncChannelsFromConfig();
+
         Button restoreBtn = new Button("Restore Defaults");
         restoreBtn.setOnAction(e -> restoreDefaults());
         HBox bottom = new HBox(10, restoreBtn);
         bottom.setPadding(new Insets(8, 0, 0, 0));
 
-        VBox root = new VBox(10, grid, bottom);
+        VBox root = new VBox(10, grid, new Label("Signal conditioning per channel:"), channels, bottom);
         root.setPadding(new Insets(10));
         return root;
     }
@@ -78,6 +105,18 @@ public final class SamplingDialog extends ArtisanDialog {
         if (oversamplingSpinner != null) oversamplingSpinner.getValueFactory().setValue(config.getOversampling());
         if (filterSpikesCheck != null) filterSpikesCheck.setSelected(config.isFilterSpikes());
         if (spikeThresholdSpinner != null) spikeThresholdSpinner.getValueFactory().setValue(config.getSpikeThreshold());
+        syncChannelsFromConfig();
+    }
+
+    private void syncChannelsFromConfig() {
+        for (Channel ch : Channel.values()) {
+            int i = ch.ordinal();
+            if (spikeGateChecks[i] == null) continue;
+            spikeGateChecks[i].setSelected(config.isSpikeGate(ch));
+            medianSpinners[i].getValueFactory().setValue(config.getMedianWindow(ch));
+            lowpassSpinners[i].getValueFactory().setValue(config.getLowpassHz(ch));
+            fahrenheitChecks[i].setSelected(config.isFahrenheitInput(ch));
+        }
     }
 
     private void syncToConfig() {
@@ -85,6 +124,14 @@ public final class SamplingDialog extends ArtisanDialog {
         if (oversamplingSpinner != null) config.setOversampling(oversamplingSpinner.getValue());
         if (filterSpikesCheck != null) config.setFilterSpikes(filterSpikesCheck.isSelected());
         if (spikeThresholdSpinner != null) config.setSpikeThreshold(spikeThresholdSpinner.getValue());
+        for (Channel ch : Channel.values()) {
+            int i = ch.ordinal();
+            if (spikeGateChecks[i] == null) continue;
+            config.setSpikeGate(ch, spikeGateChecks[i].isSelected());
+            config.setMedianWindow(ch, medianSpinners[i].getValue());
+            config.setLowpassHz(ch, lowpassSpinners[i].getValue());
+            config.setFahrenheitInput(ch, fahrenheitChecks[i].isSelected());
+        }
     }
 
     private void restoreDefaults() {
@@ -92,6 +139,12 @@ public final class SamplingDialog extends ArtisanDialog {
         config.setOversampling(SamplingConfig.DEFAULT_OVERSAMPLING);
         config.setFilterSpikes(false);
         config.setSpikeThreshold(SamplingConfig.DEFAULT_SPIKE_THRESHOLD);
+        for (Channel ch : Channel.values()) {
+            config.setSpikeGate(ch, ch == Channel.BT);
+            config.setMedianWindow(ch, 1);
+            config.setLowpassHz(ch, 0.0);
+            config.setFahrenheitInput(ch, false);
+        }
         syncFromConfig();
     }
 
@@ -109,6 +162,11 @@ public final class SamplingDialog extends ArtisanDialog {
         onApply.run();
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> Spinner<T>[] newSpinners(int n) {
+        return (Spinner<T>[]) new Spinner<?>[n];
+    }
+
     @Override
     protected void onOk(javafx.event.ActionEvent e) {
         applyAndRedraw(false);
@@ -0,0 +1,200 @@
+package org.artisan.view.chart;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.artisan.model.AxisConfig;
+import org.artisan.model.CanvasData;
+import org.artisan.model.DoubleColumn;
+import org.artisan.model.RorCalculator;
+import org.artisan.util.CurveSmoothing;
+
+/**
+ * Primitive mirror of the main ET/BT curves as drawn by {@code RoastChartController}:
+ * display temperatures (optional smoothing, -1 → NaN, °F conversion) and clamped RoR
+ * (smoothed temps, {@link RorCalculator} window).
+ * <p>
+ * {@link #sync} pulls only the samples appended to {@link CanvasData} since the previous call.
+ * Centered smoothing of an appended sample only affects the trailing half-window, so each
+ * sync recomputes {@code O(appended + window)} values and reports the first index that
+ * changed. A full rebuild happens on the first sync, after {@link #invalidate()}, when the
+ * smoothing/unit settings change, when the canvas shrank, or when the last mirrored sample
+ * no longer matches the canvas (profile replaced). Output equals the full-series path
+ * ({@link CurveSmoothing#smooth} + {@link RorCalculator#computeRoRSmoothed} + clamp).
+ * <p>
+ * Not thread-safe; owned by the FX thread.
+ */
+public final class LiveCurveBuffer {
+
+    private static final int MIN_CAPACITY = 256;
+
+    private final RorCalculator rorCalculator = new RorCalculator();
+
+    private double[] timex = new double[0];
+    private double[] etRaw = timex;
+    private double[] btRaw = timex;
+    private double[] etRorSmooth = timex;
+    private double[] btRorSmooth = timex;
+    private double[] etDisplay = timex;
+    private double[] btDisplay = timex;
+    private double[] rorEt = timex;
+    private double[] rorBt = timex;
+    private int size;
+
+    private boolean valid;
+    private boolean lastSyncFull;
+    private int smoothDelta;
+    private int smoothEt;
+    private int smoothBt;
+    private boolean fahrenheit;
+
+    /** Forces the next {@link #sync} to rebuild everything (profile load, external edits). */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Brings the mirror up to date with {@code cd}.
+     *
+     * @param smoothDelta RoR smoothing / delta span (DisplaySettings smoothing delta)
+     * @param smoothEt    ET display smoothing window; &le; 1 = raw
+     * @param smoothBt    BT display smoothing window; &le; 1 = raw
+     * @param fahrenheit  convert display temperatures to °F
+     * @return first index whose mirrored values changed ({@code size()} if nothing changed)
+     */
+    public int sync(CanvasData cd, int smoothDelta, int smoothEt, int smoothBt, boolean fahrenheit) {
+        DoubleColumn.View t = cd.getTimexView();
+        DoubleColumn.View et = cd.getTemp1View();
+        DoubleColumn.View bt = cd.getTemp2View();
+        int n = Math.min(t.size(), Math.min(et.size(), bt.size()));
+
+        boolean full = !valid
+                || smoothDelta != this.smoothDelta || smoothEt != this.smoothEt || smoothBt != this.smoothBt
+                || fahrenheit != this.fahrenheit
+                || n < size
+                || (size > 0 && !sameSample(size - 1, t, et, bt));
+        lastSyncFull = full;
+        if (full) {
+            this.smoothDelta = smoothDelta;
+            this.smoothEt = smoothEt;
+            this.smoothBt = smoothBt;
+            this.fahrenheit = fahrenheit;
+            valid = true;
+            size = 0;
+        }
+        int old = size;
+        if (n == old) return n;
+
+        ensureCapacity(n);
+        t.copyTo(old, timex, old, n - old);
+        et.copyTo(old, etRaw, old, n - old);
+        bt.copyTo(old, btRaw, old, n - old);
+        size = n;
+
+        int rorFrom = CurveSmoothing.smoothAppended(etRaw, old, n, smoothDelta, etRorSmooth);
+        CurveSmoothing.smoothAppended(btRaw, old, n, smoothDelta, btRorSmooth);
+        rorCalculator.computeRoR(timex, etRorSmooth, n, smoothDelta, rorFrom, rorEt);
+        rorCalculator.computeRoR(timex, btRorSmooth, n, smoothDelta, rorFrom, rorBt);
+        clamp(rorEt, rorFrom, n);
+        clamp(rorBt, rorFrom, n);
+
+        int etFrom = display(etRaw, old, n, smoothEt, etDisplay);
+        int btFrom = display(btRaw, old, n, smoothBt, btDisplay);
+        return Math.min(rorFrom, Math.min(etFrom, btFrom));
+    }
+
+    /** True if the last {@link #sync} rebuilt the mirror from index 0. */
+    public boolean wasFullRebuild() {
+        return lastSyncFull;
+    }
+
+    public int size() { return size; }
+
+    // Backing arrays: valid up to size(), reallocated on growth (do not keep across syncs).
+
+    public double[] timex() { return timex; }
+
+    public double[] etDisplay() { return etDisplay; }
+
+    public double[] btDisplay() { return btDisplay; }
+
+    public double[] rorEt() { return rorEt; }
+
+    public double[] rorBt() { return rorBt; }
+
+    /** Read-only {@code List<Double>} over {@code array[0..size())} for overlay APIs. */
+    public List<Double> asList(double[] array) {
+        return new ArrayView(array, size);
+    }
+
+    private boolean sameSample(int i, DoubleColumn.View t, DoubleColumn.View et, DoubleColumn.View bt) {
+        return same(timex[i], t.get(i)) && same(etRaw[i], et.get(i)) && same(btRaw[i], bt.get(i));
+    }
+
+    private static boolean same(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+    private int display(double[] raw, int old, int n, int window, double[] out) {
+        int from = CurveSmoothing.smoothAppended(raw, old, n, window, out);
+        for (int i = from; i < n; i++) {
+            double v = out[i];
+            if (v == -1) {
+                out[i] = Double.NaN;
+            } else if (fahrenheit && Double.isFinite(v)) {
+                out[i] = AxisConfig.celsiusToFahrenheit(v);
+            }
+        }
+        return from;
+    }
+
+    private static void clamp(double[] ror, int from, int n) {
+        for (int i = from; i < n; i++) {
+            double v = ror[i];
+            if (Double.isFinite(v)) {
+                if (v < RorCalculator.DEFAULT_MIN_ROR) ror[i] = RorCalculator.DEFAULT_MIN_ROR;
+                else if (v > RorCalculator.DEFAULT_MAX_ROR) ror[i] = RorCalculator.DEFAULT_MAX_ROR;
+            }
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= timex.length) return;
+        int cap = Math.max(MIN_CAPACITY, Math.max(n, timex.length + (timex.length >> 1)));
+        timex = Arrays.copyOf(timex, cap);
+        etRaw = Arrays.copyOf(etRaw, cap);
+        btRaw = Arrays.copyOf(btRaw, cap);
+        etRorSmooth = Arrays.copyOf(etRorSmooth, cap);
+        btRorSmooth = Arrays.copyOf(btRorSmooth, cap);
+        etDisplay = Arrays.copyOf(etDisplay, cap);
+        btDisplay = Arrays.copyOf(btDisplay, cap);
+        rorEt = Arrays.copyOf(rorEt, cap);
+        rorBt = Arrays.copyOf(rorBt, cap);
+    }
+
+    private static final class ArrayView extends AbstractList<Double> implements RandomAccess {
+
+        private final double[] data;
+        private final int size;
+
+        ArrayView(double[] data, int size) {
+            this.data = data;
+            this.size = size;
+        }
+
+        @Override
+        public Double get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return data[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
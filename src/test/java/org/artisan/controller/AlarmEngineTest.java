@@ -144,4 +144,17 @@ class AlarmEngineTest {
         assertTrue(a.isTriggered());
         assertEquals(1, markEventCalls.size());
     }
+
+    @Test
+    void timeAfterCharge_withoutCharge_countsFromFirstSample() {
+        Alarm a = new Alarm(true, "T", AlarmCondition.TIME_AFTER_CHARGE, 10.0, AlarmAction.MARK_EVENT, "t", false, -1, false);
+        alarms.add(a);
+        ProfileData profile = emptyProfile();
+        profile.getTimex().add(30.0);
+        profile.getTimex().add(35.0);
+        engine.evaluate(35.0, 100.0, 100.0, 0.0, profile, null);
+        assertFalse(a.isTriggered());
+        engine.evaluate(40.0, 100.0, 100.0, 0.0, profile, null);
+        assertTrue(a.isTriggered());
+    }
 }
@@ -4,6 +4,7 @@ import org.artisan.model.AxisConfig;
 import org.artisan.model.CanvasData;
 import org.artisan.model.ColorConfig;
 import org.artisan.model.CurveSet;
+import org.artisan.model.EventType;
 import org.artisan.model.Roastlog;
 import org.artisan.model.Sampling;
 import org.artisan.device.DevicePort;
@@ -17,6 +18,8 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -124,12 +127,10 @@ class AppControllerTest {
     appController.onChargeButton();
     assertTrue(session.getCanvasData().getDryEndIndex() < 0);
 
-    session.getCanvasData().addDataPoint(1.0, 151.0, 120.0);
-    appController.afterSample(new Sample(1.0, 151.0, 120.0));
+    appController.recordSample(new Sample(1.0, 151.0, 120.0));
     assertEquals(1, session.getCanvasData().getDryEndIndex());
 
-    session.getCanvasData().addDataPoint(2.0, 160.0, 125.0);
-    appController.afterSample(new Sample(2.0, 160.0, 125.0));
+    appController.recordSample(new Sample(2.0, 160.0, 125.0));
     assertEquals(1, session.getCanvasData().getDryEndIndex());
   }
 
@@ -145,15 +146,48 @@ class AppControllerTest {
     session.start();
     session.getCanvasData().addDataPoint(0.0, 100.0, 80.0);
     appController.onChargeButton();
-    session.getCanvasData().addDataPoint(1.0, 180.0, 150.0);
+    appController.recordSample(new Sample(1.0, 180.0, 150.0));
     assertTrue(session.getCanvasData().getFcStartIndex() < 0);
 
-    session.getCanvasData().addDataPoint(2.0, 196.0, 200.0);
-    appController.afterSample(new Sample(2.0, 196.0, 200.0));
+    appController.recordSample(new Sample(2.0, 196.0, 200.0));
     assertEquals(2, session.getCanvasData().getFcStartIndex());
 
-    session.getCanvasData().addDataPoint(3.0, 210.0, 205.0);
-    appController.afterSample(new Sample(3.0, 210.0, 205.0));
+    appController.recordSample(new Sample(3.0, 210.0, 205.0));
     assertEquals(2, session.getCanvasData().getFcStartIndex());
   }
+
+  @Test
+  void drainSamples_runsAutoDryAtTheCrossingSampleInsideABatch() {
+    PhasesSettings phasesSettings = PhasesSettings.load();
+    phasesSettings.setAutoDRY(true);
+    phasesSettings.setDryEndTempC(150.0);
+    appController.setPhasesSettings(phasesSettings);
+    appController.setDisplaySettings(DisplaySettings.load());
+
+    session.start();
+    session.getCanvasData().addDataPoint(0.0, 100.0, 80.0);
+    appController.onChargeButton();
+    AtomicInteger batches = new AtomicInteger();
+    appController.addSampleListener((bt, et, rorBT, rorET, timeSec) -> batches.incrementAndGet());
+    SampleRingBuffer buffer = new SampleRingBuffer(16);
+    for (int i = 1; i <= 5; i++) {
+      buffer.offer(i, 140.0 + 5 * i, 200.0);
+    }
+    assertEquals(5, appController.drainSamples(buffer));
+    assertEquals(6, session.getCanvasData().size());
+    assertEquals(2, session.getCanvasData().getDryEndIndex(), "DRY at the crossing sample, not the batch end");
+    assertEquals(1, batches.get());
+  }
+
+  @Test
+  void markEventAt_notifiesEventListenersWithTheEngineEvent() {
+    session.start();
+    appController.recordSample(new Sample(0.0, 100.0, 80.0));
+    appController.recordSample(new Sample(1.0, 120.0, 90.0));
+    List<String> seen = new ArrayList<>();
+    appController.addEventListener((type, label, timeSec, bt) -> seen.add(type + "@" + timeSec + ":" + label));
+    appController.markEventAt(EventType.CHARGE, 1, null);
+    assertEquals(List.of("CHARGE@1.0:CHARGE"), seen);
+    assertEquals(1, session.getCanvasData().getChargeIndex());
+  }
 }
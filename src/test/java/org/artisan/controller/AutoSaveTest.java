@@ -1,6 +1,7 @@
 package org.artisan.controller;
 
 import org.artisan.model.ProfileData;
+import org.artisan.model.Roastlog;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -8,9 +9,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AutoSaveTest {
@@ -59,6 +62,7 @@ class AutoSaveTest {
         autoSave.start(() -> profile, () -> "test");
         autoSave.onDrop();
         autoSave.stop();
+        assertTrue(autoSave.awaitWrites(5, TimeUnit.SECONDS));
         long count = Files.list(dir).filter(p -> p.getFileName().toString().startsWith("autosave_") && p.getFileName().toString().endsWith(".alog")).count();
         assertTrue(count >= 1, "Expected at least one autosave file");
     }
@@ -97,4 +101,43 @@ class AutoSaveTest {
             throw new AssertionError(e);
         }
     }
+
+    @Test
+    void tick_capturesOnSessionThread_andWritesAtomically(@TempDir Path dir) throws Exception {
+        AutoSave autoSave = new AutoSave();
+        autoSave.setEnabled(true);
+        autoSave.setSavePath(dir.toString());
+        autoSave.setAddTimestamp(false);
+        RoastSession session = new RoastSession();
+        session.start();
+        session.getCanvasData().addDataPoint(0, 100, 200);
+        session.getCanvasData().addDataPoint(1, 101, 201);
+        session.markCharge(0);
+        List<Runnable> sessionThread = new ArrayList<>();
+        autoSave.start(() -> session.snapshot(1.0), () -> "live", sessionThread::add);
+        autoSave.runTickForTest();
+        assertEquals(1, sessionThread.size(), "capture is handed to the session thread");
+        assertEquals(0, Files.list(dir).count());
+        sessionThread.get(0).run();
+        session.getCanvasData().addDataPoint(2, 102, 202);
+        assertTrue(autoSave.awaitWrites(5, TimeUnit.SECONDS));
+        autoSave.stop();
+        Path saved = dir.resolve("autosave_live.alog");
+        assertEquals(List.of(saved), Files.list(dir).toList(), "no temporary file left behind");
+        assertEquals(2, Roastlog.load(saved).getTimex().size(), "snapshot taken before the third sample");
+    }
+
+    @Test
+    void saveSnapshot_retriesThenGivesUp(@TempDir Path dir) throws Exception {
+        AutoSave autoSave = new AutoSave();
+        autoSave.setSavePath(dir.toString());
+        autoSave.setAddTimestamp(false);
+        Path blocker = dir.resolve("autosave_x.alog");
+        Files.createDirectories(blocker.resolve("child"));
+        long retries = MetricsRegistry.getDefault().counter("artisan_autosave_retries_total", "").get();
+        assertNull(autoSave.saveSnapshot(profileWithCharge(), "x"));
+        assertEquals(retries + 2, MetricsRegistry.getDefault().counter("artisan_autosave_retries_total", "").get());
+        assertTrue(Files.isDirectory(blocker));
+        assertEquals(1, Files.list(dir).count());
+    }
 }
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -105,4 +106,45 @@ class CommControllerTest {
         Thread.sleep(300);
         assertFalse(commController.isRunning());
     }
+
+    /** Ticks are timed; a read slower than the interval shows up as overruns and late ticks. */
+    @Test
+    void timingStats_recordsTicksAndOverruns() throws InterruptedException {
+        AtomicInteger reads = new AtomicInteger();
+        DeviceChannel slowChannel = new DeviceChannel() {
+            @Override
+            public void open() {}
+            @Override
+            public void close() {}
+            @Override
+            public boolean isOpen() { return true; }
+            @Override
+            public SampleResult read() {
+                if (reads.incrementAndGet() == 3) {
+                    try {
+                        Thread.sleep(130);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return SampleResult.now(100.0, 80.0);
+            }
+            @Override
+            public String getDescription() { return "Slow"; }
+        };
+        commController.setChannel(slowChannel);
+        commController.setSampleBuffer(new SampleRingBuffer(64));
+        commController.start(0.05);
+        Thread.sleep(500);
+        commController.stop();
+        SamplingTimingStats stats = commController.getTimingStats();
+        assertEquals(50_000_000L, stats.getPeriodNanos());
+        assertTrue(stats.getTickCount() >= 5, "ticks: " + stats.getTickCount());
+        assertEquals(stats.getTickCount(), stats.getReadHistogram().getCount());
+        assertTrue(stats.getReadHistogram().getMaxNanos() >= 130_000_000L);
+        assertTrue(stats.getOverrunTicks() >= 1);
+        assertTrue(stats.getLateTicks() >= 1, "catch-up ticks after the slow read");
+        assertEquals(0, stats.getSkippedTicks());
+        assertTrue(stats.format().contains("interval error"));
+    }
 }
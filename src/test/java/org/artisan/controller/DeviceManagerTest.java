@@ -3,11 +3,15 @@ package org.artisan.controller;
 import org.artisan.device.DeviceChannel;
 import org.artisan.device.DeviceType;
 import org.artisan.device.ModbusPortConfig;
+import org.artisan.device.ModbusRegisterSpec;
+import org.artisan.device.ModbusSlaveSimulator;
 import org.artisan.device.NullDeviceChannel;
 import org.artisan.device.RoastSimulatorChannel;
+import org.artisan.device.SampleResult;
 import org.artisan.device.SerialDeviceChannel;
 import org.artisan.device.ModbusDeviceChannel;
 import org.artisan.device.SerialPortConfig;
+import org.artisan.model.RoastSimulator;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -54,6 +58,44 @@ class DeviceManagerTest {
         assertTrue(ch instanceof ModbusDeviceChannel);
     }
 
+    @Test
+    void createChannel_MODBUS_TCP_readsExtraChannelsWithConfiguredFunctionCodeAndPipeline() throws Exception {
+        RoastSimulator roast = new RoastSimulator();
+        roast.getConfig().setNoiseAmplitude(0);
+        // Input registers only: an FC3 read would fail.
+        ModbusSlaveSimulator sim = new ModbusSlaveSimulator(roast)
+            .map(1, ModbusRegisterSpec.FC_INPUT, 0, ModbusSlaveSimulator.Signal.BT, 10.0)
+            .map(1, ModbusRegisterSpec.FC_INPUT, 1, ModbusSlaveSimulator.Signal.ET, 10.0)
+            .map(1, ModbusRegisterSpec.FC_INPUT, 20, ModbusSlaveSimulator.Signal.ELAPSED, 1.0);
+        try (sim) {
+            ModbusPortConfig modbus = new ModbusPortConfig();
+            modbus.setHost("127.0.0.1");
+            modbus.setPort(sim.start(0));
+            modbus.setBtRegister(0);
+            modbus.setEtRegister(1);
+            modbus.setFunctionCode(ModbusRegisterSpec.FC_INPUT);
+            modbus.setExtraChannels(List.of(new ModbusRegisterSpec("Elapsed", 1, ModbusRegisterSpec.FC_INPUT, 20, 1.0)));
+            modbus.setPipelineDepth(4);
+            modbus.setMaxGap(0);
+
+            ModbusDeviceChannel ch = (ModbusDeviceChannel) DeviceManager.createChannel(DeviceType.MODBUS_TCP, null, modbus);
+            assertEquals(4, ch.getConfig().getPipelineDepth());
+            assertEquals(0, ch.getConfig().getMaxGap());
+            ch.open();
+            try {
+                SampleResult r = ch.read();
+                double t = sim.getSimulatedTime();
+                assertEquals(sim.valueAt(ModbusSlaveSimulator.Signal.BT, t), r.bt(), 1.0);
+                assertEquals(3, ch.getLastValueCount());
+                assertEquals(t, ch.getLastValue(2), 2.0);
+                // max gap 0 keeps register 20 out of the BT/ET block
+                assertEquals(2, ch.getReadPlan().getBlocks().size());
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
     @Test
     void listAvailable_excludesNone() {
         List<DeviceType> list = DeviceManager.listAvailable();
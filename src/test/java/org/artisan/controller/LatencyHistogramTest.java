@@ -0,0 +1,56 @@
+package org.artisan.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for LatencyHistogram.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguousAndMonotonic() {
+        int prev = -1;
+        for (long us = 0; us < 5_000_000; us += us < 1000 ? 1 : 997) {
+            int i = LatencyHistogram.index(us);
+            assertTrue(i >= prev, "index must not decrease at " + us);
+            assertTrue(LatencyHistogram.upperMicros(i) >= us, "upper edge below value at " + us);
+            prev = i;
+        }
+        for (int i = 1; i < 1500; i++) {
+            assertEquals(i, LatencyHistogram.index(LatencyHistogram.upperMicros(i - 1) + 1));
+        }
+    }
+
+    @Test
+    void percentilesWithinRelativeErrorOfExact() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) h.record(ms * 1_000_000L);
+        assertEquals(1000, h.getCount());
+        assertEquals(1_000_000L, h.getMinNanos());
+        assertEquals(1_000_000_000L, h.getMaxNanos());
+        assertEquals(500.5e6, h.getMeanNanos(), 1.0);
+        assertEquals(500e6, h.percentileNanos(0.5), 500e6 * 0.016);
+        assertEquals(990e6, h.percentileNanos(0.99), 990e6 * 0.016);
+        assertEquals(1_000_000_000L, h.percentileNanos(1.0));
+        assertTrue(h.percentileNanos(0.5) >= 500e6);
+    }
+
+    @Test
+    void countAtOrBelowAndReset() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(-5);
+        h.record(2_000_000L);
+        h.record(4_900_000L);
+        h.record(12_000_000L);
+        assertEquals(0, h.getMinNanos());
+        assertEquals(3, h.countAtOrBelow(5_000_000L));
+        assertEquals(4, h.countAtOrBelow(Long.MAX_VALUE));
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.percentileNanos(0.99));
+        assertEquals(0, h.getMaxNanos());
+    }
+}
@@ -0,0 +1,188 @@
+package org.artisan.controller;
+
+import org.artisan.model.Calculator;
+import org.artisan.model.CanvasData;
+import org.artisan.model.PhaseResult;
+import org.artisan.model.Phases;
+import org.artisan.model.PhasesConfig;
+import org.artisan.model.ProfileData;
+import org.artisan.model.RoastStats;
+import org.artisan.model.Statistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parity tests for LiveRoastAnalytics against the batch Statistics / Phases / Calculator path.
+ */
+class LiveRoastAnalyticsTest {
+
+    private static final double EPS = 1e-9;
+    private static final double AUC_BASE = 100.0;
+
+    /** Same shape as AppController.buildProfileData (timex/temp1/temp2 + 8-slot timeindex). */
+    private static ProfileData profile(CanvasData cd) {
+        ProfileData p = new ProfileData();
+        p.setTimex(new ArrayList<>(cd.getTimex()));
+        p.setTemp1(new ArrayList<>(cd.getTemp1()));
+        p.setTemp2(new ArrayList<>(cd.getTemp2()));
+        p.setTimeindex(Arrays.asList(cd.getChargeIndex(), cd.getDryEndIndex(), cd.getFcStartIndex(),
+                cd.getFcEndIndex(), 0, 0, cd.getDropIndex(), 0));
+        return p;
+    }
+
+    private static void assertParity(CanvasData cd, StatisticsUpdate live, PhasesConfig config) {
+        ProfileData p = profile(cd);
+        RoastStats stats = Statistics.compute(p);
+        PhaseResult phase = Phases.compute(p, config);
+        double dtr = Calculator.developmentTimeRatio(phase);
+        double auc = Calculator.areaUnderCurve(p, AUC_BASE);
+
+        RoastStats ls = live.getStats();
+        assertEquals(stats.isEmpty(), ls.isEmpty());
+        assertEquals(stats.getMeanBt(), ls.getMeanBt(), EPS);
+        assertEquals(stats.getMeanEt(), ls.getMeanEt(), EPS);
+        assertEquals(stats.getRorMin(), ls.getRorMin(), EPS);
+        assertEquals(stats.getRorMax(), ls.getRorMax(), EPS);
+        assertEquals(stats.getRorMean(), ls.getRorMean(), EPS);
+        assertEquals(stats.getTotalTimeSec(), ls.getTotalTimeSec(), EPS);
+
+        PhaseResult lp = live.getPhase();
+        assertEquals(phase.isInvalid(), lp.isInvalid());
+        assertEquals(phase.getTotalTimeSec(), lp.getTotalTimeSec(), EPS);
+        assertEquals(phase.getDryingTimeSec(), lp.getDryingTimeSec(), EPS);
+        assertEquals(phase.getMaillardTimeSec(), lp.getMaillardTimeSec(), EPS);
+        assertEquals(phase.getDevelopmentTimeSec(), lp.getDevelopmentTimeSec(), EPS);
+        assertEquals(phase.getDevelopmentPercent(), lp.getDevelopmentPercent(), EPS);
+
+        assertEquals(dtr, live.getDtr(), EPS);
+        assertEquals(auc, live.getAuc(), EPS);
+    }
+
+    /** Synthetic roast: turning point, steady rise, occasional glitches and repeated timestamps. */
+    private static double[] sample(int i, Random rnd) {
+        double t = i * 1.0;
+        if (i == 40) t = 39.0; // repeated timestamp (dt = 0)
+        double bt = i < 60 ? 200 - i * 1.5 : 110 + (i - 60) * 0.25;
+        double et = 230 + 10 * Math.sin(i / 30.0);
+        bt += rnd.nextGaussian() * 0.3;
+        if (i == 200) bt = Double.NaN;
+        if (i == 300) et = 999.0;
+        if (i == 350) bt = -1;
+        return new double[] { t, bt, et };
+    }
+
+    @Test
+    void incrementalMatchesBatchThroughWholeRoast() {
+        PhasesConfig config = new PhasesConfig();
+        config.setDryEndTempC(150);
+        config.setFcsTempC(196);
+        CanvasData cd = new CanvasData();
+        LiveRoastAnalytics live = new LiveRoastAnalytics();
+        Random rnd = new Random(42);
+        for (int i = 0; i < 720; i++) {
+            double[] s = sample(i, rnd);
+            cd.addDataPoint(s[0], s[1], s[2]);
+            if (i == 5) cd.setChargeIndex(5);
+            if (i == 600) cd.setFcStartIndex(590);
+            if (i == 700) cd.setDropIndex(700);
+            live.sync(cd);
+            assertParity(cd, live.snapshot(config, AUC_BASE), config);
+        }
+    }
+
+    @Test
+    void eventEditedInThePastRebuildsSums() {
+        PhasesConfig config = new PhasesConfig();
+        CanvasData cd = new CanvasData();
+        LiveRoastAnalytics live = new LiveRoastAnalytics();
+        Random rnd = new Random(7);
+        for (int i = 0; i < 400; i++) {
+            double[] s = sample(i, rnd);
+            cd.addDataPoint(s[0], s[1], s[2]);
+        }
+        cd.setChargeIndex(10);
+        cd.setDropIndex(380);
+        live.sync(cd);
+        assertParity(cd, live.snapshot(config, AUC_BASE), config);
+
+        cd.setChargeIndex(3);
+        cd.setDropIndex(250);
+        live.sync(cd);
+        assertParity(cd, live.snapshot(config, AUC_BASE), config);
+
+        cd.setDropIndex(-1);
+        live.sync(cd);
+        assertParity(cd, live.snapshot(config, AUC_BASE), config);
+    }
+
+    @Test
+    void autoAdjustedLimitsUseEventIndices() {
+        PhasesConfig config = new PhasesConfig();
+        config.setAutoAdjustedLimits(true);
+        CanvasData cd = new CanvasData();
+        LiveRoastAnalytics live = new LiveRoastAnalytics();
+        Random rnd = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            double[] s = sample(i, rnd);
+            cd.addDataPoint(s[0], s[1], s[2]);
+        }
+        cd.setChargeIndex(0);
+        cd.setDryEndIndex(150);
+        cd.setFcStartIndex(420);
+        live.sync(cd);
+        StatisticsUpdate u = live.snapshot(config, AUC_BASE);
+        assertParity(cd, u, config);
+        assertEquals(150.0, u.getPhase().getDryingTimeSec(), EPS);
+    }
+
+    @Test
+    void clearedCanvasResetsEngine() {
+        PhasesConfig config = new PhasesConfig();
+        CanvasData cd = new CanvasData();
+        LiveRoastAnalytics live = new LiveRoastAnalytics();
+        Random rnd = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            double[] s = sample(i, rnd);
+            cd.addDataPoint(s[0], s[1], s[2]);
+        }
+        live.sync(cd);
+        assertEquals(100, live.size());
+        cd.clear();
+        for (int i = 0; i < 20; i++) {
+            cd.addDataPoint(i, 100 + i, 200);
+        }
+        live.sync(cd);
+        assertEquals(20, live.size());
+        assertParity(cd, live.snapshot(config, AUC_BASE), config);
+    }
+
+    @Test
+    void emptyCanvasGivesEmptyStats() {
+        LiveRoastAnalytics live = new LiveRoastAnalytics();
+        live.sync(new CanvasData());
+        StatisticsUpdate u = live.snapshot(null, Double.NaN);
+        assertTrue(u.getStats().isEmpty());
+        assertTrue(u.getPhase().isInvalid());
+        assertEquals(0.0, u.getAuc(), 0.0);
+        assertEquals(0.0, live.getChargeTimeSec(), 0.0);
+    }
+
+    @Test
+    void chargeTimeFallsBackToFirstSample() {
+        CanvasData cd = new CanvasData();
+        LiveRoastAnalytics live = new LiveRoastAnalytics();
+        cd.addDataPoint(12.5, 100, 200);
+        cd.addDataPoint(14.5, 101, 201);
+        live.sync(cd);
+        assertEquals(12.5, live.getChargeTimeSec(), 0.0, "no CHARGE: first sample, as Artisan's timex[0]");
+        cd.setChargeIndex(1);
+        live.sync(cd);
+        assertEquals(14.5, live.getChargeTimeSec(), 0.0);
+    }
+}
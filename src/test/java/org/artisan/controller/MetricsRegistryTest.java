@@ -0,0 +1,90 @@
+package org.artisan.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for MetricsRegistry.
+ */
+class MetricsRegistryTest {
+
+    @Test
+    void countersAreSharedPerNameAndLabels() throws Exception {
+        MetricsRegistry r = new MetricsRegistry();
+        MetricsRegistry.Counter a = r.counter("errors_total", "Errors", "channel", "COM3");
+        assertSame(a, r.counter("errors_total", "Errors", "channel", "COM3"));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) r.counter("errors_total", "Errors", "channel", "COM3").increment();
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        r.counter("errors_total", "Errors", "channel", "Modbus \"1\"").add(2);
+        String text = r.scrape();
+        assertTrue(text.contains("# TYPE errors_total counter\n"), text);
+        assertTrue(text.contains("errors_total{channel=\"COM3\"} 40000\n"), text);
+        assertTrue(text.contains("errors_total{channel=\"Modbus \\\"1\\\"\"} 2\n"), text);
+        assertEquals(1, text.split("# HELP errors_total").length - 1);
+    }
+
+    @Test
+    void exportsGaugesAndTimersAsSummaries() {
+        MetricsRegistry r = new MetricsRegistry();
+        int[] depth = { 3 };
+        r.gauge("buffer_depth", "Depth", () -> depth[0]);
+        LatencyHistogram h = r.timer("save_seconds", "Save");
+        h.record(2_000_000);
+        h.record(4_000_000);
+        depth[0] = 7;
+        String text = r.scrape();
+        assertTrue(text.contains("# TYPE buffer_depth gauge\nbuffer_depth 7\n"), text);
+        assertTrue(text.contains("# TYPE save_seconds summary\n"), text);
+        assertTrue(text.contains("save_seconds{quantile=\"0.5\"} 0.002"), text);
+        assertTrue(text.contains("save_seconds_count 2\n"), text);
+        assertTrue(text.contains("save_seconds_sum 0.006\n"), text);
+    }
+
+    @Test
+    void replaceAndRemoveTouchOnlyTheirLabelSet() {
+        MetricsRegistry r = new MetricsRegistry();
+        r.gauge("temp", "T", () -> 1, "probe", "bt");
+        r.gauge("temp", "T", () -> 2, "probe", "et");
+        r.gauge("temp", "T", () -> 3, "probe", "bt");
+        assertSame(r.counter("hits_total", "H", "src", null), r.counter("hits_total", "H", "src", ""));
+        String text = r.scrape();
+        assertTrue(text.contains("temp{probe=\"bt\"} 3\ntemp{probe=\"et\"} 2\n"), text);
+        r.remove("temp", "probe", "bt");
+        text = r.scrape();
+        assertFalse(text.contains("probe=\"bt\""), text);
+        assertTrue(text.contains("temp{probe=\"et\"} 2\n"), text);
+        r.remove("temp", "probe", "et");
+        assertFalse(r.scrape().contains("temp"), r.scrape());
+    }
+
+    @Test
+    void rejectsTypeClashesAndBadNames() {
+        MetricsRegistry r = new MetricsRegistry();
+        r.gauge("x", "X", () -> 1);
+        assertThrows(IllegalArgumentException.class, () -> r.counter("x", "X"));
+        assertThrows(IllegalArgumentException.class, () -> r.counter("bad-name", "X"));
+        assertThrows(IllegalArgumentException.class, () -> r.counter("y", "Y", "odd"));
+    }
+
+    @Test
+    void defaultRegistryHasJvmMetrics() {
+        String text = MetricsRegistry.getDefault().scrape();
+        assertTrue(text.contains("artisan_jvm_memory_used_bytes{area=\"heap\"} "), text);
+        assertTrue(text.contains("artisan_jvm_threads "), text);
+    }
+}
@@ -0,0 +1,226 @@
+package org.artisan.controller;
+
+import org.artisan.device.DeviceChannel;
+import org.artisan.device.DeviceException;
+import org.artisan.device.SampleResult;
+import org.artisan.model.CanvasData;
+import org.artisan.model.EventType;
+import org.artisan.model.PhasesConfig;
+import org.artisan.model.ProfileData;
+import org.artisan.model.Roastlog;
+import org.artisan.model.SamplingConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for RoastEngine (headless pipeline, no JavaFX toolkit).
+ */
+class RoastEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static DeviceChannel channel(AtomicInteger reads) {
+        return new DeviceChannel() {
+            private boolean open;
+            @Override
+            public void open() { open = true; }
+            @Override
+            public void close() { open = false; }
+            @Override
+            public boolean isOpen() { return open; }
+            @Override
+            public SampleResult read() {
+                int i = reads.getAndIncrement();
+                return SampleResult.now(100.0 + i, 200.0 + i);
+            }
+            @Override
+            public String getDescription() { return "Mock"; }
+        };
+    }
+
+    @Test
+    void acceptSampleFeedsCanvasAnalyticsAndListeners() {
+        RoastEngine engine = new RoastEngine(new RoastSession(), channel(new AtomicInteger()), new SamplingConfig());
+        PhasesConfig phases = new PhasesConfig();
+        phases.setAutoDRY(true);
+        phases.setDryEndTempC(150);
+        engine.setPhasesConfig(phases);
+        List<EventType> events = new ArrayList<>();
+        AtomicInteger stats = new AtomicInteger();
+        engine.addListener(new RoastEngine.Listener() {
+            @Override
+            public void onStatistics(StatisticsUpdate update) { stats.incrementAndGet(); }
+            @Override
+            public void onEvent(EventType type, int timeIndex) { events.add(type); }
+        });
+        for (int i = 0; i < 200; i++) {
+            assertTrue(engine.acceptSample(i, 100 + 0.5 * i, 220));
+            if (i == 0) engine.markEvent(EventType.CHARGE);
+        }
+        CanvasData cd = engine.getSession().getCanvasData();
+        assertEquals(200, cd.size());
+        assertEquals(200, cd.getDelta2View().size());
+        assertEquals(30.0, cd.getDelta2View().get(199), 1e-9);
+        assertEquals(0, cd.getChargeIndex());
+        assertEquals(100, cd.getDryEndIndex());
+        assertEquals(List.of(EventType.CHARGE, EventType.DRY_END), events);
+        assertEquals(200, stats.get());
+        engine.close();
+    }
+
+    @Test
+    void listenersRunWithoutTheEngineLock() {
+        RoastEngine engine = new RoastEngine(new RoastSession(), MetricsRegistry.getDefault());
+        PhasesConfig phases = new PhasesConfig();
+        phases.setAutoDRY(true);
+        phases.setDryEndTempC(105);
+        engine.setPhasesConfig(phases);
+        AtomicInteger locked = new AtomicInteger();
+        AtomicInteger calls = new AtomicInteger();
+        engine.addListener(new RoastEngine.Listener() {
+            @Override
+            public void onSample(Sample sample, double rorBt, double rorEt) { check(); }
+            @Override
+            public void onStatistics(StatisticsUpdate update) { check(); }
+            @Override
+            public void onEvent(EventType type, int timeIndex) { check(); }
+
+            private void check() {
+                calls.incrementAndGet();
+                if (Thread.holdsLock(engine)) locked.incrementAndGet();
+            }
+        });
+        assertFalse(engine.start());
+        for (int i = 0; i < 10; i++) {
+            engine.recordSample(i, 100 + i, 200);
+            if (i == 0) engine.markEvent(EventType.CHARGE);
+        }
+        assertEquals(10 + 10 + 2, calls.get());
+        assertEquals(0, locked.get());
+    }
+
+    @Test
+    void listenerMayCallBackIntoTheEngine() {
+        RoastEngine engine = new RoastEngine(new RoastSession(), MetricsRegistry.getDefault());
+        List<String> calls = new ArrayList<>();
+        engine.addListener(new RoastEngine.Listener() {
+            @Override
+            public void onSample(Sample sample, double rorBt, double rorEt) {
+                calls.add("sample " + sample.timeSec());
+                if (sample.timeSec() == 3.0) engine.markEvent(EventType.CHARGE);
+            }
+            @Override
+            public void onEvent(EventType type, int timeIndex, String label) {
+                calls.add(type + " " + timeIndex);
+            }
+        });
+        for (int i = 0; i < 5; i++) {
+            engine.recordSample(i, 100 + i, 200);
+        }
+        assertEquals(List.of("sample 0.0", "sample 1.0", "sample 2.0", "sample 3.0", "CHARGE 3", "sample 4.0"), calls);
+        assertEquals(3, engine.getSession().getCanvasData().getChargeIndex());
+    }
+
+    @Test
+    void spikeFilterRejectsFastJumps() {
+        SamplingConfig cfg = new SamplingConfig();
+        cfg.setFilterSpikes(true);
+        cfg.setSpikeThreshold(25.0);
+        RoastEngine engine = new RoastEngine(new RoastSession(), channel(new AtomicInteger()), cfg);
+        assertTrue(engine.acceptSample(0, 100, 200));
+        assertFalse(engine.acceptSample(1, 200, 200));
+        assertTrue(engine.acceptSample(2, 101, 200));
+        assertEquals(2, engine.getSession().getCanvasData().size());
+        engine.close();
+    }
+
+    @Test
+    void startSamplesOnOwnThreadAndSavesAlog() throws Exception {
+        SamplingConfig cfg = new SamplingConfig();
+        cfg.setIntervalSeconds(SamplingConfig.MIN_INTERVAL);
+        AtomicInteger reads = new AtomicInteger();
+        RoastEngine engine = new RoastEngine(new RoastSession(), channel(reads), cfg);
+        engine.setTitle("headless");
+        CountDownLatch three = new CountDownLatch(3);
+        engine.addListener(new RoastEngine.Listener() {
+            @Override
+            public void onSample(Sample sample, double rorBt, double rorEt) {
+                assertFalse(Thread.currentThread().getName().contains("FX"));
+                three.countDown();
+            }
+        });
+        assertTrue(engine.start());
+        assertFalse(engine.start());
+        assertTrue(three.await(5, TimeUnit.SECONDS));
+        engine.markEvent(EventType.CHARGE);
+        engine.markEvent(EventType.DROP);
+        engine.close();
+        assertFalse(engine.isRunning());
+        assertFalse(engine.getChannel().isOpen());
+
+        Path out = tempDir.resolve("headless.alog");
+        engine.save(out);
+        ProfileData loaded = Roastlog.load(out);
+        assertNotNull(loaded);
+        assertEquals("headless", loaded.getTitle());
+        assertEquals(engine.getSession().getCanvasData().size(), loaded.getTimex().size());
+        assertTrue(loaded.getTimeindex().get(6) >= 0);
+    }
+
+    @Test
+    void openFailureReportsErrorAndDoesNotStart() {
+        DeviceChannel broken = new DeviceChannel() {
+            @Override
+            public void open() { throw new DeviceException("no port"); }
+            @Override
+            public void close() {}
+            @Override
+            public boolean isOpen() { return false; }
+            @Override
+            public SampleResult read() { throw new DeviceException("closed"); }
+            @Override
+            public String getDescription() { return "Broken"; }
+        };
+        RoastEngine engine = new RoastEngine(new RoastSession(), broken, new SamplingConfig());
+        List<String> errors = new ArrayList<>();
+        engine.addListener(new RoastEngine.Listener() {
+            @Override
+            public void onError(String message) { errors.add(message); }
+        });
+        assertFalse(engine.start());
+        assertEquals(1, errors.size());
+        engine.close();
+    }
+
+    @Test
+    void journalRecordsEverySampleAndEvent() throws Exception {
+        RoastEngine engine = new RoastEngine(new RoastSession(), channel(new AtomicInteger()), new SamplingConfig());
+        Path file = tempDir.resolve("engine" + SampleJournal.EXTENSION);
+        try (SampleJournal journal = SampleJournal.create(file, "engine", 1.0, 0)) {
+            engine.setJournal(journal);
+            for (int i = 0; i < 30; i++) {
+                engine.acceptSample(i, 100 + i, 200);
+                if (i == 5) engine.markEvent(EventType.CHARGE);
+            }
+            assertEquals(30, journal.getSampleCount());
+            assertEquals(1, journal.getEventCount());
+        }
+        RoastSession restored = new RoastSession();
+        SampleJournal.recover(file, restored);
+        assertEquals(30, restored.getCanvasData().size());
+        assertEquals(5, restored.getCanvasData().getChargeIndex());
+    }
+}
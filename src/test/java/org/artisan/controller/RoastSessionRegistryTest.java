@@ -0,0 +1,155 @@
+package org.artisan.controller;
+
+import org.artisan.device.DeviceChannel;
+import org.artisan.device.SampleResult;
+import org.artisan.model.Alarm;
+import org.artisan.model.AlarmAction;
+import org.artisan.model.AlarmCondition;
+import org.artisan.model.EventEntry;
+import org.artisan.model.EventType;
+import org.artisan.model.SamplingConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for RoastSessionRegistry (several roasters on one shared scheduler).
+ */
+class RoastSessionRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final RoastSessionRegistry registry = new RoastSessionRegistry(2);
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+    }
+
+    private static DeviceChannel channel(double baseBt) {
+        AtomicInteger tick = new AtomicInteger();
+        return new DeviceChannel() {
+            private volatile boolean open;
+            @Override
+            public void open() { open = true; }
+            @Override
+            public void close() { open = false; }
+            @Override
+            public boolean isOpen() { return open; }
+            @Override
+            public SampleResult read() { return SampleResult.now(baseBt + tick.getAndIncrement(), baseBt + 100); }
+            @Override
+            public String getDescription() { return "Mock " + baseBt; }
+        };
+    }
+
+    private static SamplingConfig fastSampling() {
+        SamplingConfig cfg = new SamplingConfig();
+        cfg.setIntervalSeconds(SamplingConfig.MIN_INTERVAL);
+        return cfg;
+    }
+
+    @Test
+    void roastersSampleConcurrentlyOnSharedScheduler() throws InterruptedException {
+        Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(3 * 3);
+        for (String id : List.of("r1", "r2", "r3")) {
+            registry.register(id, channel(100), fastSampling());
+            counts.put(id, new AtomicInteger());
+        }
+        registry.addListener(new RoastSessionRegistry.Listener() {
+            @Override
+            public void onSample(String roasterId, Sample sample, double rorBt, double rorEt) {
+                if (counts.get(roasterId).incrementAndGet() <= 3) latch.countDown();
+            }
+        });
+        assertEquals(3, registry.startAll());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        registry.stopAll();
+        for (String id : registry.getRoasterIds()) {
+            assertFalse(registry.get(id).isRunning());
+            assertTrue(registry.get(id).getSession().getCanvasData().size() >= 3);
+        }
+    }
+
+    @Test
+    void sessionsIsolateEventsAndAlarms() {
+        RoastEngine a = registry.register("a", channel(100), new SamplingConfig());
+        RoastEngine b = registry.register("b", channel(100), new SamplingConfig());
+        assertNotSame(a.getSession(), b.getSession());
+        a.getSession().getAlarms().add(new Alarm(true, "mark", AlarmCondition.BT_RISES_ABOVE, 150,
+                AlarmAction.MARK_EVENT, "hot", true, -1, false));
+        for (int i = 0; i < 10; i++) {
+            a.acceptSample(i, 145 + i, 200);
+            b.acceptSample(i, 145 + i, 200);
+        }
+        a.markEvent(EventType.CHARGE);
+        List<EventEntry> ea = a.getSession().getEvents().getAll();
+        assertEquals(2, ea.size());
+        assertEquals(EventType.CUSTOM, ea.get(0).getType());
+        assertTrue(b.getSession().getEvents().getAll().isEmpty());
+        assertEquals(0, b.getSession().getAlarms().size());
+        assertThrows(IllegalArgumentException.class, () -> registry.register("a", channel(1), null));
+        assertTrue(registry.unregister("b"));
+        assertEquals(List.of("a"), registry.getRoasterIds());
+    }
+
+    @Test
+    void roastersExportMetricsWithTheirIdAsLabel() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        try (RoastSessionRegistry host = new RoastSessionRegistry(1, metrics)) {
+            host.register("a", channel(100), new SamplingConfig());
+            host.register("b", channel(100), new SamplingConfig());
+            String text = metrics.scrape();
+            assertTrue(text.contains("artisan_roasters 2\n"), text);
+            assertTrue(text.contains("artisan_roaster_running{roaster=\"a\"} 0\n"), text);
+            assertTrue(text.contains("artisan_roaster_tick_lateness_seconds_count{roaster=\"b\"} 0\n"), text);
+            host.unregister("b");
+            text = metrics.scrape();
+            assertTrue(text.contains("artisan_roasters 1\n"), text);
+            assertFalse(text.contains("roaster=\"b\""), text);
+        }
+    }
+
+    @Test
+    void sharedAutoSaveWritesOneFilePerChargedRoaster() throws Exception {
+        AutoSave autoSave = new AutoSave();
+        autoSave.setSavePath(tempDir.toString());
+        autoSave.setPrefix("auto");
+        autoSave.setAddTimestamp(false);
+        registry.setAutoSave(autoSave);
+        RoastEngine a = registry.register("a", channel(100), fastSampling());
+        registry.register("b", channel(100), fastSampling());
+        CountDownLatch samples = new CountDownLatch(2);
+        registry.addListener(new RoastSessionRegistry.Listener() {
+            @Override
+            public void onSample(String roasterId, Sample sample, double rorBt, double rorEt) {
+                samples.countDown();
+            }
+        });
+        registry.startAll();
+        assertTrue(samples.await(5, TimeUnit.SECONDS));
+        a.markEvent(EventType.CHARGE);
+        assertEquals(1, registry.saveAll());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of("auto_a.alog"), files.map(p -> p.getFileName().toString()).toList());
+        }
+    }
+}
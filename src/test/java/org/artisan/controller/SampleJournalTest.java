@@ -0,0 +1,170 @@
+package org.artisan.controller;
+
+import org.artisan.model.CanvasData;
+import org.artisan.model.EventEntry;
+import org.artisan.model.EventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for SampleJournal.
+ */
+class SampleJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void record(RoastSession session, int from, int to) {
+        CanvasData cd = session.getCanvasData();
+        for (int i = from; i < to; i++) {
+            cd.addDataPoint(i * 2.0, 100 + i * 0.1, 200 + i * 0.05);
+            cd.addDelta1(i * 0.01);
+            cd.addDelta2(i * 0.02);
+        }
+    }
+
+    @Test
+    void recoversSamplesAndEvents() throws IOException {
+        Path file = tempDir.resolve("a" + SampleJournal.EXTENSION);
+        RoastSession live = new RoastSession();
+        live.start();
+        try (SampleJournal j = SampleJournal.create(file, "Ethiopia Guji", 2.0, 0)) {
+            record(live, 0, 10);
+            live.markCharge(2);
+            j.sync(live);
+            record(live, 10, 25);
+            live.markFcStart(20);
+            live.getEvents().add(new EventEntry(22, 150.0, "Gas 60 % (long label)", EventType.CUSTOM, 60.0));
+            j.sync(live);
+            j.sync(live);
+            assertEquals(25, j.getSampleCount());
+            assertEquals(3, j.getEventCount());
+        }
+
+        RoastSession restored = new RoastSession();
+        SampleJournal.Recovery r = SampleJournal.recover(file, restored);
+        assertEquals("Ethiopia Guji", r.title());
+        assertEquals(2.0, r.samplingIntervalSec());
+        assertEquals(25, r.samples());
+        assertEquals(3, r.events());
+        CanvasData a = live.getCanvasData();
+        CanvasData b = restored.getCanvasData();
+        assertArrayEquals(a.getTimexView().toArray(), b.getTimexView().toArray());
+        assertArrayEquals(a.getTemp1View().toArray(), b.getTemp1View().toArray());
+        assertArrayEquals(a.getTemp2View().toArray(), b.getTemp2View().toArray());
+        assertArrayEquals(a.getDelta2View().toArray(), b.getDelta2View().toArray());
+        assertEquals(2, b.getChargeIndex());
+        assertEquals(20, b.getFcStartIndex());
+        EventEntry custom = restored.getEvents().get(2);
+        assertEquals(22, custom.getTimeIndex());
+        assertEquals(60.0, custom.getValue());
+        assertEquals("Gas 60 % (long l", custom.getLabel());
+    }
+
+    @Test
+    void editedEventsAreReplayedOnce() throws IOException {
+        Path file = tempDir.resolve("e" + SampleJournal.EXTENSION);
+        RoastSession live = new RoastSession();
+        live.start();
+        try (SampleJournal j = SampleJournal.create(file, "edit", 1.0, 0)) {
+            record(live, 0, 10);
+            live.markCharge(1);
+            live.markFcStart(8);
+            j.sync(live);
+            live.getEvents().remove(1);
+            live.getCanvasData().setFcStartIndex(-1);
+            j.sync(live);
+            assertEquals(1, j.getEventCount());
+            record(live, 10, 12);
+            live.markDrop(11);
+            j.sync(live);
+            assertEquals(2, j.getEventCount());
+        }
+        RoastSession restored = new RoastSession();
+        SampleJournal.Recovery r = SampleJournal.recover(file, restored);
+        assertEquals(2, r.events());
+        assertEquals(2, restored.getEvents().size());
+        assertEquals(EventType.CHARGE, restored.getEvents().get(0).getType());
+        assertEquals(EventType.DROP, restored.getEvents().get(1).getType());
+        assertEquals(1, restored.getCanvasData().getChargeIndex());
+        assertEquals(-1, restored.getCanvasData().getFcStartIndex());
+        assertEquals(11, restored.getCanvasData().getDropIndex());
+    }
+
+    @Test
+    void growsBeyondPreallocation() throws IOException {
+        Path file = tempDir.resolve("b" + SampleJournal.EXTENSION);
+        RoastSession live = new RoastSession();
+        int n = SampleJournal.INITIAL_RECORDS * 2 + 100;
+        try (SampleJournal j = SampleJournal.create(file, "", 1.0, 50)) {
+            for (int i = 0; i < n; i += 500) {
+                record(live, i, Math.min(n, i + 500));
+                j.sync(live);
+            }
+        }
+        RoastSession restored = new RoastSession();
+        assertEquals(n, SampleJournal.recover(file, restored).samples());
+        assertEquals(live.getCanvasData().getTemp2View().get(n - 1), restored.getCanvasData().getTemp2View().get(n - 1));
+    }
+
+    @Test
+    void tornRecordEndsRecovery() throws IOException {
+        Path file = tempDir.resolve("c" + SampleJournal.EXTENSION);
+        RoastSession live = new RoastSession();
+        try (SampleJournal j = SampleJournal.create(file, "x", 1.0, 0)) {
+            record(live, 0, 10);
+            j.sync(live);
+        }
+        // corrupt BT of the 8th sample, as a write cut off by power loss would
+        long at = SampleJournal.HEADER_BYTES + 7L * SampleJournal.RECORD_BYTES + 16;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), at);
+        }
+        RoastSession restored = new RoastSession();
+        assertEquals(7, SampleJournal.recover(file, restored).samples());
+        assertEquals(7, restored.getCanvasData().size());
+    }
+
+    @Test
+    void finishDeletesAndFindUnfinishedListsLeftovers() throws IOException {
+        Path kept = tempDir.resolve("roast_1" + SampleJournal.EXTENSION);
+        Path done = tempDir.resolve("roast_2" + SampleJournal.EXTENSION);
+        SampleJournal.create(kept, "a", 1.0, 0).close();
+        SampleJournal finished = SampleJournal.create(done, "b", 1.0, 0);
+        finished.finish();
+        assertFalse(Files.exists(done));
+        Files.writeString(tempDir.resolve("other.alog"), "{}");
+        assertEquals(List.of(kept), SampleJournal.findUnfinished(tempDir));
+        assertTrue(SampleJournal.findUnfinished(tempDir.resolve("missing")).isEmpty());
+
+        // a finished journal whose delete failed (file still mapped) is skipped and deleted later
+        Path undeleted = tempDir.resolve("roast_3" + SampleJournal.EXTENSION);
+        SampleJournal.create(undeleted, "c", 1.0, 0).close();
+        try (FileChannel ch = FileChannel.open(undeleted, StandardOpenOption.WRITE)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            magic.putInt(0, SampleJournal.FINISHED_MAGIC);
+            ch.write(magic, 0);
+        }
+        assertEquals(List.of(kept), SampleJournal.findUnfinished(tempDir));
+        assertFalse(Files.exists(undeleted));
+
+        Path foreign = tempDir.resolve("foreign" + SampleJournal.EXTENSION);
+        Files.write(foreign, new byte[128]);
+        assertThrows(IOException.class, () -> SampleJournal.recover(foreign, new RoastSession()));
+    }
+}
@@ -0,0 +1,105 @@
+package org.artisan.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for SampleRingBuffer.
+ */
+class SampleRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(8, new SampleRingBuffer(5).capacity());
+        assertEquals(8, new SampleRingBuffer(8).capacity());
+        assertEquals(2, new SampleRingBuffer(0).capacity());
+    }
+
+    @Test
+    void drainsInOrderAcrossWrapAround() {
+        SampleRingBuffer buf = new SampleRingBuffer(4);
+        List<double[]> out = new ArrayList<>();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++) {
+                double t = round * 3 + i;
+                assertTrue(buf.offer(t, t + 100, t + 200));
+            }
+            assertEquals(3, buf.size());
+            assertEquals(3, buf.drain((t, bt, et) -> out.add(new double[] { t, bt, et })));
+            assertEquals(0, buf.size());
+        }
+        assertEquals(15, out.size());
+        for (int i = 0; i < out.size(); i++) {
+            assertEquals(i, out.get(i)[0], 0.0);
+            assertEquals(i + 100, out.get(i)[1], 0.0);
+            assertEquals(i + 200, out.get(i)[2], 0.0);
+        }
+        assertEquals(0L, buf.getDroppedCount());
+        assertEquals(3, buf.getHighWaterMark());
+    }
+
+    @Test
+    void fullRingDropsNewestAndCountsEpisodes() {
+        SampleRingBuffer buf = new SampleRingBuffer(4);
+        for (int i = 0; i < 6; i++) buf.offer(i, 0, 0);
+        assertFalse(buf.offer(6, 0, 0));
+        assertEquals(3L, buf.getDroppedCount());
+        assertEquals(1L, buf.getOverflowCount());
+        assertEquals(4, buf.getHighWaterMark());
+
+        List<Double> times = new ArrayList<>();
+        buf.drain((t, bt, et) -> times.add(t));
+        assertEquals(List.of(0.0, 1.0, 2.0, 3.0), times);
+
+        for (int i = 0; i < 5; i++) buf.offer(i, 0, 0);
+        assertEquals(4L, buf.getDroppedCount());
+        assertEquals(2L, buf.getOverflowCount());
+        buf.clear();
+        assertEquals(0, buf.size());
+    }
+
+    @Test
+    void producerAndConsumerThreadsSeeEverySampleOnce() throws InterruptedException {
+        SampleRingBuffer buf = new SampleRingBuffer(64);
+        int total = 200_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                while (!buf.offer(i, -i, 2.0 * i)) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        producer.start();
+        long[] next = { 0 };
+        boolean[] ok = { true };
+        while (next[0] < total) {
+            buf.drain((t, bt, et) -> {
+                if (t != next[0] || bt != -t || et != 2 * t) ok[0] = false;
+                next[0]++;
+            });
+        }
+        producer.join();
+        assertTrue(ok[0]);
+        assertEquals(0, buf.size());
+    }
+
+    @Test
+    void recordsOfferToDrainLatency() throws InterruptedException {
+        SampleRingBuffer buf = new SampleRingBuffer(8);
+        LatencyHistogram latency = new LatencyHistogram();
+        buf.offer(0, 0, 0);
+        buf.setLatencyHistogram(latency);
+        buf.offer(1, 1, 1);
+        buf.offer(2, 2, 2);
+        Thread.sleep(20);
+        assertEquals(3, buf.drain((t, bt, et) -> {}));
+        assertEquals(2, latency.getCount(), "sample offered before the histogram was set is not timed");
+        assertTrue(latency.getMinNanos() >= 20_000_000L);
+    }
+}
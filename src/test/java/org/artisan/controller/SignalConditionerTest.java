@@ -0,0 +1,89 @@
+package org.artisan.controller;
+
+import org.artisan.model.SamplingConfig;
+import org.artisan.model.SamplingConfig.Channel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for SignalConditioner.
+ */
+class SignalConditionerTest {
+
+    @Test
+    void passesThroughWithoutConfigOrStages() {
+        SignalConditioner c = new SignalConditioner();
+        assertTrue(c.process(0, 100, 200));
+        assertEquals(100, c.getBt());
+        assertEquals(200, c.getEt());
+        c.setConfig(new SamplingConfig());
+        assertTrue(c.process(1, 1000, Double.NaN));
+        assertEquals(1000, c.getBt());
+        assertTrue(Double.isNaN(c.getEt()));
+    }
+
+    @Test
+    void gatesDropWholeSampleWithoutTouchingState() {
+        SamplingConfig cfg = new SamplingConfig();
+        cfg.setFilterSpikes(true);
+        cfg.setSpikeThreshold(25.0);
+        cfg.setSpikeGate(Channel.ET, true);
+        SignalConditioner c = new SignalConditioner();
+        c.setConfig(cfg);
+
+        assertTrue(c.process(0, 100, 200));
+        assertFalse(c.process(1, 200, 200), "BT spike");
+        assertFalse(c.process(2, 101, 300), "ET spike; BT gate must not advance");
+        assertTrue(c.process(3, 102, 201));
+        assertEquals(2, c.getRejectedCount());
+
+        cfg.setSpikeGate(Channel.ET, false);
+        assertTrue(c.process(4, 103, 900), "rebuilt without the ET gate");
+        assertFalse(c.process(5, 500, 900));
+
+        c.reset();
+        assertTrue(c.process(0, 500, 900), "first sample after reset is never a spike");
+        assertNotNull(c.getStageLatency(Channel.BT, "spike gate"));
+        assertTrue(c.getStageLatency(Channel.BT, "spike gate").getCount() > 0);
+    }
+
+    @Test
+    void runsMedianLowpassAndUnitConversionInOrder() {
+        SamplingConfig cfg = new SamplingConfig();
+        cfg.setMedianWindow(Channel.BT, 3);
+        cfg.setFahrenheitInput(Channel.BT, true);
+        cfg.setLowpassHz(Channel.ET, 0.1);
+        SignalConditioner c = new SignalConditioner();
+        c.setConfig(cfg);
+        c.addStage(Channel.ET, new SignalConditioner.Stage() {
+            @Override
+            public String name() {
+                return "offset";
+            }
+
+            @Override
+            public double apply(double timeSec, double value) {
+                return value + 1;
+            }
+        });
+
+        double[] bt = { 212, 212, 212, 1000, 212 };
+        for (int i = 0; i < bt.length; i++) {
+            assertTrue(c.process(i, bt[i], 50));
+        }
+        assertEquals(100.0, c.getBt(), 1e-9, "median removed the outlier, then °F to °C");
+        assertTrue(c.getEt() > 1 && c.getEt() < 51, "low-pass settles towards 50, plus offset");
+
+        c.reset();
+        assertTrue(c.process(0, 32, 0));
+        assertEquals(0.0, c.getBt(), 1e-9);
+        assertEquals(6, c.getStageLatency(Channel.BT, "median").getCount());
+        assertNull(c.getStageLatency(Channel.ET, "median"));
+        assertTrue(c.format().contains("ET/offset"));
+    }
+}
@@ -0,0 +1,109 @@
+package org.artisan.device;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for LineFramer (bulk-read line framing and byte-level number parsing).
+ */
+class LineFramerTest {
+
+    /** Source that hands out at most {@code chunk} bytes per read, then reports timeouts. */
+    private static LineFramer.ByteSource chunked(String text, int chunk) {
+        ByteArrayInputStream in = new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+        return (buf, off, len) -> {
+            int n = in.read(buf, off, Math.min(len, chunk));
+            return n < 0 ? 0 : n;
+        };
+    }
+
+    @Test
+    void framesLinesSplitAcrossReadsAndSkipsBlankLines() {
+        LineFramer framer = new LineFramer();
+        LineFramer.ByteSource src = chunked("120.5,210.25\r\n\r\n 121 , 211.5 ,33,-4e1\n99\r", 3);
+        double[] v = new double[4];
+        assertEquals(2, framer.readFields(src, v));
+        assertEquals(120.5, v[0]);
+        assertEquals(210.25, v[1]);
+        assertEquals(4, framer.readFields(src, v));
+        assertEquals(121.0, v[0]);
+        assertEquals(211.5, v[1]);
+        assertEquals(33.0, v[2]);
+        assertEquals(-40.0, v[3]);
+        assertEquals(1, framer.readFields(src, v));
+        assertEquals(99.0, v[0]);
+        DeviceException timeout = assertThrows(DeviceException.class, () -> framer.readFields(src, v));
+        assertTrue(timeout.getMessage().startsWith("No data received"));
+    }
+
+    @Test
+    void partialLineIsKeptUntilTerminatorArrives() {
+        LineFramer framer = new LineFramer();
+        Deque<String> chunks = new ArrayDeque<>(List.of("150.", "75,260\n"));
+        LineFramer.ByteSource src = (buf, off, len) -> {
+            if (chunks.isEmpty()) return 0;
+            byte[] b = chunks.poll().getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(b, 0, buf, off, b.length);
+            return b.length;
+        };
+        double[] v = new double[2];
+        assertEquals(2, framer.readFields(src, v));
+        assertEquals(150.75, v[0]);
+        assertEquals(260.0, v[1]);
+        assertEquals(0, framer.buffered());
+    }
+
+    @Test
+    void parsesLikeDoubleParseDouble() {
+        Random rnd = new Random(7);
+        StringBuilder sb = new StringBuilder();
+        double[] expected = new double[5000];
+        for (int i = 0; i < expected.length; i++) {
+            String s = switch (i % 5) {
+                case 0 -> String.format(Locale.ROOT, "%.1f", rnd.nextDouble() * 500 - 50);
+                case 1 -> String.format(Locale.ROOT, "%.3f", rnd.nextDouble() * 300);
+                case 2 -> Double.toString(rnd.nextGaussian() * 1e-5);
+                case 3 -> Integer.toString(rnd.nextInt(2000) - 1000);
+                default -> Double.toString(rnd.nextDouble() * 1e25);
+            };
+            expected[i] = Double.parseDouble(s);
+            sb.append(s).append(i % 2 == 0 ? ',' : '\n');
+        }
+        sb.append('\n');
+        LineFramer framer = new LineFramer(64);
+        LineFramer.ByteSource src = chunked(sb.toString(), 17);
+        double[] v = new double[2];
+        for (int i = 0; i < expected.length; i += 2) {
+            assertEquals(2, framer.readFields(src, v));
+            assertEquals(expected[i], v[0], "field " + i);
+            assertEquals(expected[i + 1], v[1], "field " + (i + 1));
+        }
+        assertEquals(1, new LineFramer().readFields(chunked("NaN\n", 8), v));
+        assertTrue(Double.isNaN(v[0]));
+    }
+
+    @Test
+    void reportsParseErrorsAndOverlongLines() {
+        double[] v = new double[2];
+        DeviceException bad = assertThrows(DeviceException.class,
+                () -> new LineFramer().readFields(chunked("12.5,abc\n", 64), v));
+        assertTrue(bad.getMessage().startsWith("Parse error"));
+        assertThrows(DeviceException.class, () -> new LineFramer().readFields(chunked("12.5,,3\n", 64), v));
+
+        LineFramer small = new LineFramer(16);
+        LineFramer.ByteSource src = chunked("1234567890123456789012\n7,8\n", 64);
+        DeviceException tooLong = assertThrows(DeviceException.class, () -> small.readFields(src, v));
+        assertTrue(tooLong.getMessage().startsWith("Line too long"));
+    }
+}
@@ -0,0 +1,207 @@
+package org.artisan.device;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * TCP proxy in front of the j2mod slave that injects {@link ModbusFaults} per transaction.
+ * Understands MBAP framing and RTU-over-TCP framing (FC 1-6, 15, 16 and exception responses)
+ * so it can delay, drop or corrupt whole responses. One thread per client connection;
+ * pipelined requests are answered in order, like a serial gateway.
+ */
+final class ModbusFaultProxy implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(ModbusFaultProxy.class.getName());
+
+    private final int upstreamPort;
+    private final boolean rtuFraming;
+    private final ServerSocket server;
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final AtomicLong transactions = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong corrupted = new AtomicLong();
+    private volatile ModbusFaults faults;
+    private Random random;
+    private volatile boolean closed;
+
+    ModbusFaultProxy(int port, int upstreamPort, boolean rtuFraming, ModbusFaults faults) throws IOException {
+        this.upstreamPort = upstreamPort;
+        this.rtuFraming = rtuFraming;
+        setFaults(faults);
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "modbus-sim-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return server.getLocalPort();
+    }
+
+    synchronized void setFaults(ModbusFaults faults) {
+        this.faults = faults != null ? faults : ModbusFaults.NONE;
+        this.random = new Random(this.faults.seed());
+    }
+
+    long getTransactions() {
+        return transactions.get();
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    long getCorrupted() {
+        return corrupted.get();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket client = server.accept();
+                Thread t = new Thread(() -> serve(client), "modbus-sim-proxy-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (!closed) LOG.log(Level.FINE, "Modbus simulator accept failed", e);
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        sockets.add(client);
+        try (client; Socket upstream = new Socket(InetAddress.getLoopbackAddress(), upstreamPort)) {
+            sockets.add(upstream);
+            client.setTcpNoDelay(true);
+            upstream.setTcpNoDelay(true);
+            DataInputStream clientIn = new DataInputStream(client.getInputStream());
+            OutputStream clientOut = client.getOutputStream();
+            DataInputStream upIn = new DataInputStream(upstream.getInputStream());
+            OutputStream upOut = upstream.getOutputStream();
+            while (!closed) {
+                byte[] request = rtuFraming ? readRtuRequest(clientIn) : readMbapFrame(clientIn);
+                upOut.write(request);
+                upOut.flush();
+                byte[] response = rtuFraming ? readRtuResponse(upIn) : readMbapFrame(upIn);
+                transactions.incrementAndGet();
+                if (!applyFaults(response)) continue;
+                clientOut.write(response);
+                clientOut.flush();
+            }
+        } catch (EOFException | SocketException e) {
+            // client or simulator closed the connection
+        } catch (IOException e) {
+            if (!closed) LOG.log(Level.FINE, "Modbus simulator proxy failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sockets.removeIf(Socket::isClosed);
+        }
+    }
+
+    /** Sleeps the injected latency; returns false if the response must be dropped. */
+    private boolean applyFaults(byte[] response) throws InterruptedException {
+        ModbusFaults f = faults;
+        if (f.isNone()) return true;
+        double delay;
+        boolean drop;
+        boolean corrupt;
+        synchronized (this) {
+            delay = f.latencyMs() + random.nextDouble() * f.jitterMs();
+            drop = random.nextDouble() < f.timeoutRate();
+            corrupt = rtuFraming && random.nextDouble() < f.crcErrorRate();
+        }
+        long nanos = (long) (delay * 1_000_000);
+        if (nanos > 0) Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        if (drop) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (corrupt) {
+            response[response.length - 1] ^= 0x5A;
+            corrupted.incrementAndGet();
+        }
+        return true;
+    }
+
+    private static byte[] readMbapFrame(DataInputStream in) throws IOException {
+        byte[] header = new byte[7];
+        in.readFully(header);
+        int len = ((header[4] & 0xFF) << 8) | (header[5] & 0xFF);
+        if (len < 1 || len > 260) throw new IOException("Bad MBAP length " + len);
+        byte[] frame = new byte[6 + len];
+        System.arraycopy(header, 0, frame, 0, 7);
+        in.readFully(frame, 7, len - 1);
+        return frame;
+    }
+
+    /** Request: unit, fc, then 4 bytes (FC 1-6) or 5 bytes + byte count (FC 15/16), then CRC. */
+    private static byte[] readRtuRequest(DataInputStream in) throws IOException {
+        byte[] head = new byte[2];
+        in.readFully(head);
+        int fc = head[1] & 0xFF;
+        if (fc == 15 || fc == 16) {
+            byte[] mid = new byte[5];
+            in.readFully(mid);
+            int bc = mid[4] & 0xFF;
+            byte[] frame = new byte[7 + bc + 2];
+            System.arraycopy(head, 0, frame, 0, 2);
+            System.arraycopy(mid, 0, frame, 2, 5);
+            in.readFully(frame, 7, bc + 2);
+            return frame;
+        }
+        byte[] frame = new byte[8];
+        System.arraycopy(head, 0, frame, 0, 2);
+        in.readFully(frame, 2, 6);
+        return frame;
+    }
+
+    /** Response: exception (5 bytes), FC 1-4 (3 + byte count + 2) or FC 5/6/15/16 (8 bytes). */
+    private static byte[] readRtuResponse(DataInputStream in) throws IOException {
+        byte[] head = new byte[3];
+        in.readFully(head);
+        int fc = head[1] & 0xFF;
+        int total;
+        if ((fc & 0x80) != 0) {
+            total = 5;
+        } else if (fc >= 1 && fc <= 4) {
+            total = 3 + (head[2] & 0xFF) + 2;
+        } else {
+            total = 8;
+        }
+        byte[] frame = new byte[total];
+        System.arraycopy(head, 0, frame, 0, 3);
+        in.readFully(frame, 3, total - 3);
+        return frame;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException ignored) {
+        }
+        for (Socket s : sockets) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+            }
+        }
+        sockets.clear();
+    }
+}
@@ -0,0 +1,33 @@
+package org.artisan.device;
+
+/**
+ * Fault profile for {@link ModbusSlaveSimulator}: every response is delayed by
+ * {@code latencyMs} plus a uniform {@code 0..jitterMs}; with probability {@code timeoutRate} it is
+ * dropped (the master times out) and with probability {@code crcErrorRate} its CRC is corrupted
+ * (RTU framing only; MBAP frames carry no CRC).
+ */
+public record ModbusFaults(
+    double latencyMs,
+    double jitterMs,
+    double timeoutRate,
+    double crcErrorRate,
+    long seed
+) {
+    public static final ModbusFaults NONE = new ModbusFaults(0, 0, 0, 0, 1L);
+
+    public ModbusFaults {
+        latencyMs = Math.max(0, latencyMs);
+        jitterMs = Math.max(0, jitterMs);
+        timeoutRate = Math.max(0, Math.min(1, timeoutRate));
+        crcErrorRate = Math.max(0, Math.min(1, crcErrorRate));
+    }
+
+    /** RTU at 9600 baud: ~10 ms turnaround, 5 ms jitter, no errors. */
+    public static ModbusFaults rtu9600() {
+        return new ModbusFaults(10, 5, 0, 0, 1L);
+    }
+
+    public boolean isNone() {
+        return latencyMs == 0 && jitterMs == 0 && timeoutRate == 0 && crcErrorRate == 0;
+    }
+}
@@ -0,0 +1,272 @@
+package org.artisan.device;
+
+import com.ghgande.j2mod.modbus.facade.ModbusTCPMaster;
+import com.ghgande.j2mod.modbus.procimg.Register;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.artisan.model.RoastSimulator;
+
+/**
+ * Load harness for the Modbus implementations against a {@link ModbusSlaveSimulator}: samples a
+ * target back to back and reports achievable rate, latency percentiles and error recovery
+ * (time from the first failed sample of an episode to the next good one).
+ * <p>
+ * Targets: {@link ModbusDeviceChannel} (sequential and pipelined), {@link ModbusPort},
+ * {@link BescaDevice}, {@link DiedrichDevice} (its RTU port swapped for TCP to the simulator) and
+ * a plain j2mod RTU-over-TCP master when the simulator uses RTU framing.
+ * <p>
+ * CLI: {@code ./gradlew runModbusHarness --args="--samples 500 --latency 5 --jitter 3 --timeout-rate 0.01"}
+ */
+public final class ModbusLoadHarness {
+
+    private static final double BT_MIN_C = -50.0;
+    private static final double BT_MAX_C = 500.0;
+
+    /** One sample of a target: BT in °C; throws (or returns NaN) on failure. */
+    @FunctionalInterface
+    public interface Target {
+        double sample() throws Exception;
+    }
+
+    /** Named target with its own open/close. */
+    public interface Subject extends Target, AutoCloseable {
+        String name();
+
+        void open() throws Exception;
+
+        @Override
+        void close();
+    }
+
+    /** Outcome of one run. Latencies in milliseconds. */
+    public record Result(String name, int samples, int errors, double elapsedSec, double p50Ms, double p90Ms,
+                         double p99Ms, double p999Ms, double maxMs, int errorEpisodes, double meanRecoveryMs,
+                         double maxRecoveryMs) {
+
+        public double samplesPerSecond() {
+            return elapsedSec > 0 ? samples / elapsedSec : 0;
+        }
+
+        /** One table row, see {@link #header()}. */
+        public String format() {
+            return String.format(Locale.ROOT, "%-28s %7d %6d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %5d %9.1f %9.1f",
+                name, samples, errors, samplesPerSecond(), p50Ms, p90Ms, p99Ms, p999Ms, maxMs,
+                errorEpisodes, meanRecoveryMs, maxRecoveryMs);
+        }
+
+        public static String header() {
+            return String.format(Locale.ROOT, "%-28s %7s %6s %9s %8s %8s %8s %8s %8s %5s %9s %9s",
+                "target", "samples", "errors", "rate/s", "p50 ms", "p90 ms", "p99 ms", "p99.9", "max ms",
+                "epis", "rec mean", "rec max");
+        }
+    }
+
+    private ModbusLoadHarness() {
+    }
+
+    /** Samples {@code target} {@code samples} times as fast as it answers. */
+    public static Result run(String name, Target target, int samples) {
+        int n = Math.max(1, samples);
+        long[] latency = new long[n];
+        int errors = 0;
+        int episodes = 0;
+        long failedSince = -1;
+        double recoverySum = 0;
+        double recoveryMax = 0;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            long s = System.nanoTime();
+            boolean ok;
+            try {
+                double v = target.sample();
+                ok = !Double.isNaN(v) && v >= BT_MIN_C && v <= BT_MAX_C;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long e = System.nanoTime();
+            latency[i] = e - s;
+            if (!ok) {
+                errors++;
+                if (failedSince < 0) {
+                    failedSince = s;
+                    episodes++;
+                }
+            } else if (failedSince >= 0) {
+                double rec = (e - failedSince) / 1e6;
+                recoverySum += rec;
+                recoveryMax = Math.max(recoveryMax, rec);
+                failedSince = -1;
+            }
+        }
+        double elapsed = (System.nanoTime() - t0) / 1e9;
+        Arrays.sort(latency);
+        int recovered = failedSince >= 0 ? episodes - 1 : episodes;
+        return new Result(name, n, errors, elapsed, pct(latency, 0.50), pct(latency, 0.90), pct(latency, 0.99),
+            pct(latency, 0.999), latency[n - 1] / 1e6, episodes,
+            recovered > 0 ? recoverySum / recovered : 0, recoveryMax);
+    }
+
+    /** Opens, runs and closes {@code subject}; an open failure yields a result with all samples failed. */
+    public static Result run(Subject subject, int samples) {
+        try {
+            subject.open();
+        } catch (Exception e) {
+            return new Result(subject.name() + " (open failed)", samples, samples, 0, 0, 0, 0, 0, 0, 1, 0, 0);
+        }
+        try {
+            return run(subject.name(), subject, samples);
+        } finally {
+            subject.close();
+        }
+    }
+
+    /** Every Modbus implementation that can talk to {@code sim} (MBAP or RTU framing). */
+    public static List<Subject> subjects(ModbusSlaveSimulator sim, int timeoutMs) {
+        String host = "127.0.0.1";
+        int port = sim.getPort();
+        List<Subject> out = new ArrayList<>();
+        if (sim.isRtuFraming()) {
+            out.add(j2modRtuOverTcp(host, port, timeoutMs));
+            return out;
+        }
+        out.add(channel("ModbusDeviceChannel", host, port, 1));
+        out.add(channel("ModbusDeviceChannel depth 4", host, port, 4));
+        out.add(modbusPort(host, port, timeoutMs));
+        out.add(devicePort("BescaDevice", () -> BescaDevice.tcpMode(host).withTcpPort(port)));
+        out.add(devicePort("DiedrichDevice (TCP)", () -> {
+            DiedrichDevice d = DiedrichDevice.rtuMode("sim");
+            d.setModbusPortForTest(new ModbusPort(host, port, timeoutMs));
+            return d;
+        }));
+        return out;
+    }
+
+    private static Subject channel(String name, String host, int port, int depth) {
+        ModbusPortConfig cfg = new ModbusPortConfig();
+        cfg.setHost(host);
+        cfg.setPort(port);
+        cfg.setUseTcp(true);
+        cfg.setBtRegister(0);
+        cfg.setEtRegister(1);
+        cfg.setScale(0.1);
+        cfg.setPipelineDepth(depth);
+        cfg.setExtraChannels(List.of(new ModbusRegisterSpec("BT input", 1, ModbusRegisterSpec.FC_INPUT, 0, 0.1)));
+        ModbusDeviceChannel ch = new ModbusDeviceChannel(cfg);
+        return subject(name, ch::open, () -> ch.read().bt(), ch::close);
+    }
+
+    private static Subject modbusPort(String host, int port, int timeoutMs) {
+        ModbusPort mp = new ModbusPort(host, port, timeoutMs);
+        return subject("ModbusPort", mp::connect, () -> {
+            int[] regs = mp.readHoldingRegisters(1, 0, 2);
+            return regs != null && regs.length > 0 ? regs[0] / 10.0 : Double.NaN;
+        }, mp::disconnect);
+    }
+
+    private interface DeviceFactory {
+        DevicePort create();
+    }
+
+    /** DevicePort targets return last values on failure; an unchanged value is not detectable as error. */
+    private static Subject devicePort(String name, DeviceFactory factory) {
+        DevicePort[] device = new DevicePort[1];
+        return subject(name, () -> {
+            device[0] = factory.create();
+            device[0].connect();
+        }, () -> device[0].readTemperatures()[1], () -> {
+            if (device[0] != null) device[0].disconnect();
+        });
+    }
+
+    private static Subject j2modRtuOverTcp(String host, int port, int timeoutMs) {
+        ModbusTCPMaster[] master = new ModbusTCPMaster[1];
+        return subject("j2mod RTU over TCP", () -> {
+            master[0] = new ModbusTCPMaster(host, port, timeoutMs, true, true);
+            master[0].setRetries(0);
+            master[0].connect();
+        }, () -> {
+            Register[] regs = master[0].readMultipleRegisters(1, 0, 2);
+            return regs != null && regs.length > 0 ? regs[0].getValue() / 10.0 : Double.NaN;
+        }, () -> {
+            if (master[0] != null) master[0].disconnect();
+        });
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static Subject subject(String name, Action open, Target sample, Runnable close) {
+        return new Subject() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void open() throws Exception {
+                open.run();
+            }
+
+            @Override
+            public double sample() throws Exception {
+                return sample.sample();
+            }
+
+            @Override
+            public void close() {
+                close.run();
+            }
+        };
+    }
+
+    private static double pct(long[] sorted, double q) {
+        int i = (int) Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1);
+        return sorted[Math.max(0, i)] / 1e6;
+    }
+
+    public static void main(String[] args) {
+        int samples = 500;
+        int timeoutMs = 400;
+        double latency = 0;
+        double jitter = 0;
+        double timeoutRate = 0;
+        double crcRate = 0;
+        double speed = 10;
+        boolean rtu = false;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            String v = i + 1 < args.length ? args[i + 1] : "";
+            switch (a) {
+                case "--samples" -> { samples = Integer.parseInt(v); i++; }
+                case "--timeout" -> { timeoutMs = Integer.parseInt(v); i++; }
+                case "--latency" -> { latency = Double.parseDouble(v); i++; }
+                case "--jitter" -> { jitter = Double.parseDouble(v); i++; }
+                case "--timeout-rate" -> { timeoutRate = Double.parseDouble(v); i++; }
+                case "--crc-rate" -> { crcRate = Double.parseDouble(v); i++; }
+                case "--speed" -> { speed = Double.parseDouble(v); i++; }
+                case "--rtu" -> rtu = true;
+                default -> {
+                    System.err.println("Usage: ModbusLoadHarness [--samples N] [--timeout ms] [--latency ms] "
+                        + "[--jitter ms] [--timeout-rate p] [--crc-rate p] [--speed x] [--rtu]");
+                    System.exit(2);
+                }
+            }
+        }
+        try (ModbusSlaveSimulator sim = ModbusSlaveSimulator.withDefaultMap(new RoastSimulator())) {
+            sim.setSpeed(speed).setRtuFraming(rtu)
+                .setFaults(new ModbusFaults(latency, jitter, timeoutRate, crcRate, 42L));
+            sim.start(0);
+            System.out.println(Result.header());
+            for (Subject s : subjects(sim, timeoutMs)) {
+                System.out.println(run(s, samples).format());
+            }
+            System.out.printf(Locale.ROOT, "slave transactions=%d dropped=%d corrupted=%d%n",
+                sim.getTransactions(), sim.getDropped(), sim.getCorrupted());
+        }
+    }
+}
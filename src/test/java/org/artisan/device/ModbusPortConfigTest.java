@@ -2,6 +2,8 @@ package org.artisan.device;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -42,4 +44,24 @@ class ModbusPortConfigTest {
         assertEquals(original.getEtRegister(), loaded.getEtRegister());
         assertEquals(original.getScale(), loaded.getScale(), 1e-6);
     }
+
+    @Test
+    void extraChannelsAndPipeline_roundtrip() {
+        ModbusPortConfig original = new ModbusPortConfig();
+        original.setFunctionCode(4);
+        original.setPipelineDepth(4);
+        original.setMaxGap(3);
+        original.setExtraChannels(List.of(new ModbusRegisterSpec("Burner", 2, 3, 40, 1.0)));
+        ModbusPortConfig.saveToPreferences(original);
+
+        ModbusPortConfig loaded = new ModbusPortConfig();
+        ModbusPortConfig.loadFromPreferences(loaded);
+        assertEquals(4, loaded.getFunctionCode());
+        assertEquals(4, loaded.getPipelineDepth());
+        assertEquals(3, loaded.effectiveMaxGap());
+        assertEquals(original.getExtraChannels(), loaded.getExtraChannels());
+        assertEquals(3, loaded.getChannelSpecs().size());
+
+        ModbusPortConfig.saveToPreferences(new ModbusPortConfig());
+    }
 }
@@ -0,0 +1,103 @@
+package org.artisan.device;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for ModbusReadPlan (register coalescing, gap filling, execution and timing stats).
+ */
+class ModbusReadPlanTest {
+
+    private static ModbusRegisterSpec spec(int slave, int fc, int reg) {
+        return new ModbusRegisterSpec("r" + reg, slave, fc, reg, 1.0);
+    }
+
+    @Test
+    void coalescesAcrossGapsAndSplitsBySlaveAndFunctionCode() {
+        List<ModbusRegisterSpec> specs = List.of(
+            spec(1, 3, 100), spec(1, 3, 101), spec(1, 3, 108), // one block, gap of 6 filled
+            spec(1, 3, 140),                                    // gap 31 > 10: own block
+            spec(1, 4, 100),                                    // input registers
+            spec(2, 3, 100));                                   // other slave
+        ModbusReadPlan plan = ModbusReadPlan.plan(specs, ModbusReadPlan.MAX_READ_REGISTERS, 10);
+        List<ModbusReadPlan.Block> blocks = plan.getBlocks();
+        assertEquals(4, blocks.size());
+        ModbusReadPlan.Block first = blocks.get(0);
+        assertEquals(100, first.start());
+        assertEquals(9, first.count());
+        assertArrayEquals(new int[] { 0, 1, 2 }, first.channels());
+        assertArrayEquals(new int[] { 0, 1, 8 }, first.offsets());
+        assertEquals(140, blocks.get(1).start());
+        assertEquals(4, blocks.get(2).functionCode());
+        assertEquals(2, blocks.get(3).slaveId());
+
+        ModbusReadPlan tcp = ModbusReadPlan.plan(specs, ModbusReadPlan.MAX_READ_REGISTERS, ModbusReadPlan.DEFAULT_MAX_GAP_TCP);
+        assertEquals(3, tcp.getBlocks().size());
+        assertEquals(41, tcp.getBlocks().get(0).count());
+    }
+
+    @Test
+    void respectsMaxRegistersWithMinimalBlockCount() {
+        List<ModbusRegisterSpec> specs = new ArrayList<>();
+        for (int r = 0; r < 300; r += 3) specs.add(spec(1, 3, r));
+        ModbusReadPlan plan = ModbusReadPlan.plan(specs, 200, 200);
+        // clamped to the protocol limit of 125: registers 0..297 need ceil(298/125)=3 blocks
+        assertEquals(3, plan.getBlocks().size());
+        for (ModbusReadPlan.Block b : plan.getBlocks()) {
+            assertTrue(b.count() <= ModbusReadPlan.MAX_READ_REGISTERS);
+        }
+        ModbusReadPlan single = ModbusReadPlan.plan(specs, 200, 1);
+        assertEquals(100, single.getBlocks().size());
+    }
+
+    @Test
+    void executeScalesValuesAndIsolatesFailedBlocks() {
+        List<ModbusRegisterSpec> specs = List.of(
+            new ModbusRegisterSpec("BT", 1, 3, 1, 0.1),
+            new ModbusRegisterSpec("ET", 1, 3, 2, 0.1),
+            new ModbusRegisterSpec("Burner", 7, 4, 20, 1.0));
+        ModbusReadPlan plan = ModbusReadPlan.plan(specs, ModbusReadPlan.MAX_READ_REGISTERS, 10);
+        ModbusReadStats stats = new ModbusReadStats();
+        stats.reset(plan);
+        List<String> calls = new ArrayList<>();
+        ModbusReadPlan.RegisterReader reader = (slave, fc, start, count) -> {
+            calls.add(slave + ":" + fc + ":" + start + ":" + count);
+            if (slave == 7) throw new IllegalStateException("timeout");
+            return new int[] { 2105, 2480 };
+        };
+        double[] out = new double[3];
+        assertEquals(1, plan.execute(reader, out, stats));
+        assertEquals(List.of("1:3:1:2", "7:4:20:1"), calls);
+        assertEquals(210.5, out[0], 1e-9);
+        assertEquals(248.0, out[1], 1e-9);
+        assertTrue(Double.isNaN(out[2]));
+        assertNotNull(plan.getLastError(2));
+        assertEquals(null, plan.getLastError(0));
+
+        List<ModbusReadStats.Entry> snap = stats.snapshot();
+        assertEquals(3, snap.size());
+        assertEquals("slave 1 FC3 1..2", snap.get(0).label());
+        assertEquals(1, snap.get(0).count());
+        assertEquals(0, snap.get(0).errors());
+        assertEquals(1, snap.get(1).errors());
+        assertEquals("timeout", snap.get(1).lastError());
+        assertEquals("pass", snap.get(2).label());
+        assertEquals(1, snap.get(2).errors());
+    }
+
+    @Test
+    void specsRoundTripThroughPreferencesFormat() {
+        List<ModbusRegisterSpec> specs = List.of(
+            new ModbusRegisterSpec("Burner", 1, 3, 10, 1.0),
+            new ModbusRegisterSpec("Air flow", 2, 4, 300, 0.01));
+        assertEquals(specs, ModbusRegisterSpec.parse(ModbusRegisterSpec.format(specs)));
+        assertEquals(1, ModbusRegisterSpec.parse("bad;Drum,1,3,5,1.0;x,1,9,5,1").size());
+    }
+}
@@ -0,0 +1,253 @@
+package org.artisan.device;
+
+import com.ghgande.j2mod.modbus.slave.ModbusSlave;
+import com.ghgande.j2mod.modbus.slave.ModbusSlaveFactory;
+import com.ghgande.j2mod.modbus.procimg.SimpleInputRegister;
+import com.ghgande.j2mod.modbus.procimg.SimpleProcessImage;
+import com.ghgande.j2mod.modbus.procimg.SimpleRegister;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.artisan.model.ProfileData;
+import org.artisan.model.RoastSimulator;
+
+/**
+ * In-process Modbus slave for load and latency testing without a PLC. A j2mod TCP slave serves a
+ * register map whose values follow {@link RoastSimulator} curves in (scaled) real time; clients
+ * connect through a {@link ModbusFaultProxy} that injects latency, jitter, dropped responses and
+ * CRC errors ({@link ModbusFaults}). With RTU framing the slave speaks RTU over TCP, so CRC
+ * faults reach the master's RTU decoder.
+ * <p>
+ * Configure the map before {@link #start(int)} with 0-based register references;
+ * {@link #withDefaultMap} matches the Besca and Diedrich layout (unit 1, registers 1/2 in their
+ * 1-based numbering = references 0/1, value x10, both holding and input registers).
+ */
+public final class ModbusSlaveSimulator implements AutoCloseable {
+
+    /** Value source of a mapped register. */
+    public enum Signal { BT, ET, ROR_BT, ELAPSED }
+
+    private record Mapping(int unitId, int functionCode, int register, Signal signal, double scale) {}
+
+    private static final int UPDATE_INTERVAL_MS = 50;
+    private static final double ROR_SPAN_SEC = 15.0;
+
+    private final List<Mapping> mappings = new ArrayList<>();
+    private final double[] timex;
+    private final double[] bt;
+    private final double[] et;
+    private double speed = 1.0;
+    private boolean rtuFraming;
+    private ModbusFaults faults = ModbusFaults.NONE;
+
+    private ModbusSlave slave;
+    private ModbusFaultProxy proxy;
+    private ScheduledExecutorService updater;
+    private final Map<Integer, SimpleProcessImage> images = new TreeMap<>();
+    private final List<Runnable> writers = new ArrayList<>();
+    private long startNanos;
+
+    public ModbusSlaveSimulator(RoastSimulator roast) {
+        ProfileData p = (roast != null ? roast : new RoastSimulator()).generate();
+        int n = p.getTimex().size();
+        timex = new double[n];
+        bt = new double[n];
+        et = new double[n];
+        for (int i = 0; i < n; i++) {
+            timex[i] = p.getTimex().get(i);
+            bt[i] = p.getTemp2().get(i);
+            et[i] = p.getTemp1().get(i);
+        }
+    }
+
+    /** Unit 1, references 0 (BT) and 1 (ET) as holding and input registers, value x10. */
+    public static ModbusSlaveSimulator withDefaultMap(RoastSimulator roast) {
+        ModbusSlaveSimulator sim = new ModbusSlaveSimulator(roast);
+        for (int fc : new int[] { ModbusRegisterSpec.FC_HOLDING, ModbusRegisterSpec.FC_INPUT }) {
+            sim.map(1, fc, 0, Signal.BT, 10.0);
+            sim.map(1, fc, 1, Signal.ET, 10.0);
+        }
+        return sim;
+    }
+
+    /** Serves {@code signal * scale} (rounded, clamped to 0..65535) at the 0-based register reference. */
+    public ModbusSlaveSimulator map(int unitId, int functionCode, int register, Signal signal, double scale) {
+        mappings.add(new Mapping(unitId, functionCode, register, signal, scale));
+        return this;
+    }
+
+    /** Simulated roast seconds per wall-clock second (e.g. 10 = ten times faster). */
+    public ModbusSlaveSimulator setSpeed(double speed) {
+        this.speed = speed > 0 ? speed : 1.0;
+        return this;
+    }
+
+    /** true = RTU over TCP (unit, PDU, CRC), false = Modbus TCP (MBAP). */
+    public ModbusSlaveSimulator setRtuFraming(boolean rtuFraming) {
+        this.rtuFraming = rtuFraming;
+        return this;
+    }
+
+    /** Fault profile; may be changed while running. */
+    public ModbusSlaveSimulator setFaults(ModbusFaults faults) {
+        this.faults = faults != null ? faults : ModbusFaults.NONE;
+        if (proxy != null) proxy.setFaults(this.faults);
+        return this;
+    }
+
+    /**
+     * Starts the slave and the fault proxy on loopback.
+     *
+     * @param port client port, 0 = any free port
+     * @return the client port
+     */
+    public synchronized int start(int port) throws DeviceException {
+        if (proxy != null) return proxy.getPort();
+        try {
+            int upstreamPort = freePort();
+            slave = ModbusSlaveFactory.createTCPSlave(InetAddress.getLoopbackAddress(), upstreamPort, 4, rtuFraming);
+            buildImages();
+            for (Map.Entry<Integer, SimpleProcessImage> e : images.entrySet()) {
+                slave.addProcessImage(e.getKey(), e.getValue());
+            }
+            slave.open();
+            proxy = new ModbusFaultProxy(port, upstreamPort, rtuFraming, faults);
+        } catch (Exception e) {
+            close();
+            throw new DeviceException("Modbus simulator start failed: " + e.getMessage(), e);
+        }
+        startNanos = System.nanoTime();
+        updateRegisters();
+        updater = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "modbus-sim-update");
+            t.setDaemon(true);
+            return t;
+        });
+        updater.scheduleAtFixedRate(this::updateRegisters, UPDATE_INTERVAL_MS, UPDATE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        return proxy.getPort();
+    }
+
+    public int getPort() {
+        ModbusFaultProxy p = proxy;
+        return p != null ? p.getPort() : -1;
+    }
+
+    public boolean isRtuFraming() {
+        return rtuFraming;
+    }
+
+    /** Current simulated roast time in seconds (wraps at the end of the curve). */
+    public double getSimulatedTime() {
+        double end = timex.length > 0 ? timex[timex.length - 1] : 0;
+        double t = (System.nanoTime() - startNanos) / 1e9 * speed;
+        return end > 0 ? t % end : 0;
+    }
+
+    /** Unscaled value of {@code signal} at simulated time {@code t}. */
+    public double valueAt(Signal signal, double t) {
+        return switch (signal) {
+            case BT -> interpolate(bt, t);
+            case ET -> interpolate(et, t);
+            case ROR_BT -> (interpolate(bt, t) - interpolate(bt, t - ROR_SPAN_SEC)) * 60.0 / ROR_SPAN_SEC;
+            case ELAPSED -> t;
+        };
+    }
+
+    /** Responses produced by the slave / dropped / corrupted by the fault proxy. */
+    public long getTransactions() {
+        ModbusFaultProxy p = proxy;
+        return p != null ? p.getTransactions() : 0;
+    }
+
+    public long getDropped() {
+        ModbusFaultProxy p = proxy;
+        return p != null ? p.getDropped() : 0;
+    }
+
+    public long getCorrupted() {
+        ModbusFaultProxy p = proxy;
+        return p != null ? p.getCorrupted() : 0;
+    }
+
+    private void buildImages() {
+        images.clear();
+        writers.clear();
+        Map<Integer, Integer> maxRegister = new TreeMap<>();
+        for (Mapping m : mappings) maxRegister.merge(m.unitId(), m.register(), Math::max);
+        for (Map.Entry<Integer, Integer> e : maxRegister.entrySet()) {
+            SimpleProcessImage image = new SimpleProcessImage(e.getKey());
+            for (int r = 0; r <= e.getValue(); r++) {
+                image.addRegister(new SimpleRegister(0));
+                image.addInputRegister(new SimpleInputRegister(0));
+            }
+            images.put(e.getKey(), image);
+        }
+        for (Mapping m : mappings) {
+            SimpleProcessImage image = images.get(m.unitId());
+            if (m.functionCode() == ModbusRegisterSpec.FC_INPUT) {
+                SimpleInputRegister reg = (SimpleInputRegister) image.getInputRegister(m.register());
+                writers.add(() -> reg.setValue(encode(m)));
+            } else {
+                SimpleRegister reg = (SimpleRegister) image.getRegister(m.register());
+                writers.add(() -> reg.setValue(encode(m)));
+            }
+        }
+    }
+
+    private void updateRegisters() {
+        for (Runnable w : writers) w.run();
+    }
+
+    private int encode(Mapping m) {
+        double v = valueAt(m.signal(), getSimulatedTime()) * m.scale();
+        if (Double.isNaN(v)) return 0;
+        return (int) Math.max(0, Math.min(0xFFFF, Math.round(v)));
+    }
+
+    private double interpolate(double[] y, double t) {
+        int n = timex.length;
+        if (n == 0) return Double.NaN;
+        if (t <= timex[0]) return y[0];
+        if (t >= timex[n - 1]) return y[n - 1];
+        int lo = 0;
+        int hi = n - 1;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (timex[mid] <= t) lo = mid;
+            else hi = mid;
+        }
+        double f = (t - timex[lo]) / (timex[hi] - timex[lo]);
+        return y[lo] + f * (y[hi] - y[lo]);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return s.getLocalPort();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (updater != null) {
+            updater.shutdownNow();
+            updater = null;
+        }
+        if (proxy != null) {
+            proxy.close();
+            proxy = null;
+        }
+        if (slave != null) {
+            ModbusSlaveFactory.close(slave);
+            slave = null;
+        }
+    }
+}
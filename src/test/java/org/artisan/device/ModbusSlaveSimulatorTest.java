@@ -0,0 +1,66 @@
+package org.artisan.device;
+
+import org.artisan.model.RoastSimulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for ModbusSlaveSimulator (j2mod slave + fault proxy) and ModbusLoadHarness.
+ */
+class ModbusSlaveSimulatorTest {
+
+    private ModbusSlaveSimulator sim;
+
+    @AfterEach
+    void tearDown() {
+        if (sim != null) sim.close();
+    }
+
+    private static RoastSimulator quietRoast() {
+        RoastSimulator roast = new RoastSimulator();
+        roast.getConfig().setNoiseAmplitude(0);
+        return roast;
+    }
+
+    @Test
+    void servesRoastCurveAsScaledRegisters() throws Exception {
+        sim = ModbusSlaveSimulator.withDefaultMap(quietRoast());
+        int port = sim.start(0);
+        try (ModbusTcpPipeline pipe = new ModbusTcpPipeline("127.0.0.1", port, 1000, 1)) {
+            int[] regs = pipe.read(1, ModbusRegisterSpec.FC_INPUT, 0, 2);
+            double t = sim.getSimulatedTime();
+            assertEquals(sim.valueAt(ModbusSlaveSimulator.Signal.BT, t), regs[0] / 10.0, 1.0);
+            assertEquals(sim.valueAt(ModbusSlaveSimulator.Signal.ET, t), regs[1] / 10.0, 1.0);
+        }
+    }
+
+    @Test
+    void harnessMeasuresEveryImplementationWithoutFaults() {
+        sim = ModbusSlaveSimulator.withDefaultMap(quietRoast());
+        sim.start(0);
+        for (ModbusLoadHarness.Subject s : ModbusLoadHarness.subjects(sim, 500)) {
+            if (s.name().startsWith("Diedrich")) continue; // reconnects over serial after failures
+            ModbusLoadHarness.Result r = ModbusLoadHarness.run(s, 20);
+            assertEquals(0, r.errors(), r.name());
+            assertTrue(r.samplesPerSecond() > 0, r.name());
+        }
+    }
+
+    @Test
+    void droppedResponsesShowUpAsErrorEpisodesAndRecover() {
+        sim = ModbusSlaveSimulator.withDefaultMap(quietRoast());
+        sim.setFaults(new ModbusFaults(1, 1, 0.3, 0, 11L));
+        int port = sim.start(0);
+        ModbusTcpPipeline pipe = new ModbusTcpPipeline("127.0.0.1", port, 100, 1);
+        ModbusLoadHarness.Result r = ModbusLoadHarness.run("pipeline",
+            () -> pipe.read(1, ModbusRegisterSpec.FC_HOLDING, 0, 2)[0] / 10.0, 60);
+        pipe.close();
+        assertTrue(r.errors() > 0);
+        assertTrue(r.errorEpisodes() > 0);
+        assertTrue(r.maxRecoveryMs() >= 100);
+        assertTrue(sim.getDropped() > 0);
+    }
+}
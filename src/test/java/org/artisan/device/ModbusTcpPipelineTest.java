@@ -0,0 +1,129 @@
+package org.artisan.device;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for ModbusTcpPipeline against an in-test Modbus TCP slave.
+ */
+class ModbusTcpPipelineTest {
+
+    private ServerSocket server;
+    private Thread serverThread;
+    /** Most requests the slave saw queued before it answered. */
+    private final AtomicInteger maxQueued = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (server != null) server.close();
+    }
+
+    /**
+     * Slave that waits for {@code batch} requests, then answers them in reverse order. Register
+     * value = start address + offset; slave 9 answers with exception 2.
+     */
+    private int startSlave(int batch) throws IOException {
+        server = new ServerSocket(0);
+        serverThread = new Thread(() -> {
+            try (Socket s = server.accept()) {
+                DataInputStream in = new DataInputStream(s.getInputStream());
+                OutputStream out = s.getOutputStream();
+                while (true) {
+                    List<byte[]> pending = new ArrayList<>();
+                    for (int i = 0; i < batch; i++) {
+                        byte[] req = new byte[12];
+                        in.readFully(req);
+                        pending.add(req);
+                    }
+                    maxQueued.accumulateAndGet(pending.size(), Math::max);
+                    for (int i = pending.size() - 1; i >= 0; i--) out.write(respond(pending.get(i)));
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+                // closed by test
+            }
+        }, "modbus-test-slave");
+        serverThread.setDaemon(true);
+        serverThread.start();
+        return server.getLocalPort();
+    }
+
+    private static byte[] respond(byte[] req) {
+        int unit = req[6] & 0xFF;
+        int fc = req[7] & 0xFF;
+        int start = ((req[8] & 0xFF) << 8) | (req[9] & 0xFF);
+        int count = ((req[10] & 0xFF) << 8) | (req[11] & 0xFF);
+        byte[] pdu;
+        if (unit == 9) {
+            pdu = new byte[] { (byte) (fc | 0x80), 2 };
+        } else {
+            pdu = new byte[2 + 2 * count];
+            pdu[0] = (byte) fc;
+            pdu[1] = (byte) (2 * count);
+            for (int k = 0; k < count; k++) {
+                int v = start + k;
+                pdu[2 + 2 * k] = (byte) (v >> 8);
+                pdu[3 + 2 * k] = (byte) v;
+            }
+        }
+        byte[] frame = new byte[7 + pdu.length];
+        frame[0] = req[0];
+        frame[1] = req[1];
+        frame[5] = (byte) (pdu.length + 1);
+        frame[6] = (byte) unit;
+        System.arraycopy(pdu, 0, frame, 7, pdu.length);
+        return frame;
+    }
+
+    @Test
+    void keepsRequestsInFlightAndMatchesOutOfOrderResponses() throws Exception {
+        int port = startSlave(3);
+        List<ModbusRegisterSpec> specs = List.of(
+            new ModbusRegisterSpec("BT", 1, 3, 10, 0.1),
+            new ModbusRegisterSpec("ET", 2, 3, 20, 0.1),
+            new ModbusRegisterSpec("Fan", 3, 4, 30, 1.0));
+        ModbusReadPlan plan = ModbusReadPlan.plan(specs, ModbusReadPlan.MAX_READ_REGISTERS, 10);
+        ModbusReadStats stats = new ModbusReadStats();
+        stats.reset(plan);
+        double[] out = new double[3];
+        try (ModbusTcpPipeline pipe = new ModbusTcpPipeline("127.0.0.1", port, 2000, 4)) {
+            for (int tick = 0; tick < 3; tick++) {
+                assertEquals(0, plan.execute(pipe, out, stats));
+                assertEquals(1.0, out[0], 1e-9);
+                assertEquals(2.0, out[1], 1e-9);
+                assertEquals(30.0, out[2], 1e-9);
+            }
+        }
+        assertEquals(3, maxQueued.get());
+        assertEquals(3, stats.snapshot().get(3).count());
+    }
+
+    @Test
+    void exceptionResponseFailsOnlyItsBlock() throws Exception {
+        int port = startSlave(2);
+        List<ModbusRegisterSpec> specs = List.of(
+            new ModbusRegisterSpec("BT", 1, 3, 5, 1.0),
+            new ModbusRegisterSpec("Drum", 9, 3, 5, 1.0));
+        ModbusReadPlan plan = ModbusReadPlan.plan(specs, ModbusReadPlan.MAX_READ_REGISTERS, 10);
+        double[] out = new double[2];
+        try (ModbusTcpPipeline pipe = new ModbusTcpPipeline("127.0.0.1", port, 2000, 2)) {
+            assertEquals(1, plan.execute(pipe, out, null));
+            assertEquals(5.0, out[0], 1e-9);
+            assertTrue(Double.isNaN(out[1]));
+            assertTrue(plan.getLastError(1).getMessage().contains("exception 2"));
+            assertTrue(pipe.isConnected());
+        }
+    }
+}
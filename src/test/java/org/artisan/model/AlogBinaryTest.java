@@ -0,0 +1,191 @@
+package org.artisan.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for AlogBinary and the .alogb paths of Roastlog.
+ */
+class AlogBinaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Mixed content: NaN and tiny/huge values (raw columns), rows, events, unknown keys, key order. */
+    private static final String ALOG = "{\"title\": \"Caf\\u00e9\", \"timex\": [0.0, 1.5, 2.0, 1e-05, 1e+16], "
+        + "\"temp1\": [200.25, NaN, -0.5], \"temp2\": [180.1, 181.3, 182.0], \"timeindex\": [0, 0, 0, 0, 0, 0, 2, 0], "
+        + "\"specialevents\": [1, 2], \"specialeventstype\": [0, 3], \"specialeventsvalue\": [5.5, 0.0], "
+        + "\"extratimex\": [[0.0, 1.0], [2.0]], \"extratemp1\": [], \"extratemp2\": null, "
+        + "\"roastepoch\": 1700000000, \"unknownKey\": {\"a\": [1, 2.5]}}";
+
+    private static AlogDocument read(String json) throws IOException {
+        return AlogCodec.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String write(AlogDocument doc) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AlogCodec.write(doc, out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static ProfileData roast(int samples) {
+        ProfileData p = new ProfileData();
+        p.setTitle("Roast");
+        List<Double> timex = new ArrayList<>();
+        List<Double> bt = new ArrayList<>();
+        List<Double> et = new ArrayList<>();
+        for (int i = 0; i < samples; i++) {
+            timex.add(i * 2.0);
+            bt.add(Math.round((90.0 + i * 0.13 + Math.cos(i / 17.0)) * 10) / 10.0);
+            et.add(Math.round((180.0 + 60.0 * Math.sin(i / 300.0)) * 100) / 100.0);
+        }
+        p.setTimex(timex);
+        p.setTemp1(et);
+        p.setTemp2(bt);
+        p.setTimeindex(List.of(3, 0, 0, 0, 0, 0, samples - 1, 0));
+        p.setSpecialevents(List.of(10, 20));
+        p.setSpecialeventstype(List.of(0, 1));
+        p.setSpecialeventsvalue(List.of(5.0, 6.0));
+        return p;
+    }
+
+    @Test
+    void convertsToAlogByteIdentical() throws IOException {
+        ByteBuffer bytes = AlogBinary.encode(read(ALOG));
+        assertEquals(ALOG, write(AlogBinary.wrap(bytes).toDocument()));
+    }
+
+    @Test
+    void headerAndColumnsReadWithoutMetadata() throws IOException {
+        AlogBinary bin = AlogBinary.wrap(AlogBinary.encode(read(ALOG)));
+        assertEquals(5, bin.sampleCount());
+        assertEquals(0.0, bin.chargeTime());
+        assertEquals(2.0, bin.dropTime());
+        assertEquals(1700000000L, bin.roastEpoch().getAsLong());
+        assertEquals(List.of("timex", "temp1", "temp2", "extratimex[0]", "extratimex[1]"), bin.columnNames());
+        assertArrayEquals(new double[] { 180.1, 181.3, 182.0 }, bin.column("temp2"));
+        assertTrue(Double.isNaN(bin.column("temp1")[1]));
+        assertNull(bin.column("delta1"));
+        assertEquals(2, bin.eventCount());
+        assertEquals(2, bin.eventIndex(1));
+        assertEquals(3, bin.eventType(1));
+        assertEquals(5.5, bin.eventValue(0));
+        AlogDocument meta = bin.metadata();
+        assertFalse(meta.containsKey("timex"));
+        assertFalse(meta.containsKey("specialevents"));
+        assertTrue(meta.containsKey("extratemp1"));
+        assertEquals("Café", meta.get("title"));
+    }
+
+    @Test
+    void deviceDecimalsAreDeltaEncoded() throws IOException {
+        assertEquals(1, AlogBinary.exactDecimals(new double[] { 20.1, 155.7, -3.0 }));
+        assertEquals(0, AlogBinary.exactDecimals(new double[] { 0.0, 2.0, 4.0 }));
+        assertEquals(-1, AlogBinary.exactDecimals(new double[] { 0.1 + 0.2 }));
+        assertEquals(-1, AlogBinary.exactDecimals(new double[] { Double.NaN }));
+        assertEquals(-1, AlogBinary.exactDecimals(new double[] { -0.0 }));
+
+        AlogDocument doc = AlogDocument.of(roast(1800));
+        int json = write(doc).length();
+        int binary = AlogBinary.encode(doc).remaining();
+        assertTrue(binary * 4 < json, binary + " vs " + json);
+    }
+
+    @Test
+    void roastlogSavesLoadsAndConverts() throws IOException {
+        ProfileData p = roast(600);
+        Path bin = tempDir.resolve("roast.alogb");
+        Roastlog.save(p, bin);
+        AlogBinary mapped = AlogBinary.open(bin);
+        assertEquals(600, mapped.sampleCount());
+        assertEquals(6.0, mapped.chargeTime());
+        assertEquals(1198.0, mapped.dropTime());
+
+        ProfileData q = Roastlog.load(bin);
+        assertEquals(p.getTimex(), q.getTimex());
+        assertEquals(p.getTemp2(), q.getTemp2());
+        assertEquals(p.getSpecialeventsvalue(), q.getSpecialeventsvalue());
+
+        Path json = tempDir.resolve("roast.alog");
+        Path back = tempDir.resolve("back.alog");
+        Roastlog.save(p, json);
+        Roastlog.convert(json, tempDir.resolve("copy.alogb"));
+        Roastlog.convert(tempDir.resolve("copy.alogb"), back);
+        assertArrayEquals(Files.readAllBytes(json), Files.readAllBytes(back));
+    }
+
+    @Test
+    void longColumnNamesRoundTrip() throws IOException {
+        // Event arrays of unequal length are stored as plain columns under their full key names.
+        String json = "{\"timex\": [0.0, 1.0], \"specialevents\": [1], \"specialeventstype\": [0, 3], "
+            + "\"specialeventsvalue\": [5.5, 0.0, 1.0]}";
+        AlogDocument doc = read(json);
+        doc.put("a_rather_long_curve_name", new double[] { 1.5, 2.5 });
+        AlogBinary bin = AlogBinary.wrap(AlogBinary.encode(doc));
+        assertTrue(bin.columnNames().contains("specialeventsvalue"), bin.toString());
+        assertArrayEquals(new double[] { 1.5, 2.5 }, bin.column("a_rather_long_curve_name"));
+        assertEquals(write(doc), write(bin.toDocument()));
+    }
+
+    @Test
+    void truncatedColumnIsAnIoError() throws IOException {
+        ProfileData p = roast(600);
+        ByteBuffer bytes = AlogBinary.encode(AlogDocument.of(p));
+        int temp2 = -1;
+        AlogBinary bin = AlogBinary.wrap(bytes);
+        for (int i = 0; i < bin.columnNames().size(); i++) {
+            if (bin.columnNames().get(i).equals("temp2")) temp2 = i;
+        }
+        // one byte per value passes the directory check but cannot hold every varint
+        int entry = AlogBinary.HEADER_BYTES + temp2 * AlogBinary.ENTRY_BYTES;
+        bytes.order(ByteOrder.LITTLE_ENDIAN).putInt(entry + 20, bytes.getInt(entry + 12));
+        AlogBinary truncated = AlogBinary.wrap(bytes);
+        assertThrows(IOException.class, () -> truncated.column("temp2"));
+        Path bad = tempDir.resolve("truncated.alogb");
+        Files.write(bad, Arrays.copyOf(bytes.array(), bytes.limit()));
+        assertNull(Roastlog.load(bad));
+    }
+
+    @Test
+    void deltaCountBeyondColumnBytesIsRejectedUpFront() throws IOException {
+        ByteBuffer bytes = AlogBinary.encode(AlogDocument.of(roast(600)));
+        AlogBinary bin = AlogBinary.wrap(bytes);
+        int temp1 = bin.columnNames().indexOf("temp1");
+        // a corrupted count must not size a multi-gigabyte array before decoding fails
+        bytes.order(ByteOrder.LITTLE_ENDIAN).putInt(AlogBinary.HEADER_BYTES + temp1 * AlogBinary.ENTRY_BYTES + 12,
+            Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> AlogBinary.wrap(bytes));
+        Path bad = tempDir.resolve("count.alogb");
+        Files.write(bad, Arrays.copyOf(bytes.array(), bytes.limit()));
+        assertNull(Roastlog.load(bad));
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedFiles() throws IOException {
+        assertThrows(IOException.class, () -> AlogBinary.wrap(ByteBuffer.wrap(ALOG.getBytes(StandardCharsets.US_ASCII))));
+        ByteBuffer bytes = AlogBinary.encode(read(ALOG));
+        assertThrows(IOException.class, () -> AlogBinary.wrap(bytes.limit(bytes.limit() - 10)));
+        Path bad = tempDir.resolve("bad.alogb");
+        Files.writeString(bad, ALOG);
+        assertNull(Roastlog.load(bad));
+    }
+}
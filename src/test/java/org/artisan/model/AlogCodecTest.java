@@ -0,0 +1,93 @@
+package org.artisan.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for AlogCodec and AlogDocument.
+ */
+class AlogCodecTest {
+
+    /** As written by Python: json.dumps(d) with ensure_ascii and float repr. */
+    private static final String PYTHON = "{\"recording_version\": \"3.0.2\", \"title\": \"Caf\\u00e9 \\ud83d\\ude00\\n\", "
+        + "\"timex\": [0.0, 1.5, 2.0, 1e-05, 10000000.0, 1e+16], \"temp1\": [200.25, NaN, -0.5, 0.001], "
+        + "\"temp2\": [], \"specialevents\": [1, 3], \"specialeventstype\": [0, 2], "
+        + "\"specialeventsvalue\": [0.0, 5.5], \"extratimex\": [[0.0, 1.0], []], "
+        + "\"extratemp1\": [[20.5, 21.5], []], \"unknownKey\": {\"a\": [1, 2.5, true, null], \"b\": \"x\"}, "
+        + "\"weight\": [150.0, 125, \"g\"]}";
+
+    private static AlogDocument read(String json) throws IOException {
+        return AlogCodec.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String write(AlogDocument doc) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AlogCodec.write(doc, out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void decodesCurvesIntoPrimitiveArrays() throws IOException {
+        AlogDocument doc = read(PYTHON);
+        assertArrayEquals(new double[] { 0.0, 1.5, 2.0, 1e-5, 1e7, 1e16 }, doc.getDoubles("timex"));
+        assertTrue(Double.isNaN(doc.getDoubles("temp1")[1]));
+        assertEquals(0, doc.getDoubles("temp2").length);
+        assertArrayEquals(new int[] { 1, 3 }, doc.getInts("specialevents"));
+        assertEquals(2, doc.getDoubleRows("extratemp1").length);
+        assertArrayEquals(new double[] { 20.5, 21.5 }, doc.getDoubleRows("extratemp1")[0]);
+        assertEquals("Café 😀\n", doc.get("title"));
+        assertEquals(Map.of("a", java.util.Arrays.asList(1, 2.5, true, null), "b", "x"), doc.get("unknownKey"));
+    }
+
+    @Test
+    void roundTripIsByteIdenticalToPython() throws IOException {
+        assertEquals(PYTHON, write(read(PYTHON)));
+    }
+
+    @Test
+    void formatsFloatsLikePythonRepr() {
+        assertEquals("200.0", AlogCodec.pythonRepr(200));
+        assertEquals("0.1", AlogCodec.pythonRepr(0.1));
+        assertEquals("0.0001", AlogCodec.pythonRepr(1e-4));
+        assertEquals("1e-05", AlogCodec.pythonRepr(1e-5));
+        assertEquals("-1.25e-07", AlogCodec.pythonRepr(-1.25e-7));
+        assertEquals("1234567890123456.0", AlogCodec.pythonRepr(1234567890123456.0));
+        assertEquals("1.2345678901234568e+16", AlogCodec.pythonRepr(12345678901234567.0));
+        assertEquals("-0.0", AlogCodec.pythonRepr(-0.0));
+        assertEquals("Infinity", AlogCodec.pythonRepr(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void profileDataRoundTripKeepsCurves() throws IOException {
+        ProfileData p = new ProfileData();
+        p.setTitle("x");
+        p.setTimex(List.of(0.0, 1.0, 2.0));
+        p.setTemp2(List.of(100.0, 101.5, 103.0));
+        p.setSpecialevents(List.of(1));
+        AlogDocument doc = AlogDocument.of(p);
+        assertArrayEquals(new double[] { 0.0, 1.0, 2.0 }, doc.getDoubles("timex"));
+        ProfileData q = read(write(doc)).toProfileData();
+        assertEquals(p.getTimex(), q.getTimex());
+        assertEquals(p.getTemp2(), q.getTemp2());
+        assertEquals(p.getSpecialevents(), q.getSpecialevents());
+        assertEquals("x", q.getTitle());
+    }
+
+    @Test
+    void rejectsMalformedCurves() {
+        assertThrows(IOException.class, () -> read("{\"timex\": [1.0, \"a\"]}"));
+        assertThrows(IOException.class, () -> read("[1, 2]"));
+        assertThrows(IOException.class, () -> read(""));
+    }
+}
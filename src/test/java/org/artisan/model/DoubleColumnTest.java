@@ -0,0 +1,76 @@
+package org.artisan.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for DoubleColumn: growth, snapshot views, bulk export and list adapter.
+ */
+class DoubleColumnTest {
+
+    @Test
+    void appendGrowsBeyondInitialCapacity() {
+        DoubleColumn c = new DoubleColumn();
+        for (int i = 0; i < 10_000; i++) c.add(i * 0.5);
+        assertEquals(10_000, c.size());
+        assertEquals(0.0, c.get(0), 0.0);
+        assertEquals(4999.5, c.get(9999), 0.0);
+        assertEquals(4999.5, c.last(Double.NaN), 0.0);
+    }
+
+    @Test
+    void viewIsStableWhileColumnGrows() {
+        DoubleColumn c = new DoubleColumn();
+        c.add(1.0);
+        c.add(2.0);
+        DoubleColumn.View v = c.view();
+        for (int i = 0; i < 1000; i++) c.add(100.0 + i);
+        assertEquals(2, v.size());
+        assertEquals(2.0, v.last(Double.NaN), 0.0);
+        assertEquals(1002, c.view().size());
+    }
+
+    @Test
+    void viewSurvivesClearAndSetAll() {
+        DoubleColumn c = new DoubleColumn();
+        c.add(1.0);
+        c.add(2.0);
+        DoubleColumn.View v = c.view();
+        c.clear();
+        c.add(9.0);
+        assertArrayEquals(new double[] { 1.0, 2.0 }, v.toArray(), 0.0);
+
+        DoubleColumn.View v2 = c.view();
+        c.setAll(List.of(5.0), 3, 0.0);
+        assertArrayEquals(new double[] { 9.0 }, v2.toArray(), 0.0);
+        assertArrayEquals(new double[] { 5.0, 0.0, 0.0 }, c.toArray(), 0.0);
+    }
+
+    @Test
+    void copyToExportsRange() {
+        DoubleColumn c = new DoubleColumn();
+        for (int i = 0; i < 5; i++) c.add(i);
+        double[] dst = new double[4];
+        c.view().copyTo(1, dst, 1, 3);
+        assertArrayEquals(new double[] { 0.0, 1.0, 2.0, 3.0 }, dst, 0.0);
+        assertThrows(IndexOutOfBoundsException.class, () -> c.view().copyTo(3, dst, 0, 3));
+    }
+
+    @Test
+    void listAdapterIsReadOnly() {
+        DoubleColumn c = new DoubleColumn();
+        c.add(3.0);
+        List<Double> list = c.view().asList();
+        assertEquals(1, list.size());
+        assertEquals(3.0, list.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(1.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertTrue(c.view().toBoxedList().contains(3.0));
+    }
+}
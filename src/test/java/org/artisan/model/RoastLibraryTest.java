@@ -0,0 +1,184 @@
+package org.artisan.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for RoastLibrary.
+ */
+class RoastLibraryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static ProfileData roast(String beans, long epoch, int batch) {
+        ProfileData p = new ProfileData();
+        p.setTitle("Roast " + batch);
+        p.setBeans(beans);
+        p.setRoastepoch(epoch);
+        p.setRoastbatchnr(batch);
+        p.setWeight(List.of(1000.0, 850.0, "g"));
+        List<Double> timex = new ArrayList<>();
+        List<Double> bt = new ArrayList<>();
+        for (int i = 0; i < 301; i++) {
+            timex.add(i * 2.0);
+            bt.add(150.0);
+        }
+        p.setTimex(timex);
+        p.setTemp1(bt);
+        p.setTemp2(bt);
+        // CHARGE at 20 s, FCs at 420 s, DROP at 520 s
+        p.setTimeindex(List.of(10, 0, 210, 0, 0, 0, 260, 0));
+        return p;
+    }
+
+    @Test
+    void scanExtractsStatsAndAnswersQueries() throws IOException {
+        Path sub = Files.createDirectories(tempDir.resolve("roasts/2024"));
+        Roastlog.save(roast("Ethiopia Guji", 1_700_000_000L, 1), tempDir.resolve("roasts/a.alog"));
+        Roastlog.save(roast("Colombia Huila", 1_700_100_000L, 2), sub.resolve("b.alogb"));
+        Roastlog.save(roast("Ethiopia Sidamo", 1_700_200_000L, 3), sub.resolve("c.alog"));
+        Files.writeString(sub.resolve("broken.alog"), "not json");
+        Files.writeString(sub.resolve("notes.txt"), "x");
+
+        RoastLibrary lib = new RoastLibrary(tempDir.resolve("library.index"));
+        assertEquals(3, lib.scan(tempDir.resolve("roasts")));
+        assertEquals(3, lib.size());
+
+        RoastLibrary.Entry b = lib.get(sub.resolve("b.alogb")).orElseThrow();
+        assertEquals("Colombia Huila", b.beans());
+        assertEquals(2, b.batchNr());
+        assertEquals(20.0, b.chargeTimeSec());
+        assertEquals(500.0, b.dropTimeSec());
+        assertEquals(400.0, b.fcsTimeSec());
+        assertEquals(20.0, b.dtr(), 1e-9);
+        assertEquals(50.0 * 500 / 60.0, b.auc(), 1e-9);
+        assertEquals(15.0, b.weightLossPercent(), 1e-9);
+
+        assertEquals(List.of(1, 2), lib.between(1_700_000_000L, 1_700_200_000L).stream().map(RoastLibrary.Entry::batchNr).toList());
+        assertEquals(List.of(1, 3), lib.byBeans("ethiopia").stream().map(RoastLibrary.Entry::batchNr).toList());
+        assertEquals(3, lib.query(e -> e.dtr() > 19 && e.dtr() < 21).size());
+        assertEquals(0, lib.scan(tempDir.resolve("roasts")), "unchanged files are not reparsed");
+
+        Files.delete(sub.resolve("c.alog"));
+        lib.scan(tempDir.resolve("roasts"));
+        assertEquals(2, lib.size());
+    }
+
+    @Test
+    void indexRoundTripsThroughFile() throws IOException {
+        Roastlog.save(roast("Kenya", 1_700_000_000L, 7), tempDir.resolve("k.alog"));
+        RoastLibrary lib = new RoastLibrary(tempDir.resolve("idx/library.index"));
+        lib.scan(tempDir);
+        lib.save();
+
+        RoastLibrary reloaded = new RoastLibrary(tempDir.resolve("idx/library.index"));
+        reloaded.load();
+        assertEquals(lib.entries(), reloaded.entries());
+        assertEquals(0, reloaded.scan(tempDir));
+
+        Files.writeString(tempDir.resolve("idx/library.index"), "garbage");
+        reloaded.load();
+        assertEquals(0, reloaded.size());
+    }
+
+    @Test
+    void unchargedRoastTimesCountFromTheFirstSample() throws IOException {
+        ProfileData p = roast("Brazil", 1_700_000_000L, 4);
+        List<Double> timex = new ArrayList<>();
+        for (int i = 0; i < 301; i++) timex.add(30.0 + i * 2.0);
+        p.setTimex(timex);
+        p.setTimeindex(List.of(-1, 0, 210, 0, 0, 0, 260, 0));
+        Roastlog.save(p, tempDir.resolve("u.alog"));
+        RoastLibrary.Entry e = RoastLibrary.readEntry(tempDir.resolve("u.alog"));
+        assertTrue(Double.isNaN(e.chargeTimeSec()));
+        assertEquals(520.0, e.dropTimeSec());
+        assertEquals(420.0, e.fcsTimeSec());
+    }
+
+    @Test
+    void binaryEntriesDecodeOnlyTimeAndBeanTemperature() throws IOException {
+        ProfileData p = roast("Guatemala", 1_700_000_000L, 5);
+        ByteBuffer bytes = AlogBinary.encode(AlogDocument.of(p));
+        AlogBinary bin = AlogBinary.wrap(bytes);
+        int temp1 = bin.columnNames().indexOf("temp1");
+        // cut ET's delta data to one byte per sample (the first value needs two): decoding it
+        // fails, so indexing must not touch it
+        bytes.order(ByteOrder.LITTLE_ENDIAN).putInt(AlogBinary.HEADER_BYTES + temp1 * AlogBinary.ENTRY_BYTES + 20, 301);
+        Path file = tempDir.resolve("g.alogb");
+        Files.write(file, Arrays.copyOf(bytes.array(), bytes.limit()));
+        assertNull(Roastlog.load(file));
+
+        RoastLibrary.Entry e = RoastLibrary.readEntry(file);
+        assertNotNull(e);
+        assertEquals("Guatemala", e.beans());
+        assertEquals(1_700_000_000L, e.roastEpochSec());
+        assertEquals(5, e.batchNr());
+        assertEquals(20.0, e.chargeTimeSec());
+        assertEquals(500.0, e.dropTimeSec());
+        assertEquals(50.0 * 500 / 60.0, e.auc(), 1e-9);
+        assertEquals(15.0, e.weightLossPercent(), 1e-9);
+    }
+
+    @Test
+    void indexKeepsStringsLongerThan64k() throws IOException {
+        String beans = "Ethiopia \u00e9 ".repeat(7000);
+        Roastlog.save(roast(beans, 1_700_000_000L, 8), tempDir.resolve("long.alog"));
+        RoastLibrary lib = new RoastLibrary(tempDir.resolve("library.index"));
+        lib.scan(tempDir);
+        lib.save();
+        RoastLibrary reloaded = new RoastLibrary(tempDir.resolve("library.index"));
+        reloaded.load();
+        assertEquals(1, reloaded.size());
+        assertEquals(beans, reloaded.entries().get(0).beans());
+    }
+
+    @Test
+    void watchPicksUpNewChangedAndDeletedRoasts() throws Exception {
+        Path root = Files.createDirectories(tempDir.resolve("lib"));
+        Roastlog.save(roast("Brazil", 1_700_000_000L, 1), root.resolve("a.alog"));
+        try (RoastLibrary lib = new RoastLibrary(tempDir.resolve("library.index"))) {
+            lib.watch(root);
+            assertEquals(1, lib.size());
+
+            Path nested = Files.createDirectories(root.resolve("new"));
+            Roastlog.save(roast("Kenya", 1_700_100_000L, 2), nested.resolve("b.alog"));
+            awaitTrue(() -> lib.size() == 2);
+            Roastlog.save(roast("Kenya AA", 1_700_100_000L, 2), nested.resolve("b.alog"));
+            awaitTrue(() -> lib.byBeans("kenya aa").size() == 1);
+            Files.delete(root.resolve("a.alog"));
+            awaitTrue(() -> lib.size() == 1);
+            awaitTrue(() -> {
+                RoastLibrary saved = new RoastLibrary(tempDir.resolve("library.index"));
+                saved.load();
+                return saved.byBeans("kenya aa").size() == 1 && saved.size() == 1;
+            });
+        }
+    }
+
+    private interface Condition {
+        boolean holds();
+    }
+
+    private static void awaitTrue(Condition c) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!c.holds()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(20);
+        }
+    }
+}
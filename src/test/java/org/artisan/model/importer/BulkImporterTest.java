@@ -0,0 +1,104 @@
+package org.artisan.model.importer;
+
+import org.artisan.model.ProfileData;
+import org.artisan.model.RoastLibrary;
+import org.artisan.model.Roastlog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for BulkImporter.
+ */
+class BulkImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String giesen(int rows) {
+        StringBuilder sb = new StringBuilder("air,beans,ror,power,speed,pressure\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append(200 + i).append(',').append(100 + i).append(",5,60,40,1\n");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void detectsFormatsFromHeader() throws IOException {
+        assertEquals(Optional.of(BulkImporter.Format.GIESEN), BulkImporter.detectHeader("air,beans,ror,power,speed,pressure"));
+        assertEquals(Optional.of(BulkImporter.Format.LORING),
+            BulkImporter.detectHeader("Time,RoastTimeSeconds,RoastingOnOff,InletTemp,BeanTemp,BurnerPercent"));
+        assertEquals(Optional.of(BulkImporter.Format.RUBASSE), BulkImporter.detectHeader("time,BT,Fan,Heater,RoR,Drum"));
+        assertEquals(Optional.of(BulkImporter.Format.PETRONCINI), BulkImporter.detectHeader("Date;Time;BT;ET;Gas;Fan"));
+        assertEquals(Optional.of(BulkImporter.Format.ROEST), BulkImporter.detectHeader("time,BT,ET,fan,heater"));
+        assertEquals(Optional.of(BulkImporter.Format.STRONGHOLD), BulkImporter.detectHeader("Time\tBT\tET\tFan\tHeater"));
+        assertTrue(BulkImporter.detectHeader("a,b,c").isEmpty());
+
+        Path json = tempDir.resolve("hibean.json");
+        Files.writeString(json, "{\"sampleInterval\": 1, \"dataList\": []}");
+        assertEquals(Optional.of(BulkImporter.Format.HIBEAN), BulkImporter.detect(json));
+        Path bom = tempDir.resolve("bom.csv");
+        Files.writeString(bom, "\uFEFF" + giesen(1));
+        assertEquals(Optional.of(BulkImporter.Format.GIESEN), BulkImporter.detect(bom));
+    }
+
+    @Test
+    void importsTreeReportsErrorsAndSkipsUpToDateOutputs() throws IOException {
+        Path in = Files.createDirectories(tempDir.resolve("exports/2023"));
+        for (int i = 0; i < 20; i++) Files.writeString(in.resolve("g" + i + ".csv"), giesen(30 + i));
+        Files.writeString(in.resolve("unknown.csv"), "a,b,c\n1,2,3\n");
+        Files.writeString(in.resolve("empty.csv"), "air,beans\n");
+        Path out = tempDir.resolve("out");
+
+        RoastLibrary library = new RoastLibrary(tempDir.resolve("library.index"));
+        BulkImporter importer = new BulkImporter(out);
+        importer.setParallelism(4);
+        importer.setLibrary(library);
+        AtomicInteger calls = new AtomicInteger();
+        importer.setOnProgress(p -> calls.incrementAndGet());
+
+        BulkImporter.Report report = importer.run(tempDir.resolve("exports"));
+        assertEquals(22, report.results().size());
+        assertEquals(22, calls.get());
+        assertEquals(20, report.count(BulkImporter.Status.IMPORTED));
+        assertEquals(2, report.count(BulkImporter.Status.FAILED));
+        assertTrue(report.filesPerSecond() > 0);
+        assertEquals(20, library.size());
+
+        ProfileData p = Roastlog.load(out.resolve("2023/g5.alog"));
+        assertNotNull(p);
+        assertEquals(35, p.getTimex().size());
+        assertEquals("g5", p.getTitle());
+
+        BulkImporter.Report again = importer.run(tempDir.resolve("exports"));
+        assertEquals(20, again.count(BulkImporter.Status.SKIPPED));
+    }
+
+    @Test
+    void fileListGetsUniqueNamesAndBinaryOutput() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String dir : List.of("a", "b")) {
+            Path f = Files.createDirectories(tempDir.resolve(dir)).resolve("roast.csv");
+            Files.writeString(f, giesen(10));
+            files.add(f);
+        }
+        BulkImporter importer = new BulkImporter(tempDir.resolve("out"));
+        importer.setBinary(true);
+        importer.setFormat(BulkImporter.Format.GIESEN);
+        BulkImporter.Report report = importer.run(files);
+        assertEquals(2, report.count(BulkImporter.Status.IMPORTED));
+        assertTrue(Files.isRegularFile(tempDir.resolve("out/roast.alogb")));
+        assertTrue(Files.isRegularFile(tempDir.resolve("out/roast_2.alogb")));
+    }
+}
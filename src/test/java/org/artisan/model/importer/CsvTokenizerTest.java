@@ -0,0 +1,108 @@
+package org.artisan.model.importer;
+
+import org.artisan.util.AsciiDoubles;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for CsvTokenizer.
+ */
+class CsvTokenizerTest {
+
+    private static CsvTokenizer tokenize(String text, String separators) {
+        return new CsvTokenizer(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), separators);
+    }
+
+    @Test
+    void splitsTrimsAndResolvesHeader() {
+        CsvTokenizer csv = tokenize("\uFEFF time , BT,\"ET\"\r\n1, 2.5 ,\"3\"\n\n  \r4,x\r5", ",");
+        assertArrayEquals(new String[] { "time", "BT", "ET" }, csv.readHeader());
+        int bt = csv.column("BT");
+        assertEquals(1, bt);
+        assertEquals(-1, csv.column("missing"));
+
+        assertTrue(csv.nextRow());
+        assertEquals(3, csv.fieldCount());
+        assertEquals(1.0, csv.getDouble(0, -1));
+        assertEquals(2.5, csv.getDouble(bt, -1));
+        assertEquals(3.0, csv.getDouble(csv.column("ET"), -1));
+        assertEquals(-1.0, csv.getDouble(csv.column("missing"), -1));
+
+        assertTrue(csv.nextRow());
+        assertTrue(csv.isBlankRow());
+        assertTrue(csv.nextRow());
+        assertTrue(csv.isBlankRow());
+
+        assertTrue(csv.nextRow());
+        assertFalse(csv.isBlankRow());
+        assertEquals(-1.0, csv.getDouble(bt, -1), "not a number");
+        assertFalse(csv.has(2));
+        assertTrue(csv.isEmpty(2));
+        assertNull(csv.getString(2));
+
+        assertTrue(csv.nextRow());
+        assertEquals("5", csv.getString(0));
+        assertFalse(csv.nextRow());
+    }
+
+    @Test
+    void keepsEmptyFieldsAndQuotedSeparators() {
+        CsvTokenizer csv = tokenize("a\t\tb\t\n\"x,\"\"y\"\"\",z", "\t");
+        assertTrue(csv.nextLineContains('\t'));
+        assertTrue(csv.nextRow());
+        assertEquals(4, csv.fieldCount());
+        assertTrue(csv.isEmpty(1));
+        assertEquals("b", csv.getString(2));
+        assertTrue(csv.isEmpty(3));
+
+        csv.setSeparators(",");
+        assertTrue(csv.nextRow());
+        assertEquals(2, csv.fieldCount());
+        assertEquals("x,\"y\"", csv.getString(0));
+        assertEquals("z", csv.getString(1));
+    }
+
+    @Test
+    void parsesNumbersLikeDoubleParseDouble() {
+        String[] fixed = {
+            "0", "-0", "-0.0", "+1", "1.", ".5", "-.5", "007", "1e3", "1E-3", "2.5e+2", "1e", "e5", "-",
+            "1.5f", "1d", "NaN", "-Infinity", "0x1p3", "12abc", "1..2", "123456789012345678",
+            "0.1", "0.30000000000000004", "9007199254740993", "1e22", "1e23", "4.9e-324", "1e-400", "1e400",
+            "0.000001234", "179769313486231570000000000000000000000000000000000000000000000000000000000000000"
+        };
+        for (String s : fixed) check(s);
+        Random rnd = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            double v = switch (i % 4) {
+                case 0 -> rnd.nextDouble() * 500;
+                case 1 -> Math.round(rnd.nextGaussian() * 10_000) / 100.0;
+                case 2 -> Double.longBitsToDouble(rnd.nextLong());
+                default -> rnd.nextInt(1000) - 500;
+            };
+            check(Double.toString(v));
+            check(String.format(Locale.ROOT, "%.3f", v));
+        }
+    }
+
+    private static void check(String s) {
+        byte[] b = s.getBytes(StandardCharsets.US_ASCII);
+        double expected;
+        try {
+            expected = Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            expected = -42;
+        }
+        double actual = AsciiDoubles.parseDouble(b, 0, b.length, -42);
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual), s);
+    }
+}
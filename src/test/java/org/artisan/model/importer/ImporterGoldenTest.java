@@ -0,0 +1,151 @@
+package org.artisan.model.importer;
+
+import org.artisan.model.ProfileData;
+import org.artisan.model.Roastlog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Golden-file tests for the CSV importers: each export in {@code golden/<vendor>.csv} (padded
+ * cells, blank lines, short rows, non-numeric cells, CRLF) must import to exactly the .alog in
+ * {@code golden/<vendor>.alog}, which was written by the importers as they were before the
+ * shared {@link CsvTokenizer} (String.split, per-row map, Double.parseDouble per cell).
+ */
+class ImporterGoldenTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void giesenMatchesGolden() throws IOException {
+        assertGolden("giesen");
+    }
+
+    @Test
+    void giesenQuotedCellsImportLikeUnquoted() throws IOException {
+        assertQuotedGolden("giesen");
+    }
+
+    @Test
+    void loringMatchesGolden() throws IOException {
+        assertGolden("loring");
+    }
+
+    @Test
+    void loringQuotedCellsImportLikeUnquoted() throws IOException {
+        assertQuotedGolden("loring");
+    }
+
+    @Test
+    void petronciniMatchesGolden() throws IOException {
+        assertGolden("petroncini");
+    }
+
+    @Test
+    void petronciniQuotedCellsImportLikeUnquoted() throws IOException {
+        assertQuotedGolden("petroncini");
+    }
+
+    @Test
+    void roestMatchesGolden() throws IOException {
+        assertGolden("roest");
+    }
+
+    @Test
+    void roestQuotedCellsImportLikeUnquoted() throws IOException {
+        assertQuotedGolden("roest");
+    }
+
+    @Test
+    void rubasseMatchesGolden() throws IOException {
+        assertGolden("rubasse");
+    }
+
+    @Test
+    void rubasseQuotedCellsImportLikeUnquoted() throws IOException {
+        assertQuotedGolden("rubasse");
+    }
+
+    @Test
+    void strongholdMatchesGolden() throws IOException {
+        assertGolden("stronghold");
+    }
+
+    @Test
+    void strongholdQuotedCellsImportLikeUnquoted() throws IOException {
+        assertQuotedGolden("stronghold");
+    }
+
+    private void assertGolden(String vendor) throws IOException {
+        Path csv = tempDir.resolve(vendor + ".csv");
+        Files.write(csv, resource(vendor + ".csv"));
+        assertEquals(golden(vendor), importToAlog(vendor, csv));
+    }
+
+    /**
+     * Behavior change of the tokenizer: a double-quoted cell is unquoted before parsing. The old
+     * importers read {@code "12.5"} as a non-number (-1 or no event); now an export with every
+     * cell quoted imports like the unquoted one.
+     */
+    private void assertQuotedGolden(String vendor) throws IOException {
+        String text = new String(resource(vendor + ".csv"), StandardCharsets.UTF_8);
+        Path dir = Files.createDirectories(tempDir.resolve("quoted"));
+        Path csv = dir.resolve(vendor + ".csv");
+        Files.writeString(csv, quoteAll(text));
+        assertEquals(golden(vendor), importToAlog(vendor, csv));
+    }
+
+    private String importToAlog(String vendor, Path csv) throws IOException {
+        ProfileData p = switch (vendor) {
+            case "giesen" -> GiesenImporter.importFile(csv);
+            case "loring" -> LoringImporter.importFile(csv);
+            case "petroncini" -> PetronciniImporter.importFile(csv);
+            case "roest" -> RoestImporter.importFile(csv);
+            case "rubasse" -> RubasseImporter.importFile(csv);
+            default -> StrongholdImporter.importFile(csv);
+        };
+        Path out = csv.resolveSibling(vendor + "-" + System.nanoTime() + ".alog");
+        Roastlog.save(p, out);
+        return Files.readString(out);
+    }
+
+    private String golden(String vendor) throws IOException {
+        return new String(resource(vendor + ".alog"), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream in = ImporterGoldenTest.class.getResourceAsStream("golden/" + name)) {
+            assertNotNull(in, "missing golden/" + name);
+            return in.readAllBytes();
+        }
+    }
+
+    /** Wraps every non-blank cell in double quotes, keeping separators, padding and line ends. */
+    private static String quoteAll(String text) {
+        StringBuilder sb = new StringBuilder(text.length() * 2);
+        int i = 0;
+        while (i < text.length()) {
+            int j = i;
+            while (j < text.length() && ",;\t\r\n".indexOf(text.charAt(j)) < 0) j++;
+            String cell = text.substring(i, j);
+            String trimmed = cell.trim();
+            if (trimmed.isEmpty()) {
+                sb.append(cell);
+            } else {
+                sb.append('"').append(trimmed).append('"');
+            }
+            if (j < text.length()) sb.append(text.charAt(j));
+            i = j + 1;
+        }
+        return sb.toString();
+    }
+}
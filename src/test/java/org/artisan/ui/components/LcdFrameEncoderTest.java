@@ -0,0 +1,127 @@
+package org.artisan.ui.components;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for LcdFrameEncoder, decoding its frames the way a browser client would.
+ */
+class LcdFrameEncoderTest {
+
+    /** Minimal client-side decoder: keeps the reconstructed channel values in tenths. */
+    static final class Decoder {
+        final long[] tenths = new long[LcdFrameEncoder.CHANNELS.size()];
+        final boolean[] nan = new boolean[tenths.length];
+        long timeTenths;
+        int lastType;
+
+        void accept(byte[] frame) {
+            ByteBuffer b = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+            lastType = b.get();
+            b.get();
+            b.getShort();
+            int mask = b.getInt();
+            if (lastType == LcdFrameEncoder.TYPE_KEY) {
+                timeTenths = Math.round(b.getFloat() * 10.0);
+                for (int i = 0; i < tenths.length; i++) {
+                    if ((mask & (1 << i)) == 0) continue;
+                    float v = b.getFloat();
+                    nan[i] = Float.isNaN(v);
+                    tenths[i] = nan[i] ? 0 : Math.round(v * 10.0);
+                }
+            } else if (lastType == LcdFrameEncoder.TYPE_DELTA) {
+                timeTenths += b.getShort();
+                for (int i = 0; i < tenths.length; i++) {
+                    if ((mask & (1 << i)) != 0) tenths[i] += b.getShort();
+                }
+            }
+        }
+    }
+
+    @Test
+    void parsesChannelSubsets() {
+        assertEquals(LcdFrameEncoder.ALL_CHANNELS, LcdFrameEncoder.parseMask(null));
+        assertEquals(LcdFrameEncoder.ALL_CHANNELS, LcdFrameEncoder.parseMask("all"));
+        assertEquals(0b11, LcdFrameEncoder.parseMask("bt, ET"));
+        assertEquals(1 << 6, LcdFrameEncoder.parseMask("x3"));
+        assertThrows(IllegalArgumentException.class, () -> LcdFrameEncoder.parseMask("bt,gas"));
+    }
+
+    @Test
+    void deltasReconstructQuantizedValuesAndKeyFramesResync() {
+        int mask = LcdFrameEncoder.parseMask("bt,et,rorbt,x1");
+        LcdFrameEncoder enc = new LcdFrameEncoder(mask);
+        Decoder dec = new Decoder();
+        List<Integer> types = new ArrayList<>();
+        for (int k = 0; k < 130; k++) {
+            double t = k * 1.0;
+            double[] v = { 150 + 0.37 * k, 220 - 0.11 * k, 9.87 - 0.05 * k, 0, 55.55 + (k % 7) };
+            byte[] frame = enc.encode(new LcdFrameEncoder.Sample(t, v));
+            dec.accept(frame);
+            types.add(dec.lastType);
+            assertEquals(Math.round(t * 10), dec.timeTenths);
+            assertEquals(Math.round(v[0] * 10), dec.tenths[0]);
+            assertEquals(Math.round(v[1] * 10), dec.tenths[1]);
+            assertEquals(Math.round(v[2] * 10), dec.tenths[2]);
+            assertEquals(Math.round(v[4] * 10), dec.tenths[4]);
+        }
+        assertEquals(LcdFrameEncoder.TYPE_KEY, types.get(0));
+        assertEquals(LcdFrameEncoder.TYPE_DELTA, types.get(1));
+        assertEquals(LcdFrameEncoder.TYPE_KEY, types.get(LcdFrameEncoder.KEYFRAME_INTERVAL));
+        assertEquals(3, types.stream().filter(t -> t == LcdFrameEncoder.TYPE_KEY).count());
+    }
+
+    @Test
+    void deltaFramesAreCompactAndUnchangedSamplesAreSkipped() {
+        LcdFrameEncoder enc = new LcdFrameEncoder(LcdFrameEncoder.parseMask("bt,et"));
+        byte[] key = enc.encode(new LcdFrameEncoder.Sample(10, new double[] { 200, 210 }));
+        assertEquals(4 + 4 + 4 + 8, key.length);
+        byte[] delta = enc.encode(new LcdFrameEncoder.Sample(11, new double[] { 200.5, 210 }));
+        assertEquals(4 + 4 + 2 + 2, delta.length);
+        assertNull(enc.encode(new LcdFrameEncoder.Sample(11, new double[] { 200.5, 210.01 })));
+    }
+
+    @Test
+    void nanAndLargeJumpsForceKeyFrame() {
+        LcdFrameEncoder enc = new LcdFrameEncoder(LcdFrameEncoder.parseMask("bt"));
+        Decoder dec = new Decoder();
+        dec.accept(enc.encode(new LcdFrameEncoder.Sample(0, new double[] { 20 })));
+        dec.accept(enc.encode(new LcdFrameEncoder.Sample(1, new double[] { Double.NaN })));
+        assertEquals(LcdFrameEncoder.TYPE_KEY, dec.lastType);
+        assertTrue(dec.nan[0]);
+        dec.accept(enc.encode(new LcdFrameEncoder.Sample(2, new double[] { 30 })));
+        assertEquals(LcdFrameEncoder.TYPE_KEY, dec.lastType);
+        dec.accept(enc.encode(new LcdFrameEncoder.Sample(3, new double[] { 5000 })));
+        assertEquals(LcdFrameEncoder.TYPE_KEY, dec.lastType);
+        assertEquals(50000, dec.tenths[0]);
+    }
+
+    @Test
+    void eventAndPhaseFramesCarryUtf8Labels() {
+        LcdFrameEncoder enc = new LcdFrameEncoder(LcdFrameEncoder.ALL_CHANNELS);
+        byte[] ev = enc.encodeEvent("FC START", 512.5, 198.2);
+        ByteBuffer b = ByteBuffer.wrap(ev).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(LcdFrameEncoder.TYPE_EVENT, b.get());
+        b.get();
+        assertEquals(0, b.getShort());
+        assertEquals(512.5f, b.getFloat());
+        assertEquals(198.2f, b.getFloat());
+        byte[] label = new byte[b.get()];
+        b.get(label);
+        assertArrayEquals("FC START".getBytes(), label);
+        byte[] phase = enc.encodePhase("ROASTING");
+        assertEquals(LcdFrameEncoder.TYPE_PHASE, phase[0]);
+        assertEquals(1, phase[2]);
+        assertEquals(8, phase[4]);
+    }
+}
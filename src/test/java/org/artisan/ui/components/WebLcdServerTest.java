@@ -0,0 +1,460 @@
+package org.artisan.ui.components;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for WebLcdServer: frame encoding, 200 concurrent SSE clients, eviction of dead and
+ * stalled clients without blocking broadcast, WebSocket frames, /curve and /metrics.
+ */
+class WebLcdServerTest {
+
+    /** Broadcast only enqueues; a blocking write to a stalled client would take seconds. */
+    private static final long MAX_BROADCAST_MS = 50;
+
+    private WebLcdServer server;
+    private final List<Socket> sockets = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Socket s : sockets) {
+            try { s.close(); } catch (IOException ignored) {}
+        }
+        if (server != null) server.stop();
+    }
+
+    private WebLcdServer startServer() {
+        server = new WebLcdServer(0);
+        server.setMinSendInterval(0);
+        server.start();
+        assertTrue(server.isRunning());
+        return server;
+    }
+
+    private Socket connect(int receiveBuffer) throws IOException {
+        Socket s = new Socket();
+        if (receiveBuffer > 0) s.setReceiveBufferSize(receiveBuffer);
+        s.connect(new InetSocketAddress("127.0.0.1", server.getPort()), 5000);
+        sockets.add(s);
+        OutputStream out = s.getOutputStream();
+        out.write("GET /lcd HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return s;
+    }
+
+    private static void awaitClients(WebLcdServer srv, int n) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (srv.getClientCount() != n && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(n, srv.getClientCount());
+    }
+
+    /** Reads until {@code marker} appears in the stream. */
+    private static boolean readUntil(Socket s, String marker) {
+        byte[] want = marker.getBytes(StandardCharsets.US_ASCII);
+        byte[] buf = new byte[4096];
+        byte[] window = new byte[buf.length + want.length];
+        int carry = 0;
+        try {
+            InputStream in = s.getInputStream();
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                System.arraycopy(buf, 0, window, carry, n);
+                int len = carry + n;
+                for (int i = 0; i + want.length <= len; i++) {
+                    if (Arrays.equals(window, i, i + want.length, want, 0, want.length)) return true;
+                }
+                carry = Math.min(want.length - 1, len);
+                System.arraycopy(window, len - carry, window, 0, carry);
+            }
+        } catch (IOException ignored) {
+        }
+        return false;
+    }
+
+    @Test
+    void broadcastSampleFormatsTenthsWithoutLocale() {
+        StringBuilder sb = new StringBuilder();
+        WebLcdServer.appendTenths(sb, 200.46);
+        sb.append(' ');
+        WebLcdServer.appendTenths(sb, -0.35);
+        sb.append(' ');
+        WebLcdServer.appendTenths(sb, 7.0);
+        sb.append(' ');
+        WebLcdServer.appendTenths(sb, Double.NaN);
+        assertEquals("200.5 -0.4 7.0 null", sb.toString());
+    }
+
+    @Test
+    void twoHundredClientsReceiveLatestFrameWhileBroadcastStaysNonBlocking() throws Exception {
+        startServer();
+        int clients = 200;
+        int frames = 50;
+        for (int i = 0; i < clients; i++) connect(0);
+        awaitClients(server, clients);
+
+        ExecutorService readers = Executors.newFixedThreadPool(clients);
+        CountDownLatch done = new CountDownLatch(clients);
+        for (Socket s : sockets) {
+            readers.execute(() -> {
+                if (readUntil(s, "\"seq\":" + (frames - 1) + "}")) done.countDown();
+            });
+        }
+        long maxBroadcastNanos = 0;
+        for (int i = 0; i < frames; i++) {
+            long t0 = System.nanoTime();
+            server.broadcast("{\"bt\":200.0,\"seq\":" + i + "}");
+            maxBroadcastNanos = Math.max(maxBroadcastNanos, System.nanoTime() - t0);
+            Thread.sleep(2);
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS), "clients still waiting: " + done.getCount());
+        readers.shutdownNow();
+        assertTrue(maxBroadcastNanos < TimeUnit.MILLISECONDS.toNanos(MAX_BROADCAST_MS),
+            "broadcast took " + maxBroadcastNanos / 1e6 + " ms");
+        assertEquals(clients, server.getClientCount());
+        assertEquals(0, server.getEvictedClients());
+    }
+
+    @Test
+    void disconnectedClientIsEvicted() throws Exception {
+        startServer();
+        Socket s = connect(0);
+        awaitClients(server, 1);
+        s.close();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.getClientCount() > 0 && System.nanoTime() < deadline) {
+            server.broadcast("{\"bt\":1.0}");
+            Thread.sleep(20);
+        }
+        assertEquals(0, server.getClientCount());
+        assertEquals(1, server.getEvictedClients());
+    }
+
+    @Test
+    void stalledClientIsEvictedAndDoesNotDelayOthers() throws Exception {
+        startServer();
+        server.setWriteStallTimeout(300);
+        connect(4096); // never read
+        Socket live = connect(0);
+        awaitClients(server, 2);
+        CountDownLatch liveGotLast = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            if (readUntil(live, "\"last\":true")) liveGotLast.countDown();
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        char[] pad = new char[64 * 1024];
+        Arrays.fill(pad, 'x');
+        String big = "{\"pad\":\"" + new String(pad) + "\"}";
+        long maxBroadcastNanos = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (server.getEvictedClients() == 0 && System.nanoTime() < deadline) {
+            long t0 = System.nanoTime();
+            server.broadcast(big);
+            maxBroadcastNanos = Math.max(maxBroadcastNanos, System.nanoTime() - t0);
+            Thread.sleep(5);
+        }
+        assertEquals(1, server.getEvictedClients());
+        assertEquals(1, server.getClientCount());
+        assertTrue(server.getDroppedFrames() > 0);
+        assertTrue(maxBroadcastNanos < TimeUnit.MILLISECONDS.toNanos(MAX_BROADCAST_MS),
+            "broadcast took " + maxBroadcastNanos / 1e6 + " ms");
+        server.broadcast("{\"last\":true}");
+        assertTrue(liveGotLast.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void evictedClientResponseIsClosedOnceItsWriteReturns() throws Exception {
+        startServer();
+        server.setWriteStallTimeout(300);
+        Socket stalled = connect(4096);
+        awaitClients(server, 1);
+        char[] pad = new char[64 * 1024];
+        Arrays.fill(pad, 'x');
+        String big = "{\"pad\":\"" + new String(pad) + "\"}";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (server.getEvictedClients() == 0 && System.nanoTime() < deadline) {
+            server.broadcast(big);
+            Thread.sleep(5);
+        }
+        assertEquals(1, server.getEvictedClients());
+        // Draining unblocks the writer, which must end the chunked response (last chunk).
+        stalled.setSoTimeout(10_000);
+        assertTrue(readUntil(stalled, "\r\n0\r\n\r\n"));
+    }
+
+    /** Opens a WebSocket to /ws?query, checks the 101 handshake and returns the socket. */
+    private Socket openWebSocket(String query) throws IOException {
+        Socket s = new Socket("127.0.0.1", server.getWebSocketPort());
+        sockets.add(s);
+        s.setSoTimeout(10_000);
+        String key = "dGhlIHNhbXBsZSBub25jZQ==";
+        s.getOutputStream().write(("GET /ws?" + query + " HTTP/1.1\r\nHost: localhost\r\nUpgrade: websocket\r\n"
+            + "Connection: Upgrade\r\nSec-WebSocket-Key: " + key + "\r\nSec-WebSocket-Version: 13\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII));
+        StringBuilder head = new StringBuilder();
+        InputStream in = s.getInputStream();
+        while (!head.toString().endsWith("\r\n\r\n")) head.append((char) in.read());
+        assertTrue(head.toString().startsWith("HTTP/1.1 101"), head.toString());
+        assertTrue(head.toString().contains("s3pPLMBiTxaQ9kYGzzhZRbK+xOo="), head.toString());
+        return s;
+    }
+
+    @Test
+    void webSocketWithoutHandshakeIsDroppedAfterTimeout() throws Exception {
+        try (LcdWebSocketServer ws = new LcdWebSocketServer(0)) {
+            ws.setHandshakeTimeout(200);
+            try (Socket s = new Socket("127.0.0.1", ws.getPort())) {
+                s.setSoTimeout(10_000);
+                s.getOutputStream().write("GET /ws HTTP/1.1\r\n".getBytes(StandardCharsets.US_ASCII));
+                long t0 = System.nanoTime();
+                assertEquals(-1, s.getInputStream().read());
+                assertTrue(System.nanoTime() - t0 < TimeUnit.SECONDS.toNanos(5));
+            }
+        }
+    }
+
+    @Test
+    void webSocketWithOtherVersionGets426() throws Exception {
+        startServer();
+        try (Socket s = new Socket("127.0.0.1", server.getWebSocketPort())) {
+            s.setSoTimeout(10_000);
+            s.getOutputStream().write(("GET /ws HTTP/1.1\r\nHost: localhost\r\nUpgrade: websocket\r\n"
+                + "Connection: Upgrade\r\nSec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                + "Sec-WebSocket-Version: 8\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            String response = new String(s.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+            assertTrue(response.startsWith("HTTP/1.1 426"), response);
+            assertTrue(response.contains("Sec-WebSocket-Version: 13"), response);
+        }
+    }
+
+    @Test
+    void oversizedControlFrameIsRejected() throws Exception {
+        byte[] frame = new byte[2 + 2 + 4 + 126];
+        frame[0] = (byte) (0x80 | WebSocketCodec.OP_PING);
+        frame[1] = (byte) (0x80 | 126);
+        frame[3] = 126;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        IOException e = assertThrows(IOException.class,
+            () -> WebSocketCodec.readFrame(in, 4096));
+        assertTrue(e.getMessage().contains("Control frame"), e.getMessage());
+
+        frame = new byte[2 + 4 + 125];
+        frame[0] = (byte) (0x80 | WebSocketCodec.OP_PING);
+        frame[1] = (byte) (0x80 | 125);
+        WebSocketCodec.Frame ping = WebSocketCodec.readFrame(
+            new DataInputStream(new ByteArrayInputStream(frame)), 4096);
+        assertEquals(125, ping.payload().length);
+    }
+
+    @Test
+    void errorJsonEscapesQuotesBackslashesAndControlCharacters() throws Exception {
+        String json = LcdWebSocketServer.errorJson("Unknown channel: \"a\\b\"\n\u0001");
+        assertEquals("{\"error\":\"Unknown channel: \\\"a\\\\b\\\"\\n\\u0001\"}", json);
+        assertEquals("Unknown channel: \"a\\b\"\n\u0001",
+            new ObjectMapper().readTree(json).get("error").asText());
+        assertEquals("{\"error\":\"null\"}", LcdWebSocketServer.errorJson(null));
+    }
+
+    /** Reads one unmasked server frame; returns {opcode, payload...}. */
+    private static byte[] readServerFrame(Socket s) throws IOException {
+        java.io.DataInputStream in = new java.io.DataInputStream(s.getInputStream());
+        int op = in.readUnsignedByte() & 0x0F;
+        int len = in.readUnsignedByte() & 0x7F;
+        if (len == 126) len = in.readUnsignedShort();
+        byte[] out = new byte[len + 1];
+        out[0] = (byte) op;
+        in.readFully(out, 1, len);
+        return out;
+    }
+
+    private static void sendMaskedText(Socket s, String text) throws IOException {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        byte[] mask = { 1, 2, 3, 4 };
+        OutputStream out = s.getOutputStream();
+        out.write(0x81);
+        out.write(0x80 | payload.length);
+        out.write(mask);
+        for (int i = 0; i < payload.length; i++) out.write(payload[i] ^ mask[i & 3]);
+        out.flush();
+    }
+
+    @Test
+    void webSocketStreamsSubscribedChannelsEventsAndPhase() throws Exception {
+        startServer();
+        assertTrue(server.getWebSocketPort() > 0);
+        Socket ws = openWebSocket("channels=bt,x1");
+        byte[] hello = readServerFrame(ws);
+        assertEquals(WebSocketCodec.OP_TEXT, hello[0]);
+        String helloText = new String(hello, 1, hello.length - 1, StandardCharsets.UTF_8);
+        assertTrue(helloText.contains("\"mask\":17"), helloText);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (server.getWebSocketClientCount() == 0 && System.nanoTime() < deadline) Thread.sleep(5);
+
+        server.publishSample(1.0, 150.0, 180.0, 12.0, 8.0, new double[] { 42.0 });
+        byte[] key = readServerFrame(ws);
+        assertEquals(WebSocketCodec.OP_BINARY, key[0]);
+        assertEquals(LcdFrameEncoder.TYPE_KEY, key[1]);
+        LcdFrameEncoderTest.Decoder dec = new LcdFrameEncoderTest.Decoder();
+        dec.accept(Arrays.copyOfRange(key, 1, key.length));
+        assertEquals(1500, dec.tenths[0]);
+        assertEquals(420, dec.tenths[4]);
+
+        server.publishSample(2.0, 151.0, 181.0, 12.0, 8.0, new double[] { 42.0 });
+        byte[] delta = readServerFrame(ws);
+        assertEquals(LcdFrameEncoder.TYPE_DELTA, delta[1]);
+        dec.accept(Arrays.copyOfRange(delta, 1, delta.length));
+        assertEquals(1510, dec.tenths[0]);
+
+        server.publishEvent("FC START", 2.0, 151.0);
+        assertEquals(LcdFrameEncoder.TYPE_EVENT, readServerFrame(ws)[1]);
+        server.publishPhase("ROASTING");
+        assertEquals(LcdFrameEncoder.TYPE_PHASE, readServerFrame(ws)[1]);
+
+        sendMaskedText(ws, "channels=et&rate=1");
+        byte[] resub = readServerFrame(ws);
+        assertEquals(WebSocketCodec.OP_TEXT, resub[0]);
+        byte[] rekey = readServerFrame(ws);
+        assertEquals(LcdFrameEncoder.TYPE_KEY, rekey[1]);
+        dec.accept(Arrays.copyOfRange(rekey, 1, rekey.length));
+        assertEquals(1810, dec.tenths[1]);
+
+        // rate=1: a burst of samples within one second is coalesced to the latest
+        for (int i = 0; i < 20; i++) server.publishSample(3.0 + i * 0.01, 152, 190 + i, 0, 0, null);
+        byte[] coalesced = readServerFrame(ws);
+        dec.accept(Arrays.copyOfRange(coalesced, 1, coalesced.length));
+        assertEquals(2090, dec.tenths[1]);
+
+        sendMaskedText(ws, "channels=gas");
+        byte[] err = readServerFrame(ws);
+        assertTrue(new String(err, 1, err.length - 1, StandardCharsets.UTF_8).contains("Unknown channel"));
+    }
+
+    @Test
+    void httpWsPathPointsToWebSocketPort() throws Exception {
+        startServer();
+        java.net.HttpURLConnection c = (java.net.HttpURLConnection)
+            new java.net.URL("http://127.0.0.1:" + server.getPort() + "/ws").openConnection();
+        assertEquals(426, c.getResponseCode());
+        String body = new String(c.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals("ws://127.0.0.1:" + server.getWebSocketPort() + "/ws", body);
+    }
+
+    private static CurveSnapshot curve(int n) {
+        double[] t = new double[n];
+        double[] bt = new double[n];
+        double[] et = new double[n];
+        double[] ror = new double[n];
+        for (int i = 0; i < n; i++) {
+            t[i] = i;
+            bt[i] = 100 + i * 0.5;
+            et[i] = 200 + i * 0.25;
+            ror[i] = Double.NaN;
+        }
+        return new CurveSnapshot(t, bt, et, ror, ror, Map.of("CHARGE", 0.0));
+    }
+
+    private java.net.HttpURLConnection get(String query) throws IOException {
+        java.net.HttpURLConnection c = (java.net.HttpURLConnection)
+            new java.net.URL("http://127.0.0.1:" + server.getPort() + "/curve?" + query).openConnection();
+        c.setConnectTimeout(5000);
+        c.setReadTimeout(10_000);
+        return c;
+    }
+
+    @Test
+    void curveRendersRangeSinceAndDownsampling() {
+        CurveSnapshot snap = curve(10);
+        String all = CurveEndpoint.render("live", snap, CurveEndpoint.Query.parse(""));
+        assertTrue(all.startsWith("{\"profile\":\"live\",\"size\":10,\"count\":10,\"last\":9.00,"), all);
+        assertTrue(all.contains("\"bt\":[100.0,100.5,"), all);
+        assertTrue(all.contains("\"rorbt\":[null,"), all);
+        assertTrue(all.endsWith("\"events\":{\"CHARGE\":0.00}}"), all);
+
+        String range = CurveEndpoint.render("live", snap, CurveEndpoint.Query.parse("from=2&to=4"));
+        assertTrue(range.contains("\"count\":3,") && range.contains("\"time\":[2.00,3.00,4.00]"), range);
+        String since = CurveEndpoint.render("live", snap, CurveEndpoint.Query.parse("since=7"));
+        assertTrue(since.contains("\"time\":[8.00,9.00]"), since);
+        String empty = CurveEndpoint.render("live", snap, CurveEndpoint.Query.parse("since=9"));
+        assertTrue(empty.contains("\"count\":0,") && empty.contains("\"time\":[]"), empty);
+
+        String lttb = CurveEndpoint.render("live", curve(1000), CurveEndpoint.Query.parse("points=100"));
+        assertTrue(lttb.contains("\"size\":1000,\"count\":100,"), lttb);
+        assertTrue(lttb.contains("\"time\":[0.00,") && lttb.contains(",999.00],"), lttb);
+    }
+
+    @Test
+    void curveEndpointServesGzipEtagAndNotModified() throws Exception {
+        startServer();
+        CurveSnapshot[] current = { curve(600) };
+        server.setCurveSource("live", () -> current[0]);
+
+        java.net.HttpURLConnection c = get("profile=live");
+        c.setRequestProperty("Accept-Encoding", "gzip");
+        assertEquals(200, c.getResponseCode());
+        assertEquals("gzip", c.getHeaderField("Content-Encoding"));
+        String etag = c.getHeaderField("ETag");
+        String body;
+        try (InputStream in = new java.util.zip.GZIPInputStream(c.getInputStream())) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(body.contains("\"size\":600,\"count\":600,"), body);
+        assertTrue(c.getContentLength() < body.length() / 2);
+
+        java.net.HttpURLConnection again = get("profile=live");
+        again.setRequestProperty("If-None-Match", etag);
+        assertEquals(304, again.getResponseCode());
+
+        current[0] = curve(601);
+        java.net.HttpURLConnection changed = get("profile=live");
+        changed.setRequestProperty("If-None-Match", etag);
+        assertEquals(200, changed.getResponseCode());
+        assertFalse(etag.equals(changed.getHeaderField("ETag")));
+        changed.getInputStream().readAllBytes();
+
+        java.net.HttpURLConnection delta = get("since=599");
+        String deltaBody = new String(delta.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(deltaBody.contains("\"time\":[600.00]"), deltaBody);
+
+        assertEquals(404, get("profile=background").getResponseCode());
+        assertEquals(400, get("points=x").getResponseCode());
+    }
+
+    @Test
+    void metricsEndpointServesPrometheusText() throws Exception {
+        startServer();
+        org.artisan.controller.MetricsRegistry registry = new org.artisan.controller.MetricsRegistry();
+        registry.counter("artisan_test_total", "Test").add(5);
+        server.setMetricsRegistry(registry);
+        java.net.HttpURLConnection c = (java.net.HttpURLConnection)
+            new java.net.URL("http://127.0.0.1:" + server.getPort() + "/metrics").openConnection();
+        assertEquals(200, c.getResponseCode());
+        assertTrue(c.getContentType().startsWith("text/plain; version=0.0.4"));
+        String body = new String(c.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(body.contains("artisan_test_total 5\n"), body);
+        assertTrue(body.contains("artisan_weblcd_clients{transport=\"sse\"} 0\n"), body);
+    }
+}
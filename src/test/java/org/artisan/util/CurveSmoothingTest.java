@@ -0,0 +1,111 @@
+package org.artisan.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for CurveSmoothing.
+ */
+class CurveSmoothingTest {
+
+    /** The direct O(n·w) definition: mean of the finite values in the clipped centered window. */
+    private static double[] reference(double[] y, int window) {
+        int half = CurveSmoothing.halfWindow(window);
+        double[] out = new double[y.length];
+        for (int i = 0; i < y.length; i++) {
+            double sum = 0;
+            int count = 0;
+            for (int j = Math.max(0, i - half); j < Math.min(y.length, i + half + 1); j++) {
+                if (Double.isFinite(y[j])) {
+                    sum += y[j];
+                    count++;
+                }
+            }
+            out[i] = count > 0 ? sum / count : y[i];
+        }
+        return out;
+    }
+
+    /** Roast-like curve with noise, sensor dropouts (NaN, -1 is a value) and an infinite spike. */
+    private static double[] curve(int n, long seed) {
+        Random rnd = new Random(seed);
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = 20 + 200 * (1 - Math.exp(-i / 300.0)) + rnd.nextGaussian();
+            if (rnd.nextInt(40) == 0) y[i] = Double.NaN;
+            if (rnd.nextInt(200) == 0) y[i] = -1;
+        }
+        if (n > 50) {
+            Arrays.fill(y, 20, 40, Double.NaN);
+            y[45] = Double.POSITIVE_INFINITY;
+        }
+        return y;
+    }
+
+    private static void assertClose(double[] expected, double[] actual, int from, int n, String msg) {
+        for (int i = from; i < n; i++) {
+            if (Double.isNaN(expected[i])) {
+                assertTrue(Double.isNaN(actual[i]), msg + " at " + i);
+            } else {
+                assertEquals(expected[i], actual[i], 1e-9 * Math.max(1, Math.abs(expected[i])), msg + " at " + i);
+            }
+        }
+    }
+
+    @Test
+    void slidingWindowMatchesDirectSum() {
+        for (int window : new int[] { 1, 2, 3, 5, 15, 99, 150 }) {
+            for (int n : new int[] { 1, 2, 7, 100, 5000 }) {
+                double[] y = curve(n, window * 31L + n);
+                double[] out = new double[n];
+                CurveSmoothing.smooth(y, n, window, 0, out);
+                assertClose(reference(y, window), out, 0, n, "window " + window + " n " + n);
+            }
+        }
+        double[] allNan = { Double.NaN, Double.NaN, Double.NaN, Double.NEGATIVE_INFINITY };
+        double[] out = new double[4];
+        CurveSmoothing.smooth(allNan, 4, 3, 0, out);
+        assertTrue(Double.isNaN(out[0]));
+        assertEquals(Double.NEGATIVE_INFINITY, out[3], 0.0);
+    }
+
+    @Test
+    void listVariantKeepsNullsAndEmptyWindows() {
+        List<Double> y = new ArrayList<>(Arrays.asList(1.0, null, 3.0, null, null, null, null, 8.0));
+        List<Double> s = CurveSmoothing.smooth(y, 3);
+        assertEquals(y.size(), s.size());
+        assertEquals(1.0, s.get(0), 1e-12);
+        assertEquals(2.0, s.get(1), 1e-12);
+        assertEquals(3.0, s.get(3), 1e-12);
+        assertNull(s.get(4), "empty window keeps the input element");
+        assertEquals(8.0, s.get(6), 1e-12);
+        assertEquals(List.of(1.0, 2.0), CurveSmoothing.smooth(List.of(1.0, 2.0), 1));
+        assertTrue(CurveSmoothing.smooth(List.of(), 5).isEmpty());
+    }
+
+    @Test
+    void appendedUpdatesMatchFullPass() {
+        int n = 3000;
+        double[] y = curve(n, 11);
+        for (int window : new int[] { 1, 7, 31 }) {
+            double[] live = new double[n];
+            int size = 0;
+            Random rnd = new Random(window);
+            while (size < n) {
+                int grown = Math.min(n, size + 1 + rnd.nextInt(5));
+                int from = CurveSmoothing.smoothAppended(y, size, grown, window, live);
+                assertEquals(Math.max(0, size - CurveSmoothing.halfWindow(window)), from);
+                size = grown;
+                assertClose(reference(Arrays.copyOf(y, size), window), live, 0, size, "window " + window);
+            }
+        }
+    }
+}
@@ -2,6 +2,12 @@ package org.artisan.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -87,4 +93,150 @@ class LiveFilterTest {
         assertEquals(10.0, f.process(10.0), 1e-10);
         assertEquals(20.0, f.process(20.0), 1e-10);
     }
+
+    @Test
+    void liveMedianMatchesSortedWindow() {
+        for (int k : new int[]{1, 3, 5, 7, 15, 31}) {
+            assertSameOutput("median k=" + k, new LiveMedian(k), referenceMedian(k), samples(k));
+        }
+    }
+
+    @Test
+    void liveMeanMatchesReference() {
+        for (int k : new int[]{1, 2, 5, 16}) {
+            assertSameOutput("mean k=" + k, new LiveMean(k), referenceMean(k), samples(k));
+        }
+    }
+
+    @Test
+    void liveLFilterAndSosMatchReference() {
+        double[] b = {0.2, 0.3, -0.1, 0.05};
+        double[] a = {1.5, -0.4, 0.1};
+        assertSameOutput("lfilter", new LiveLFilter(b, a), referenceLFilter(b, a), samples(0));
+        double[][] sos = {IirFilterDesign.butter1LowpassSos(1.0, 0.1)[0], {0.5, 0.2, 0.1, 1.0, -0.3, 0.05}};
+        assertSameOutput("sos", new LiveSosFilter(sos), referenceSos(sos), samples(0));
+    }
+
+    @Test
+    void resetRestartsEveryFilter() {
+        double[][] sos = IirFilterDesign.butter1LowpassSos(2.0, 0.35);
+        LiveFilter[] filters = {
+            new LiveMean(5), new LiveMedian(5), new LiveLFilter(new double[]{0.5, 0.5}, new double[]{1.0, -0.2}),
+            new LiveSosFilter(sos)
+        };
+        double[] xs = samples(5);
+        for (LiveFilter f : filters) {
+            double[] first = new double[xs.length];
+            for (int i = 0; i < xs.length; i++) {
+                first[i] = f.process(xs[i]);
+            }
+            f.reset();
+            for (int i = 0; i < xs.length; i++) {
+                assertEquals(first[i], f.process(xs[i]), 0.0, f.getClass().getSimpleName() + " sample " + i);
+            }
+        }
+    }
+
+    /** Roast-like ramp with noise, spikes, repeated values, signed zeros and NaN gaps. */
+    private static double[] samples(int seed) {
+        Random rnd = new Random(seed);
+        double[] xs = new double[2000];
+        for (int i = 0; i < xs.length; i++) {
+            double v = switch (rnd.nextInt(12)) {
+                case 0 -> Math.round(rnd.nextGaussian() * 3) / 2.0;
+                case 1 -> rnd.nextBoolean() ? 0.0 : -0.0;
+                case 2 -> rnd.nextDouble() * 1000 - 500;
+                case 3 -> Double.NaN;
+                default -> 150 + i * 0.05 + rnd.nextGaussian();
+            };
+            xs[i] = v;
+        }
+        return xs;
+    }
+
+    private static void assertSameOutput(String name, LiveFilter filter, DoubleUnaryOperator reference, double[] xs) {
+        for (int i = 0; i < xs.length; i++) {
+            double expected = Double.isNaN(xs[i]) ? xs[i] : reference.applyAsDouble(xs[i]);
+            assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(filter.process(xs[i])),
+                name + " sample " + i);
+        }
+    }
+
+    // Reference implementations: the boxed list versions the filters were ported with.
+
+    private static DoubleUnaryOperator referenceMedian(int k) {
+        List<Double> window = new ArrayList<>();
+        List<Double> sorted = new ArrayList<>();
+        double[] total = {0.0};
+        return x -> {
+            if (window.size() < k && sorted.isEmpty()) {
+                window.add(x);
+                total[0] += x;
+                if (window.size() < k) {
+                    return total[0] / window.size();
+                }
+                double mean = total[0] / window.size();
+                sorted.addAll(window);
+                Collections.sort(sorted);
+                return mean;
+            }
+            double old = window.remove(0);
+            window.add(x);
+            sorted.remove(Collections.binarySearch(sorted, old));
+            int at = Collections.binarySearch(sorted, x);
+            sorted.add(at < 0 ? -(at + 1) : at, x);
+            return sorted.get((k - 1) / 2);
+        };
+    }
+
+    private static DoubleUnaryOperator referenceMean(int k) {
+        List<Double> window = new ArrayList<>();
+        double[] total = {0.0};
+        return x -> {
+            if (window.size() < k) {
+                window.add(x);
+                total[0] += x;
+                return total[0] / window.size();
+            }
+            total[0] -= window.remove(0);
+            total[0] += x;
+            window.add(x);
+            return total[0] / k;
+        };
+    }
+
+    private static DoubleUnaryOperator referenceLFilter(double[] b, double[] a) {
+        double[] xs = new double[b.length];
+        double[] ys = new double[a.length - 1];
+        int[] heads = new int[2];
+        return x -> {
+            xs[heads[0]] = x;
+            heads[0] = (heads[0] + 1) % xs.length;
+            double y = 0.0;
+            for (int i = 0; i < b.length; i++) {
+                y += b[i] * xs[(heads[0] - 1 - i + xs.length * 2) % xs.length];
+            }
+            for (int i = 0; i < ys.length; i++) {
+                y -= a[i + 1] * ys[(heads[1] - 1 - i + ys.length * 2) % ys.length];
+            }
+            y /= a[0];
+            ys[heads[1]] = y;
+            heads[1] = (heads[1] + 1) % ys.length;
+            return y;
+        };
+    }
+
+    private static DoubleUnaryOperator referenceSos(double[][] sos) {
+        double[][] state = new double[sos.length][2];
+        return x -> {
+            double y = 0.0;
+            for (int s = 0; s < sos.length; s++) {
+                y = sos[s][0] * x + state[s][0];
+                state[s][0] = sos[s][1] * x - sos[s][4] * y + state[s][1];
+                state[s][1] = sos[s][2] * x - sos[s][5] * y;
+                x = y;
+            }
+            return y;
+        };
+    }
 }
@@ -0,0 +1,57 @@
+package org.artisan.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for Lttb.
+ */
+class LttbTest {
+
+    @Test
+    void keepsAllWhenThresholdCoversRange() {
+        double[] x = { 0, 1, 2, 3 };
+        double[] y = { 5, 6, 7, 8 };
+        assertArrayEquals(new int[] { 1, 2, 3 }, Lttb.select(x, y, 1, 4, 10));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, Lttb.select(x, y, 0, 4, 2));
+        assertEquals(0, Lttb.select(x, y, 2, 2, 5).length);
+    }
+
+    @Test
+    void keepsEndpointsAndPeak() {
+        int n = 1000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = 100 + 0.01 * i;
+        }
+        y[537] = 500; // spike must survive
+        int[] idx = Lttb.select(x, y, 0, n, 50);
+        assertEquals(50, idx.length);
+        assertEquals(0, idx[0]);
+        assertEquals(n - 1, idx[49]);
+        boolean peak = false;
+        for (int i = 0; i < idx.length; i++) {
+            if (i > 0) assertTrue(idx[i] > idx[i - 1]);
+            if (idx[i] == 537) peak = true;
+        }
+        assertTrue(peak);
+    }
+
+    @Test
+    void toleratesNaN() {
+        double[] x = new double[100];
+        double[] y = new double[100];
+        for (int i = 0; i < 100; i++) {
+            x[i] = i;
+            y[i] = i < 30 ? Double.NaN : Math.sin(i / 10.0);
+        }
+        int[] idx = Lttb.select(x, y, 0, 100, 10);
+        assertEquals(10, idx.length);
+        assertEquals(99, idx[9]);
+    }
+}
@@ -0,0 +1,91 @@
+package org.artisan.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for SavitzkyGolayFilter and LiveSavitzkyGolay.
+ */
+class SavitzkyGolayFilterTest {
+
+    @Test
+    void cachedCoefficientsMatchClassicTables() {
+        // Window 5, order 2: (-3, 12, 17, 12, -3) / 35; first derivative: (-2, -1, 0, 1, 2) / 10
+        assertArrayEquals(new double[] { -3 / 35.0, 12 / 35.0, 17 / 35.0, 12 / 35.0, -3 / 35.0 },
+            SavitzkyGolayFilter.coefficients(5, 2, 0, 2), 1e-12);
+        assertArrayEquals(new double[] { -0.2, -0.1, 0, 0.1, 0.2 }, SavitzkyGolayFilter.coefficients(5, 2, 1, 2), 1e-12);
+        assertArrayEquals(SavitzkyGolayFilter.computeCoefficients(7, 3), SavitzkyGolayFilter.coefficients(7, 3, 0, 3));
+
+        double[] a = SavitzkyGolayFilter.coefficients(9, 2, 1, 0);
+        double[] b = SavitzkyGolayFilter.coefficients(9, 2, 1, 0);
+        assertArrayEquals(a, b);
+        assertNotSame(a, b);
+        a[0] = 99;
+        assertEquals(b[0], SavitzkyGolayFilter.coefficients(9, 2, 1, 0)[0], 0.0, "cache is not exposed");
+
+        assertThrows(IllegalArgumentException.class, () -> SavitzkyGolayFilter.coefficients(5, 5, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> SavitzkyGolayFilter.coefficients(5, 2, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new LiveSavitzkyGolay(5, 2, 1, 0, 0.0));
+    }
+
+    @Test
+    void laggedLiveFilterMatchesCenteredBatch() {
+        Random rnd = new Random(3);
+        double[] data = new double[500];
+        for (int i = 0; i < data.length; i++) data[i] = 150 + i * 0.1 + rnd.nextGaussian();
+        for (SavitzkyGolayFilter.Preset preset : SavitzkyGolayFilter.Preset.values()) {
+            int w = preset.windowSize;
+            int half = w / 2;
+            double[] batch = SavitzkyGolayFilter.filter(data, preset);
+            LiveSavitzkyGolay live = new LiveSavitzkyGolay(w, preset.polyOrder, 0, half, 1.0);
+            for (int t = 0; t < data.length; t++) {
+                double y = live.process(data[t]);
+                if (t >= w - 1) {
+                    assertEquals(batch[t - half], y, 0.0, preset + " at " + t);
+                }
+            }
+        }
+    }
+
+    @Test
+    void causalFitIsExactOnPolynomials() {
+        double dt = 0.1;
+        LiveSavitzkyGolay smooth = new LiveSavitzkyGolay(9, 2);
+        LiveSavitzkyGolay rate = new LiveSavitzkyGolay(9, 2, 1, 0, dt);
+        LiveSavitzkyGolay accel = new LiveSavitzkyGolay(9, 2, 2, 3, dt);
+        LiveSavitzkyGolay ror = LiveSavitzkyGolay.rateOfRise(15, 1, dt);
+        for (int i = 0; i < 100; i++) {
+            double t = i * dt;
+            double y = 20 + 3 * t + 0.5 * t * t;
+            double s = smooth.process(y);
+            double r = rate.process(y);
+            double a = accel.process(y);
+            double q = ror.process(100 + 0.2 * t);
+            if (i >= 2) {
+                assertEquals(y, s, 1e-9, "value at " + i);
+                assertEquals(3 + t, r, 1e-9, "slope at " + i);
+                assertEquals(1.0, a, 1e-6, "curvature at " + i);
+            }
+            if (i >= 1) assertEquals(12.0, q, 1e-9, "RoR in degrees per minute at " + i);
+        }
+        assertTrue(Double.isNaN(rate.process(Double.NaN)));
+    }
+
+    @Test
+    void resetStartsOver() {
+        LiveSavitzkyGolay f = new LiveSavitzkyGolay(7, 2, 1, 0, 1.0);
+        double[] first = new double[40];
+        for (int i = 0; i < first.length; i++) first[i] = f.process(Math.sin(i * 0.3) * 10);
+        f.reset();
+        for (int i = 0; i < first.length; i++) {
+            assertEquals(first[i], f.process(Math.sin(i * 0.3) * 10), 0.0, "sample " + i);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.artisan.view.chart;
+
+import org.artisan.model.AxisConfig;
+import org.artisan.model.CanvasData;
+import org.artisan.model.RorCalculator;
+import org.artisan.util.CurveSmoothing;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for LiveCurveBuffer: incremental sync must match the full-series chart path.
+ */
+class LiveCurveBufferTest {
+
+    private static final double EPS = 1e-9;
+
+    private static void addSample(CanvasData cd, int i, Random rnd) {
+        double bt = i < 60 ? 200 - i * 1.5 : 110 + (i - 60) * 0.25 + rnd.nextGaussian() * 0.3;
+        double et = 230 + 10 * Math.sin(i / 30.0);
+        if (i == 90) bt = Double.NaN;
+        if (i == 120) et = -1;
+        cd.addDataPoint(i == 40 ? 39.0 : i, bt, et);
+    }
+
+    /** Same computation RoastChartController did on every frame before the incremental path. */
+    private static void assertMatchesFullPath(CanvasData cd, LiveCurveBuffer buf,
+                                              int smoothDelta, int smoothEt, int smoothBt, boolean f) {
+        List<Double> timex = cd.getTimex();
+        List<Double> temp1 = cd.getTemp1();
+        List<Double> temp2 = cd.getTemp2();
+        RorCalculator calc = new RorCalculator();
+        List<Double> d1 = calc.computeRoRSmoothed(timex, temp1, smoothDelta);
+        List<Double> d2 = calc.computeRoRSmoothed(timex, temp2, smoothDelta);
+        RorCalculator.clampRoR(d1, RorCalculator.DEFAULT_MIN_ROR, RorCalculator.DEFAULT_MAX_ROR);
+        RorCalculator.clampRoR(d2, RorCalculator.DEFAULT_MIN_ROR, RorCalculator.DEFAULT_MAX_ROR);
+        List<Double> et = smoothEt > 1 ? CurveSmoothing.smooth(temp1, smoothEt) : temp1;
+        List<Double> bt = smoothBt > 1 ? CurveSmoothing.smooth(temp2, smoothBt) : temp2;
+
+        assertEquals(timex.size(), buf.size());
+        for (int i = 0; i < timex.size(); i++) {
+            assertEquals(timex.get(i), buf.timex()[i], 0.0);
+            assertEquals(display(et.get(i), f), buf.etDisplay()[i], EPS);
+            assertEquals(display(bt.get(i), f), buf.btDisplay()[i], EPS);
+            assertEquals(d1.get(i), buf.rorEt()[i], EPS);
+            assertEquals(d2.get(i), buf.rorBt()[i], EPS);
+        }
+    }
+
+    private static double display(double v, boolean f) {
+        if (v == -1) return Double.NaN;
+        return f && Double.isFinite(v) ? AxisConfig.celsiusToFahrenheit(v) : v;
+    }
+
+    @Test
+    void incrementalSyncMatchesFullRecompute() {
+        CanvasData cd = new CanvasData();
+        LiveCurveBuffer buf = new LiveCurveBuffer();
+        Random rnd = new Random(11);
+        int i = 0;
+        while (i < 400) {
+            int batch = 1 + (i % 3);
+            for (int k = 0; k < batch; k++) addSample(cd, i++, rnd);
+            int from = buf.sync(cd, 5, 7, 4, false);
+            assertTrue(from <= i - batch, "only the tail may change");
+            assertMatchesFullPath(cd, buf, 5, 7, 4, false);
+        }
+    }
+
+    @Test
+    void onlyTrailingWindowIsRewritten() {
+        CanvasData cd = new CanvasData();
+        LiveCurveBuffer buf = new LiveCurveBuffer();
+        Random rnd = new Random(5);
+        for (int i = 0; i < 100; i++) addSample(cd, i, rnd);
+        assertEquals(0, buf.sync(cd, 9, 1, 1, false));
+        assertTrue(buf.wasFullRebuild());
+        addSample(cd, 100, rnd);
+        assertEquals(100 - 4, buf.sync(cd, 9, 1, 1, false));
+        assertFalse(buf.wasFullRebuild());
+        assertEquals(101, buf.sync(cd, 9, 1, 1, false));
+    }
+
+    @Test
+    void settingsChangeAndReplacedDataRebuild() {
+        CanvasData cd = new CanvasData();
+        LiveCurveBuffer buf = new LiveCurveBuffer();
+        Random rnd = new Random(2);
+        for (int i = 0; i < 150; i++) addSample(cd, i, rnd);
+        buf.sync(cd, 5, 1, 1, false);
+
+        assertEquals(0, buf.sync(cd, 3, 5, 5, true));
+        assertTrue(buf.wasFullRebuild());
+        assertMatchesFullPath(cd, buf, 3, 5, 5, true);
+
+        cd.clear();
+        for (int i = 0; i < 200; i++) addSample(cd, i, new Random(99));
+        assertEquals(0, buf.sync(cd, 3, 5, 5, true));
+        assertMatchesFullPath(cd, buf, 3, 5, 5, true);
+
+        buf.invalidate();
+        assertEquals(0, buf.sync(cd, 3, 5, 5, true));
+        assertTrue(buf.wasFullRebuild());
+    }
+}